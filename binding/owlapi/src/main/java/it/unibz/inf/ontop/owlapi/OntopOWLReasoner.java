@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.owlapi;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.owlapi.connection.OntopOWLConnection;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.ReasonerInternalException;
@@ -11,5 +12,14 @@ public interface OntopOWLReasoner extends OWLReasoner, AutoCloseable {
 
     OntopOWLConnection getConnection() throws ReasonerInternalException;
 
+    /**
+     * First axiom (in the order of the TBox) found violated by the last consistency check, null if none
+     */
     Object getInconsistentAxiom();
+
+    /**
+     * Axioms found violated by the last consistency check, in the order of the TBox.
+     * Only includes the first violated axiom when the check stops at the first violation (default).
+     */
+    ImmutableList<Object> getInconsistentAxioms();
 }
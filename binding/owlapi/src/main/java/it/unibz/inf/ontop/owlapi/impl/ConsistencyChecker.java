@@ -0,0 +1,233 @@
+package it.unibz.inf.ontop.owlapi.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.spec.ontology.*;
+import org.semanticweb.owlapi.model.OWLException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the disjointness and functionality axioms of the TBox against the data.
+ *
+ * Each axiom is turned into graph patterns (probes) matching its violations: one per pair of components
+ * for n-ary disjointness axioms. The probes are checked by batches: one SELECT query per batch,
+ * the UNION of its probes, each one binding the position of its axiom (LIMIT 1).
+ * Batches are evaluated in parallel.
+ *
+ * Unless stopping at the first violation, a batch is re-evaluated without the violated axiom until no violation is left.
+ *
+ * When stopping at the first violation, the violated axiom returned is the first one in the order of the TBox
+ * (it does not depend on which batch completes first): a batch is re-evaluated with only the axioms
+ * before the first violation found so far, until it returns nothing. The probes are ordered by axiom,
+ * so the batches after the first violation found are skipped.
+ */
+class ConsistencyChecker {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ConsistencyChecker.class);
+	private static final String AXIOM_VARIABLE = "axiom";
+
+	private final OntopQueryEngine queryEngine;
+	private final InputQueryFactory inputQueryFactory;
+	private final int batchSize;
+	private final int threads;
+	private final boolean stopAtFirstViolation;
+
+	ConsistencyChecker(OntopQueryEngine queryEngine, InputQueryFactory inputQueryFactory, OntopSystemSettings settings) {
+		this.queryEngine = queryEngine;
+		this.inputQueryFactory = inputQueryFactory;
+		this.batchSize = Math.max(1, settings.getConsistencyCheckBatchSize());
+		this.threads = Math.max(1, settings.getConsistencyCheckThreads());
+		this.stopAtFirstViolation = settings.isConsistencyCheckStoppingAtFirstViolation();
+	}
+
+	/**
+	 * Returns the violated axioms, in the order of the TBox (only the first one if stopping at the first violation)
+	 */
+	ImmutableList<Object> check(ClassifiedTBox tbox) throws OWLException {
+		List<Object> axioms = new ArrayList<>();
+		List<Probe> probes = new ArrayList<>();
+		addProbes(tbox, axioms, probes);
+		if (probes.isEmpty())
+			return ImmutableList.of();
+
+		List<List<Probe>> batches = Lists.partition(probes, batchSize);
+		LOG.debug("Checking {} axioms ({} probes) in {} queries", axioms.size(), probes.size(), batches.size());
+
+		ConcurrentSkipListMap<Integer, Object> violations = new ConcurrentSkipListMap<>();
+		// Index of the first violated axiom found so far
+		AtomicInteger firstViolation = new AtomicInteger(Integer.MAX_VALUE);
+		AtomicBoolean stop = new AtomicBoolean(false);
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, batches.size()));
+		try {
+			List<Future<?>> futures = batches.stream()
+					.map(b -> executor.submit(() -> {
+						checkBatch(b, axioms, violations, firstViolation, stop);
+						return null;
+					}))
+					.collect(Collectors.toList());
+
+			for (Future<?> future : futures)
+				future.get();
+		}
+		catch (ExecutionException e) {
+			stop.set(true);
+			throw (e.getCause() instanceof OWLException)
+					? (OWLException) e.getCause()
+					: new OWLException(e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OWLException(e);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		if (stopAtFirstViolation && !violations.isEmpty())
+			return ImmutableList.of(violations.firstEntry().getValue());
+		return ImmutableList.copyOf(violations.values());
+	}
+
+	/**
+	 * When stopping at the first violation, only the axioms before the first violation found so far are checked
+	 * (whichever batch has found it), until the batch returns nothing
+	 */
+	private void checkBatch(List<Probe> batch, List<Object> axioms, Map<Integer, Object> violations,
+							AtomicInteger firstViolation, AtomicBoolean stop) throws OWLException {
+		List<Probe> remaining = new ArrayList<>(batch);
+		while (!stop.get()) {
+			if (stopAtFirstViolation) {
+				int bound = firstViolation.get();
+				remaining.removeIf(p -> p.axiomIndex >= bound);
+			}
+			if (remaining.isEmpty())
+				return;
+
+			Optional<Integer> violatedAxiom = findViolatedAxiom(remaining);
+			if (!violatedAxiom.isPresent())
+				return;
+
+			int axiomIndex = violatedAxiom.get();
+			violations.put(axiomIndex, axioms.get(axiomIndex));
+			if (stopAtFirstViolation)
+				firstViolation.accumulateAndGet(axiomIndex, Math::min);
+			else
+				remaining.removeIf(p -> p.axiomIndex == axiomIndex);
+		}
+	}
+
+	private Optional<Integer> findViolatedAxiom(List<Probe> probes) throws OWLException {
+		String query = probes.stream()
+				.map(p -> "{ " + p.pattern + " BIND(" + p.axiomIndex + " AS ?" + AXIOM_VARIABLE + ") }")
+				.collect(Collectors.joining("\nUNION\n",
+						"SELECT ?" + AXIOM_VARIABLE + " WHERE {\n", "\n} LIMIT 1"));
+
+		try (OntopConnection connection = queryEngine.getConnection();
+			 OntopStatement st = connection.createStatement();
+			 TupleResultSet resultSet = st.execute(inputQueryFactory.createSelectQuery(query))) {
+
+			if (!resultSet.hasNext())
+				return Optional.empty();
+			RDFConstant axiom = resultSet.next().getConstant(AXIOM_VARIABLE);
+			return Optional.of(Integer.parseInt(axiom.getValue()));
+		}
+		catch (Exception e) {
+			throw new OWLException(e);
+		}
+	}
+
+	private static void addProbes(ClassifiedTBox tbox, List<Object> axioms, List<Probe> probes) {
+		for (NaryAxiom<ClassExpression> axiom : tbox.disjointClasses())
+			addPairProbes(axiom, axioms, probes,
+					(c1, c2) -> getPattern(c1, "?y1") + getPattern(c2, "?y2"));
+
+		for (NaryAxiom<ObjectPropertyExpression> axiom : tbox.disjointObjectProperties())
+			addPairProbes(axiom, axioms, probes,
+					(p1, p2) -> getPattern(p1, "?x", "?y") + getPattern(p2, "?x", "?y"));
+
+		for (NaryAxiom<DataPropertyExpression> axiom : tbox.disjointDataProperties())
+			addPairProbes(axiom, axioms, probes,
+					(p1, p2) -> getPattern(p1, "?x", "?y") + getPattern(p2, "?x", "?y"));
+
+		for (ObjectPropertyExpression property : tbox.functionalObjectProperties())
+			addProbe(property, axioms, probes,
+					getPattern(property, "?x", "?y") + getPattern(property, "?x", "?z") + "FILTER(?y != ?z) ");
+
+		for (DataPropertyExpression property : tbox.functionalDataProperties())
+			addProbe(property, axioms, probes,
+					getPattern(property, "?x", "?y") + getPattern(property, "?x", "?z") + "FILTER(?y != ?z) ");
+	}
+
+	/**
+	 * One probe per pair of components
+	 */
+	private static <T> void addPairProbes(NaryAxiom<T> axiom, List<Object> axioms, List<Probe> probes,
+										  PairPatternBuilder<T> builder) {
+		int axiomIndex = axioms.size();
+		axioms.add(axiom);
+		ImmutableList<T> components = axiom.getComponents();
+		for (int i = 0; i < components.size(); i++)
+			for (int j = i + 1; j < components.size(); j++)
+				probes.add(new Probe(axiomIndex, builder.build(components.get(i), components.get(j))));
+	}
+
+	private static void addProbe(Object axiom, List<Object> axioms, List<Probe> probes, String pattern) {
+		probes.add(new Probe(axioms.size(), pattern));
+		axioms.add(axiom);
+	}
+
+	/**
+	 * Pattern matching the instances ?x of the class expression
+	 */
+	private static String getPattern(ClassExpression classExpression, String freshVariable) {
+		if (classExpression instanceof OClass)
+			return "?x a <" + ((OClass) classExpression).getIRI().getIRIString() + "> . ";
+		if (classExpression instanceof ObjectSomeValuesFrom)
+			return getPattern(((ObjectSomeValuesFrom) classExpression).getProperty(), "?x", freshVariable);
+		if (classExpression instanceof DataSomeValuesFrom)
+			return getPattern(((DataSomeValuesFrom) classExpression).getProperty(), "?x", freshVariable);
+		throw new IllegalArgumentException("Unsupported class expression: " + classExpression);
+	}
+
+	private static String getPattern(ObjectPropertyExpression property, String subject, String object) {
+		String iri = "<" + property.getIRI().getIRIString() + ">";
+		return property.isInverse()
+				? object + " " + iri + " " + subject + " . "
+				: subject + " " + iri + " " + object + " . ";
+	}
+
+	private static String getPattern(DataPropertyExpression property, String subject, String object) {
+		return subject + " <" + property.getIRI().getIRIString() + "> " + object + " . ";
+	}
+
+
+	@FunctionalInterface
+	private interface PairPatternBuilder<T> {
+		String build(T first, T second);
+	}
+
+	private static final class Probe {
+		private final int axiomIndex;
+		private final String pattern;
+
+		private Probe(int axiomIndex, String pattern) {
+			this.axiomIndex = axiomIndex;
+			this.pattern = pattern;
+		}
+	}
+}
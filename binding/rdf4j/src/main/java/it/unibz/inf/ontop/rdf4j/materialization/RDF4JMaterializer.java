@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.NTriplesOutput;
 import it.unibz.inf.ontop.rdf4j.materialization.impl.DefaultRDF4JMaterializer;
 import it.unibz.inf.ontop.rdf4j.query.MaterializationGraphQuery;
 import it.unibz.inf.ontop.spec.mapping.Mapping;
@@ -12,6 +13,7 @@ import org.apache.commons.rdf.api.IRI;
 import org.eclipse.rdf4j.repository.RepositoryException;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
 
 public interface RDF4JMaterializer {
 
@@ -27,6 +29,19 @@ public interface RDF4JMaterializer {
     MaterializationGraphQuery materialize(@Nonnull ImmutableSet<IRI> selectedVocabulary)
             throws RepositoryException;
 
+    /**
+     * Fast path for bulk exports: writes the saturated RDF graph in N-Triples (see OntopRDFMaterializer).
+     *
+     * Returns the number of triples written.
+     */
+    long materializeToNTriples(@Nonnull NTriplesOutput output) throws RepositoryException, IOException;
+
+    /**
+     * Fast path for bulk exports, restricted to the selected vocabulary
+     */
+    long materializeToNTriples(@Nonnull ImmutableSet<IRI> selectedVocabulary, @Nonnull NTriplesOutput output)
+            throws RepositoryException, IOException;
+
     /**
      * Default implementation
      */
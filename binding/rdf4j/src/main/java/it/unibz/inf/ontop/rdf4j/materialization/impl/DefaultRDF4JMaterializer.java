@@ -29,6 +29,7 @@ import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.NTriplesOutput;
 import it.unibz.inf.ontop.materialization.OntopRDFMaterializer;
 import it.unibz.inf.ontop.materialization.impl.DefaultOntopRDFMaterializer;
 import it.unibz.inf.ontop.rdf4j.materialization.RDF4JMaterializer;
@@ -49,6 +50,7 @@ import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
 
 public class DefaultRDF4JMaterializer implements RDF4JMaterializer {
 
@@ -90,6 +92,25 @@ public class DefaultRDF4JMaterializer implements RDF4JMaterializer {
 		}
 	}
 
+	@Override
+	public long materializeToNTriples(@Nonnull NTriplesOutput output) throws RepositoryException, IOException {
+		try {
+			return materializer.materializeToNTriples(output);
+		} catch (OntopQueryAnsweringException | OntopConnectionException e) {
+			throw new RepositoryException(e);
+		}
+	}
+
+	@Override
+	public long materializeToNTriples(@Nonnull ImmutableSet<IRI> selectedVocabulary, @Nonnull NTriplesOutput output)
+			throws RepositoryException, IOException {
+		try {
+			return materializer.materializeToNTriples(selectedVocabulary, output);
+		} catch (OntopQueryAnsweringException | OntopConnectionException e) {
+			throw new RepositoryException(e);
+		}
+	}
+
 	@Override
 	public ImmutableSet<IRI> getClasses() {
 		return materializer.getClasses();
@@ -1,27 +1,25 @@
 package it.unibz.inf.ontop.rdf4j.query.impl;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import it.unibz.inf.ontop.answering.reformulation.input.GraphSPARQLQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
 import it.unibz.inf.ontop.answering.resultset.SimpleGraphResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
 import it.unibz.inf.ontop.injection.OntopSystemSettings;
 import it.unibz.inf.ontop.spec.ontology.Assertion;
 
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
 import it.unibz.inf.ontop.answering.reformulation.input.SPARQLQueryUtility;
 import it.unibz.inf.ontop.rdf4j.utils.RDF4JHelper;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.query.GraphQuery;
 import org.eclipse.rdf4j.query.GraphQueryResult;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
-import org.eclipse.rdf4j.query.algebra.evaluation.iterator.CollectionIteration;
-import org.eclipse.rdf4j.query.impl.GraphQueryResultImpl;
+import org.eclipse.rdf4j.query.impl.IteratingGraphQueryResult;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
@@ -51,32 +49,29 @@ public class OntopGraphQuery extends AbstractOntopQuery implements GraphQuery {
 			return null;
 	}
 
+    /**
+	 * Streams the statements: the returned result must be closed (done automatically once exhausted)
+	 */
     @Override
 	public GraphQueryResult evaluate() throws QueryEvaluationException {
 		ParsedQuery parsedQuery = getParsedQuery();
 		GraphSPARQLQuery query = isConstruct
 				? inputQueryFactory.createConstructQuery(getQueryString(), parsedQuery)
 				: inputQueryFactory.createDescribeQuery(getQueryString(), parsedQuery);
-		try (
-				OntopStatement stm = conn.createStatement();
-				SimpleGraphResultSet res = stm.execute(query, getHttpHeaders())
-		){
-			
-			Map<String, String> namespaces = new HashMap<>();
-			List<Statement> results = new LinkedList<>();
-			if (res != null) {
-				while (res.hasNext()) {
-					Assertion as = res.next();
-					Statement st = createStatement(as);
-					if (st!=null)
-						results.add(st);
+		OntopStatement stm = null;
+		try {
+			stm = conn.createStatement();
+			SimpleGraphResultSet res = stm.execute(query, getHttpHeaders());
+			return new IteratingGraphQueryResult(ImmutableMap.of(), new GraphResultSetIteration(stm, res));
+
+		} catch (Exception e) {
+			if (stm != null) {
+				try {
+					stm.close();
+				} catch (Exception e1) {
+					e.addSuppressed(e1);
 				}
 			}
-			
-			//return new GraphQueryResultImpl(namespaces, results.iterator());
-            return new GraphQueryResultImpl(namespaces, new CollectionIteration<>(results));
-			
-		} catch (Exception e) {
 			throw new QueryEvaluationException(e);
 		}
 	}
@@ -91,4 +86,42 @@ public class OntopGraphQuery extends AbstractOntopQuery implements GraphQuery {
 			handler.endRDF();
 		}
 	}
+
+	private class GraphResultSetIteration extends LookAheadIteration<Statement, QueryEvaluationException> {
+
+		private final OntopStatement statement;
+		private final SimpleGraphResultSet resultSet;
+
+		GraphResultSetIteration(OntopStatement statement, SimpleGraphResultSet resultSet) {
+			this.statement = statement;
+			this.resultSet = resultSet;
+		}
+
+		@Override
+		protected Statement getNextElement() throws QueryEvaluationException {
+			try {
+				while (resultSet != null && resultSet.hasNext()) {
+					Statement st = createStatement(resultSet.next());
+					if (st != null)
+						return st;
+				}
+				return null;
+			} catch (OntopConnectionException | OntopResultConversionException e) {
+				throw new QueryEvaluationException(e);
+			}
+		}
+
+		@Override
+		protected void handleClose() throws QueryEvaluationException {
+			try {
+				if (resultSet != null)
+					resultSet.close();
+				statement.close();
+			} catch (OntopConnectionException e) {
+				throw new QueryEvaluationException(e);
+			} finally {
+				super.handleClose();
+			}
+		}
+	}
 }
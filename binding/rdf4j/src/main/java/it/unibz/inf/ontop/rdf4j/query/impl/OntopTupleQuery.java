@@ -31,7 +31,20 @@ public class OntopTupleQuery extends AbstractOntopQuery implements TupleQuery {
 
     @Override
 	public TupleQueryResult evaluate() throws QueryEvaluationException {
-		TupleResultSet res;
+		TupleResultSet res = evaluateNatively();
+		try {
+			List<String> signature = res.getSignature();
+			return new OntopTupleQueryResult(res, signature);
+		} catch (Exception e) {
+			throw new QueryEvaluationException(e);
+		}
+	}
+
+	/**
+	 * Returns the Ontop result set, without converting its bindings into RDF4J values.
+	 * Useful for serializing the results directly. The result set must be closed.
+	 */
+	public TupleResultSet evaluateNatively() throws QueryEvaluationException {
 		OntopStatement stm;
 		long start = System.currentTimeMillis();
 		try {
@@ -40,7 +53,7 @@ public class OntopTupleQuery extends AbstractOntopQuery implements TupleQuery {
 				stm.setQueryTimeout(this.queryTimeout);
 			try {
 				SelectQuery inputQuery = factory.createSelectQuery(getQueryString(), getParsedQuery());
-				res = stm.execute(inputQuery, getHttpHeaders());
+				return stm.execute(inputQuery, getHttpHeaders());
 			} catch (OntopQueryAnsweringException e) {
 				long end = System.currentTimeMillis();
 				if (this.queryTimeout > 0 && (end - start) >= this.queryTimeout * 1000){
@@ -48,10 +61,6 @@ public class OntopTupleQuery extends AbstractOntopQuery implements TupleQuery {
 				} else 
 					throw e;
 			}
-			
-			List<String> signature = res.getSignature();
-			return new OntopTupleQueryResult(res, signature);
-
 		} catch (QueryEvaluationException e) {
 			throw e;
 		}
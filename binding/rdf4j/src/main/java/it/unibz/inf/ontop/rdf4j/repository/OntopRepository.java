@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.rdf4j.repository;
 
 import it.unibz.inf.ontop.answering.cache.HTTPCacheHeaders;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
 
@@ -11,6 +12,8 @@ public interface OntopRepository extends org.eclipse.rdf4j.repository.Repository
 
     HTTPCacheHeaders getHttpCacheHeaders();
 
+    QueryMetrics getQueryMetrics();
+
     static OntopVirtualRepository defaultRepository(OntopSystemConfiguration configuration) {
         return new OntopVirtualRepository(configuration);
     }
@@ -15,8 +15,9 @@ import it.unibz.inf.ontop.rdf4j.query.impl.OntopTupleQuery;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import org.eclipse.rdf4j.IsolationLevel;
 import org.eclipse.rdf4j.IsolationLevels;
-import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.common.iteration.ExceptionConvertingIteration;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.NamespaceImpl;
 import org.eclipse.rdf4j.model.impl.ValueFactoryImpl;
@@ -40,6 +41,7 @@ import java.util.*;
 public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.RepositoryConnection {
 
     private static final String READ_ONLY_MESSAGE = "Ontop is a read-only system";
+    private static final String COUNT_QUERY = "SELECT (COUNT(*) AS ?c) WHERE { SELECT DISTINCT ?s ?p ?o WHERE { ?s ?p ?o } }";
     private static Logger LOGGER = LoggerFactory.getLogger(OntopRepositoryConnection.class);
     private OntopRepository repository;
     private OntopConnection ontopConnection;
@@ -166,18 +168,12 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
             throws RepositoryException, RDFHandlerException {
         //Exports all statements with a specific subject, predicate
         //and/or object from the repository, optionally from the specified contexts.
-        RepositoryResult<Statement> stms = getStatements(subj, pred, obj, includeInferred, contexts);
-
-        handler.startRDF();
-        // handle
-        if (stms != null) {
-            while (stms.hasNext()) {
-                Statement st = stms.next();
-                if (st != null)
-                    handler.handleStatement(st);
-            }
+        try (RepositoryResult<Statement> stms = getStatements(subj, pred, obj, includeInferred, contexts)) {
+            handler.startRDF();
+            while (stms.hasNext())
+                handler.handleStatement(stms.next());
+            handler.endRDF();
         }
-        handler.endRDF();
 
     }
 
@@ -232,44 +228,40 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
         //Gets all statements with a specific subject,
         //predicate and/or object from the repository.
         //The result is optionally restricted to the specified set of named contexts.
+        //The statements are streamed: the result must be closed (or fully consumed).
+        if (!isDefaultGraph(contexts))
+            return new RepositoryResult<>(new EmptyIteration<>());
+
+        String spo = renderTriplePattern(subj, pred, obj);
+        try {
+            GraphQueryResult result = prepareGraphQuery(QueryLanguage.SPARQL,
+                    "CONSTRUCT {" + spo + "} WHERE {" + spo + "}").evaluate();
+            return new RepositoryResult<>(new ExceptionConvertingIteration<Statement, RepositoryException>(result) {
+                @Override
+                protected RepositoryException convert(Exception e) {
+                    return new RepositoryException(e);
+                }
+            });
+        } catch (MalformedQueryException | QueryEvaluationException e) {
+            throw new RepositoryException(e);
+        }
+    }
 
-        //construct query for it
-        StringBuilder queryString = new StringBuilder("CONSTRUCT {");
+    /**
+     * Only the default graph is supported
+     */
+    private static boolean isDefaultGraph(Resource... contexts) {
+        return contexts.length == 0 || contexts[0] == null;
+    }
 
+    private static String renderTriplePattern(Resource subj, org.eclipse.rdf4j.model.IRI pred, Value obj) {
         StringBuilder spo = subj == null ? new StringBuilder("?s ") : RenderUtils.toSPARQL(subj, new StringBuilder());
 
         spo = pred == null ? spo.append(" ?p ") : RenderUtils.toSPARQL(pred, spo);
 
         spo = obj == null ? spo.append(" ?o ") : RenderUtils.toSPARQL(obj, spo);
 
-        queryString.append(spo).append("} WHERE {").append(spo).append("}");
-
-        //execute construct query
-        try {
-            List<Statement> list = new LinkedList<Statement>();
-
-            if (contexts.length == 0 || (contexts.length > 0 && contexts[0] == null)) {
-                GraphQuery query = prepareGraphQuery(QueryLanguage.SPARQL,
-                        queryString.toString());
-                GraphQueryResult result = query.evaluate();
-
-                // System.out.println("result: "+result.hasNext());
-                while (result.hasNext())
-                    list.add(result.next());
-                // result.close();
-            }
-            CloseableIteration<Statement, RepositoryException> iter = new CloseableIteratorIteration<Statement, RepositoryException>(
-                    list.iterator());
-            RepositoryResult<Statement> repoResult = new RepositoryResult<Statement>(iter);
-
-            return repoResult;
-        } catch (MalformedQueryException e) {
-            throw new RepositoryException(e);
-
-        } catch (QueryEvaluationException e) {
-            throw new RepositoryException(e);
-
-        }
+        return spo.toString();
     }
 
     @Override
@@ -292,12 +284,15 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
                                 boolean includeInferred, Resource... contexts) throws RepositoryException {
         //Checks whether the repository contains statements with a specific subject,
         //predicate and/or object, optionally in the specified contexts.
-        RepositoryResult<Statement> stIter = getStatements(subj, pred,
-                obj, includeInferred, contexts);
+        //Evaluated as an ASK query, so that no statement is retrieved.
+        if (!isDefaultGraph(contexts))
+            return false;
+
         try {
-            return stIter.hasNext();
-        } finally {
-            stIter.close();
+            return prepareBooleanQuery(QueryLanguage.SPARQL,
+                    "ASK {" + renderTriplePattern(subj, pred, obj) + "}").evaluate();
+        } catch (MalformedQueryException | QueryEvaluationException e) {
+            throw new RepositoryException(e);
         }
     }
 
@@ -315,7 +310,7 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
     @Override
     public boolean isEmpty() throws RepositoryException {
         //Returns true if this repository does not contain any (explicit) statements.
-        return size() == 0;
+        return !hasStatement(null, null, null, false);
     }
 
     @Override
@@ -566,7 +561,17 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
     @Override
     public long size(Resource... contexts) throws RepositoryException {
         //Returns the number of (explicit) statements that are in the specified contexts in this repository.
-        return 0;
+        //Only computed if statement counting is enabled (otherwise returns 0).
+        if (!settings.isStatementCountingEnabled() || !isDefaultGraph(contexts))
+            return 0;
+
+        try (TupleQueryResult result = prepareTupleQuery(QueryLanguage.SPARQL, COUNT_QUERY).evaluate()) {
+            return result.hasNext()
+                    ? ((Literal) result.next().getValue("c")).longValue()
+                    : 0;
+        } catch (MalformedQueryException | QueryEvaluationException e) {
+            throw new RepositoryException(e);
+        }
     }
 
 
@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.rdf4j.repository.impl;
 import com.google.inject.Injector;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
 import it.unibz.inf.ontop.answering.cache.HTTPCacheHeaders;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
@@ -31,12 +32,14 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
     private OntopQueryEngine queryEngine;
     private final RDF4JInputQueryFactory inputQueryFactory;
     private final HTTPCacheHeaders cacheHeaders;
+    private final QueryMetrics queryMetrics;
 
     public OntopVirtualRepository(OntopSystemConfiguration configuration) {
         this.configuration = configuration;
         Injector injector = configuration.getInjector();
         inputQueryFactory = injector.getInstance(RDF4JInputQueryFactory.class);
         cacheHeaders = injector.getInstance(HTTPCacheHeaders.class);
+        queryMetrics = injector.getInstance(QueryMetrics.class);
         settings = configuration.getSettings();
     }
 
@@ -127,4 +130,9 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
     public HTTPCacheHeaders getHttpCacheHeaders() {
         return cacheHeaders;
     }
+
+    @Override
+    public QueryMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
 }
@@ -16,6 +16,7 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
@@ -30,6 +31,11 @@ public class AbstractRDF4JTest {
     private static RepositoryConnection REPO_CONNECTION;
 
     protected static void initOBDA(String dbScriptRelativePath, String obdaRelativePath) throws SQLException, IOException {
+        initOBDA(dbScriptRelativePath, obdaRelativePath, new Properties());
+    }
+
+    protected static void initOBDA(String dbScriptRelativePath, String obdaRelativePath, Properties properties)
+            throws SQLException, IOException {
 
         String jdbcUrl = URL_PREFIX + UUID.randomUUID().toString();
 
@@ -55,6 +61,7 @@ public class AbstractRDF4JTest {
                 .jdbcUrl(jdbcUrl)
                 .jdbcUser(USER)
                 .jdbcPassword(PASSWORD)
+                .properties(properties)
                 .enableTestMode()
                 .build();
 
@@ -108,6 +115,10 @@ public class AbstractRDF4JTest {
         SQL_CONNECTION.close();
     }
 
+    protected static RepositoryConnection getRepositoryConnection() {
+        return REPO_CONNECTION;
+    }
+
     protected int runQueryAndCount(String queryString) {
         TupleQuery query = REPO_CONNECTION.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
 
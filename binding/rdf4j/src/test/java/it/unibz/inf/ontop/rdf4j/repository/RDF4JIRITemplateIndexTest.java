@@ -0,0 +1,99 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopRepositoryConnection;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Triple patterns with a variable property (or class) and a ground IRI:
+ * only the definitions with a compatible IRI template are unfolded.
+ */
+public class RDF4JIRITemplateIndexTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/iri-template-index/iri-template-index.obda";
+    private static final String SQL_SCRIPT = "/iri-template-index/iri-template-index-create.sql";
+    private static final Pattern COMPANY_TABLE = Pattern.compile("(FROM|JOIN)\\s+\"?COMPANY\"?(\\s|$)",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    private static final Pattern PERSON_TABLE = Pattern.compile("(FROM|JOIN)\\s+\"?PERSON\"?(\\s|$)",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSettings.QUERY_TEMPLATE_CACHE, "true");
+        initOBDA(SQL_SCRIPT, OBDA_FILE, properties);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testGroundSubject() {
+        int count = runQueryAndCount("SELECT * WHERE { <http://example.org/person/1> ?p ?o }");
+        assertEquals(3, count);
+    }
+
+    @Test
+    public void testGroundObject() {
+        int count = runQueryAndCount("SELECT * WHERE { ?s ?p <http://example.org/company/2> }");
+        assertEquals(1, count);
+    }
+
+    @Test
+    public void testGroundConstantObject() {
+        int count = runQueryAndCount("SELECT * WHERE { ?s ?p <http://example.org/Italy> }");
+        assertEquals(2, count);
+    }
+
+    @Test
+    public void testGroundSubjectClass() {
+        runQueryAndCompare("SELECT ?v WHERE { <http://example.org/company/1> a ?v }",
+                ImmutableList.of("http://example.org/voc#Company"));
+    }
+
+    @Test
+    public void testIncompatibleSubject() {
+        int count = runQueryAndCount("SELECT * WHERE { <http://example.org/other/1> ?p ?o }");
+        assertEquals(0, count);
+    }
+
+    /**
+     * The query template cache keeps the ground IRIs of the star patterns:
+     * queries only differing by such an IRI are still pruned by IRI template.
+     */
+    @Test
+    public void testWithQueryTemplateCache() throws Exception {
+        String person1 = reformulate("SELECT * WHERE { <http://example.org/person/1> ?p ?o }");
+        String person2 = reformulate("SELECT * WHERE { <http://example.org/person/2> ?p ?o }");
+        String company1 = reformulate("SELECT * WHERE { <http://example.org/company/1> ?p ?o }");
+
+        assertTrue(PERSON_TABLE.matcher(person1).find());
+        assertFalse(COMPANY_TABLE.matcher(person1).find());
+        assertTrue(PERSON_TABLE.matcher(person2).find());
+        assertFalse(COMPANY_TABLE.matcher(person2).find());
+        assertTrue(COMPANY_TABLE.matcher(company1).find());
+        assertFalse(PERSON_TABLE.matcher(company1).find());
+
+        assertEquals(3, runQueryAndCount("SELECT * WHERE { <http://example.org/person/1> ?p ?o }"));
+        assertEquals(3, runQueryAndCount("SELECT * WHERE { <http://example.org/person/2> ?p ?o }"));
+        assertEquals(3, runQueryAndCount("SELECT * WHERE { <http://example.org/company/1> ?p ?o }"));
+    }
+
+    private static String reformulate(String sparql) throws Exception {
+        return ((OntopRepositoryConnection) getRepositoryConnection()).reformulate(sparql);
+    }
+}
@@ -0,0 +1,59 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Queries only differing by their constants share the same entry of the query template cache
+ */
+public class RDF4JQueryTemplateCacheTest extends AbstractRDF4JTest {
+
+    private static final String CREATE_DB_FILE = "/label_comment.sql";
+    private static final String OBDA_FILE = "/label_comment.obda";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(CREATE_DB_FILE, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testSubjectConstant() {
+        assertEquals(2, runQueryAndCount("SELECT ?label WHERE { <http://example.org/Individual1> rdfs:label ?label }"));
+        assertEquals(0, runQueryAndCount("SELECT ?label WHERE { <http://example.org/Individual2> rdfs:label ?label }"));
+        assertEquals(2, runQueryAndCount("PREFIX ex: <http://example.org/>\n" +
+                "SELECT ?label\n" +
+                "WHERE {\n" +
+                "  ex:Individual1 rdfs:label ?label\n" +
+                "}"));
+    }
+
+    @Test
+    public void testObjectConstant() {
+        assertEquals(1, runQueryAndCount("SELECT ?o WHERE { ?o rdfs:label \"testdata\"@en }"));
+        assertEquals(1, runQueryAndCount("SELECT ?o WHERE { ?o rdfs:label \"testdaten\"@de }"));
+        assertEquals(0, runQueryAndCount("SELECT ?o WHERE { ?o rdfs:label \"testdaten\"@en }"));
+    }
+
+    @Test
+    public void testQueryModifiers() {
+        assertEquals(1, runQueryAndCount("SELECT DISTINCT ?c WHERE { <http://example.org/Individual1> rdfs:label ?l ; rdfs:comment ?c } ORDER BY ?c LIMIT 1"));
+        assertEquals(0, runQueryAndCount("SELECT DISTINCT ?c WHERE { <http://example.org/Individual3> rdfs:label ?l ; rdfs:comment ?c } ORDER BY ?c LIMIT 1"));
+    }
+
+    @Test
+    public void testOptionalConstant() {
+        assertEquals(1, runQueryAndCount("SELECT * WHERE { OPTIONAL { <http://example.org/Individual1> rdfs:comment ?c . FILTER(LANG(?c) = \"de\") } }"));
+        assertEquals(1, runQueryAndCount("SELECT * WHERE { OPTIONAL { <http://example.org/Individual2> rdfs:comment ?c . FILTER(LANG(?c) = \"de\") } }"));
+    }
+}
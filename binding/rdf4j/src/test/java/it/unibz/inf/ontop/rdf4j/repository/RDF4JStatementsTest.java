@@ -0,0 +1,81 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * getStatements() streams the CONSTRUCT results, hasStatement() is an ASK query and size() a COUNT query.
+ */
+public class RDF4JStatementsTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/iri-template-index/iri-template-index.obda";
+    private static final String SQL_SCRIPT = "/iri-template-index/iri-template-index-create.sql";
+
+    private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+    private static final IRI PERSON_1 = VALUE_FACTORY.createIRI("http://example.org/person/1");
+    private static final IRI COMPANY = VALUE_FACTORY.createIRI("http://example.org/voc#Company");
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopSystemSettings.STATEMENT_COUNTING, "true");
+        initOBDA(SQL_SCRIPT, OBDA_FILE, properties);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testGetStatements() {
+        int count = 0;
+        try (RepositoryResult<Statement> statements = getRepositoryConnection()
+                .getStatements(PERSON_1, null, null, false)) {
+            while (statements.hasNext()) {
+                assertEquals(PERSON_1, statements.next().getSubject());
+                count++;
+            }
+        }
+        assertEquals(3, count);
+    }
+
+    @Test
+    public void testGetStatementsPartiallyConsumed() {
+        try (RepositoryResult<Statement> statements = getRepositoryConnection()
+                .getStatements(null, null, null, false)) {
+            assertTrue(statements.hasNext());
+            statements.next();
+        }
+    }
+
+    @Test
+    public void testHasStatement() {
+        RepositoryConnection connection = getRepositoryConnection();
+        assertFalse(connection.hasStatement(PERSON_1, RDF.TYPE, COMPANY, false));
+        assertTrue(connection.hasStatement(null, RDF.TYPE, COMPANY, false));
+        assertTrue(connection.hasStatement(PERSON_1, null, null, false));
+    }
+
+    @Test
+    public void testSize() {
+        RepositoryConnection connection = getRepositoryConnection();
+        assertEquals(12, connection.size());
+        assertFalse(connection.isEmpty());
+    }
+}
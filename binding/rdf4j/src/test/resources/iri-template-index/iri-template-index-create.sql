@@ -0,0 +1,13 @@
+CREATE TABLE person (
+    id integer NOT NULL,
+    name character varying(20),
+    company_id integer
+);
+CREATE TABLE company (
+    id integer NOT NULL,
+    name character varying(20)
+);
+INSERT INTO person VALUES (1, 'Alice', 1);
+INSERT INTO person VALUES (2, 'Bob', 2);
+INSERT INTO company VALUES (1, 'Acme');
+INSERT INTO company VALUES (2, 'Globex');
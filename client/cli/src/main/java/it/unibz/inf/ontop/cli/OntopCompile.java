@@ -21,14 +21,77 @@ package it.unibz.inf.ontop.cli;
  */
 
 import com.github.rvesse.airline.annotations.Command;
+import com.github.rvesse.airline.annotations.Option;
+import com.github.rvesse.airline.annotations.OptionType;
+import com.github.rvesse.airline.annotations.help.BashCompletion;
+import com.github.rvesse.airline.annotations.restrictions.Required;
+import com.github.rvesse.airline.help.cli.bash.CompletionBehaviour;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.dbschema.tools.DBMetadataExtractorAndSerializer;
+import it.unibz.inf.ontop.spec.mapping.impl.SpecificationSnapshot;
+import it.unibz.inf.ontop.spec.mapping.impl.SpecificationSnapshotSerializer;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
+import it.unibz.inf.ontop.spec.ontology.owlapi.OWLOntologyDigester;
+
+import java.io.File;
+import java.util.Optional;
 
 @Command(name = "compile",
-        description = "compile the ontology axioms into  mappings",
-        hidden = true)
-public class OntopCompile implements OntopCommand {
+        description = "Compile the mapping, the ontology and the DB metadata into a specification snapshot " +
+                "(to be given to the endpoint with --snapshot)")
+public class OntopCompile extends OntopMappingOntologyRelatedCommand {
+
+    @Option(type = OptionType.COMMAND, name = {"-o", "--output"},
+            title = "output", description = "specification snapshot file")
+    @Required
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    String outputFile;
 
     @Override
     public void run() {
+        OntopSQLOWLAPIConfiguration.Builder<? extends OntopSQLOWLAPIConfiguration.Builder> builder =
+                OntopSQLOWLAPIConfiguration.defaultBuilder()
+                        .propertyFile(propertiesFile);
+
+        if (isR2rmlFile(mappingFile))
+            builder.r2rmlMappingFile(mappingFile);
+        else
+            builder.nativeOntopMappingFile(mappingFile);
+
+        if (owlFile != null)
+            builder.ontologyFile(owlFile);
+
+        if (constraintFile != null)
+            builder.basicImplicitConstraintFile(constraintFile);
+
+        OntopSQLOWLAPIConfiguration configuration = builder.build();
+
+        try {
+            OBDASpecification specification = configuration.loadSpecification();
+
+            SQLPPMapping ppMapping = configuration.loadProvidedPPMapping();
+            Optional<File> optionalConstraintFile = Optional.ofNullable(constraintFile).map(File::new);
+            byte[] fingerprint = SpecificationSnapshot.computeFingerprint(ppMapping.getTripleMaps(),
+                    configuration.loadInputOntology().map(OWLOntologyDigester::digest),
+                    optionalConstraintFile,
+                    configuration.getSettings(),
+                    configuration.getTmappingExclusions());
+
+            String dbMetadata = configuration.getInjector()
+                    .getInstance(DBMetadataExtractorAndSerializer.class)
+                    .extractAndSerialize();
 
+            boolean written = configuration.getInjector()
+                    .getInstance(SpecificationSnapshotSerializer.class)
+                    .write(specification, dbMetadata, fingerprint, new File(outputFile));
+            if (!written)
+                System.err.println("WARNING: no specification snapshot has been written (see the log). " +
+                        "The specification will be loaded from the inputs.");
+        }
+        catch (Exception e) {
+            // Reported with its cause by Ontop.main
+            throw new IllegalStateException("Cannot compile the specification snapshot " + outputFile, e);
+        }
     }
 }
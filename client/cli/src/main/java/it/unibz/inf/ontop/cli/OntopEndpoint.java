@@ -20,6 +20,11 @@ public class OntopEndpoint extends OntopReasoningCommandBase {
     @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
     String portalFile;
 
+    @Option(type = OptionType.COMMAND, name = {"--snapshot"}, title = "specification snapshot file",
+            description = "specification snapshot written by the compile command")
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    String snapshotFile;
+
     @Option(type = OptionType.COMMAND, name = {"--port"}, title = "port",
             description = "port of the SPARQL endpoint")
     private int port = 8080;
@@ -58,6 +63,9 @@ public class OntopEndpoint extends OntopReasoningCommandBase {
         if (this.constraintFile != null)
             argList.add("--constraint=" + this.constraintFile);
 
+        if (this.snapshotFile != null)
+            argList.add("--snapshot=" + this.snapshotFile);
+
         if (this.portalFile != null)
             argList.add("--portal=" + this.portalFile);
 
@@ -12,6 +12,7 @@ import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration.Builder;
 import it.unibz.inf.ontop.injection.impl.OntopModelConfigurationImpl;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.NTriplesOutput;
 import it.unibz.inf.ontop.rdf4j.materialization.RDF4JMaterializer;
 import org.apache.commons.rdf.api.IRI;
 import org.eclipse.rdf4j.query.GraphQueryResult;
@@ -28,13 +29,22 @@ import javax.annotation.Nullable;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPOutputStream;
 
 import static it.unibz.inf.ontop.injection.OntopSystemSQLSettings.FETCH_SIZE;
 import static org.apache.commons.io.FilenameUtils.removeExtension;
@@ -64,6 +74,7 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
     private static final String RDF_XML = "rdfxml";
     private static final String TURTLE = "turtle";
     private static final String NTRIPLES = "ntriples";
+    private static final String NQUADS = "nquads";
 
 
     @Option(type = OptionType.COMMAND, override = true, name = {"-o", "--output"},
@@ -74,8 +85,9 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
     @Option(type = OptionType.COMMAND, name = {"-f", "--format"}, title = "outputFormat",
             description = "The format of the materialized ontology. " +
                     //" Options: rdfxml, turtle. " +
+                    "N-Triples and N-Quads (default graph) are written directly, without going through RDF4J. " +
                     "Default: rdfxml")
-    @AllowedValues(allowedValues = {RDF_XML, TURTLE, NTRIPLES})
+    @AllowedValues(allowedValues = {RDF_XML, TURTLE, NTRIPLES, NQUADS})
     public String format = RDF_XML;
 
     @Option(type = OptionType.COMMAND, name = {"--separate-files"}, title = "output to separate files",
@@ -87,6 +99,25 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             description = "All the SQL results of one big query will be stored in memory. Not recommended. Default: false.")
     private boolean noStream = false;
 
+    @Option(type = OptionType.COMMAND, name = {"--threads"}, title = "number of threads",
+            description = "Number of classes/properties materialized in parallel, each on its own DB connection. " +
+                    "Should not exceed jdbc.pool.maxSize. Default: 1.")
+    private int threads = 1;
+
+    @Option(type = OptionType.COMMAND, name = {"--unordered"}, title = "do not group the triples by class/property",
+            description = "When materializing in parallel, the triples of different classes/properties may be " +
+                    "interleaved in the output. Faster but less readable. Default: false.")
+    private boolean unordered = false;
+
+    @Option(type = OptionType.COMMAND, name = {"--gzip"}, title = "compress the output",
+            description = "Compresses the output files with gzip. Default: false.")
+    private boolean gzip = false;
+
+    @Option(type = OptionType.COMMAND, name = {"--triples-per-file"}, title = "maximum number of triples per file",
+            description = "Splits the output into several files. " +
+                    "Default: no splitting (" + TRIPLE_LIMIT_PER_FILE + " with --separate-files).")
+    private Integer triplesPerFile;
+
     public OntopMaterialize() {
     }
 
@@ -97,7 +128,10 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
         OutputSpec outputSpec = (outputFile == null) ?
                 new OutputSpec(format) :
                 new OutputSpec(outputFile, format);
-        if (separate) {
+        if (outputSpec.isLineBased() && !separate) {
+            runWithSingleFileFastPath(materializer, outputSpec);
+        }
+        else if (separate) {
             runWithSeparateFiles(materializer, outputSpec);
         } else {
             runWithSingleFile(materializer, outputSpec);
@@ -115,6 +149,9 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             materializer = RDF4JMaterializer.defaultMaterializer(
                     materializerConfiguration,
                     MaterializationParams.defaultBuilder()
+                            .parallelism(threads)
+                            .preserveVocabularyOrder(!unordered)
+                            .progressListener(OntopMaterialize::reportProgress)
                             .build()
             );
         } catch (OBDASpecificationException | OWLOntologyCreationException e) {
@@ -123,6 +160,12 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
         return materializer;
     }
 
+    private static void reportProgress(IRI predicate, long tripleCount, long elapsedMillis, boolean isComplete) {
+        System.err.println(String.format("Materialized %s: %d triples in %d ms (%d triples/s)%s",
+                predicate, tripleCount, elapsedMillis, tripleCount * 1000 / Math.max(elapsedMillis, 1),
+                isComplete ? "" : " [possibly incomplete]"));
+    }
+
     private OWLOntology loadOntology() throws OWLOntologyCreationException {
         if (owlFile != null) {
             OWLOntology ontology = OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(new File(owlFile));
@@ -142,13 +185,48 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
         GraphQueryResult result = materializer.materialize().evaluate();
 
         try {
-            BufferedWriter writer = outputSpec.createWriter(Optional.empty());
-            tripleCount += serializeTripleBatch(
-                    result,
-                    Optional.empty(),
-                    writer,
-                    outputSpec.createRDFHandler(writer)
-            );
+            if (triplesPerFile == null || !outputSpec.prefix.isPresent()) {
+                BufferedWriter writer = outputSpec.createWriter(Optional.empty());
+                tripleCount += serializeTripleBatch(
+                        result,
+                        Optional.empty(),
+                        writer,
+                        outputSpec.createRDFHandler(writer)
+                );
+            }
+            else {
+                int fileCount = 0;
+                while (result.hasNext()) {
+                    BufferedWriter writer = outputSpec.createSplitWriter(fileCount);
+                    tripleCount += serializeTripleBatch(
+                            result,
+                            Optional.of(triplesPerFile),
+                            writer,
+                            outputSpec.createRDFHandler(writer)
+                    );
+                    fileCount++;
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        System.out.println("NR of TRIPLES: " + tripleCount);
+
+        final long endTime = System.currentTimeMillis();
+        final long time = endTime - startTime;
+        System.out.println("Elapsed time to materialize: " + time + " {ms}");
+    }
+
+    /**
+     * Writes N-Triples directly, bypassing the RDF4J statements
+     */
+    private void runWithSingleFileFastPath(RDF4JMaterializer materializer, OutputSpec outputSpec) {
+        final long startTime = System.currentTimeMillis();
+
+        long tripleCount;
+        try (NTriplesOutput output = outputSpec.createNTriplesOutput(Optional.empty(), Optional.ofNullable(triplesPerFile))) {
+            tripleCount = materializer.materializeToNTriples(output);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -160,31 +238,50 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
         System.out.println("Elapsed time to materialize: " + time + " {ms}");
     }
 
+    /**
+     * The classes/properties are independent files, so they are directly materialized in parallel
+     */
     private void runWithSeparateFiles(RDF4JMaterializer materializer, OutputSpec outputSpec) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
         try {
-            materializeClassesByFile(materializer, outputSpec);
-            materializePropertiesByFile(materializer, outputSpec);
+            List<Future<?>> futures = new ArrayList<>();
+            materializeClassesByFile(materializer, outputSpec, executor, futures);
+            materializePropertiesByFile(materializer, outputSpec, executor, futures);
+            for (Future<?> future : futures)
+                future.get();
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
-    private void materializeClassesByFile(RDF4JMaterializer materializer, OutputSpec outputSpec) throws Exception {
+    private void materializeClassesByFile(RDF4JMaterializer materializer, OutputSpec outputSpec,
+                                          ExecutorService executor, List<Future<?>> futures) {
         ImmutableSet<IRI> classes = materializer.getClasses();
         int total = classes.size();
         AtomicInteger i = new AtomicInteger();
         for (IRI c : classes) {
-            serializePredicate(materializer, c, PredicateType.CLASS, i.incrementAndGet(), total, outputSpec);
+            int index = i.incrementAndGet();
+            futures.add(executor.submit(() -> {
+                serializePredicate(materializer, c, PredicateType.CLASS, index, total, outputSpec);
+                return null;
+            }));
         }
     }
 
-    private void materializePropertiesByFile(RDF4JMaterializer materializer, OutputSpec outputSpec) throws Exception {
+    private void materializePropertiesByFile(RDF4JMaterializer materializer, OutputSpec outputSpec,
+                                             ExecutorService executor, List<Future<?>> futures) {
         ImmutableSet<IRI> properties = materializer.getProperties();
 
         int total = properties.size();
         AtomicInteger i = new AtomicInteger();
         for (IRI p : properties) {
-            serializePredicate(materializer, p, PredicateType.PROPERTY, i.incrementAndGet(), total, outputSpec);
+            int index = i.incrementAndGet();
+            futures.add(executor.submit(() -> {
+                serializePredicate(materializer, p, PredicateType.PROPERTY, index, total, outputSpec);
+                return null;
+            }));
         }
     }
 
@@ -200,23 +297,31 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
         System.err.println(String.format("Materializing %s (%d/%d)", predicateIRI, index, total));
         System.err.println("Starts writing triples into files.");
 
-        int tripleCount = 0;
+        long tripleCount = 0;
         int fileCount = 0;
+        int limitPerFile = (triplesPerFile == null) ? TRIPLE_LIMIT_PER_FILE : triplesPerFile;
 
         String fileSubstring = predicateIRI.toString().replaceAll("[^a-zA-Z0-9]", "_")
                 + predicateType.getCode() + "_";
 
-        GraphQueryResult result = materializer.materialize(ImmutableSet.of(predicateIRI)).evaluate();
-
-        while (result.hasNext()) {
-            BufferedWriter writer = outputSpec.createWriter(Optional.of(fileSubstring + fileCount));
-            tripleCount += serializeTripleBatch(
-                    result,
-                    Optional.of(TRIPLE_LIMIT_PER_FILE),
-                    writer,
-                    outputSpec.createRDFHandler(writer)
-            );
-            fileCount++;
+        if (outputSpec.isLineBased()) {
+            try (NTriplesOutput output = outputSpec.createNTriplesOutput(Optional.of(fileSubstring), Optional.of(limitPerFile))) {
+                tripleCount = materializer.materializeToNTriples(ImmutableSet.of(predicateIRI), output);
+            }
+        }
+        else {
+            GraphQueryResult result = materializer.materialize(ImmutableSet.of(predicateIRI)).evaluate();
+
+            while (result.hasNext()) {
+                BufferedWriter writer = outputSpec.createWriter(Optional.of(fileSubstring + fileCount));
+                tripleCount += serializeTripleBatch(
+                        result,
+                        Optional.of(limitPerFile),
+                        writer,
+                        outputSpec.createRDFHandler(writer)
+                );
+                fileCount++;
+            }
         }
 
         System.out.println("NR of TRIPLES: " + tripleCount);
@@ -303,28 +408,66 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             this.format = format;
         }
 
+        /**
+         * N-Triples and N-Quads (default graph only) have the same syntax
+         */
+        private boolean isLineBased() {
+            return format.equals(NTRIPLES) || format.equals(NQUADS);
+        }
+
         // We need a direct access to the writer to close it (cannot be done via the RDFHandler)
         private BufferedWriter createWriter(Optional<String> prefixExtension) throws IOException {
             if (prefix.isPresent()) {
-                String suffix = getSuffix();
-                return Files.newBufferedWriter(
-                        prefixExtension.isPresent() ?
-                                Paths.get(prefix.get(), prefixExtension.get() + suffix) :
-                                Paths.get(prefix.get() + suffix),
-                        Charset.forName("UTF-8")
-                );
+                return createWriter(prefixExtension.isPresent() ?
+                        Paths.get(prefix.get(), prefixExtension.get() + getSuffix()) :
+                        Paths.get(prefix.get() + getSuffix()));
             }
-            return new BufferedWriter(new OutputStreamWriter(System.out, "UTF-8"));
+            return new BufferedWriter(new OutputStreamWriter(wrap(System.out), StandardCharsets.UTF_8));
+        }
+
+        private BufferedWriter createSplitWriter(int fileIndex) throws IOException {
+            return createWriter(getSplitFilePath(fileIndex));
+        }
+
+        private BufferedWriter createWriter(Path path) throws IOException {
+            return new BufferedWriter(new OutputStreamWriter(wrap(Files.newOutputStream(path)), StandardCharsets.UTF_8));
+        }
+
+        private OutputStream wrap(OutputStream stream) throws IOException {
+            return gzip ? new GZIPOutputStream(stream) : stream;
+        }
+
+        private Path getSplitFilePath(int fileIndex) {
+            return Paths.get(prefix.get() + "_" + fileIndex + getSuffix());
+        }
+
+        private NTriplesOutput createNTriplesOutput(Optional<String> prefixExtension, Optional<Integer> limitPerFile)
+                throws IOException {
+            if (!prefix.isPresent())
+                return NTriplesOutput.toStream(System.out, gzip);
+
+            IntFunction<Path> fileNaming;
+            if (prefixExtension.isPresent())
+                fileNaming = i -> Paths.get(prefix.get(), prefixExtension.get() + i + getSuffix());
+            else if (limitPerFile.isPresent())
+                fileNaming = this::getSplitFilePath;
+            else
+                fileNaming = i -> Paths.get(prefix.get() + getSuffix());
+
+            return NTriplesOutput.toFiles(fileNaming, gzip, limitPerFile.orElse(Integer.MAX_VALUE));
         }
 
         private String getSuffix() {
+            String compressionSuffix = gzip ? ".gz" : "";
             switch (format) {
                 case RDF_XML:
-                    return ".rdf";
+                    return ".rdf" + compressionSuffix;
                 case TURTLE:
-                    return ".ttl";
+                    return ".ttl" + compressionSuffix;
                 case NTRIPLES:
-                    return ".nt";
+                    return ".nt" + compressionSuffix;
+                case NQUADS:
+                    return ".nq" + compressionSuffix;
                 default:
                     throw new RuntimeException("Unknown output format: " + format);
             }
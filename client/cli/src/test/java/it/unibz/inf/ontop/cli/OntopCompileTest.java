@@ -0,0 +1,37 @@
+package it.unibz.inf.ontop.cli;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.ExternalResource;
+
+import java.io.File;
+
+import static org.junit.Assert.assertTrue;
+
+public class OntopCompileTest {
+
+    @ClassRule
+    public static ExternalResource h2Connection = new H2ExternalResourceForBookExample();
+
+    @Test
+    public void testOntopHelp(){
+        Ontop.main("help", "compile");
+    }
+
+    @Test
+    public void testOntopCompile(){
+        File snapshot = new File("src/test/resources/output/exampleBooks.snapshot");
+        snapshot.delete();
+
+        String[] argv = {"compile",
+                "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-o", "src/test/resources/output/exampleBooks.snapshot"
+        };
+        Ontop.main(argv);
+
+        // Ontop.main does not rethrow the exceptions
+        assertTrue(snapshot.length() > 0);
+    }
+}
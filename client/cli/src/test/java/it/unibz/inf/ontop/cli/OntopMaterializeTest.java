@@ -114,6 +114,36 @@ public class OntopMaterializeTest {
         Ontop.main(argv);
     }
 
+    @Test
+    public void testOntopMaterializeParallel (){
+        String[] argv = {"materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "ntriples", "-o", "src/test/resources/output/exampleBooks.materialized.parallel.nt",
+                "--threads", "4", "--unordered"
+        };
+        Ontop.main(argv);
+    }
+
+    @Test
+    public void testOntopMaterializeSeparatefilesParallel (){
+        String[] argv = {"materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "turtle", "-o", "src/test/resources/output/",  "--separate-files", "--threads", "4"
+        };
+        Ontop.main(argv);
+    }
 
+    @Test
+    public void testOntopMaterializeNTriplesGzipSplit (){
+        String[] argv = {"materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "ntriples", "-o", "src/test/resources/output/exampleBooks.materialized.split.nt",
+                "--gzip", "--triples-per-file", "100", "--threads", "2"
+        };
+        Ontop.main(argv);
+    }
 
 }
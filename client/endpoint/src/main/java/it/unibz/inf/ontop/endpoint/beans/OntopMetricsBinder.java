@@ -0,0 +1,77 @@
+package it.unibz.inf.ontop.endpoint.beans;
+
+import it.unibz.inf.ontop.answering.metrics.Histogram;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer adapter of the query answering metrics (exposed by the actuator under /actuator/metrics).
+ *
+ * Durations are function timers, with their percentiles as gauges (tag "phi").
+ * Only the gauges registered when the registry is bound are exposed (e.g. no connection pool gauges
+ * if the repository is initialized lazily).
+ */
+@Component
+public class OntopMetricsBinder implements MeterBinder {
+
+    private static final double[] PERCENTILES = { 50, 95, 99 };
+
+    private final QueryMetrics metrics;
+
+    @Autowired
+    public OntopMetricsBinder(OntopVirtualRepository repository) {
+        this.metrics = repository.getQueryMetrics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        metrics.getHistograms().forEach((name, histogram) -> bindHistogram(registry, name, histogram));
+
+        for (String name : metrics.getCounters().keySet())
+            FunctionCounter.builder(name, metrics, m -> m.getCounters().getOrDefault(name, 0L))
+                    .register(registry);
+
+        for (String name : metrics.getGauges().keySet())
+            Gauge.builder(name, metrics, m -> m.getGauges().getOrDefault(name, Double.NaN))
+                    .register(registry);
+    }
+
+    private static void bindHistogram(MeterRegistry registry, String name, Histogram histogram) {
+        if (histogram.getBaseUnit().equals(Histogram.NANOSECONDS)) {
+            FunctionTimer.builder(name, histogram, Histogram::getCount, Histogram::getTotal, TimeUnit.NANOSECONDS)
+                    .register(registry);
+            TimeGauge.builder(name + ".max", histogram, TimeUnit.NANOSECONDS, Histogram::getMax)
+                    .register(registry);
+            for (double percentile : PERCENTILES)
+                TimeGauge.builder(name + ".percentile", histogram, TimeUnit.NANOSECONDS,
+                                h -> h.getValueAtPercentile(percentile))
+                        .tag("phi", String.valueOf(percentile / 100))
+                        .register(registry);
+        }
+        else {
+            FunctionCounter.builder(name + ".count", histogram, Histogram::getCount)
+                    .register(registry);
+            Gauge.builder(name + ".mean", histogram, Histogram::getMean)
+                    .baseUnit(histogram.getBaseUnit())
+                    .register(registry);
+            Gauge.builder(name + ".max", histogram, Histogram::getMax)
+                    .baseUnit(histogram.getBaseUnit())
+                    .register(registry);
+            for (double percentile : PERCENTILES)
+                Gauge.builder(name + ".percentile", histogram, h -> h.getValueAtPercentile(percentile))
+                        .tag("phi", String.valueOf(percentile / 100))
+                        .baseUnit(histogram.getBaseUnit())
+                        .register(registry);
+        }
+    }
+}
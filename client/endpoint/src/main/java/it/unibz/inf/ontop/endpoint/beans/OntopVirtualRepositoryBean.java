@@ -17,6 +17,7 @@ public class OntopVirtualRepositoryBean {
                                                           @Value("${xml-catalog:#{null}}") String xmlCatalog,
                                                           @Value("${properties}") String properties,
                                                           @Value("${constraint:#{null}}") String constraint,
+                                                          @Value("${snapshot:#{null}}") String snapshot,
                                                           @Value("${lazy:false}") boolean lazy) throws RepositoryException {
         OntopSQLOWLAPIConfiguration.Builder<? extends OntopSQLOWLAPIConfiguration.Builder> builder = OntopSQLOWLAPIConfiguration.defaultBuilder()
                 .propertyFile(properties);
@@ -35,6 +36,9 @@ public class OntopVirtualRepositoryBean {
         if (constraint !=null && !constraint.isEmpty())
             builder.basicImplicitConstraintFile(constraint);
 
+        if (snapshot != null && !snapshot.isEmpty())
+            builder.specificationSnapshotFile(snapshot);
+
         OntopSQLOWLAPIConfiguration configuration = builder.build();
         OntopVirtualRepository repository = OntopRepository.defaultRepository(configuration);
 
@@ -0,0 +1,60 @@
+package it.unibz.inf.ontop.endpoint.controllers;
+
+import it.unibz.inf.ontop.answering.metrics.Histogram;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query answering metrics, as JSON. Durations are in milliseconds.
+ *
+ * The same metrics are also registered into the Micrometer registry (see OntopMetricsBinder).
+ */
+@RestController
+public class MetricsController {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final OntopVirtualRepository repository;
+
+    @Autowired
+    public MetricsController(OntopVirtualRepository repository) {
+        this.repository = repository;
+    }
+
+    @GetMapping(value = "/metrics", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> metrics() {
+        QueryMetrics metrics = repository.getQueryMetrics();
+
+        Map<String, Object> histograms = new LinkedHashMap<>();
+        metrics.getHistograms().forEach((name, histogram) -> histograms.put(name, serialize(histogram)));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("histograms", histograms);
+        result.put("counters", metrics.getCounters());
+        result.put("gauges", metrics.getGauges());
+        return result;
+    }
+
+    private static Map<String, Object> serialize(Histogram histogram) {
+        boolean isDuration = histogram.getBaseUnit().equals(Histogram.NANOSECONDS);
+        double factor = isDuration ? NANOS_PER_MILLI : 1;
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("unit", isDuration ? "milliseconds" : histogram.getBaseUnit());
+        map.put("count", histogram.getCount());
+        map.put("mean", histogram.getMean() / factor);
+        map.put("max", histogram.getMax() / factor);
+        map.put("p50", histogram.getValueAtPercentile(50) / factor);
+        map.put("p95", histogram.getValueAtPercentile(95) / factor);
+        map.put("p99", histogram.getValueAtPercentile(99) / factor);
+        return map;
+    }
+}
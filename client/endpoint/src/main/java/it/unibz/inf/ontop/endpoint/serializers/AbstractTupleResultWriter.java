@@ -0,0 +1,100 @@
+package it.unibz.inf.ontop.endpoint.serializers;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.RDFLiteralConstant;
+import it.unibz.inf.ontop.model.type.LanguageTag;
+import it.unibz.inf.ontop.model.type.RDFDatatype;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+
+import javax.annotation.Nullable;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Serializes the Ontop bindings directly into UTF-8, without converting them into RDF4J values.
+ */
+public abstract class AbstractTupleResultWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final Writer writer;
+
+    protected AbstractTupleResultWriter(OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Does not close the result set (nor the output stream)
+     */
+    public void write(TupleResultSet resultSet)
+            throws IOException, OntopConnectionException, OntopResultConversionException {
+        ImmutableList<String> variables = ImmutableList.copyOf(resultSet.getSignature());
+        writeHeader(variables);
+        while (resultSet.hasNext())
+            writeRow(variables, resultSet.next());
+        writeFooter();
+        writer.flush();
+    }
+
+    protected abstract void writeHeader(ImmutableList<String> variables) throws IOException;
+
+    protected abstract void writeRow(ImmutableList<String> variables, OntopBindingSet bindingSet)
+            throws IOException, OntopResultConversionException;
+
+    protected abstract void writeFooter() throws IOException;
+
+    protected static String getIRIString(IRIConstant iri) {
+        return iri.getIRI().getIRIString();
+    }
+
+    protected static String getBNodeLabel(BNode bnode) {
+        return bnode.getName();
+    }
+
+    protected static Optional<String> getLanguageTag(RDFLiteralConstant literal) {
+        return literal.getType().getLanguageTag()
+                .map(LanguageTag::getFullString);
+    }
+
+    /**
+     * Empty for language-tagged and xsd:string literals (simple literals)
+     */
+    protected static Optional<String> getDatatypeIRIString(RDFLiteralConstant literal) {
+        RDFDatatype datatype = literal.getType();
+        return (datatype.getLanguageTag().isPresent() || datatype.getIRI().equals(XSD.STRING))
+                ? Optional.empty()
+                : Optional.of(datatype.getIRI().getIRIString());
+    }
+
+    /**
+     * Writes nothing for a null constant (unbound variable)
+     */
+    protected void writeConstant(@Nullable RDFConstant constant) throws IOException {
+        if (constant instanceof IRIConstant)
+            writeIRI((IRIConstant) constant);
+        else if (constant instanceof BNode)
+            writeBNode((BNode) constant);
+        else if (constant instanceof RDFLiteralConstant)
+            writeLiteral((RDFLiteralConstant) constant);
+        else if (constant != null)
+            throw new IllegalArgumentException("Unexpected constant: " + constant);
+    }
+
+    protected abstract void writeIRI(IRIConstant iri) throws IOException;
+
+    protected abstract void writeBNode(BNode bnode) throws IOException;
+
+    protected abstract void writeLiteral(RDFLiteralConstant literal) throws IOException;
+}
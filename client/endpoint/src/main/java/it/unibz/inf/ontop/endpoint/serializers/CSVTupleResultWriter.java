@@ -0,0 +1,92 @@
+package it.unibz.inf.ontop.endpoint.serializers;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFLiteralConstant;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * text/csv (see https://www.w3.org/TR/sparql11-results-csv-tsv/).
+ *
+ * Lossy: only the lexical forms are written.
+ */
+public class CSVTupleResultWriter extends AbstractTupleResultWriter {
+
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    public CSVTupleResultWriter(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    protected void writeHeader(ImmutableList<String> variables) throws IOException {
+        for (int i = 0; i < variables.size(); i++) {
+            if (i > 0)
+                writer.write(',');
+            writeField(variables.get(i));
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    protected void writeRow(ImmutableList<String> variables, OntopBindingSet bindingSet)
+            throws IOException, OntopResultConversionException {
+        for (int i = 0; i < variables.size(); i++) {
+            if (i > 0)
+                writer.write(',');
+            writeConstant(bindingSet.getConstant(variables.get(i)));
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    protected void writeFooter() {
+    }
+
+    @Override
+    protected void writeIRI(IRIConstant iri) throws IOException {
+        writeField(getIRIString(iri));
+    }
+
+    @Override
+    protected void writeBNode(BNode bnode) throws IOException {
+        writeField("_:" + getBNodeLabel(bnode));
+    }
+
+    @Override
+    protected void writeLiteral(RDFLiteralConstant literal) throws IOException {
+        writeField(literal.getValue());
+    }
+
+    /**
+     * Quoted only when needed (RFC 4180)
+     */
+    private void writeField(String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == '"' || c == ',' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                writer.write(value, start, i + 1 - start);
+                writer.write('"');
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+}
@@ -0,0 +1,131 @@
+package it.unibz.inf.ontop.endpoint.serializers;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.RDFLiteralConstant;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * application/sparql-results+json (see https://www.w3.org/TR/sparql11-results-json/)
+ */
+public class JSONTupleResultWriter extends AbstractTupleResultWriter {
+
+    private boolean isFirstRow = true;
+
+    public JSONTupleResultWriter(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    protected void writeHeader(ImmutableList<String> variables) throws IOException {
+        writer.write("{\"head\":{\"vars\":[");
+        for (int i = 0; i < variables.size(); i++) {
+            if (i > 0)
+                writer.write(',');
+            writeString(variables.get(i));
+        }
+        writer.write("]},\"results\":{\"bindings\":[");
+    }
+
+    @Override
+    protected void writeRow(ImmutableList<String> variables, OntopBindingSet bindingSet)
+            throws IOException, OntopResultConversionException {
+        writer.write(isFirstRow ? "\n{" : ",\n{");
+        isFirstRow = false;
+
+        boolean isFirstBinding = true;
+        for (String variable : variables) {
+            RDFConstant constant = bindingSet.getConstant(variable);
+            if (constant == null)
+                continue;
+            if (!isFirstBinding)
+                writer.write(',');
+            isFirstBinding = false;
+            writeString(variable);
+            writer.write(':');
+            writeConstant(constant);
+        }
+        writer.write('}');
+    }
+
+    @Override
+    protected void writeFooter() throws IOException {
+        writer.write("]}}\n");
+    }
+
+    @Override
+    protected void writeIRI(IRIConstant iri) throws IOException {
+        writer.write("{\"type\":\"uri\",\"value\":");
+        writeString(getIRIString(iri));
+        writer.write('}');
+    }
+
+    @Override
+    protected void writeBNode(BNode bnode) throws IOException {
+        writer.write("{\"type\":\"bnode\",\"value\":");
+        writeString(getBNodeLabel(bnode));
+        writer.write('}');
+    }
+
+    @Override
+    protected void writeLiteral(RDFLiteralConstant literal) throws IOException {
+        writer.write("{\"type\":\"literal\",\"value\":");
+        writeString(literal.getValue());
+
+        Optional<String> languageTag = getLanguageTag(literal);
+        if (languageTag.isPresent()) {
+            writer.write(",\"xml:lang\":");
+            writeString(languageTag.get());
+        }
+        else {
+            Optional<String> datatype = getDatatypeIRIString(literal);
+            if (datatype.isPresent()) {
+                writer.write(",\"datatype\":");
+                writeString(datatype.get());
+            }
+        }
+        writer.write('}');
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escaped = escape(c);
+            if (escaped != null) {
+                writer.write(value, start, i - start);
+                writer.write(escaped);
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+
+    private static String escape(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            default:
+                return c < 0x20
+                        ? String.format("\\u%04x", (int) c)
+                        : null;
+        }
+    }
+}
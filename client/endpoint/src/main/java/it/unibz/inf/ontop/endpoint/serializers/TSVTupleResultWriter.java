@@ -0,0 +1,114 @@
+package it.unibz.inf.ontop.endpoint.serializers;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFLiteralConstant;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * text/tab-separated-values (see https://www.w3.org/TR/sparql11-results-csv-tsv/).
+ *
+ * RDF terms are written in the Turtle syntax.
+ */
+public class TSVTupleResultWriter extends AbstractTupleResultWriter {
+
+    public TSVTupleResultWriter(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    protected void writeHeader(ImmutableList<String> variables) throws IOException {
+        for (int i = 0; i < variables.size(); i++) {
+            if (i > 0)
+                writer.write('\t');
+            writer.write('?');
+            writer.write(variables.get(i));
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    protected void writeRow(ImmutableList<String> variables, OntopBindingSet bindingSet)
+            throws IOException, OntopResultConversionException {
+        for (int i = 0; i < variables.size(); i++) {
+            if (i > 0)
+                writer.write('\t');
+            writeConstant(bindingSet.getConstant(variables.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    protected void writeFooter() {
+    }
+
+    @Override
+    protected void writeIRI(IRIConstant iri) throws IOException {
+        writer.write('<');
+        writer.write(getIRIString(iri));
+        writer.write('>');
+    }
+
+    @Override
+    protected void writeBNode(BNode bnode) throws IOException {
+        writer.write("_:");
+        writer.write(getBNodeLabel(bnode));
+    }
+
+    @Override
+    protected void writeLiteral(RDFLiteralConstant literal) throws IOException {
+        writer.write('"');
+        writeEscaped(literal.getValue());
+        writer.write('"');
+
+        Optional<String> languageTag = getLanguageTag(literal);
+        if (languageTag.isPresent()) {
+            writer.write('@');
+            writer.write(languageTag.get());
+        }
+        else {
+            Optional<String> datatype = getDatatypeIRIString(literal);
+            if (datatype.isPresent()) {
+                writer.write("^^<");
+                writer.write(datatype.get());
+                writer.write('>');
+            }
+        }
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String escaped;
+            switch (value.charAt(i)) {
+                case '"':
+                    escaped = "\\\"";
+                    break;
+                case '\\':
+                    escaped = "\\\\";
+                    break;
+                case '\n':
+                    escaped = "\\n";
+                    break;
+                case '\r':
+                    escaped = "\\r";
+                    break;
+                case '\t':
+                    escaped = "\\t";
+                    break;
+                default:
+                    continue;
+            }
+            writer.write(value, start, i - start);
+            writer.write(escaped);
+            start = i + 1;
+        }
+        writer.write(value, start, value.length() - start);
+    }
+}
@@ -0,0 +1,143 @@
+package it.unibz.inf.ontop.endpoint.serializers;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.RDFLiteralConstant;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * application/sparql-results+xml (see https://www.w3.org/TR/rdf-sparql-XMLres/)
+ */
+public class XMLTupleResultWriter extends AbstractTupleResultWriter {
+
+    private static final String REPLACEMENT_CHARACTER = "\uFFFD";
+
+    public XMLTupleResultWriter(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    protected void writeHeader(ImmutableList<String> variables) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<sparql xmlns=\"http://www.w3.org/2005/sparql-results#\">\n<head>\n");
+        for (String variable : variables) {
+            writer.write("<variable name=\"");
+            writeEscaped(variable);
+            writer.write("\"/>\n");
+        }
+        writer.write("</head>\n<results>\n");
+    }
+
+    @Override
+    protected void writeRow(ImmutableList<String> variables, OntopBindingSet bindingSet)
+            throws IOException, OntopResultConversionException {
+        writer.write("<result>");
+        for (String variable : variables) {
+            RDFConstant constant = bindingSet.getConstant(variable);
+            if (constant == null)
+                continue;
+            writer.write("<binding name=\"");
+            writeEscaped(variable);
+            writer.write("\">");
+            writeConstant(constant);
+            writer.write("</binding>");
+        }
+        writer.write("</result>\n");
+    }
+
+    @Override
+    protected void writeFooter() throws IOException {
+        writer.write("</results>\n</sparql>\n");
+    }
+
+    @Override
+    protected void writeIRI(IRIConstant iri) throws IOException {
+        writer.write("<uri>");
+        writeEscaped(getIRIString(iri));
+        writer.write("</uri>");
+    }
+
+    @Override
+    protected void writeBNode(BNode bnode) throws IOException {
+        writer.write("<bnode>");
+        writeEscaped(getBNodeLabel(bnode));
+        writer.write("</bnode>");
+    }
+
+    @Override
+    protected void writeLiteral(RDFLiteralConstant literal) throws IOException {
+        writer.write("<literal");
+        Optional<String> languageTag = getLanguageTag(literal);
+        if (languageTag.isPresent()) {
+            writer.write(" xml:lang=\"");
+            writeEscaped(languageTag.get());
+            writer.write('"');
+        }
+        else {
+            Optional<String> datatype = getDatatypeIRIString(literal);
+            if (datatype.isPresent()) {
+                writer.write(" datatype=\"");
+                writeEscaped(datatype.get());
+                writer.write('"');
+            }
+        }
+        writer.write('>');
+        writeEscaped(literal.getValue());
+        writer.write("</literal>");
+    }
+
+    /**
+     * Valid for both text and attribute values.
+     *
+     * The characters that cannot appear in an XML 1.0 document, even as character references
+     * (control characters other than tab, line feed and carriage return, lone surrogates, U+FFFE and U+FFFF),
+     * are replaced by U+FFFD (replacement character).
+     */
+    private void writeEscaped(String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escaped;
+            switch (c) {
+                case '&':
+                    escaped = "&amp;";
+                    break;
+                case '<':
+                    escaped = "&lt;";
+                    break;
+                case '>':
+                    escaped = "&gt;";
+                    break;
+                case '"':
+                    escaped = "&quot;";
+                    break;
+                case '\r':
+                    escaped = "&#13;";
+                    break;
+                case '\t':
+                case '\n':
+                    continue;
+                default:
+                    if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                            && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        i++;
+                        continue;
+                    }
+                    if (c >= 0x20 && !Character.isSurrogate(c) && c != 0xFFFE && c != 0xFFFF)
+                        continue;
+                    escaped = REPLACEMENT_CHARACTER;
+            }
+            writer.write(value, start, i - start);
+            writer.write(escaped);
+            start = i + 1;
+        }
+        writer.write(value, start, value.length() - start);
+    }
+}
@@ -0,0 +1,315 @@
+package it.unibz.inf.ontop.endpoint.serializers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.answering.resultset.impl.OntopBindingImpl;
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.RDFLiteralConstant;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.type.LanguageTag;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.RDF;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParser;
+import org.eclipse.rdf4j.query.resultio.helpers.QueryResultCollector;
+import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLResultsJSONParser;
+import org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLResultsXMLParser;
+import org.eclipse.rdf4j.query.resultio.text.csv.SPARQLResultsCSVParser;
+import org.eclipse.rdf4j.query.resultio.text.tsv.SPARQLResultsTSVParser;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The results written by the tuple result writers are parsed again by the RDF4J parsers.
+ */
+public class TupleResultWritersTest {
+
+    private static final TermFactory TERM_FACTORY;
+    private static final RDF RDF_FACTORY;
+    private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+
+    static {
+        OntopModelConfiguration configuration = OntopModelConfiguration.defaultBuilder().build();
+        TERM_FACTORY = configuration.getTermFactory();
+        RDF_FACTORY = configuration.getRdfFactory();
+    }
+
+    private static final ImmutableList<String> VARIABLES = ImmutableList.of("iri", "bnode", "literal", "typed", "lang");
+
+    /**
+     * Unbound variables are absent
+     */
+    private static final ImmutableList<ImmutableMap<String, RDFConstant>> ROWS = ImmutableList.of(
+            ImmutableMap.of(
+                    "iri", iri("http://example.org/person?id=1&name=John#me"),
+                    "bnode", TERM_FACTORY.getConstantBNode("b0"),
+                    "literal", TERM_FACTORY.getRDFLiteralConstant(
+                            "\"quoted\", <tagged> & escaped\\\nnext line\tafter tab \uD83D\uDE00 \u00E9",
+                            XSD.STRING),
+                    "typed", TERM_FACTORY.getRDFLiteralConstant("42", XSD.INTEGER),
+                    "lang", TERM_FACTORY.getRDFLiteralConstant("chat", "fr")),
+            ImmutableMap.of(
+                    "literal", TERM_FACTORY.getRDFLiteralConstant("", XSD.STRING),
+                    "typed", TERM_FACTORY.getRDFLiteralConstant("2020-01-01T00:00:00Z", XSD.DATETIME),
+                    "lang", TERM_FACTORY.getRDFLiteralConstant("colour", "en-GB")),
+            ImmutableMap.of(
+                    "bnode", TERM_FACTORY.getConstantBNode("b1")),
+            ImmutableMap.of());
+
+    /**
+     * Carriage returns and control characters
+     */
+    private static final ImmutableList<ImmutableMap<String, RDFConstant>> CONTROL_CHARACTER_ROWS = ImmutableList.of(
+            ImmutableMap.of(
+                    "literal", TERM_FACTORY.getRDFLiteralConstant("a\r\nb\u0001c\u001Fd", XSD.STRING)));
+
+    @Test
+    public void testJSON() throws Exception {
+        checkRoundTrip(JSONTupleResultWriter::new, new SPARQLResultsJSONParser(VALUE_FACTORY), ROWS);
+    }
+
+    @Test
+    public void testXML() throws Exception {
+        checkRoundTrip(XMLTupleResultWriter::new, new SPARQLResultsXMLParser(VALUE_FACTORY), ROWS);
+    }
+
+    @Test
+    public void testTSV() throws Exception {
+        checkRoundTrip(TSVTupleResultWriter::new, new SPARQLResultsTSVParser(VALUE_FACTORY), ROWS);
+    }
+
+    /**
+     * CSV is lossy: only the lexical forms, the IRIs and the blank node labels are kept,
+     * and empty literals cannot be distinguished from unbound variables
+     */
+    @Test
+    public void testCSV() throws Exception {
+        ImmutableList<ImmutableMap<String, String>> expected = ROWS.stream()
+                .map(r -> toRDF4J(r).entrySet().stream()
+                        .filter(e -> !e.getValue().stringValue().isEmpty())
+                        .collect(ImmutableCollectors.toMap(Map.Entry::getKey, e -> e.getValue().stringValue())))
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableList<ImmutableMap<String, String>> parsedRows = parse(
+                write(CSVTupleResultWriter::new, ROWS), new SPARQLResultsCSVParser(VALUE_FACTORY)).stream()
+                .map(r -> r.entrySet().stream()
+                        .collect(ImmutableCollectors.toMap(Map.Entry::getKey, e -> e.getValue().stringValue())))
+                .collect(ImmutableCollectors.toList());
+
+        assertEquals(expected, parsedRows);
+    }
+
+    @Test
+    public void testControlCharactersJSON() throws Exception {
+        checkRoundTrip(JSONTupleResultWriter::new, new SPARQLResultsJSONParser(VALUE_FACTORY),
+                CONTROL_CHARACTER_ROWS);
+    }
+
+    @Test
+    public void testControlCharactersTSV() throws Exception {
+        checkRoundTrip(TSVTupleResultWriter::new, new SPARQLResultsTSVParser(VALUE_FACTORY),
+                CONTROL_CHARACTER_ROWS);
+    }
+
+    /**
+     * The characters that are not allowed in XML 1.0 are replaced by U+FFFD
+     */
+    @Test
+    public void testInvalidCharactersXML() throws Exception {
+        ImmutableList<ImmutableMap<String, RDFConstant>> rows = ImmutableList.of(
+                ImmutableMap.of(
+                        "literal", TERM_FACTORY.getRDFLiteralConstant(
+                                "a\r\nb\u0001c\u001Fd\uFFFEe\uD800f\uDC00g\uD83D\uDE00", XSD.STRING)));
+
+        ImmutableList<ImmutableMap<String, Value>> expected = ImmutableList.of(
+                ImmutableMap.of("literal",
+                        VALUE_FACTORY.createLiteral("a\r\nb\uFFFDc\uFFFDd\uFFFDe\uFFFDf\uFFFDg\uD83D\uDE00")));
+
+        assertEquals(expected, parse(write(XMLTupleResultWriter::new, rows),
+                new SPARQLResultsXMLParser(VALUE_FACTORY)));
+    }
+
+    private static void checkRoundTrip(Function<OutputStream, AbstractTupleResultWriter> writerConstructor,
+                                       TupleQueryResultParser parser,
+                                       ImmutableList<ImmutableMap<String, RDFConstant>> rows) throws Exception {
+        ImmutableList<ImmutableMap<String, Value>> expected = rows.stream()
+                .map(TupleResultWritersTest::toRDF4J)
+                .collect(ImmutableCollectors.toList());
+
+        assertEquals(expected, parse(write(writerConstructor, rows), parser));
+    }
+
+    private static byte[] write(Function<OutputStream, AbstractTupleResultWriter> writerConstructor,
+                                ImmutableList<ImmutableMap<String, RDFConstant>> rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writerConstructor.apply(out).write(new ListTupleResultSet(VARIABLES, rows));
+        return out.toByteArray();
+    }
+
+    private static ImmutableList<ImmutableMap<String, Value>> parse(byte[] content, TupleQueryResultParser parser)
+            throws Exception {
+        QueryResultCollector collector = new QueryResultCollector();
+        parser.setQueryResultHandler(collector);
+        parser.parseQueryResult(new ByteArrayInputStream(content));
+
+        assertEquals(VARIABLES, collector.getBindingNames());
+
+        List<BindingSet> bindingSets = collector.getBindingSets();
+        return bindingSets.stream()
+                .map(s -> ImmutableList.copyOf(s.iterator()).stream()
+                        .filter(b -> b.getValue() != null)
+                        .collect(ImmutableCollectors.toMap(Binding::getName, Binding::getValue)))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private static ImmutableMap<String, Value> toRDF4J(ImmutableMap<String, RDFConstant> row) {
+        return row.entrySet().stream()
+                .collect(ImmutableCollectors.toMap(Map.Entry::getKey, e -> toRDF4J(e.getValue())));
+    }
+
+    private static Value toRDF4J(RDFConstant constant) {
+        if (constant instanceof IRIConstant)
+            return VALUE_FACTORY.createIRI(((IRIConstant) constant).getIRI().getIRIString());
+        if (constant instanceof BNode)
+            return VALUE_FACTORY.createBNode(((BNode) constant).getName());
+
+        RDFLiteralConstant literal = (RDFLiteralConstant) constant;
+        return literal.getType().getLanguageTag()
+                .map(LanguageTag::getFullString)
+                .map(l -> (Value) VALUE_FACTORY.createLiteral(literal.getValue(), l))
+                .orElseGet(() -> VALUE_FACTORY.createLiteral(literal.getValue(),
+                        VALUE_FACTORY.createIRI(literal.getType().getIRI().getIRIString())));
+    }
+
+    private static IRIConstant iri(String iri) {
+        return TERM_FACTORY.getConstantIRI(RDF_FACTORY.createIRI(iri));
+    }
+
+
+    private static class ListTupleResultSet implements TupleResultSet {
+
+        private final ImmutableList<String> variables;
+        private final Iterator<ImmutableMap<String, RDFConstant>> iterator;
+
+        ListTupleResultSet(ImmutableList<String> variables, ImmutableList<ImmutableMap<String, RDFConstant>> rows) {
+            this.variables = variables;
+            this.iterator = rows.iterator();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return variables.size();
+        }
+
+        @Override
+        public List<String> getSignature() {
+            return variables;
+        }
+
+        @Override
+        public int getFetchSize() {
+            return 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public OntopBindingSet next() {
+            if (!iterator.hasNext())
+                throw new NoSuchElementException();
+            return new MapBindingSet(variables, iterator.next());
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+
+    private static class MapBindingSet implements OntopBindingSet {
+
+        private final ImmutableList<OntopBinding> bindings;
+
+        MapBindingSet(ImmutableList<String> variables, ImmutableMap<String, RDFConstant> row) {
+            this.bindings = variables.stream()
+                    .filter(row::containsKey)
+                    .map(v -> new OntopBindingImpl(TERM_FACTORY.getVariable(v), row.get(v)))
+                    .collect(ImmutableCollectors.toList());
+        }
+
+        @Override
+        public Iterator<OntopBinding> iterator() {
+            return bindings.iterator();
+        }
+
+        @Override
+        public ImmutableList<RDFConstant> getValues() {
+            return bindings.stream()
+                    .map(OntopBinding::getValue)
+                    .collect(ImmutableCollectors.toList());
+        }
+
+        @Override
+        public ImmutableList<OntopBinding> getBindings() {
+            return bindings;
+        }
+
+        @Override
+        public ImmutableList<String> getBindingNames() {
+            return bindings.stream()
+                    .map(OntopBinding::getName)
+                    .collect(ImmutableCollectors.toList());
+        }
+
+        @Nullable
+        @Override
+        public RDFConstant getConstant(String name) {
+            OntopBinding binding = getBinding(name);
+            return binding == null ? null : binding.getValue();
+        }
+
+        @Nullable
+        @Override
+        public OntopBinding getBinding(String name) {
+            return bindings.stream()
+                    .filter(b -> b.getName().equals(name))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        @Override
+        public boolean hasBinding(String bindingName) {
+            return getBinding(bindingName) != null;
+        }
+
+        @Override
+        public String getRowUUIDStr() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
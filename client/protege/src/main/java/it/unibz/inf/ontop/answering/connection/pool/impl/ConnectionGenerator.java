@@ -4,6 +4,7 @@ package it.unibz.inf.ontop.answering.connection.pool.impl;
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
 import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
 
 import java.sql.Connection;
@@ -21,10 +22,12 @@ import java.sql.SQLException;
 public class ConnectionGenerator implements JDBCConnectionPool {
 
     private final OntopSystemSQLSettings settings;
+    private final ConnectionAcquisitionRecorder recorder;
 
     @Inject
     private ConnectionGenerator(OntopSystemSQLSettings settings) {
         this.settings = settings;
+        this.recorder = new ConnectionAcquisitionRecorder();
     }
 
 
@@ -37,6 +40,21 @@ public class ConnectionGenerator implements JDBCConnectionPool {
      */
     @Override
     public Connection getConnection() throws SQLException {
-        return LocalJDBCConnectionUtils.createConnection(settings);
+        return recorder.acquire(() -> LocalJDBCConnectionUtils.createConnection(settings));
+    }
+
+    /**
+     * Nothing to pre-warm: connections are not pooled
+     */
+    @Override
+    public void prewarm() {
+    }
+
+    /**
+     * Connections are not tracked
+     */
+    @Override
+    public JDBCConnectionPoolMetrics getMetrics() {
+        return new JDBCConnectionPoolMetricsImpl(0, 0, 0, 0, recorder);
     }
 }
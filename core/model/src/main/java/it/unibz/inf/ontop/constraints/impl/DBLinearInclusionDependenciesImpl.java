@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.dbschema.ForeignKeyConstraint;
 import it.unibz.inf.ontop.model.atom.AtomFactory;
 import it.unibz.inf.ontop.model.atom.DataAtom;
 import it.unibz.inf.ontop.model.atom.RelationPredicate;
+import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
 import it.unibz.inf.ontop.utils.CoreUtilsFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
@@ -47,15 +48,26 @@ public class DBLinearInclusionDependenciesImpl extends BasicLinearInclusionDepen
                         c -> atom.getArguments().get(c.getAttribute().getIndex() - 1)));
 
         ImmutableList<VariableOrGroundTerm> newArguments = fk.getReferencedRelation().getAttributes().stream()
-                .map(a -> inversion.getOrDefault(a, variableGenerator.generateNewVariable(a.getID().getName())))
+                .map(a -> inversion.getOrDefault(a, generateNewVariable(a.getID().getName())))
                 .collect(ImmutableCollectors.toList());
 
         return Optional.of(atomFactory.getDataAtom(fk.getReferencedRelation().getAtomPredicate(), newArguments));
     }
 
+    /**
+     * The variable generator is shared by all the chases (labelled nulls), which may run concurrently
+     */
+    private Variable generateNewVariable(String suggestedName) {
+        synchronized (variableGenerator) {
+            return variableGenerator.generateNewVariable(suggestedName);
+        }
+    }
+
     @Override
     protected void registerVariables(DataAtom<RelationPredicate> atom) {
-        variableGenerator.registerAdditionalVariables(atom.getVariables());
+        synchronized (variableGenerator) {
+            variableGenerator.registerAdditionalVariables(atom.getVariables());
+        }
     }
 
     @Override
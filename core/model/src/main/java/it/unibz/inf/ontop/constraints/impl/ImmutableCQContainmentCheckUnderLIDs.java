@@ -6,10 +6,12 @@ import it.unibz.inf.ontop.model.atom.AtomPredicate;
 import it.unibz.inf.ontop.model.atom.DataAtom;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ImmutableCQContainmentCheckUnderLIDs<P extends AtomPredicate> implements ImmutableCQContainmentCheck<P> {
 
-    private final Map<ImmutableList<DataAtom<P>>, ImmutableSet<DataAtom<P>>> chaseCache = new HashMap<>();
+    // Concurrent: the containment check can be shared by the threads saturating the mapping
+    private final Map<ImmutableList<DataAtom<P>>, ImmutableSet<DataAtom<P>>> chaseCache = new ConcurrentHashMap<>();
 
     private final BasicLinearInclusionDependenciesImpl<P> dependencies;
 
@@ -51,4 +51,13 @@ public interface QuotedIDFactory {
 	
 	
 	String getIDQuotationString();
+
+
+	/**
+	 * Identifies the rules of the factory, e.g., in the serialized DB metadata
+	 *
+	 * @return
+	 */
+
+	String getIDFactoryType();
 }
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
@@ -42,6 +43,14 @@ public abstract class AbstractDatabaseRelationDefinition extends AbstractRelatio
         return allIds;
     }
 
+    @JsonProperty("otherNames")
+    @JsonSerialize(contentUsing = RelationIDImpl.RelationIDSerializer.class)
+    ImmutableList<RelationID> getOtherIDsForJsonExport() {
+        return allIds.stream()
+                .filter(i -> !i.equals(id))
+                .collect(ImmutableCollectors.toList());
+    }
+
 
     /**
      * returns the list of unique constraints (including the primary key if present)
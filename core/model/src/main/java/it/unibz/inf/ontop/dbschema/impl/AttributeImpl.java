@@ -69,6 +69,12 @@ public class AttributeImpl implements Attribute {
     @Override
     public DBTermType getTermType() { return termType; }
 
+    /**
+     * The SQL type name alone is not always sufficient for recovering the term type (e.g. TINYINT(1) in MySQL)
+     */
+    @JsonProperty("termType")
+    String getTermTypeNameForJsonExport() { return termType.getName(); }
+
     @Override
     public String toString() {
         return id + (typeName == null ? "" : " " + typeName) + (isNullable ? "" : " NOT NULL");
@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.dbschema.impl;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import it.unibz.inf.ontop.dbschema.*;
@@ -11,7 +12,15 @@ import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Map;
 
+@JsonPropertyOrder({ "formatVersion", "metadata", "relations" })
 public class ImmutableMetadataImpl implements ImmutableMetadata {
+
+    /**
+     * Version of the JSON serialization, to be increased when the serialized DB metadata can no longer be read
+     * (see JsonSerializedMetadataProviderFactory)
+     */
+    public static final int FORMAT_VERSION = 1;
+
     private final DBParameters dbParameters;
     private final ImmutableList<DatabaseRelationDefinition> relations;
 
@@ -32,6 +41,11 @@ public class ImmutableMetadataImpl implements ImmutableMetadata {
         return dbParameters;
     }
 
+    @JsonProperty("formatVersion")
+    int getFormatVersion() {
+        return FORMAT_VERSION;
+    }
+
     @JsonProperty("metadata")
     Map<String, String> getMetadataForJsonExport() {
         DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
@@ -43,6 +57,7 @@ public class ImmutableMetadataImpl implements ImmutableMetadata {
                 .put("driverName", getDBParameters().getDriverName())
                 .put("driverVersion", getDBParameters().getDriverVersion())
                 .put("quotationString", getDBParameters().getQuotedIDFactory().getIDQuotationString())
+                .put("idFactoryType", getDBParameters().getQuotedIDFactory().getIDFactoryType())
                 .put("extractionTime", extractionTime)
                 .build();
     }
@@ -11,18 +11,30 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 
 /**
- * OfflineMetadataProviderBuilder for tests only
+ * Builds a MetadataProvider without connecting to the database:
+ * either in tests or from serialized DB metadata
  */
 
 public class OfflineMetadataProviderBuilder {
 
     private final DBTypeFactory dbTypeFactory;
     private final QuotedIDFactory idFactory;
+    private final DBParameters dbParameters;
     private final ImmutableList.Builder<DatabaseRelationDefinition> listBuilder = ImmutableList.builder();
 
      public OfflineMetadataProviderBuilder(TypeFactory typeFactory) {
         this.idFactory = new SQLStandardQuotedIDFactory();
         this.dbTypeFactory = typeFactory.getDBTypeFactory();
+        this.dbParameters = getDefaultDBParameters();
+    }
+
+    /**
+     * For DB parameters previously extracted from the database
+     */
+    public OfflineMetadataProviderBuilder(DBParameters dbParameters) {
+        this.idFactory = dbParameters.getQuotedIDFactory();
+        this.dbTypeFactory = dbParameters.getDBTypeFactory();
+        this.dbParameters = dbParameters;
     }
 
     public DatabaseRelationDefinition createDatabaseRelation(ImmutableList<RelationID> allIds, RelationDefinition.AttributeListBuilder builder) {
@@ -84,7 +96,7 @@ public class OfflineMetadataProviderBuilder {
 
     public MetadataProvider build() {
         ImmutableList<DatabaseRelationDefinition> list = listBuilder.build();
-        return new ImmutableMetadataProvider(getDBParameters(), list.stream()
+        return new ImmutableMetadataProvider(dbParameters, list.stream()
                 .flatMap(r -> r.getAllIDs().stream().map(i -> Maps.immutableEntry(i, r)))
                 .collect(ImmutableCollectors.toMap()));
     }
@@ -97,7 +109,7 @@ public class OfflineMetadataProviderBuilder {
         return dbTypeFactory;
     }
 
-    private DBParameters getDBParameters() {
+    private DBParameters getDefaultDBParameters() {
         return new DBParameters() {
             @Override
             public QuotedIDFactory getQuotedIDFactory() {
@@ -52,4 +52,9 @@ public class RawQuotedIDFactory implements QuotedIDFactory {
     public String getIDQuotationString() {
         return idFactory.getIDQuotationString();
     }
+
+    @Override
+    public String getIDFactoryType() {
+        return idFactory.getIDFactoryType();
+    }
 }
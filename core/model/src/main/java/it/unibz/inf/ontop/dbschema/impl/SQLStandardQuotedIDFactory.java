@@ -63,6 +63,7 @@ public class SQLStandardQuotedIDFactory implements QuotedIDFactory {
 
 	public static final String QUOTATION_STRING = "\"";
 	public static final String NO_QUOTATION = "";
+	public static final String ID_FACTORY_TYPE = "STANDARD";
 
 	public SQLStandardQuotedIDFactory() { }
 
@@ -90,5 +91,10 @@ public class SQLStandardQuotedIDFactory implements QuotedIDFactory {
 	public String getIDQuotationString() {
 		return QUOTATION_STRING;
 	}
+
+	@Override
+	public String getIDFactoryType() {
+		return ID_FACTORY_TYPE;
+	}
 	
 }
@@ -69,6 +69,12 @@ public interface IntermediateQueryFactory {
                                 @Assisted("columnNames") ImmutableMap<Variable, QuotedID> columnNames,
                                 String nativeQueryString, VariableNullability variableNullability);
 
+    NativeNode createNativeNode(ImmutableSortedSet<Variable> variables,
+                                @Assisted("variableTypeMap") ImmutableMap<Variable, DBTermType> variableTypeMap,
+                                @Assisted("columnNames") ImmutableMap<Variable, QuotedID> columnNames,
+                                String nativeQueryString, ImmutableList<DBConstant> parameters,
+                                VariableNullability variableNullability);
+
     TrueNode createTrueNode();
 
     DistinctNode createDistinctNode();
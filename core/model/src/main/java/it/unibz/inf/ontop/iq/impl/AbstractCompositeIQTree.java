@@ -5,9 +5,7 @@ import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.iq.*;
 import it.unibz.inf.ontop.iq.exception.InvalidIntermediateQueryException;
-import it.unibz.inf.ontop.iq.node.ExplicitVariableProjectionNode;
-import it.unibz.inf.ontop.iq.node.QueryNode;
-import it.unibz.inf.ontop.iq.node.VariableNullability;
+import it.unibz.inf.ontop.iq.node.*;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
 import it.unibz.inf.ontop.substitution.InjectiveVar2VarSubstitution;
@@ -37,6 +35,11 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
     @Nullable
     private String string;
 
+    /*
+     * Computed at construction time, bottom-up from the (already computed) hash codes of the children.
+     */
+    private final int hash;
+
     // Non final
     private boolean hasBeenSuccessfullyValidate;
 
@@ -63,6 +66,7 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
         if (!(treeCache instanceof ConcreteIQTreeCache))
             throw new IllegalArgumentException("Was expecting the tree cache to be instance of ConcreteIQTreeCache");
         this.treeCache = (ConcreteIQTreeCache) treeCache;
+        this.hash = computeHashCode(rootNode, children);
         // To be computed on-demand
         knownVariables = null;
         hasBeenSuccessfullyValidate = false;
@@ -132,15 +136,75 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
                     .reduce("", (c, a) -> c + a);
     }
 
+    /**
+     * Compares the (memoized) hash codes before walking the trees
+     */
     @Override
     public boolean equals(Object o) {
         return (this == o) || ((o instanceof CompositeIQTree)
+                && (hashCode() == o.hashCode())
                 && isEquivalentTo((CompositeIQTree) o));
     }
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return hash;
+    }
+
+    private static int computeHashCode(QueryNode rootNode, ImmutableList<IQTree> children) {
+        int h = computeNodeHashCode(rootNode);
+        for (IQTree child : children) {
+            h = 31 * h + computeHashCode(child);
+        }
+        return h;
+    }
+
+    /**
+     * Composite trees: the hash code computed at construction time.
+     * Leaves do not override hashCode() (nodes are compared by identity), so their structure is hashed.
+     */
+    protected static int computeHashCode(IQTree tree) {
+        return (tree instanceof CompositeIQTree)
+                ? tree.hashCode()
+                : computeNodeHashCode(tree.getRootNode());
+    }
+
+    /**
+     * Consistent with QueryNode.isEquivalentTo(...): only hashes (some of) the components compared there.
+     * The other kinds of nodes are only distinguished by their class.
+     */
+    private static int computeNodeHashCode(QueryNode node) {
+        int h = node.getClass().getName().hashCode();
+        if (node instanceof ExtendedProjectionNode) {
+            ExtendedProjectionNode projectionNode = (ExtendedProjectionNode) node;
+            return 31 * (31 * h + projectionNode.getVariables().hashCode())
+                    + projectionNode.getSubstitution().hashCode();
+        }
+        if (node instanceof JoinOrFilterNode)
+            return 31 * h + ((JoinOrFilterNode) node).getOptionalFilterCondition().hashCode();
+        if (node instanceof UnionNode)
+            return 31 * h + ((UnionNode) node).getVariables().hashCode();
+        if (node instanceof SliceNode) {
+            SliceNode sliceNode = (SliceNode) node;
+            return 31 * (31 * h + Long.hashCode(sliceNode.getOffset())) + sliceNode.getLimit().hashCode();
+        }
+        if (node instanceof OrderByNode) {
+            for (OrderByNode.OrderComparator comparator : ((OrderByNode) node).getComparators())
+                h = 31 * (31 * h + comparator.getTerm().hashCode()) + Boolean.hashCode(comparator.isAscending());
+            return h;
+        }
+        if (node instanceof ExtensionalDataNode) {
+            ExtensionalDataNode dataNode = (ExtensionalDataNode) node;
+            return 31 * (31 * h + dataNode.getRelationDefinition().hashCode())
+                    + dataNode.getArgumentMap().hashCode();
+        }
+        if (node instanceof IntensionalDataNode)
+            return 31 * h + ((IntensionalDataNode) node).getProjectionAtom().hashCode();
+        if (node instanceof EmptyNode)
+            return 31 * h + ((EmptyNode) node).getVariables().hashCode();
+        if (node instanceof NativeNode)
+            return 31 * h + ((NativeNode) node).getNativeQueryString().hashCode();
+        return h;
     }
 
     @Override
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.iq.node.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
@@ -19,6 +20,7 @@ import it.unibz.inf.ontop.iq.node.*;
 import it.unibz.inf.ontop.iq.transform.IQTreeVisitingTransformer;
 import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
 import it.unibz.inf.ontop.iq.visit.IQVisitor;
+import it.unibz.inf.ontop.model.term.DBConstant;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
 import it.unibz.inf.ontop.model.type.DBTermType;
@@ -31,12 +33,14 @@ import java.util.Optional;
 public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
 
     private static final String NATIVE_STRING = "NATIVE ";
+    private static final String PARAMETERS_STRING = "PARAMETERS ";
 
     private final ImmutableMap<Variable, DBTermType> variableTypeMap;
     private final String nativeQueryString;
     private final VariableNullability variableNullability;
     private final ImmutableSortedSet<Variable> variables;
     private final ImmutableMap<Variable, QuotedID> columnNames;
+    private final ImmutableList<DBConstant> parameters;
 
     @AssistedInject
     private NativeNodeImpl(@Assisted ImmutableSortedSet<Variable> variables,
@@ -46,9 +50,23 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
                            @Assisted VariableNullability variableNullability,
                            IQTreeTools iqTreeTools, IntermediateQueryFactory iqFactory,
                            OntopModelSettings settings) {
+        this(variables, variableTypeMap, columnNames, nativeQueryString, ImmutableList.of(), variableNullability,
+                iqTreeTools, iqFactory, settings);
+    }
+
+    @AssistedInject
+    private NativeNodeImpl(@Assisted ImmutableSortedSet<Variable> variables,
+                           @Assisted("variableTypeMap") ImmutableMap<Variable, DBTermType> variableTypeMap,
+                           @Assisted("columnNames") ImmutableMap<Variable, QuotedID> columnNames,
+                           @Assisted String nativeQueryString,
+                           @Assisted ImmutableList<DBConstant> parameters,
+                           @Assisted VariableNullability variableNullability,
+                           IQTreeTools iqTreeTools, IntermediateQueryFactory iqFactory,
+                           OntopModelSettings settings) {
         super(iqTreeTools, iqFactory);
         this.variables = variables;
         this.nativeQueryString = nativeQueryString;
+        this.parameters = parameters;
         this.variableNullability = variableNullability;
         this.variableTypeMap = variableTypeMap;
         this.columnNames = columnNames;
@@ -70,6 +88,11 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
         return nativeQueryString;
     }
 
+    @Override
+    public ImmutableList<DBConstant> getParameters() {
+        return parameters;
+    }
+
     @Override
     public void acceptVisitor(QueryNodeVisitor visitor) {
         throw new UnsupportedOperationException("Should NativeNode support visitors?");
@@ -114,7 +137,8 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
     public boolean isEquivalentTo(QueryNode queryNode) {
         return (queryNode instanceof NativeNode)
                 && ((NativeNode) queryNode).getVariables().equals(variables)
-                && ((NativeNode) queryNode).getNativeQueryString().equals(nativeQueryString);
+                && ((NativeNode) queryNode).getNativeQueryString().equals(nativeQueryString)
+                && ((NativeNode) queryNode).getParameters().equals(parameters);
     }
 
     @Override
@@ -194,6 +218,7 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
 
     @Override
     public String toString() {
-        return NATIVE_STRING + variables + "\n" + nativeQueryString;
+        return NATIVE_STRING + variables + "\n" + nativeQueryString
+                + (parameters.isEmpty() ? "" : "\n" + PARAMETERS_STRING + parameters);
     }
 }
@@ -15,4 +15,10 @@ public interface IQTree2NativeNodeGenerator {
      */
     NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes);
 
+    /**
+     * Some constants may be replaced by parameters, to be bound when executing the native query
+     * (see {@link NativeNode#getParameters()}).
+     */
+    NativeNode generateWithParameters(IQTree iqTree, DBParameters dbParameters);
+
 }
@@ -0,0 +1,13 @@
+package it.unibz.inf.ontop.model.term.functionsymbol.db;
+
+/**
+ * Percent-encodes a DB string so that it can safely be inserted into an IRI template (see R2RML).
+ */
+public interface R2RMLIRISafeEncodeFunctionSymbol extends DBFunctionSymbol {
+
+    /**
+     * Same encoding as the one applied when the functional term is evaluated on a constant.
+     * Useful for post-processing values without building and simplifying terms.
+     */
+    String encode(String value);
+}
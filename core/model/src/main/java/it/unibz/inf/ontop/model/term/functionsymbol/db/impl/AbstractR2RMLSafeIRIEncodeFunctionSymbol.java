@@ -7,11 +7,13 @@ import it.unibz.inf.ontop.iq.node.VariableNullability;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
 import it.unibz.inf.ontop.model.term.functionsymbol.db.DBTypeConversionFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.R2RMLIRISafeEncodeFunctionSymbol;
 import it.unibz.inf.ontop.model.type.DBTermType;
 
 import java.nio.charset.Charset;
 
-public abstract class AbstractR2RMLSafeIRIEncodeFunctionSymbol extends AbstractTypedDBFunctionSymbol {
+public abstract class AbstractR2RMLSafeIRIEncodeFunctionSymbol extends AbstractTypedDBFunctionSymbol
+        implements R2RMLIRISafeEncodeFunctionSymbol {
 
     private final Encoder iriEncoder;
     private final Decoder iriDecoder;
@@ -50,7 +52,12 @@ public abstract class AbstractR2RMLSafeIRIEncodeFunctionSymbol extends AbstractT
         // Query element: percent-encoding except if in iunreserved
         // TODO: this implementation seems to ignore the ucschar range. Check if it is a problem
         // TODO: redundant with R2RMLIRISafeEncoder. Which one shall we choose?
-        return termFactory.getDBStringConstant(iriEncoder.encodeQueryElement(constant.getValue()));
+        return termFactory.getDBStringConstant(encode(constant.getValue()));
+    }
+
+    @Override
+    public String encode(String value) {
+        return iriEncoder.encodeQueryElement(value);
     }
 
     @Override
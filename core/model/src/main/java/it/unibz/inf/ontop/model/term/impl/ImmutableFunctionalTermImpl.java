@@ -33,6 +33,12 @@ public abstract class ImmutableFunctionalTermImpl implements ImmutableFunctional
      */
     private String string;
 
+    /**
+     * Lazy cache for hashCode(). 0 if not computed yet (like for String).
+     * Computed from the hash codes of the sub-terms, not from toString().
+     */
+    private int hash;
+
     protected ImmutableFunctionalTermImpl(FunctionSymbol functor, TermFactory termFactory, ImmutableTerm... terms) {
         this(functor, ImmutableList.copyOf(terms), termFactory);
     }
@@ -111,20 +117,64 @@ public abstract class ImmutableFunctionalTermImpl implements ImmutableFunctional
     }
 
     /**
-     * TODO: A bit hacky: only for the functional term
-     * that derives from ImmutableFunctionalTermImpl
+     * Structural equality: compares the function symbols and then the sub-terms.
+     *
+     * Same contract as comparing the string representations, but without rendering the complete terms:
+     * the function symbols are compared by their string representations (not by FunctionSymbol.equals(),
+     * so distinct symbol instances with the same name are still equal), and so are the non-functional sub-terms
+     * (e.g. DB constants with different types are different).
+     * Only terms of different arities whose renderings happen to coincide are no longer equal.
      */
     @Override
     public boolean equals(Object other) {
-        if (other instanceof ImmutableFunctionalTerm) {
-            return toString().equals(other.toString());
+        if (this == other)
+            return true;
+        if (!(other instanceof ImmutableFunctionalTerm))
+            return false;
+
+        ImmutableFunctionalTerm otherTerm = (ImmutableFunctionalTerm) other;
+        if (hashCode() != otherTerm.hashCode())
+            return false;
+
+        ImmutableList<? extends ImmutableTerm> otherTerms = otherTerm.getTerms();
+        if ((terms.size() != otherTerms.size())
+                || !functionSymbol.toString().equals(otherTerm.getFunctionSymbol().toString()))
+            return false;
+
+        for (int i = 0; i < terms.size(); i++) {
+            if (!areEqualSubTerms(terms.get(i), otherTerms.get(i)))
+                return false;
         }
-        return false;
+        return true;
+    }
+
+    private static boolean areEqualSubTerms(ImmutableTerm term, ImmutableTerm otherTerm) {
+        if (term == otherTerm)
+            return true;
+        if (term instanceof ImmutableFunctionalTerm)
+            // Recursive
+            return term.equals(otherTerm);
+        if (otherTerm instanceof ImmutableFunctionalTerm)
+            return false;
+        return term.toString().equals(otherTerm.toString());
     }
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        // Non-final
+        int h = hash;
+        if (h == 0) {
+            // Consistent with equals()
+            h = functionSymbol.toString().hashCode();
+            for (ImmutableTerm term : terms) {
+                h = 31 * h + ((term instanceof ImmutableFunctionalTerm)
+                        // Recursive (memoized)
+                        ? term.hashCode()
+                        : term.toString().hashCode());
+            }
+            hash = h;
+        }
+        return h;
     }
 
     @Override
@@ -30,9 +30,12 @@ public class ImmutableCollectors {
             return (bl -> (R) bl.build());
         }
 
+        /**
+         * Not CONCURRENT: the builders are not thread-safe (parallel streams use the combiner instead)
+         */
         @Override
         public Set<Characteristics> characteristics() {
-            return Sets.newHashSet(Collector.Characteristics.CONCURRENT);
+            return Sets.newHashSet();
         }
     }
 
@@ -45,7 +48,7 @@ public class ImmutableCollectors {
 
         @Override
         public Set<Characteristics> characteristics() {
-            return Sets.newHashSet(Characteristics.CONCURRENT, Characteristics.UNORDERED);
+            return Sets.newHashSet(Characteristics.UNORDERED);
         }
     }
 
@@ -58,7 +61,7 @@ public class ImmutableCollectors {
 
         @Override
         public Set<Characteristics> characteristics() {
-            return Sets.newHashSet(Characteristics.CONCURRENT, Characteristics.UNORDERED);
+            return Sets.newHashSet(Characteristics.UNORDERED);
         }
     }
 
@@ -0,0 +1,120 @@
+package it.unibz.inf.ontop.iq;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.term.ImmutableExpression;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import org.junit.Test;
+
+import static it.unibz.inf.ontop.OntopModelTestingTools.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Equal trees (and terms) built independently must have the same hash code,
+ * whether the hash codes are computed before or after normalization.
+ */
+public class IQTreeHashCodeTest {
+
+    private final static RelationDefinition TABLE2;
+    private final static RelationDefinition TABLE3;
+    private final static Variable X = TERM_FACTORY.getVariable("x");
+    private final static Variable Y = TERM_FACTORY.getVariable("y");
+    private final static Variable Z = TERM_FACTORY.getVariable("z");
+
+    static {
+        OfflineMetadataProviderBuilder builder = createMetadataProviderBuilder();
+        DBTermType integerDBType = builder.getDBTypeFactory().getDBLargeIntegerType();
+
+        TABLE2 = builder.createDatabaseRelation("TABLE2",
+                "col1", integerDBType, false,
+                "col2", integerDBType, false);
+
+        TABLE3 = builder.createDatabaseRelation("TABLE3",
+                "col1", integerDBType, false,
+                "col2", integerDBType, false,
+                "col3", integerDBType, false);
+    }
+
+    @Test
+    public void testEqualTrees() {
+        IQTree tree1 = buildFilterJoinTree();
+        IQTree tree2 = buildFilterJoinTree();
+
+        assertEquals(tree1, tree2);
+        assertEquals(tree1.hashCode(), tree2.hashCode());
+    }
+
+    @Test
+    public void testDifferentTrees() {
+        IQTree tree1 = buildFilterJoinTree();
+        IQTree tree2 = IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createFilterNode(TERM_FACTORY.getStrictEquality(X, Z)),
+                IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(),
+                        ImmutableList.of(
+                                createExtensionalDataNode(TABLE2, ImmutableList.of(X, Y)),
+                                createExtensionalDataNode(TABLE2, ImmutableList.of(Y, Z)))));
+
+        assertNotEquals(tree1, tree2);
+    }
+
+    @Test
+    public void testEqualFunctionalTerms() {
+        ImmutableFunctionalTerm term1 = TERM_FACTORY.getIRIFunctionalTerm("http://example.org/{}/{}",
+                ImmutableList.of(X, Y));
+        ImmutableFunctionalTerm term2 = TERM_FACTORY.getIRIFunctionalTerm("http://example.org/{}/{}",
+                ImmutableList.of(X, Y));
+
+        assertEquals(term1, term2);
+        assertEquals(term1.hashCode(), term2.hashCode());
+    }
+
+    /**
+     * The hash code of the original tree (computed at construction time) is still valid for the normalized trees
+     */
+    @Test
+    public void testNormalization() {
+        IQTree tree1 = buildUnionTree();
+        int hashCode = tree1.hashCode();
+
+        IQTree normalizedTree1 = tree1.normalizeForOptimization(
+                CORE_UTILS_FACTORY.createVariableGenerator(tree1.getKnownVariables()));
+        IQTree tree2 = buildUnionTree();
+        IQTree normalizedTree2 = tree2.normalizeForOptimization(
+                CORE_UTILS_FACTORY.createVariableGenerator(tree2.getKnownVariables()));
+
+        assertEquals(tree1, normalizedTree1);
+        assertEquals(hashCode, normalizedTree1.hashCode());
+        assertEquals(normalizedTree1, normalizedTree2);
+        assertEquals(normalizedTree1.hashCode(), normalizedTree2.hashCode());
+
+        // Already normalized
+        IQTree renormalizedTree1 = normalizedTree1.normalizeForOptimization(
+                CORE_UTILS_FACTORY.createVariableGenerator(normalizedTree1.getKnownVariables()));
+        assertEquals(hashCode, renormalizedTree1.hashCode());
+    }
+
+    private static IQTree buildFilterJoinTree() {
+        ImmutableExpression condition = TERM_FACTORY.getStrictEquality(X, Z);
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(X, Z));
+        return IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createFilterNode(condition),
+                        IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(),
+                                ImmutableList.of(
+                                        createExtensionalDataNode(TABLE2, ImmutableList.of(X, Y)),
+                                        createExtensionalDataNode(TABLE3, ImmutableList.of(Y, Z, X))))));
+    }
+
+    private static IQTree buildUnionTree() {
+        UnionNode unionNode = IQ_FACTORY.createUnionNode(ImmutableSet.of(X, Z));
+        return IQ_FACTORY.createNaryIQTree(unionNode, ImmutableList.of(
+                createExtensionalDataNode(TABLE2, ImmutableList.of(X, Z)),
+                IQ_FACTORY.createExtensionalDataNode(TABLE3, ImmutableMap.of(0, X, 2, Z))));
+    }
+}
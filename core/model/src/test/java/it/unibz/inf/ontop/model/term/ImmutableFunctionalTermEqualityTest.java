@@ -0,0 +1,70 @@
+package it.unibz.inf.ontop.model.term;
+
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.substitution.OntopModelTestFunctionSymbol;
+import org.junit.Test;
+
+import static it.unibz.inf.ontop.OntopModelTestingTools.TERM_FACTORY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * The structural equality of functional terms keeps the contract of the comparison of their string representations:
+ * distinct function symbol instances with the same name are not distinguished.
+ */
+public class ImmutableFunctionalTermEqualityTest {
+
+    private static final Variable X = TERM_FACTORY.getVariable("x");
+    private static final Variable Y = TERM_FACTORY.getVariable("y");
+
+    @Test
+    public void testDistinctSymbolInstances() {
+        FunctionSymbol f1 = createSymbol("f", 2);
+        FunctionSymbol f2 = createSymbol("f", 2);
+        assertNotSame(f1, f2);
+
+        ImmutableFunctionalTerm t1 = TERM_FACTORY.getImmutableFunctionalTerm(f1, X, TERM_FACTORY.getDBStringConstant("a"));
+        ImmutableFunctionalTerm t2 = TERM_FACTORY.getImmutableFunctionalTerm(f2, X, TERM_FACTORY.getDBStringConstant("a"));
+
+        assertEquals(t1.toString(), t2.toString());
+        assertEquals(t1, t2);
+        assertEquals(t2, t1);
+        assertEquals(t1.hashCode(), t2.hashCode());
+    }
+
+    @Test
+    public void testNestedDistinctSymbolInstances() {
+        ImmutableFunctionalTerm t1 = TERM_FACTORY.getImmutableFunctionalTerm(createSymbol("g", 2),
+                TERM_FACTORY.getImmutableFunctionalTerm(createSymbol("f", 1), X), Y);
+        ImmutableFunctionalTerm t2 = TERM_FACTORY.getImmutableFunctionalTerm(createSymbol("g", 2),
+                TERM_FACTORY.getImmutableFunctionalTerm(createSymbol("f", 1), X), Y);
+
+        assertEquals(t1, t2);
+        assertEquals(t1.hashCode(), t2.hashCode());
+    }
+
+    @Test
+    public void testDifferentNames() {
+        ImmutableFunctionalTerm t1 = TERM_FACTORY.getImmutableFunctionalTerm(createSymbol("f", 1), X);
+        ImmutableFunctionalTerm t2 = TERM_FACTORY.getImmutableFunctionalTerm(createSymbol("g", 1), X);
+
+        assertNotEquals(t1, t2);
+    }
+
+    @Test
+    public void testDifferentArguments() {
+        FunctionSymbol f = createSymbol("f", 1);
+        ImmutableFunctionalTerm t1 = TERM_FACTORY.getImmutableFunctionalTerm(f, TERM_FACTORY.getDBStringConstant("1"));
+        ImmutableFunctionalTerm t2 = TERM_FACTORY.getImmutableFunctionalTerm(f, TERM_FACTORY.getDBIntegerConstant(1));
+        ImmutableFunctionalTerm t3 = TERM_FACTORY.getImmutableFunctionalTerm(f, X);
+
+        assertEquals(t1.toString().equals(t2.toString()), t1.equals(t2));
+        assertNotEquals(t1, t3);
+    }
+
+    private static FunctionSymbol createSymbol(String name, int arity) {
+        return new OntopModelTestFunctionSymbol(name, arity) {
+        };
+    }
+}
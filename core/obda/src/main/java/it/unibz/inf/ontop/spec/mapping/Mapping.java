@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.spec.mapping;
 
 
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Table;
@@ -47,4 +48,20 @@ public interface Mapping {
     ImmutableSet<IRI> getRDFClasses(RDFAtomPredicate rdfAtomPredicate);
 
     ImmutableCollection<IQ> getQueries(RDFAtomPredicate rdfAtomPredicate);
+
+    /**
+     * Subset of getQueries(rdfAtomPredicate) whose subject and object IRI templates (or constants)
+     * are compatible with the given IRIs.
+     *
+     * May over-approximate (e.g. when a definition is too complex to be indexed).
+     */
+    ImmutableList<IQ> getCompatibleQueries(RDFAtomPredicate rdfAtomPredicate, Optional<IRI> subject,
+                                           Optional<IRI> object);
+
+    /**
+     * Class definitions whose subject IRI templates (or constants) are compatible with the given IRI.
+     *
+     * May over-approximate.
+     */
+    ImmutableList<IQ> getCompatibleRDFClassDefinitions(RDFAtomPredicate rdfAtomPredicate, IRI subject);
 }
@@ -0,0 +1,190 @@
+package it.unibz.inf.ontop.spec.mapping.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.ObjectStringTemplateFunctionSymbol;
+import it.unibz.inf.ontop.model.type.ObjectRDFType;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.IRI;
+
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Indexes the definitions of an RDF atom predicate by the IRI templates (their prefixes)
+ * and the IRI constants they use in subject and object positions.
+ *
+ * Over-approximation: a definition whose subject (resp. object) cannot be analyzed is compatible with any IRI.
+ */
+class IRITemplateIndex {
+
+    private static final String PLACE_HOLDER = "{}";
+
+    private final ImmutableList<IQ> definitions;
+    private final PositionIndex subjectIndex;
+    private final PositionIndex objectIndex;
+
+    IRITemplateIndex(RDFAtomPredicate predicate, ImmutableList<IQ> definitions) {
+        this.definitions = definitions;
+        this.subjectIndex = new PositionIndex(definitions, args -> predicate.getSubject(args));
+        this.objectIndex = new PositionIndex(definitions, args -> predicate.getObject(args));
+    }
+
+    /**
+     * Keeps the order of the definitions
+     */
+    ImmutableList<IQ> getCompatibleDefinitions(Optional<IRI> subject, Optional<IRI> object) {
+        BitSet compatible = new BitSet(definitions.size());
+        compatible.set(0, definitions.size());
+        subject.ifPresent(s -> compatible.and(subjectIndex.getCompatibleDefinitions(s.getIRIString())));
+        object.ifPresent(o -> compatible.and(objectIndex.getCompatibleDefinitions(o.getIRIString())));
+
+        return compatible.stream()
+                .mapToObj(definitions::get)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private static class PositionIndex {
+        // Positions of the definitions in the list
+        private final BitSet unindexed = new BitSet();
+        private final ImmutableSetMultimap<String, Integer> byTemplatePrefix;
+        private final ImmutableSetMultimap<String, Integer> byConstant;
+
+        PositionIndex(ImmutableList<IQ> definitions,
+                      Function<ImmutableList<Variable>, Variable> positionGetter) {
+            ImmutableSetMultimap.Builder<String, Integer> prefixBuilder = ImmutableSetMultimap.builder();
+            ImmutableSetMultimap.Builder<String, Integer> constantBuilder = ImmutableSetMultimap.builder();
+
+            for (int i = 0; i < definitions.size(); i++) {
+                IQ definition = definitions.get(i);
+                Variable variable = positionGetter.apply(definition.getProjectionAtom().getArguments());
+
+                Optional<IRIShapes> shapes = getShapes(definition.getTree(), variable);
+                if (shapes.isPresent()) {
+                    for (String prefix : shapes.get().templatePrefixes)
+                        prefixBuilder.put(prefix, i);
+                    for (String constant : shapes.get().constants)
+                        constantBuilder.put(constant, i);
+                }
+                else
+                    unindexed.set(i);
+            }
+            this.byTemplatePrefix = prefixBuilder.build();
+            this.byConstant = constantBuilder.build();
+        }
+
+        BitSet getCompatibleDefinitions(String iri) {
+            BitSet compatible = (BitSet) unindexed.clone();
+            byConstant.get(iri).forEach(compatible::set);
+            // The number of distinct prefixes is expected to be much smaller than the number of definitions
+            byTemplatePrefix.asMap().forEach((prefix, positions) -> {
+                if (iri.startsWith(prefix))
+                    positions.forEach(compatible::set);
+            });
+            return compatible;
+        }
+    }
+
+    /**
+     * IRIs that may be produced for a variable. If both sets are empty, no IRI can be produced.
+     */
+    private static class IRIShapes {
+        private final ImmutableSet<String> templatePrefixes;
+        private final ImmutableSet<String> constants;
+
+        private IRIShapes(ImmutableSet<String> templatePrefixes, ImmutableSet<String> constants) {
+            this.templatePrefixes = templatePrefixes;
+            this.constants = constants;
+        }
+
+        static final IRIShapes NONE = new IRIShapes(ImmutableSet.of(), ImmutableSet.of());
+
+        static IRIShapes ofTemplate(String template) {
+            int index = template.indexOf(PLACE_HOLDER);
+            return new IRIShapes(ImmutableSet.of(index < 0 ? template : template.substring(0, index)), ImmutableSet.of());
+        }
+
+        static IRIShapes ofConstant(String iri) {
+            return new IRIShapes(ImmutableSet.of(), ImmutableSet.of(iri));
+        }
+
+        IRIShapes union(IRIShapes other) {
+            return new IRIShapes(
+                    ImmutableSet.<String>builder().addAll(templatePrefixes).addAll(other.templatePrefixes).build(),
+                    ImmutableSet.<String>builder().addAll(constants).addAll(other.constants).build());
+        }
+    }
+
+    /**
+     * Is empty if the IRIs produced for the variable cannot be characterized
+     */
+    private static Optional<IRIShapes> getShapes(IQTree tree, Variable variable) {
+        QueryNode rootNode = tree.getRootNode();
+        if (rootNode instanceof ConstructionNode) {
+            ConstructionNode constructionNode = (ConstructionNode) rootNode;
+            if (!constructionNode.getSubstitution().isDefining(variable))
+                return getShapes(tree.getChildren().get(0), variable);
+
+            ImmutableTerm term = constructionNode.getSubstitution().get(variable);
+            return (term instanceof Variable)
+                    ? getShapes(tree.getChildren().get(0), (Variable) term)
+                    : getShapes(term);
+        }
+        if (rootNode instanceof UnionNode) {
+            IRIShapes shapes = IRIShapes.NONE;
+            for (IQTree child : tree.getChildren()) {
+                Optional<IRIShapes> childShapes = getShapes(child, variable);
+                if (!childShapes.isPresent())
+                    return Optional.empty();
+                shapes = shapes.union(childShapes.get());
+            }
+            return Optional.of(shapes);
+        }
+        if (rootNode instanceof DistinctNode || rootNode instanceof FilterNode
+                || rootNode instanceof SliceNode || rootNode instanceof OrderByNode)
+            return getShapes(tree.getChildren().get(0), variable);
+
+        return Optional.empty();
+    }
+
+    private static Optional<IRIShapes> getShapes(ImmutableTerm term) {
+        if (term instanceof IRIConstant)
+            return Optional.of(IRIShapes.ofConstant(((IRIConstant) term).getIRI().getIRIString()));
+
+        // Literals, blank nodes and NULL
+        if (term instanceof Constant)
+            return Optional.of(IRIShapes.NONE);
+
+        if (term instanceof ImmutableFunctionalTerm
+                && ((ImmutableFunctionalTerm) term).getFunctionSymbol() instanceof RDFTermFunctionSymbol) {
+            ImmutableFunctionalTerm rdfTerm = (ImmutableFunctionalTerm) term;
+            ImmutableTerm typeTerm = rdfTerm.getTerm(1);
+            if (!(typeTerm instanceof RDFTermTypeConstant))
+                return Optional.empty();
+
+            RDFTermType type = ((RDFTermTypeConstant) typeTerm).getRDFTermType();
+            if (!(type instanceof ObjectRDFType) || ((ObjectRDFType) type).isBlankNode())
+                return Optional.of(IRIShapes.NONE);
+
+            ImmutableTerm lexicalTerm = rdfTerm.getTerm(0);
+            if (lexicalTerm instanceof DBConstant)
+                return Optional.of(IRIShapes.ofConstant(((DBConstant) lexicalTerm).getValue()));
+
+            if (lexicalTerm instanceof ImmutableFunctionalTerm
+                    && ((ImmutableFunctionalTerm) lexicalTerm).getFunctionSymbol() instanceof ObjectStringTemplateFunctionSymbol)
+                return Optional.of(IRIShapes.ofTemplate(
+                        ((ObjectStringTemplateFunctionSymbol) ((ImmutableFunctionalTerm) lexicalTerm).getFunctionSymbol())
+                                .getTemplate()));
+        }
+        return Optional.empty();
+    }
+}
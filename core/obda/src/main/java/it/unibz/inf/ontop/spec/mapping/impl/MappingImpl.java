@@ -7,7 +7,9 @@ import it.unibz.inf.ontop.spec.mapping.Mapping;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.apache.commons.rdf.api.IRI;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 
@@ -16,6 +18,12 @@ public class MappingImpl implements Mapping {
     private final ImmutableTable<RDFAtomPredicate, IRI, IQ> propertyDefinitions;
     private final ImmutableTable<RDFAtomPredicate, IRI, IQ> classDefinitions;
 
+    /**
+     * Built lazily (only used for triple patterns with a variable property or class)
+     */
+    private final Map<RDFAtomPredicate, IRITemplateIndex> queryIndexes = new ConcurrentHashMap<>();
+    private final Map<RDFAtomPredicate, IRITemplateIndex> classDefinitionIndexes = new ConcurrentHashMap<>();
+
     public MappingImpl(ImmutableTable<RDFAtomPredicate, IRI, IQ> propertyTable,
                         ImmutableTable<RDFAtomPredicate, IRI, IQ> classTable) {
 
@@ -54,6 +62,21 @@ public class MappingImpl implements Mapping {
                 .collect(ImmutableCollectors.toList());
     }
 
+    @Override
+    public ImmutableList<IQ> getCompatibleQueries(RDFAtomPredicate rdfAtomPredicate, Optional<IRI> subject,
+                                                  Optional<IRI> object) {
+        return queryIndexes.computeIfAbsent(rdfAtomPredicate,
+                    p -> new IRITemplateIndex(p, ImmutableList.copyOf(getQueries(p))))
+                .getCompatibleDefinitions(subject, object);
+    }
+
+    @Override
+    public ImmutableList<IQ> getCompatibleRDFClassDefinitions(RDFAtomPredicate rdfAtomPredicate, IRI subject) {
+        return classDefinitionIndexes.computeIfAbsent(rdfAtomPredicate,
+                    p -> new IRITemplateIndex(p, ImmutableList.copyOf(classDefinitions.row(p).values())))
+                .getCompatibleDefinitions(Optional.of(subject), Optional.empty());
+    }
+
     @Override
     public ImmutableSet<RDFAtomPredicate> getRDFAtomPredicates() {
         return Sets.union(propertyDefinitions.rowKeySet(), classDefinitions.rowKeySet())
@@ -112,13 +112,13 @@ public class ClassifiedTBoxImpl implements ClassifiedTBox {
 	}
 
 	/**
-	 * constructs from DAGs
+	 * constructs from DAGs (also used by ClassifiedTBoxSerializer)
 	 * @param classDAG
 	 * @param dataRangeDAG
 	 * @param objectPropertyDAG
 	 * @param objectPropertyDAG
 	 */
-	private ClassifiedTBoxImpl(OntologyVocabularyCategory<OClass> classes,
+	ClassifiedTBoxImpl(OntologyVocabularyCategory<OClass> classes,
 							   OntologyVocabularyCategory<ObjectPropertyExpression> objectProperties,
 							   OntologyVocabularyCategory<DataPropertyExpression> dataProperties,
 							   OntologyVocabularyCategory<AnnotationProperty> annotationProperties,
@@ -205,6 +205,7 @@ public class ClassifiedTBoxImpl implements ClassifiedTBox {
 
     // INTERNAL DETAILS
 
+    OntologyVocabularyCategory<AnnotationProperty> annotationProperties() { return annotationProperties; }
 
 
 
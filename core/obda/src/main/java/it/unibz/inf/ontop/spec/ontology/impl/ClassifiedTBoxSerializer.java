@@ -0,0 +1,318 @@
+package it.unibz.inf.ontop.spec.ontology.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.model.vocabulary.OWL;
+import it.unibz.inf.ontop.spec.ontology.*;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Binary form of a ClassifiedTBox (used by the specification snapshots).
+ *
+ * The DAGs are written as they are (equivalence sets, representatives and direct edges),
+ * so that reading does not classify the ontology again.
+ *
+ * Expressions are written as a tag followed by IRIs. When reading, the named entities are created once
+ * and the other expressions are obtained from them (inverses, domains and ranges are cached by the properties),
+ * as in the ontologies built by OntologyBuilderImpl.
+ */
+public class ClassifiedTBoxSerializer {
+
+    private static final byte CLASS = 'C';
+    private static final byte OBJECT_PROPERTY = 'P';
+    private static final byte INVERSE_OBJECT_PROPERTY = 'I';
+    private static final byte OBJECT_SOME_VALUES_FROM = 'E';
+    private static final byte DATA_PROPERTY = 'D';
+    private static final byte DATA_SOME_VALUES_FROM = 'F';
+    private static final byte DATATYPE = 'T';
+    private static final byte DATA_PROPERTY_RANGE = 'R';
+
+    private ClassifiedTBoxSerializer() {
+    }
+
+    public static void write(ClassifiedTBox tbox, DataOutput out) throws IOException {
+        if (!(tbox instanceof ClassifiedTBoxImpl))
+            throw new IllegalArgumentException("Unsupported TBox implementation: " + tbox.getClass());
+
+        writeVocabulary(tbox.classes(), OClass::getIRI, out);
+        writeVocabulary(tbox.objectProperties(), ObjectPropertyExpression::getIRI, out);
+        writeVocabulary(tbox.dataProperties(), DataPropertyExpression::getIRI, out);
+        writeVocabulary(((ClassifiedTBoxImpl) tbox).annotationProperties(), AnnotationProperty::getIRI, out);
+
+        writeDAG(tbox.classesDAG(), out);
+        writeDAG(tbox.objectPropertiesDAG(), out);
+        writeDAG(tbox.dataPropertiesDAG(), out);
+        writeDAG(tbox.dataRangesDAG(), out);
+
+        writeDisjointness(tbox.disjointClasses(), out);
+        writeDisjointness(tbox.disjointObjectProperties(), out);
+        writeDisjointness(tbox.disjointDataProperties(), out);
+
+        writeExpressions(tbox.reflexiveObjectProperties(), out);
+        writeExpressions(tbox.irreflexiveObjectProperties(), out);
+        writeExpressions(tbox.functionalObjectProperties(), out);
+        writeExpressions(tbox.functionalDataProperties(), out);
+    }
+
+    public static ClassifiedTBox read(DataInput in, RDF rdfFactory) throws IOException {
+        TBoxReader reader = new TBoxReader(in, rdfFactory);
+
+        OntologyVocabularyCategory<OClass> classes = reader.readVocabulary(reader::getOClass,
+                OntologyBuilderImpl.CLASS_NOT_FOUND);
+        OntologyVocabularyCategory<ObjectPropertyExpression> objectProperties = reader.readVocabulary(
+                reader::getObjectProperty, OntologyBuilderImpl.OBJECT_PROPERTY_NOT_FOUND);
+        OntologyVocabularyCategory<DataPropertyExpression> dataProperties = reader.readVocabulary(
+                reader::getDataProperty, OntologyBuilderImpl.DATA_PROPERTY_NOT_FOUND);
+        OntologyVocabularyCategory<AnnotationProperty> annotationProperties = reader.readVocabulary(
+                AnnotationPropertyImpl::new, OntologyBuilderImpl.ANNOTATION_PROPERTY_NOT_FOUND);
+
+        EquivalencesDAGImpl<ClassExpression> classDAG = reader.readDAG(ClassExpression.class);
+        EquivalencesDAGImpl<ObjectPropertyExpression> objectPropertyDAG = reader.readDAG(ObjectPropertyExpression.class);
+        EquivalencesDAGImpl<DataPropertyExpression> dataPropertyDAG = reader.readDAG(DataPropertyExpression.class);
+        EquivalencesDAGImpl<DataRangeExpression> dataRangeDAG = reader.readDAG(DataRangeExpression.class);
+
+        return new ClassifiedTBoxImpl(
+                classes,
+                objectProperties,
+                dataProperties,
+                annotationProperties,
+                classDAG,
+                objectPropertyDAG,
+                dataPropertyDAG,
+                dataRangeDAG,
+                reader.readDisjointness(ClassExpression.class),
+                reader.readDisjointness(ObjectPropertyExpression.class),
+                reader.readDisjointness(DataPropertyExpression.class),
+                reader.readExpressions(ObjectPropertyExpression.class),
+                reader.readExpressions(ObjectPropertyExpression.class),
+                reader.readExpressions(ObjectPropertyExpression.class),
+                reader.readExpressions(DataPropertyExpression.class));
+    }
+
+    private static <T> void writeVocabulary(OntologyVocabularyCategory<T> category, Function<T, IRI> iriExtractor,
+                                            DataOutput out) throws IOException {
+        ImmutableList<T> entities = ImmutableList.copyOf(category);
+        out.writeInt(entities.size());
+        for (T entity : entities)
+            out.writeUTF(iriExtractor.apply(entity).getIRIString());
+    }
+
+    private static <T> void writeDAG(EquivalencesDAG<T> dag, DataOutput out) throws IOException {
+        ImmutableList<Equivalences<T>> vertices = ImmutableList.copyOf(dag);
+        Map<Equivalences<T>, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < vertices.size(); i++)
+            indexes.put(vertices.get(i), i);
+
+        out.writeInt(vertices.size());
+        for (Equivalences<T> vertex : vertices) {
+            writeExpressions(vertex.getMembers(), out);
+            // the representative is not necessarily set
+            T representative = vertex.getRepresentative();
+            out.writeBoolean(representative != null);
+            if (representative != null)
+                writeExpression(representative, out);
+            out.writeBoolean(vertex.isIndexed());
+        }
+        for (Equivalences<T> vertex : vertices) {
+            ImmutableSet<Equivalences<T>> directSuper = dag.getDirectSuper(vertex);
+            out.writeInt(directSuper.size());
+            for (Equivalences<T> s : directSuper)
+                out.writeInt(indexes.get(s));
+        }
+    }
+
+    private static <T> void writeDisjointness(ImmutableList<NaryAxiom<T>> axioms, DataOutput out) throws IOException {
+        out.writeInt(axioms.size());
+        for (NaryAxiom<T> axiom : axioms)
+            writeExpressions(axiom.getComponents(), out);
+    }
+
+    private static void writeExpressions(Collection<?> expressions, DataOutput out) throws IOException {
+        out.writeInt(expressions.size());
+        for (Object expression : expressions)
+            writeExpression(expression, out);
+    }
+
+    private static void writeExpression(Object expression, DataOutput out) throws IOException {
+        if (expression instanceof OClass) {
+            out.writeByte(CLASS);
+            out.writeUTF(((OClass) expression).getIRI().getIRIString());
+        }
+        else if (expression instanceof ObjectPropertyExpression) {
+            ObjectPropertyExpression property = (ObjectPropertyExpression) expression;
+            out.writeByte(property.isInverse() ? INVERSE_OBJECT_PROPERTY : OBJECT_PROPERTY);
+            out.writeUTF(property.getIRI().getIRIString());
+        }
+        else if (expression instanceof ObjectSomeValuesFrom) {
+            out.writeByte(OBJECT_SOME_VALUES_FROM);
+            writeExpression(((ObjectSomeValuesFrom) expression).getProperty(), out);
+        }
+        else if (expression instanceof DataPropertyExpression) {
+            out.writeByte(DATA_PROPERTY);
+            out.writeUTF(((DataPropertyExpression) expression).getIRI().getIRIString());
+        }
+        else if (expression instanceof DataSomeValuesFrom) {
+            DataSomeValuesFrom someValuesFrom = (DataSomeValuesFrom) expression;
+            out.writeByte(DATA_SOME_VALUES_FROM);
+            out.writeUTF(someValuesFrom.getProperty().getIRI().getIRIString());
+            out.writeUTF(someValuesFrom.getDatatype().getIRI().getIRIString());
+        }
+        else if (expression instanceof Datatype) {
+            out.writeByte(DATATYPE);
+            out.writeUTF(((Datatype) expression).getIRI().getIRIString());
+        }
+        else if (expression instanceof DataPropertyRangeExpression) {
+            out.writeByte(DATA_PROPERTY_RANGE);
+            out.writeUTF(((DataPropertyRangeExpression) expression).getProperty().getIRI().getIRIString());
+        }
+        else
+            throw new IllegalArgumentException("Unsupported ontology expression: " + expression);
+    }
+
+
+    private static final class TBoxReader {
+        private final DataInput in;
+        private final RDF rdfFactory;
+
+        // the named entities, so that each one is created only once
+        private final Map<IRI, OClass> classes = new HashMap<>();
+        private final Map<IRI, ObjectPropertyExpression> objectProperties = new HashMap<>();
+        private final Map<IRI, DataPropertyExpression> dataProperties = new HashMap<>();
+        private final Map<IRI, Datatype> datatypes = new HashMap<>();
+
+        TBoxReader(DataInput in, RDF rdfFactory) {
+            this.in = in;
+            this.rdfFactory = rdfFactory;
+
+            classes.put(OWL.THING, ClassImpl.owlThing);
+            classes.put(OWL.NOTHING, ClassImpl.owlNothing);
+            objectProperties.put(OWL.TOP_OBJECT_PROPERTY, ObjectPropertyExpressionImpl.owlTopObjectProperty);
+            objectProperties.put(OWL.BOTTOM_OBJECT_PROPERTY, ObjectPropertyExpressionImpl.owlBottomObjectProperty);
+            dataProperties.put(OWL.TOP_DATA_PROPERTY, DataPropertyExpressionImpl.owlTopDataProperty);
+            dataProperties.put(OWL.BOTTOM_DATA_PROPERTY, DataPropertyExpressionImpl.owlBottomDataProperty);
+            datatypes.put(DatatypeImpl.rdfsLiteral.getIRI(), DatatypeImpl.rdfsLiteral);
+        }
+
+        OClass getOClass(IRI iri) {
+            return classes.computeIfAbsent(iri, ClassImpl::new);
+        }
+
+        ObjectPropertyExpression getObjectProperty(IRI iri) {
+            return objectProperties.computeIfAbsent(iri, ObjectPropertyExpressionImpl::new);
+        }
+
+        DataPropertyExpression getDataProperty(IRI iri) {
+            return dataProperties.computeIfAbsent(iri, DataPropertyExpressionImpl::new);
+        }
+
+        Datatype getDatatype(IRI iri) {
+            return datatypes.computeIfAbsent(iri, i -> {
+                Datatype datatype = OntologyImpl.OWL2QLDatatypes.get(i.getIRIString());
+                return datatype != null ? datatype : new DatatypeImpl(i);
+            });
+        }
+
+        private IRI readIRI() throws IOException {
+            return rdfFactory.createIRI(in.readUTF());
+        }
+
+        <T> OntologyVocabularyCategory<T> readVocabulary(Function<IRI, T> entityGetter, String notFoundMessage)
+                throws IOException {
+            int size = in.readInt();
+            ImmutableMap.Builder<IRI, T> builder = ImmutableMap.builder();
+            for (int i = 0; i < size; i++) {
+                IRI iri = readIRI();
+                builder.put(iri, entityGetter.apply(iri));
+            }
+            return new OntologyImpl.ImmutableOntologyVocabularyCategoryImpl<>(builder.build(), notFoundMessage);
+        }
+
+        <T> EquivalencesDAGImpl<T> readDAG(Class<T> expressionClass) throws IOException {
+            int size = in.readInt();
+            ImmutableList.Builder<Equivalences<T>> verticesBuilder = ImmutableList.builder();
+            for (int i = 0; i < size; i++) {
+                ImmutableSet<T> members = readExpressions(expressionClass);
+                T representative = in.readBoolean() ? readExpression(expressionClass) : null;
+                boolean isIndexed = in.readBoolean();
+                verticesBuilder.add(new Equivalences<>(members, representative, isIndexed));
+            }
+            ImmutableList<Equivalences<T>> vertices = verticesBuilder.build();
+
+            int[][] directSuperIndexes = new int[size][];
+            for (int i = 0; i < size; i++) {
+                int[] indexes = new int[in.readInt()];
+                for (int j = 0; j < indexes.length; j++) {
+                    indexes[j] = in.readInt();
+                    if (indexes[j] < 0 || indexes[j] >= size)
+                        throw new IOException("Invalid DAG vertex index: " + indexes[j]);
+                }
+                directSuperIndexes[i] = indexes;
+            }
+            return EquivalencesDAGImpl.fromEquivalences(vertices, directSuperIndexes);
+        }
+
+        <T> ImmutableList<NaryAxiom<T>> readDisjointness(Class<T> expressionClass) throws IOException {
+            int size = in.readInt();
+            ImmutableList.Builder<NaryAxiom<T>> builder = ImmutableList.builder();
+            for (int i = 0; i < size; i++) {
+                int componentCount = in.readInt();
+                ImmutableList.Builder<T> componentBuilder = ImmutableList.builder();
+                for (int j = 0; j < componentCount; j++)
+                    componentBuilder.add(readExpression(expressionClass));
+                builder.add(new NaryAxiomImpl<>(componentBuilder.build()));
+            }
+            return builder.build();
+        }
+
+        <T> ImmutableSet<T> readExpressions(Class<T> expressionClass) throws IOException {
+            int size = in.readInt();
+            ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+            for (int i = 0; i < size; i++)
+                builder.add(readExpression(expressionClass));
+            return builder.build();
+        }
+
+        private <T> T readExpression(Class<T> expressionClass) throws IOException {
+            Object expression = readExpression();
+            if (!expressionClass.isInstance(expression))
+                throw new IOException("Unexpected ontology expression " + expression
+                        + " (expected: " + expressionClass.getSimpleName() + ")");
+            return expressionClass.cast(expression);
+        }
+
+        private Object readExpression() throws IOException {
+            byte tag = in.readByte();
+            switch (tag) {
+                case CLASS:
+                    return getOClass(readIRI());
+                case OBJECT_PROPERTY:
+                    return getObjectProperty(readIRI());
+                case INVERSE_OBJECT_PROPERTY:
+                    return getObjectProperty(readIRI()).getInverse();
+                case OBJECT_SOME_VALUES_FROM:
+                    return readExpression(ObjectPropertyExpression.class).getDomain();
+                case DATA_PROPERTY:
+                    return getDataProperty(readIRI());
+                case DATA_SOME_VALUES_FROM:
+                    DataPropertyExpression property = getDataProperty(readIRI());
+                    return property.getDomainRestriction(getDatatype(readIRI()));
+                case DATATYPE:
+                    return getDatatype(readIRI());
+                case DATA_PROPERTY_RANGE:
+                    return getDataProperty(readIRI()).getRange();
+                default:
+                    throw new IOException("Unknown ontology expression tag: " + tag);
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ package it.unibz.inf.ontop.spec.ontology.impl;
  */
 
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.spec.ontology.Equivalences;
@@ -28,11 +29,10 @@ import it.unibz.inf.ontop.spec.ontology.EquivalencesDAG;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.EdgeReversedGraph;
 import org.jgrapht.graph.SimpleDirectedGraph;
-import org.jgrapht.traverse.BreadthFirstIterator;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 
@@ -55,9 +55,18 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	// maps all Ts (even from the non-reduced DAG) to the vertices of the possibly reduced DAG
 	private final ImmutableMap<T, Equivalences<T>> fullVertexIndex;   
 
-	// caches
-	private final Map<Equivalences<T>, ImmutableSet<T>> subRep = new HashMap<>();
-	private final Map<Equivalences<T>, ImmutableSet<Equivalences<T>>> sub = new HashMap<>();
+	// reachability index, computed at construction time (read-only afterwards):
+	//   the vertices are numbered and subIds[i] (resp. superIds[i]) contains the ids of the vertices
+	//   from which i is reachable (resp. reachable from i), in breadth-first order starting from i
+	private final ImmutableList<Equivalences<T>> vertices;
+	private final ImmutableMap<Equivalences<T>, Integer> vertexIds;
+	private final int[][] subIds;
+	private final int[][] superIds;
+
+	// caches (the DAG is shared by concurrent reformulations)
+	private final Map<Equivalences<T>, ImmutableSet<T>> subRep = new ConcurrentHashMap<>();
+	private final Map<Equivalences<T>, ImmutableSet<Equivalences<T>>> sub = new ConcurrentHashMap<>();
+	private final Map<Equivalences<T>, ImmutableSet<Equivalences<T>>> sup = new ConcurrentHashMap<>();
 
 	private DefaultDirectedGraph<T,DefaultEdge> graph; // used in tests only
 	
@@ -66,25 +75,73 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		this.dag = dag;
 		this.vertexIndex = vertexIndex;
 		this.fullVertexIndex = fullVertexIndex;
-	}
 
-	private static <T> ImmutableSet<T> immutableSetOf(BreadthFirstIterator<T, DefaultEdge>  iterator) {
-		ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+		this.vertices = ImmutableList.copyOf(dag.vertexSet());
+		ImmutableMap.Builder<Equivalences<T>, Integer> vertexIdBuilder = ImmutableMap.builder();
+		for (int i = 0; i < vertices.size(); i++)
+			vertexIdBuilder.put(vertices.get(i), i);
+		this.vertexIds = vertexIdBuilder.build();
 
-		while (iterator.hasNext()) {
-			T child = iterator.next();
-			builder.add(child);
+		int[][] directSubIds = new int[vertices.size()][];
+		int[][] directSuperIds = new int[vertices.size()][];
+		for (int i = 0; i < vertices.size(); i++) {
+			Equivalences<T> v = vertices.get(i);
+			// same order as the edge-based graph traversals
+			directSubIds[i] = dag.incomingEdgesOf(v).stream()
+					.mapToInt(e -> vertexIds.get(dag.getEdgeSource(e)))
+					.toArray();
+			directSuperIds[i] = dag.outgoingEdgesOf(v).stream()
+					.mapToInt(e -> vertexIds.get(dag.getEdgeTarget(e)))
+					.toArray();
+		}
+		this.subIds = computeReachability(directSubIds);
+		this.superIds = computeReachability(directSuperIds);
+	}
+
+	/**
+	 * Breadth-first traversal from each vertex (the vertex itself comes first)
+	 */
+	private static int[][] computeReachability(int[][] successors) {
+		int n = successors.length;
+		int[][] reachable = new int[n][];
+		int[] queue = new int[n];
+		// visited[v] == start + 1 iff v has been visited in the traversal from start
+		int[] visited = new int[n];
+		for (int start = 0; start < n; start++) {
+			int head = 0, tail = 0;
+			queue[tail++] = start;
+			visited[start] = start + 1;
+			while (head < tail) {
+				for (int w : successors[queue[head++]]) {
+					if (visited[w] != start + 1) {
+						visited[w] = start + 1;
+						queue[tail++] = w;
+					}
+				}
+			}
+			reachable[start] = Arrays.copyOf(queue, tail);
 		}
+		return reachable;
+	}
+
+	private int getId(Equivalences<T> v) {
+		Integer id = vertexIds.get(v);
+		if (id == null)
+			throw new IllegalArgumentException("no such vertex in graph: " + v);
+		return id;
+	}
+
+	private ImmutableSet<Equivalences<T>> immutableSetOf(int[] ids) {
+		ImmutableSet.Builder<Equivalences<T>> builder = ImmutableSet.builder();
+		for (int id : ids)
+			builder.add(vertices.get(id));
 		return builder.build();
 	}
 
-	private static <T> ImmutableSet<T> immutableSetOfRepresentatives(BreadthFirstIterator<Equivalences<T>, DefaultEdge>  iterator) {
+	private ImmutableSet<T> immutableSetOfRepresentatives(int[] ids) {
 		ImmutableSet.Builder<T> builder = ImmutableSet.builder();
-
-		while (iterator.hasNext()) {
-			Equivalences<T> child = iterator.next();
-			builder.add(child.getRepresentative());
-		}
+		for (int id : ids)
+			builder.add(vertices.get(id).getRepresentative());
 		return builder.build();
 	}
 
@@ -120,8 +177,7 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	 */
 	@Override
 	public ImmutableSet<Equivalences<T>> getSub(Equivalences<T> v) {
-		return sub.computeIfAbsent(v,
-				n -> immutableSetOf(new BreadthFirstIterator<>(new EdgeReversedGraph<>(dag), n)));
+		return sub.computeIfAbsent(v, n -> immutableSetOf(subIds[getId(n)]));
 	}
 
 	/** 
@@ -133,8 +189,8 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		if (eq == null)
 			return ImmutableSet.of(v);
 
-		return subRep.computeIfAbsent(eq,
-				n -> immutableSetOfRepresentatives(new BreadthFirstIterator<>(new EdgeReversedGraph<>(dag), n)));
+		// representatives are not part of the index: they can be changed after the DAG is built
+		return subRep.computeIfAbsent(eq, n -> immutableSetOfRepresentatives(subIds[getId(n)]));
 	}
 	
 
@@ -154,7 +210,7 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	 */
 	@Override
 	public ImmutableSet<Equivalences<T>> getSuper(Equivalences<T> v) {
-		return immutableSetOf(new BreadthFirstIterator<>(dag, v));
+		return sup.computeIfAbsent(v, n -> immutableSetOf(superIds[getId(n)]));
 	}
 
 	@Override
@@ -304,5 +360,27 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		
 		return new EquivalencesDAGImpl<>(null, target, vertexIndex, source.vertexIndex);
 	}
+
+	/**
+	 * Rebuilds a DAG from its vertices and its direct edges (see ClassifiedTBoxSerializer):
+	 * directSuperIndexes[i] contains the indexes of the direct super-vertices of the i-th vertex
+	 */
+	static <T> EquivalencesDAGImpl<T> fromEquivalences(ImmutableList<Equivalences<T>> equivalenceSets, int[][] directSuperIndexes) {
+
+		SimpleDirectedGraph<Equivalences<T>,DefaultEdge> dag = new SimpleDirectedGraph<>(DefaultEdge.class);
+		ImmutableMap.Builder<T, Equivalences<T>> vertexIndexBuilder = new ImmutableMap.Builder<>();
+		for (Equivalences<T> equivalenceSet : equivalenceSets) {
+			dag.addVertex(equivalenceSet);
+			for (T node : equivalenceSet)
+				vertexIndexBuilder.put(node, equivalenceSet);
+		}
+		ImmutableMap<T, Equivalences<T>> vertexIndex = vertexIndexBuilder.build();
+
+		for (int i = 0; i < equivalenceSets.size(); i++)
+			for (int j : directSuperIndexes[i])
+				dag.addEdge(equivalenceSets.get(i), equivalenceSets.get(j));
+
+		return new EquivalencesDAGImpl<>(null, dag, vertexIndex, vertexIndex);
+	}
 	
 }
@@ -30,11 +30,11 @@ public class OntologyBuilderImpl implements OntologyBuilder {
 
     // exception messages
 
-    private static final String CLASS_NOT_FOUND = "Class not found: ";
-    private static final String OBJECT_PROPERTY_NOT_FOUND = "ObjectProperty not found: ";
-    private static final String DATA_PROPERTY_NOT_FOUND = "DataProperty not found: ";
+    static final String CLASS_NOT_FOUND = "Class not found: ";
+    static final String OBJECT_PROPERTY_NOT_FOUND = "ObjectProperty not found: ";
+    static final String DATA_PROPERTY_NOT_FOUND = "DataProperty not found: ";
     private static final String DATATYPE_NOT_FOUND = "Datatype not found: ";
-    private static final String ANNOTATION_PROPERTY_NOT_FOUND = "AnnotationProperty not found: ";
+    static final String ANNOTATION_PROPERTY_NOT_FOUND = "AnnotationProperty not found: ";
 
     private final OntologyCategoryImpl<OClass> classes;
     private final OntologyCategoryImpl<ObjectPropertyExpression> objectProperties;
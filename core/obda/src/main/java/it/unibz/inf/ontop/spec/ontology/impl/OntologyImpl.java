@@ -20,6 +20,7 @@ package it.unibz.inf.ontop.spec.ontology.impl;
  * #L%
  */
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -32,6 +33,7 @@ import org.apache.commons.rdf.api.IRI;
 
 
 import java.util.Iterator;
+import java.util.function.Supplier;
 
 public class OntologyImpl implements Ontology {
 
@@ -176,7 +178,8 @@ public class OntologyImpl implements Ontology {
 	    this.functionalDataPropertyAxioms = functionalDataPropertyAxioms;
 
 	    this.unclassifiedTBox = new UnclassifiedOntologyTBox();
-	    this.tbox = ClassifiedTBoxImpl.classify(unclassifiedTBox);
+	    // Classified on demand: a specification snapshot may already provide the classified TBox
+	    this.tbox = Suppliers.memoize(() -> ClassifiedTBoxImpl.classify(unclassifiedTBox));
     }
 
     @Override
@@ -192,7 +195,7 @@ public class OntologyImpl implements Ontology {
 
     private final UnclassifiedOntologyTBox unclassifiedTBox;
 
-    private final ClassifiedTBox tbox;
+    private final Supplier<ClassifiedTBox> tbox;
 
     /*
         used only in OWLAPI Translation tests
@@ -234,7 +237,7 @@ public class OntologyImpl implements Ontology {
     }
 
     @Override
-    public ClassifiedTBox tbox() { return tbox; }
+    public ClassifiedTBox tbox() { return tbox.get(); }
 
     // used only in tests
     public UnclassifiedOntologyTBox unclassifiedTBox() { return unclassifiedTBox; }
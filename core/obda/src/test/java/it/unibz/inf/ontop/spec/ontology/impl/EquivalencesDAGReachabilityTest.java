@@ -0,0 +1,135 @@
+package it.unibz.inf.ontop.spec.ontology.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.spec.ontology.Equivalences;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.EdgeReversedGraph;
+import org.jgrapht.traverse.BreadthFirstIterator;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The sub- and super-vertices obtained from the reachability index are compared with
+ * the breadth-first traversals of the graph (as computed before the index was introduced).
+ */
+public class EquivalencesDAGReachabilityTest {
+
+    @Test
+    public void testEquivalenceCycles() {
+        DefaultDirectedGraph<String, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+        // A = B = C (cycle)
+        addEdge(graph, "A", "B");
+        addEdge(graph, "B", "C");
+        addEdge(graph, "C", "A");
+        // D = E, both below A
+        addEdge(graph, "D", "E");
+        addEdge(graph, "E", "D");
+        addEdge(graph, "D", "A");
+        // F below D and (redundantly) below B
+        addEdge(graph, "F", "D");
+        addEdge(graph, "F", "B");
+        // G = H, below F and above I
+        addEdge(graph, "G", "H");
+        addEdge(graph, "H", "G");
+        addEdge(graph, "G", "F");
+        addEdge(graph, "I", "H");
+        // J, unrelated
+        graph.addVertex("J");
+
+        EquivalencesDAGImpl<String> dag = EquivalencesDAGImpl.getEquivalencesDAG(graph);
+        assertEquals(ImmutableSet.of("A", "B", "C"), dag.getVertex("A").getMembers());
+        assertEquals(ImmutableSet.of("D", "E"), dag.getVertex("E").getMembers());
+
+        assertEquals(ImmutableSet.of("G", "H"), dag.getVertex("G").getMembers());
+        assertEquals(ImmutableSet.of(dag.getVertex("A"), dag.getVertex("D"), dag.getVertex("F"),
+                dag.getVertex("G"), dag.getVertex("I")),
+                dag.getSub(dag.getVertex("B")));
+        assertEquals(ImmutableSet.of(dag.getVertex("H"), dag.getVertex("F"), dag.getVertex("E"),
+                dag.getVertex("C")),
+                dag.getSuper(dag.getVertex("G")));
+        assertEquals(ImmutableSet.of(dag.getVertex("J")), dag.getSuper(dag.getVertex("J")));
+
+        checkReachability(graph, dag);
+    }
+
+    @Test
+    public void testRandomGraphsWithCycles() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            DefaultDirectedGraph<Integer, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+            int size = 10 + random.nextInt(50);
+            for (int i = 0; i < size; i++)
+                graph.addVertex(i);
+            // mostly downwards edges, and a few upwards ones (equivalence cycles)
+            for (int i = 0; i < 3 * size; i++) {
+                int source = random.nextInt(size);
+                int target = random.nextInt(size);
+                if (source == target)
+                    continue;
+                if (source < target || random.nextInt(10) == 0)
+                    addEdge(graph, source, target);
+            }
+            checkReachability(graph, EquivalencesDAGImpl.getEquivalencesDAG(graph));
+        }
+    }
+
+    private static <T> void checkReachability(DefaultDirectedGraph<T, DefaultEdge> graph, EquivalencesDAGImpl<T> dag) {
+        // as in the classified TBoxes, where the representatives are chosen after the DAG is built
+        for (Equivalences<T> v : dag)
+            v.setRepresentative(v.iterator().next());
+
+        // the DAG, as given by the direct super- and sub-vertices (in the same edge order)
+        DefaultDirectedGraph<Equivalences<T>, DefaultEdge> superGraph = createGraph(dag, dag::getDirectSuper);
+        DefaultDirectedGraph<Equivalences<T>, DefaultEdge> subGraph = createGraph(dag, dag::getDirectSub);
+
+        for (Equivalences<T> v : dag) {
+            assertEquals(ImmutableList.copyOf(new BreadthFirstIterator<>(superGraph, v)),
+                    dag.getSuper(v).asList());
+            assertEquals(ImmutableList.copyOf(new BreadthFirstIterator<>(subGraph, v)),
+                    dag.getSub(v).asList());
+
+            // transitive and reflexive closure of the original graph (with cycles)
+            T member = v.getRepresentative();
+            assertEquals(reachableVertices(dag, graph, member), dag.getSuper(v));
+            assertEquals(reachableVertices(dag, new EdgeReversedGraph<>(graph), member), dag.getSub(v));
+
+            assertEquals(dag.getSub(v).stream()
+                            .map(Equivalences::getRepresentative)
+                            .collect(ImmutableCollectors.toSet()),
+                    dag.getSubRepresentatives(member));
+        }
+    }
+
+    private static <T> ImmutableSet<Equivalences<T>> reachableVertices(EquivalencesDAGImpl<T> dag,
+                                                                       Graph<T, DefaultEdge> graph,
+                                                                       T start) {
+        return ImmutableList.copyOf(new BreadthFirstIterator<>(graph, start)).stream()
+                .map(dag::getVertex)
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    private static <T> DefaultDirectedGraph<Equivalences<T>, DefaultEdge> createGraph(
+            EquivalencesDAGImpl<T> dag, Function<Equivalences<T>, ImmutableSet<Equivalences<T>>> successors) {
+        DefaultDirectedGraph<Equivalences<T>, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+        for (Equivalences<T> v : dag)
+            graph.addVertex(v);
+        for (Equivalences<T> v : dag)
+            for (Equivalences<T> w : successors.apply(v))
+                graph.addEdge(v, w);
+        return graph;
+    }
+
+    private static <T> void addEdge(DefaultDirectedGraph<T, DefaultEdge> graph, T source, T target) {
+        graph.addVertex(source);
+        graph.addVertex(target);
+        graph.addEdge(source, target);
+    }
+}
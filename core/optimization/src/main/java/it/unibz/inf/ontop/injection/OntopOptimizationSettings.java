@@ -17,9 +17,25 @@ public interface OntopOptimizationSettings extends OntopModelSettings {
         }
     }
 
+    /**
+     * Used by the cost-based query planner
+     */
+    default int getMaxUnionWidthForJoinPushing() {
+        String value = getProperty(MAX_UNION_WIDTH_FOR_JOIN_PUSHING)
+                .orElseThrow(() -> new InvalidOntopConfigurationException(
+                        "Missing value for " + MAX_UNION_WIDTH_FOR_JOIN_PUSHING));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidOntopConfigurationException(
+                    MAX_UNION_WIDTH_FOR_JOIN_PUSHING + " was expecting a number");
+        }
+    }
+
     //-------
     // Keys
     //-------
 
     String MAX_NB_CHILDREN_LIFTING_DB_FS = "ontop.maxNbChildrenLiftingDBFS";
+    String MAX_UNION_WIDTH_FOR_JOIN_PUSHING = "ontop.planner.maxUnionWidthForJoinPushing";
 }
@@ -1,5 +1,7 @@
 package it.unibz.inf.ontop.iq.planner;
 
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
 
@@ -17,4 +19,11 @@ public interface QueryPlanner {
      * TODO: get rid of the executor registry and inherit IQOptimizer
      */
     IQ optimize(IQ query, ExecutorRegistry executorRegistry);
+
+    /**
+     * Called when the query answering is set up, with the relations used by the mapping
+     * (e.g. for collecting their statistics in advance). Does nothing by default.
+     */
+    default void prepare(ImmutableSet<RelationDefinition> relations) {
+    }
 }
@@ -0,0 +1,49 @@
+package it.unibz.inf.ontop.iq.planner;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Optional;
+
+/**
+ * Statistics about the content of a relation, as used by cost-based query planners.
+ *
+ * Attributes are designated by their index (starting from 1), as in RelationDefinition.
+ *
+ * Immutable
+ */
+public class RelationStatistics {
+
+    private final long rowCount;
+    private final ImmutableMap<Integer, Long> distinctCounts;
+    private final ImmutableMap<Integer, Double> nullFractions;
+
+    public RelationStatistics(long rowCount, ImmutableMap<Integer, Long> distinctCounts,
+                              ImmutableMap<Integer, Double> nullFractions) {
+        this.rowCount = rowCount;
+        this.distinctCounts = distinctCounts;
+        this.nullFractions = nullFractions;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Number of distinct non-null values
+     */
+    public Optional<Long> getDistinctCount(int attributeIndex) {
+        return Optional.ofNullable(distinctCounts.get(attributeIndex));
+    }
+
+    /**
+     * Between 0 and 1
+     */
+    public Optional<Double> getNullFraction(int attributeIndex) {
+        return Optional.ofNullable(nullFractions.get(attributeIndex));
+    }
+
+    @Override
+    public String toString() {
+        return "rows=" + rowCount + ", distinct=" + distinctCounts + ", nulls=" + nullFractions;
+    }
+}
@@ -0,0 +1,27 @@
+package it.unibz.inf.ontop.iq.planner;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+
+import java.util.Optional;
+
+/**
+ * Provides the statistics used by the cost-based query planner.
+ *
+ * Implementations are expected to cache them, as they are requested for every query
+ * (getStatistics() should not access the data source). Must be thread-safe.
+ */
+public interface RelationStatisticsProvider {
+
+    /**
+     * Empty if no statistics are available for this relation
+     */
+    Optional<RelationStatistics> getStatistics(RelationDefinition relation);
+
+    /**
+     * Called when the query answering is set up, with the relations used by the mapping.
+     * The statistics may be collected asynchronously. Does nothing by default.
+     */
+    default void collectStatistics(ImmutableSet<RelationDefinition> relations) {
+    }
+}
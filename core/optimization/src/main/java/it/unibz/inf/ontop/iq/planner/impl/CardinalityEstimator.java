@@ -0,0 +1,354 @@
+package it.unibz.inf.ontop.iq.planner.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.Attribute;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.dbschema.UniqueConstraint;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.LeafIQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.planner.RelationStatistics;
+import it.unibz.inf.ontop.iq.planner.RelationStatisticsProvider;
+import it.unibz.inf.ontop.iq.visit.IQVisitor;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBIsNullOrNotFunctionSymbol;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Estimates the cardinality of IQ trees, System R-style:
+ *   - joins: |R| * |S| / max(V(R,x), V(S,x)) for each shared variable x, where V is the number of distinct values;
+ *   - each conjunct of a filter or join condition (except IS_NOT_NULL) keeps a third of the rows;
+ *   - relations without statistics are assumed to have DEFAULT_ROW_COUNT rows.
+ *
+ * The cost of a tree is the sum of the estimated cardinalities of all its sub-trees (intermediate results).
+ */
+@Singleton
+public class CardinalityEstimator {
+
+    static final double DEFAULT_ROW_COUNT = 1000;
+    private static final double DEFAULT_DISTINCT_RATIO = 0.1;
+    private static final double CONDITION_SELECTIVITY = 1.0 / 3;
+
+    private final RelationStatisticsProvider statisticsProvider;
+
+    @Inject
+    protected CardinalityEstimator(RelationStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = statisticsProvider;
+    }
+
+    public void collectStatistics(ImmutableSet<RelationDefinition> relations) {
+        statisticsProvider.collectStatistics(relations);
+    }
+
+    public Estimate estimate(IQTree tree) {
+        return tree.acceptVisitor(new EstimationVisitor());
+    }
+
+    /**
+     * Immutable
+     */
+    public static class Estimate {
+        private final double rowCount;
+        private final double cost;
+        // Variables without entry: unknown
+        private final ImmutableMap<Variable, Double> distinctCounts;
+        private final ImmutableMap<Variable, Double> nullFractions;
+
+        private Estimate(double rowCount, double cost, ImmutableMap<Variable, Double> distinctCounts,
+                         ImmutableMap<Variable, Double> nullFractions) {
+            this.rowCount = rowCount;
+            this.cost = cost;
+            this.distinctCounts = distinctCounts;
+            this.nullFractions = nullFractions;
+        }
+
+        public double getRowCount() {
+            return rowCount;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+
+        double getDistinctCount(Variable variable) {
+            Double count = distinctCounts.get(variable);
+            return Math.max(1, Math.min(rowCount, count == null ? rowCount * DEFAULT_DISTINCT_RATIO : count));
+        }
+
+        double getNonNullFraction(Variable variable) {
+            return 1 - nullFractions.getOrDefault(variable, 0.0);
+        }
+
+        /**
+         * Same distributions, different row count and cost
+         */
+        Estimate scale(double newRowCount, double childCost) {
+            return new Estimate(newRowCount, childCost + newRowCount, distinctCounts, nullFractions);
+        }
+    }
+
+    private static Estimate createEstimate(double rowCount, double childCost, Map<Variable, Double> distinctCounts,
+                                           Map<Variable, Double> nullFractions) {
+        return new Estimate(rowCount, childCost + rowCount, ImmutableMap.copyOf(distinctCounts),
+                ImmutableMap.copyOf(nullFractions));
+    }
+
+    /**
+     * IS_NOT_NULL conjuncts are ignored: NULLs are already taken into account by the joins
+     */
+    private static double getConditionSelectivity(Optional<ImmutableExpression> condition) {
+        return condition
+                .map(c -> Math.pow(CONDITION_SELECTIVITY, c.flattenAND()
+                        .filter(e -> !(e.getFunctionSymbol() instanceof DBIsNullOrNotFunctionSymbol
+                                && !((DBIsNullOrNotFunctionSymbol) e.getFunctionSymbol()).isTrueWhenNull()))
+                        .count()))
+                .orElse(1.0);
+    }
+
+    static Estimate join(Estimate left, Estimate right) {
+        double rowCount = left.rowCount * right.rowCount;
+        Map<Variable, Double> distinctCounts = new HashMap<>(left.distinctCounts);
+        Map<Variable, Double> nullFractions = new HashMap<>(left.nullFractions);
+        for (Map.Entry<Variable, Double> e : right.distinctCounts.entrySet())
+            distinctCounts.merge(e.getKey(), e.getValue(), Math::min);
+
+        ImmutableSet<Variable> sharedVariables = ImmutableSet.<Variable>builder()
+                .addAll(left.distinctCounts.keySet())
+                .addAll(left.nullFractions.keySet())
+                .build().stream()
+                .filter(v -> right.distinctCounts.containsKey(v) || right.nullFractions.containsKey(v))
+                .collect(ImmutableCollectors.toSet());
+
+        for (Variable v : sharedVariables) {
+            rowCount = rowCount * left.getNonNullFraction(v) * right.getNonNullFraction(v)
+                    / Math.max(left.getDistinctCount(v), right.getDistinctCount(v));
+            // Nulls do not join
+            nullFractions.remove(v);
+        }
+        right.nullFractions.forEach((v, f) -> {
+            if (!sharedVariables.contains(v))
+                nullFractions.put(v, f);
+        });
+        return createEstimate(rowCount, left.cost + right.cost, distinctCounts, nullFractions);
+    }
+
+    private class EstimationVisitor implements IQVisitor<Estimate> {
+
+        @Override
+        public Estimate visitExtensionalData(ExtensionalDataNode dataNode) {
+            RelationDefinition relation = dataNode.getRelationDefinition();
+            Optional<RelationStatistics> statistics = statisticsProvider.getStatistics(relation);
+            double relationRowCount = statistics
+                    .map(s -> (double) s.getRowCount())
+                    .orElse(DEFAULT_ROW_COUNT);
+
+            double rowCount = relationRowCount;
+            Map<Variable, Double> distinctCounts = new HashMap<>();
+            Map<Variable, Double> nullFractions = new HashMap<>();
+
+            for (Map.Entry<Integer, ? extends VariableOrGroundTerm> e : dataNode.getArgumentMap().entrySet()) {
+                Attribute attribute = relation.getAttribute(e.getKey() + 1);
+                double distinctCount = getDistinctCount(attribute, relationRowCount, statistics);
+                VariableOrGroundTerm argument = e.getValue();
+                if (argument instanceof Variable) {
+                    Variable variable = (Variable) argument;
+                    Double previousCount = distinctCounts.get(variable);
+                    if (previousCount != null) {
+                        // Same variable in two positions
+                        rowCount /= Math.max(previousCount, distinctCount);
+                        distinctCounts.put(variable, Math.min(previousCount, distinctCount));
+                    }
+                    else
+                        distinctCounts.put(variable, distinctCount);
+
+                    statistics
+                            .flatMap(s -> s.getNullFraction(attribute.getIndex()))
+                            .filter(f -> f > 0)
+                            .ifPresent(f -> nullFractions.merge(variable, f, Math::max));
+                }
+                else
+                    rowCount /= distinctCount;
+            }
+            return createEstimate(rowCount, 0, distinctCounts, nullFractions);
+        }
+
+        private double getDistinctCount(Attribute attribute, double relationRowCount,
+                                        Optional<RelationStatistics> statistics) {
+            Optional<Long> distinctCount = statistics.flatMap(s -> s.getDistinctCount(attribute.getIndex()));
+            if (distinctCount.isPresent())
+                return Math.max(1, distinctCount.get());
+
+            boolean isUnique = attribute.getRelation().getUniqueConstraints().stream()
+                    .map(UniqueConstraint::getAttributes)
+                    .anyMatch(as -> as.size() == 1 && as.get(0).equals(attribute));
+            return isUnique
+                    ? relationRowCount
+                    : Math.max(1, relationRowCount * DEFAULT_DISTINCT_RATIO);
+        }
+
+        @Override
+        public Estimate visitIntensionalData(IntensionalDataNode dataNode) {
+            return visitNonStandardLeafNode(dataNode);
+        }
+
+        @Override
+        public Estimate visitEmpty(EmptyNode node) {
+            return createEstimate(0, 0, ImmutableMap.of(), ImmutableMap.of());
+        }
+
+        @Override
+        public Estimate visitTrue(TrueNode node) {
+            return createEstimate(1, 0, ImmutableMap.of(), ImmutableMap.of());
+        }
+
+        @Override
+        public Estimate visitNative(NativeNode nativeNode) {
+            return visitNonStandardLeafNode(nativeNode);
+        }
+
+        @Override
+        public Estimate visitNonStandardLeafNode(LeafIQTree leafNode) {
+            return createEstimate(DEFAULT_ROW_COUNT, 0, ImmutableMap.of(), ImmutableMap.of());
+        }
+
+        /**
+         * Not materialized: does not contribute to the cost
+         */
+        @Override
+        public Estimate visitConstruction(ConstructionNode rootNode, IQTree child) {
+            Estimate childEstimate = child.acceptVisitor(this);
+            Map<Variable, Double> distinctCounts = new HashMap<>();
+            Map<Variable, Double> nullFractions = new HashMap<>();
+            for (Variable v : rootNode.getVariables()) {
+                ImmutableTerm term = rootNode.getSubstitution().isDefining(v)
+                        ? rootNode.getSubstitution().get(v)
+                        : v;
+                if (term instanceof Variable) {
+                    Optional.ofNullable(childEstimate.distinctCounts.get(term))
+                            .ifPresent(c -> distinctCounts.put(v, c));
+                    Optional.ofNullable(childEstimate.nullFractions.get(term))
+                            .ifPresent(f -> nullFractions.put(v, f));
+                }
+                else if (term instanceof Constant)
+                    distinctCounts.put(v, 1.0);
+            }
+            return new Estimate(childEstimate.rowCount, childEstimate.cost, ImmutableMap.copyOf(distinctCounts),
+                    ImmutableMap.copyOf(nullFractions));
+        }
+
+        @Override
+        public Estimate visitAggregation(AggregationNode aggregationNode, IQTree child) {
+            Estimate childEstimate = child.acceptVisitor(this);
+            double groupCount = 1;
+            for (Variable v : aggregationNode.getGroupingVariables())
+                groupCount *= childEstimate.getDistinctCount(v);
+            return createEstimate(Math.min(childEstimate.rowCount, groupCount), childEstimate.cost,
+                    ImmutableMap.of(), ImmutableMap.of());
+        }
+
+        @Override
+        public Estimate visitFilter(FilterNode rootNode, IQTree child) {
+            Estimate childEstimate = child.acceptVisitor(this);
+            return childEstimate.scale(
+                    childEstimate.rowCount * getConditionSelectivity(Optional.of(rootNode.getFilterCondition())),
+                    childEstimate.cost);
+        }
+
+        @Override
+        public Estimate visitDistinct(DistinctNode rootNode, IQTree child) {
+            Estimate childEstimate = child.acceptVisitor(this);
+            double combinationCount = 1;
+            for (Variable v : child.getVariables())
+                combinationCount *= childEstimate.getDistinctCount(v);
+            return childEstimate.scale(Math.min(childEstimate.rowCount, combinationCount), childEstimate.cost);
+        }
+
+        @Override
+        public Estimate visitSlice(SliceNode sliceNode, IQTree child) {
+            Estimate childEstimate = child.acceptVisitor(this);
+            double rowCount = Math.max(0, childEstimate.rowCount - sliceNode.getOffset());
+            return childEstimate.scale(
+                    sliceNode.getLimit().map(l -> Math.min(rowCount, l)).orElse(rowCount),
+                    childEstimate.cost);
+        }
+
+        @Override
+        public Estimate visitOrderBy(OrderByNode rootNode, IQTree child) {
+            Estimate childEstimate = child.acceptVisitor(this);
+            return childEstimate.scale(childEstimate.rowCount, childEstimate.cost);
+        }
+
+        @Override
+        public Estimate visitNonStandardUnaryNode(UnaryOperatorNode rootNode, IQTree child) {
+            Estimate childEstimate = child.acceptVisitor(this);
+            return childEstimate.scale(childEstimate.rowCount, childEstimate.cost);
+        }
+
+        @Override
+        public Estimate visitLeftJoin(LeftJoinNode rootNode, IQTree leftChild, IQTree rightChild) {
+            Estimate leftEstimate = leftChild.acceptVisitor(this);
+            Estimate joinEstimate = join(leftEstimate, rightChild.acceptVisitor(this));
+            double rowCount = Math.max(leftEstimate.rowCount,
+                    joinEstimate.rowCount * getConditionSelectivity(rootNode.getOptionalFilterCondition()));
+            return joinEstimate.scale(rowCount, joinEstimate.cost - joinEstimate.rowCount);
+        }
+
+        @Override
+        public Estimate visitNonStandardBinaryNonCommutativeNode(BinaryNonCommutativeOperatorNode rootNode,
+                                                                 IQTree leftChild, IQTree rightChild) {
+            return join(leftChild.acceptVisitor(this), rightChild.acceptVisitor(this));
+        }
+
+        @Override
+        public Estimate visitInnerJoin(InnerJoinNode rootNode, ImmutableList<IQTree> children) {
+            Estimate joinEstimate = joinChildren(children);
+            return joinEstimate.scale(
+                    joinEstimate.rowCount * getConditionSelectivity(rootNode.getOptionalFilterCondition()),
+                    joinEstimate.cost - joinEstimate.rowCount);
+        }
+
+        /**
+         * Includes the cost of the intermediate joins
+         */
+        private Estimate joinChildren(ImmutableList<IQTree> children) {
+            Estimate estimate = children.get(0).acceptVisitor(this);
+            for (IQTree child : children.subList(1, children.size()))
+                estimate = join(estimate, child.acceptVisitor(this));
+            return estimate;
+        }
+
+        @Override
+        public Estimate visitUnion(UnionNode rootNode, ImmutableList<IQTree> children) {
+            ImmutableList<Estimate> childEstimates = children.stream()
+                    .map(c -> c.acceptVisitor(this))
+                    .collect(ImmutableCollectors.toList());
+
+            double rowCount = childEstimates.stream().mapToDouble(e -> e.rowCount).sum();
+            double childCost = childEstimates.stream().mapToDouble(e -> e.cost).sum();
+
+            Map<Variable, Double> distinctCounts = new HashMap<>();
+            Map<Variable, Double> nullFractions = new HashMap<>();
+            for (Variable v : rootNode.getVariables()) {
+                distinctCounts.put(v, childEstimates.stream().mapToDouble(e -> e.getDistinctCount(v)).sum());
+                if (rowCount > 0)
+                    nullFractions.put(v, childEstimates.stream()
+                            .mapToDouble(e -> e.rowCount * (1 - e.getNonNullFraction(v)))
+                            .sum() / rowCount);
+            }
+            return createEstimate(rowCount, childCost, distinctCounts, nullFractions);
+        }
+
+        @Override
+        public Estimate visitNonStandardNaryNode(NaryOperatorNode rootNode, ImmutableList<IQTree> children) {
+            return joinChildren(children);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package it.unibz.inf.ontop.iq.planner.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopOptimizationSettings;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.NaryIQTree;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.optimizer.GeneralStructuralAndSemanticIQOptimizer;
+import it.unibz.inf.ontop.iq.planner.impl.CardinalityEstimator.Estimate;
+import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Uses the cardinalities estimated from the relation statistics (see RelationStatisticsProvider) to decide:
+ *   - whether pushing joins under unions (see AvoidJoinAboveUnionPlanner) pays off.
+ *      The alternative plan is re-optimized before being compared, so as to take the simplifications
+ *      it enables (e.g. self-join elimination) into account.
+ *      Siblings are not pushed under unions having more than ontop.planner.maxUnionWidthForJoinPushing children;
+ *   - the order of the children of inner joins (greedy: smallest intermediate result first).
+ *
+ * The decisions and the estimated plan are logged at the DEBUG level (EXPLAIN).
+ *
+ * Not the default planner: enable it by setting the property it.unibz.inf.ontop.iq.planner.QueryPlanner
+ * to this class.
+ */
+@Singleton
+public class CostBasedQueryPlanner extends AvoidJoinAboveUnionPlanner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CostBasedQueryPlanner.class);
+
+    private final GeneralStructuralAndSemanticIQOptimizer generalOptimizer;
+    private final IntermediateQueryFactory iqFactory;
+    private final CardinalityEstimator cardinalityEstimator;
+    private final JoinOrderingTransformer joinOrderingTransformer;
+
+    @Inject
+    protected CostBasedQueryPlanner(GeneralStructuralAndSemanticIQOptimizer generalOptimizer,
+                                    BoundedAvoidJoinAboveUnionTransformer transformer,
+                                    IntermediateQueryFactory iqFactory,
+                                    CardinalityEstimator cardinalityEstimator) {
+        super(generalOptimizer, transformer, iqFactory);
+        this.generalOptimizer = generalOptimizer;
+        this.iqFactory = iqFactory;
+        this.cardinalityEstimator = cardinalityEstimator;
+        this.joinOrderingTransformer = new JoinOrderingTransformer(iqFactory, cardinalityEstimator);
+    }
+
+    /**
+     * The plans of the queries reformulated before the statistics are collected are based on default estimates
+     */
+    @Override
+    public void prepare(ImmutableSet<RelationDefinition> relations) {
+        cardinalityEstimator.collectStatistics(relations);
+    }
+
+    @Override
+    public IQ optimize(IQ query, ExecutorRegistry executorRegistry) {
+        List<String> decisions = new ArrayList<>();
+
+        IQ selectedQuery = query;
+        IQ liftedQuery = lift(query);
+        if (!liftedQuery.equals(query)) {
+            IQ alternativeQuery = generalOptimizer.optimize(liftedQuery, executorRegistry);
+            double initialCost = cardinalityEstimator.estimate(query.getTree()).getCost();
+            double alternativeCost = cardinalityEstimator.estimate(alternativeQuery.getTree()).getCost();
+            boolean isAccepted = alternativeCost < initialCost;
+            decisions.add(String.format("Push joins under unions: cost %.0f -> %.0f (%s)",
+                    initialCost, alternativeCost, isAccepted ? "accepted" : "rejected"));
+            if (isAccepted)
+                selectedQuery = alternativeQuery;
+        }
+
+        IQTree tree = selectedQuery.getTree();
+        IQTree orderedTree = joinOrderingTransformer.transform(tree);
+        if (!orderedTree.equals(tree)) {
+            decisions.add("Reorder join children (smallest intermediate result first)");
+            selectedQuery = iqFactory.createIQ(selectedQuery.getProjectionAtom(), orderedTree);
+        }
+
+        if (LOGGER.isDebugEnabled())
+            LOGGER.debug("EXPLAIN\n{}", explain(selectedQuery, decisions));
+
+        return selectedQuery;
+    }
+
+    /**
+     * Decisions, followed by the plan annotated with the estimated cardinalities
+     */
+    protected String explain(IQ query, List<String> decisions) {
+        StringBuilder sb = new StringBuilder();
+        for (String decision : decisions)
+            sb.append("Decision: ").append(decision).append("\n");
+        sb.append(String.format("Estimated cost: %.0f\n", cardinalityEstimator.estimate(query.getTree()).getCost()));
+        appendPlan(sb, query.getTree(), 0);
+        return sb.toString();
+    }
+
+    private void appendPlan(StringBuilder sb, IQTree tree, int depth) {
+        for (int i = 0; i < depth; i++)
+            sb.append("   ");
+        sb.append(tree.getChildren().isEmpty() ? tree.toString() : tree.getRootNode().toString())
+                .append(String.format("  (rows=%.0f)", cardinalityEstimator.estimate(tree).getRowCount()))
+                .append("\n");
+        for (IQTree child : tree.getChildren())
+            appendPlan(sb, child, depth + 1);
+    }
+
+
+    /**
+     * Does not push siblings under too wide unions: the siblings would be duplicated in each branch
+     */
+    @Singleton
+    protected static class BoundedAvoidJoinAboveUnionTransformer extends AvoidJoinAboveUnionTransformer {
+
+        private final int maxUnionWidth;
+
+        @Inject
+        protected BoundedAvoidJoinAboveUnionTransformer(IntermediateQueryFactory iqFactory,
+                                                        OntopOptimizationSettings settings) {
+            super(iqFactory);
+            this.maxUnionWidth = settings.getMaxUnionWidthForJoinPushing();
+        }
+
+        @Override
+        protected Optional<Map.Entry<NaryIQTree, ImmutableList<Integer>>> extractPushableSiblings(
+                NaryIQTree unionTree, ImmutableList<IQTree> children) {
+            return unionTree.getChildren().size() > maxUnionWidth
+                    ? Optional.empty()
+                    : super.extractPushableSiblings(unionTree, children);
+        }
+    }
+
+    /**
+     * Greedy: starts with the child with the smallest estimated cardinality,
+     * and then repeatedly adds the child minimizing the cardinality of the intermediate join.
+     *
+     * Only reorders: the join condition stays on the join node.
+     */
+    protected static class JoinOrderingTransformer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+        private final CardinalityEstimator cardinalityEstimator;
+
+        protected JoinOrderingTransformer(IntermediateQueryFactory iqFactory,
+                                          CardinalityEstimator cardinalityEstimator) {
+            super(iqFactory);
+            this.cardinalityEstimator = cardinalityEstimator;
+        }
+
+        @Override
+        public IQTree transformInnerJoin(IQTree tree, InnerJoinNode rootNode, ImmutableList<IQTree> children) {
+            ImmutableList<IQTree> newChildren = children.stream()
+                    .map(c -> c.acceptTransformer(this))
+                    .collect(ImmutableCollectors.toList());
+
+            List<IQTree> remainingChildren = new ArrayList<>(newChildren);
+            Map<IQTree, Estimate> childEstimates = newChildren.stream()
+                    .distinct()
+                    .collect(ImmutableCollectors.toMap(c -> c, cardinalityEstimator::estimate));
+
+            List<IQTree> orderedChildren = new ArrayList<>();
+            Optional<Estimate> currentEstimate = Optional.empty();
+            while (!remainingChildren.isEmpty()) {
+                Optional<Estimate> joinedEstimate = currentEstimate;
+                IQTree next = remainingChildren.stream()
+                        .min(Comparator.comparingDouble(c -> joinedEstimate
+                                .map(e -> CardinalityEstimator.join(e, childEstimates.get(c)))
+                                .orElseGet(() -> childEstimates.get(c))
+                                .getRowCount()))
+                        .get();
+                orderedChildren.add(next);
+                remainingChildren.remove(next);
+                currentEstimate = Optional.of(joinedEstimate
+                        .map(e -> CardinalityEstimator.join(e, childEstimates.get(next)))
+                        .orElseGet(() -> childEstimates.get(next)));
+            }
+
+            ImmutableList<IQTree> orderedChildList = ImmutableList.copyOf(orderedChildren);
+            return orderedChildList.equals(children)
+                    ? tree
+                    : iqFactory.createNaryIQTree(rootNode, orderedChildList);
+        }
+    }
+}
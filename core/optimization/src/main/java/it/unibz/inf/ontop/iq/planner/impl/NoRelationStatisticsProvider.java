@@ -0,0 +1,20 @@
+package it.unibz.inf.ontop.iq.planner.impl;
+
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.iq.planner.RelationStatistics;
+import it.unibz.inf.ontop.iq.planner.RelationStatisticsProvider;
+
+import javax.inject.Singleton;
+import java.util.Optional;
+
+/**
+ * When no data source is available (e.g. reformulation only): the planner falls back to default estimates
+ */
+@Singleton
+public class NoRelationStatisticsProvider implements RelationStatisticsProvider {
+
+    @Override
+    public Optional<RelationStatistics> getStatistics(RelationDefinition relation) {
+        return Optional.empty();
+    }
+}
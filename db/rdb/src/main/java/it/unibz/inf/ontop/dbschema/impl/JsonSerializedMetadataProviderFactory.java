@@ -0,0 +1,208 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the JSON produced by RDBMetadataExtractorAndSerializerImpl
+ * and rebuilds the relations through an OfflineMetadataProviderBuilder.
+ *
+ * Only the current format version (see ImmutableMetadataImpl) is supported.
+ */
+public class JsonSerializedMetadataProviderFactory implements SerializedMetadataProviderFactory {
+
+    private final DBTypeFactory dbTypeFactory;
+
+    @Inject
+    private JsonSerializedMetadataProviderFactory(TypeFactory typeFactory) {
+        this.dbTypeFactory = typeFactory.getDBTypeFactory();
+    }
+
+    @Override
+    public MetadataProvider getMetadataProvider(Reader dbMetadataReader) throws MetadataExtractionException {
+        JsonNode root;
+        try {
+            root = new ObjectMapper().readTree(dbMetadataReader);
+        }
+        catch (IOException e) {
+            throw new MetadataExtractionException("Problem with JSON processing.\n" + e);
+        }
+
+        checkFormatVersion(root.path("formatVersion"));
+
+        JsonNode metadata = root.path("metadata");
+        QuotedIDFactory idFactory = getQuotedIDFactory(metadata.path("idFactoryType").textValue());
+        DBParameters dbParameters = new BasicDBParametersImpl(
+                metadata.path("driverName").textValue(),
+                metadata.path("driverVersion").textValue(),
+                metadata.path("dbmsProductName").textValue(),
+                metadata.path("dbmsVersion").textValue(),
+                idFactory, dbTypeFactory);
+
+        OfflineMetadataProviderBuilder builder = new OfflineMetadataProviderBuilder(dbParameters);
+        Map<RelationID, DatabaseRelationDefinition> relationMap = new HashMap<>();
+
+        // Constraints can only be inserted once all the relations are known (foreign keys)
+        for (JsonNode relationNode : root.path("relations")) {
+            ImmutableList.Builder<RelationID> idBuilder = ImmutableList.builder();
+            idBuilder.add(getRelationID(relationNode.path("name").textValue(), idFactory));
+            for (JsonNode otherName : relationNode.path("otherNames"))
+                idBuilder.add(getRelationID(otherName.textValue(), idFactory));
+
+            RelationDefinition.AttributeListBuilder attributeListBuilder = DatabaseTableDefinition.attributeListBuilder();
+            for (JsonNode column : relationNode.path("columns")) {
+                String typeName = column.path("datatype").textValue();
+                String termTypeName = column.path("termType").asText(typeName);
+                attributeListBuilder.addAttribute(
+                        idFactory.createAttributeID(column.path("name").textValue()),
+                        dbTypeFactory.getDBTermType(termTypeName),
+                        typeName,
+                        column.path("isNullable").asBoolean(true));
+            }
+
+            DatabaseRelationDefinition relation = builder.createDatabaseRelation(idBuilder.build(), attributeListBuilder);
+            for (RelationID id : relation.getAllIDs())
+                relationMap.put(id, relation);
+        }
+
+        for (JsonNode relationNode : root.path("relations")) {
+            DatabaseRelationDefinition relation = getRelation(relationNode.path("name"), idFactory, relationMap);
+            try {
+                insertUniqueConstraints(relation, relationNode.path("uniqueConstraints"), idFactory);
+                insertFunctionalDependencies(relation, relationNode.path("otherFunctionalDependencies"), idFactory);
+                insertForeignKeys(relation, relationNode.path("foreignKeys"), idFactory, relationMap);
+            }
+            catch (AttributeNotFoundException e) {
+                throw new MetadataExtractionException("Inconsistent serialized DB metadata: unknown attribute "
+                        + e.getAttributeID() + " in the constraints of " + relation.getID());
+            }
+        }
+        return builder.build();
+    }
+
+    private static void checkFormatVersion(JsonNode formatVersion) throws MetadataExtractionException {
+        if (formatVersion.isInt() && formatVersion.intValue() == ImmutableMetadataImpl.FORMAT_VERSION)
+            return;
+
+        throw new MetadataExtractionException("Unsupported serialized DB metadata: "
+                + (formatVersion.isMissingNode()
+                    ? "no format version"
+                    : "format version " + formatVersion)
+                + " (expected: " + ImmutableMetadataImpl.FORMAT_VERSION + "). "
+                + "Please extract it again with extract-db-metadata");
+    }
+
+    private static void insertUniqueConstraints(DatabaseRelationDefinition relation, JsonNode constraints,
+                                                QuotedIDFactory idFactory) throws AttributeNotFoundException {
+        for (JsonNode constraint : constraints) {
+            String name = constraint.path("name").textValue();
+            UniqueConstraint.Builder builder = constraint.path("isPrimaryKey").asBoolean()
+                    ? UniqueConstraint.primaryKeyBuilder(relation, name)
+                    : UniqueConstraint.builder(relation, name);
+            for (JsonNode determinant : constraint.path("determinants"))
+                builder.addDeterminant(idFactory.createAttributeID(determinant.textValue()));
+            builder.build();
+        }
+    }
+
+    private static void insertFunctionalDependencies(DatabaseRelationDefinition relation, JsonNode dependencies,
+                                                     QuotedIDFactory idFactory) throws AttributeNotFoundException {
+        for (JsonNode dependency : dependencies) {
+            FunctionalDependency.Builder builder = FunctionalDependency.defaultBuilder(relation);
+            for (JsonNode determinant : dependency.path("determinants"))
+                builder.addDeterminant(idFactory.createAttributeID(determinant.path("name").textValue()));
+            for (JsonNode dependent : dependency.path("dependents"))
+                builder.addDependent(idFactory.createAttributeID(dependent.path("name").textValue()));
+            builder.build();
+        }
+    }
+
+    private static void insertForeignKeys(DatabaseRelationDefinition relation, JsonNode foreignKeys,
+                                          QuotedIDFactory idFactory,
+                                          Map<RelationID, DatabaseRelationDefinition> relationMap)
+            throws AttributeNotFoundException, MetadataExtractionException {
+        for (JsonNode foreignKey : foreignKeys) {
+            JsonNode from = foreignKey.path("from");
+            JsonNode to = foreignKey.path("to");
+            DatabaseRelationDefinition referencedRelation = getRelation(to.path("relation"), idFactory, relationMap);
+
+            ForeignKeyConstraint.Builder builder = ForeignKeyConstraint.builder(
+                    foreignKey.path("name").textValue(), relation, referencedRelation);
+            JsonNode columns = from.path("columns");
+            JsonNode referencedColumns = to.path("columns");
+            if (columns.size() != referencedColumns.size())
+                throw new MetadataExtractionException("Inconsistent serialized DB metadata: foreign key "
+                        + foreignKey.path("name").textValue() + " of " + relation.getID());
+
+            for (int i = 0; i < columns.size(); i++)
+                builder.add(idFactory.createAttributeID(columns.get(i).textValue()),
+                        idFactory.createAttributeID(referencedColumns.get(i).textValue()));
+            builder.build();
+        }
+    }
+
+    private static DatabaseRelationDefinition getRelation(JsonNode name, QuotedIDFactory idFactory,
+                                                          Map<RelationID, DatabaseRelationDefinition> relationMap)
+            throws MetadataExtractionException {
+        RelationID id = getRelationID(name.textValue(), idFactory);
+        DatabaseRelationDefinition relation = relationMap.get(id);
+        if (relation == null)
+            throw new MetadataExtractionException("Inconsistent serialized DB metadata: unknown relation " + id);
+        return relation;
+    }
+
+    /**
+     * Parses the SQL rendering of a relation ID: the schema and table names are separated by
+     * the first dot that is not enclosed in quotation marks
+     */
+    private static RelationID getRelationID(String rendering, QuotedIDFactory idFactory)
+            throws MetadataExtractionException {
+        if (rendering == null)
+            throw new MetadataExtractionException("Inconsistent serialized DB metadata: missing relation name");
+
+        String quotation = idFactory.getIDQuotationString();
+        boolean isQuoted = false;
+        for (int i = 0; i < rendering.length(); i++) {
+            if (rendering.startsWith(quotation, i)) {
+                isQuoted = !isQuoted;
+                i += quotation.length() - 1;
+            }
+            else if (!isQuoted && rendering.charAt(i) == '.')
+                return idFactory.createRelationID(rendering.substring(0, i), rendering.substring(i + 1));
+        }
+        return idFactory.createRelationID(null, rendering);
+    }
+
+    private static QuotedIDFactory getQuotedIDFactory(String idFactoryType) throws MetadataExtractionException {
+        if (idFactoryType == null)
+            throw new MetadataExtractionException("The serialized DB metadata does not specify the idFactoryType. " +
+                    "Please extract it again with extract-db-metadata");
+
+        switch (idFactoryType) {
+            case SQLStandardQuotedIDFactory.ID_FACTORY_TYPE:
+                return new SQLStandardQuotedIDFactory();
+            case PostgreSQLQuotedIDFactory.ID_FACTORY_TYPE:
+                return new PostgreSQLQuotedIDFactory();
+            case SQLServerQuotedIDFactory.ID_FACTORY_TYPE:
+                return new SQLServerQuotedIDFactory();
+            case MySQLQuotedIDFactory.ID_FACTORY_TYPE:
+                return new MySQLQuotedIDFactory(false);
+            case MySQLQuotedIDFactory.CASE_SENSITIVE_ID_FACTORY_TYPE:
+                return new MySQLQuotedIDFactory(true);
+            default:
+                throw new MetadataExtractionException("Unknown idFactoryType in the serialized DB metadata: "
+                        + idFactoryType);
+        }
+    }
+}
@@ -55,6 +55,8 @@ import it.unibz.inf.ontop.dbschema.RelationID;
 public class MySQLQuotedIDFactory implements QuotedIDFactory {
 
 	private static final String MY_SQL_QUOTATION_STRING = "`";
+	static final String ID_FACTORY_TYPE = "MYSQL";
+	static final String CASE_SENSITIVE_ID_FACTORY_TYPE = "MYSQL-CS";
 	private final boolean caseSensitiveTableNames;
 	
 	MySQLQuotedIDFactory(boolean caseSensitiveTableNames) {
@@ -96,5 +98,10 @@ public class MySQLQuotedIDFactory implements QuotedIDFactory {
 	@Override
 	public String getIDQuotationString() {
 		return MY_SQL_QUOTATION_STRING;
-	}	
+	}
+
+	@Override
+	public String getIDFactoryType() {
+		return caseSensitiveTableNames ? CASE_SENSITIVE_ID_FACTORY_TYPE : ID_FACTORY_TYPE;
+	}
 }
@@ -53,6 +53,8 @@ import static it.unibz.inf.ontop.dbschema.impl.SQLStandardQuotedIDFactory.QUOTAT
 
 public class PostgreSQLQuotedIDFactory implements QuotedIDFactory {
 
+	static final String ID_FACTORY_TYPE = "POSTGRESQL";
+
 	PostgreSQLQuotedIDFactory() { }
 
 	@Override
@@ -79,5 +81,10 @@ public class PostgreSQLQuotedIDFactory implements QuotedIDFactory {
 	public String getIDQuotationString() {
 		return QUOTATION_STRING;
 	}
+
+	@Override
+	public String getIDFactoryType() {
+		return ID_FACTORY_TYPE;
+	}
 	
 }
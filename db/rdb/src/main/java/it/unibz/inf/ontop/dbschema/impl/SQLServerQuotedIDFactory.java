@@ -49,6 +49,8 @@ import static it.unibz.inf.ontop.dbschema.impl.SQLStandardQuotedIDFactory.QUOTAT
 
 public class SQLServerQuotedIDFactory implements QuotedIDFactory {
 
+	static final String ID_FACTORY_TYPE = "SQLSERVER";
+
 	SQLServerQuotedIDFactory() { }
 
 	@Override
@@ -77,4 +79,9 @@ public class SQLServerQuotedIDFactory implements QuotedIDFactory {
 	public String getIDQuotationString() {
 		return QUOTATION_STRING;
 	}
+
+	@Override
+	public String getIDFactoryType() {
+		return ID_FACTORY_TYPE;
+	}
 }
@@ -0,0 +1,15 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import it.unibz.inf.ontop.dbschema.MetadataProvider;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
+
+import java.io.Reader;
+
+/**
+ * Loads DB metadata previously serialized (see DBMetadataExtractorAndSerializer),
+ * without connecting to the database.
+ */
+public interface SerializedMetadataProviderFactory {
+
+    MetadataProvider getMetadataProvider(Reader dbMetadataReader) throws MetadataExtractionException;
+}
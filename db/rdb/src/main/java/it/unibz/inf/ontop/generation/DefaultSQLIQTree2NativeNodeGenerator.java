@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.generation;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.inject.Inject;
@@ -12,15 +13,26 @@ import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.FilterNode;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.node.LeftJoinNode;
 import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
 import it.unibz.inf.ontop.iq.type.UniqueTermTypeExtractor;
-import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.BooleanFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBStrictEqFunctionSymbol;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGenerator {
 
@@ -29,17 +41,30 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
     private final IntermediateQueryFactory iqFactory;
     private final UniqueTermTypeExtractor uniqueTermTypeExtractor;
     private final DBTermType abstractRootDBType;
+    private final TermFactory termFactory;
+
+    /**
+     * Constants to be replaced by parameters are first replaced by placeholders, which are then
+     * looked for in the serialized query. This way, parameters are collected in their order of appearance,
+     * whatever the way the serializer composes the query.
+     */
+    private static final char PLACEHOLDER_DELIMITER = '\u0000';
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile(
+            "'" + PLACEHOLDER_DELIMITER + "(\\d+)" + PLACEHOLDER_DELIMITER + "'"
+                    + "|" + PLACEHOLDER_DELIMITER + "(\\d+)" + PLACEHOLDER_DELIMITER);
+    private static final String PARAMETER_STRING = "?";
 
     @Inject
     private DefaultSQLIQTree2NativeNodeGenerator(SelectFromWhereSerializer serializer,
                                                  IQTree2SelectFromWhereConverter converter,
                                                  IntermediateQueryFactory iqFactory,
                                                  UniqueTermTypeExtractor uniqueTermTypeExtractor,
-                                                 TypeFactory typeFactory) {
+                                                 TypeFactory typeFactory, TermFactory termFactory) {
         this.serializer = serializer;
         this.converter = converter;
         this.iqFactory = iqFactory;
         this.uniqueTermTypeExtractor = uniqueTermTypeExtractor;
+        this.termFactory = termFactory;
         abstractRootDBType = typeFactory.getDBTypeFactory().getAbstractRootDBType();
     }
 
@@ -53,13 +78,61 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
 
         ImmutableMap<Variable, DBTermType> variableTypeMap = extractVariableTypeMap(iqTree, tolerateUnknownTypes);
 
-        ImmutableMap<Variable, QuotedID> columnNames = serializedQuery.getColumnIDs().entrySet().stream()
+        return iqFactory.createNativeNode(signature, variableTypeMap, extractColumnNames(serializedQuery),
+                serializedQuery.getString(), iqTree.getVariableNullability());
+    }
+
+    /**
+     * Only the constants compared by strict equalities in filtering and join conditions
+     * are replaced by parameters, and only if they are strings or integers.
+     *
+     * Falls back to inlined constants if the serialized query is not as expected.
+     */
+    @Override
+    public NativeNode generateWithParameters(IQTree iqTree, DBParameters dbParameters) {
+        ParameterExtractor parameterExtractor = new ParameterExtractor();
+        IQTree parameterizedTree = parameterExtractor.transform(iqTree);
+        ImmutableList<DBConstant> extractedConstants = parameterExtractor.getConstants();
+
+        if (extractedConstants.isEmpty())
+            return generate(iqTree, dbParameters, false);
+
+        ImmutableSortedSet<Variable> signature = ImmutableSortedSet.copyOf(iqTree.getVariables());
+
+        SelectFromWhereWithModifiers selectFromWhere = converter.convert(parameterizedTree, signature);
+        SelectFromWhereSerializer.QuerySerialization serializedQuery = serializer.serialize(selectFromWhere, dbParameters);
+        String serializedString = serializedQuery.getString();
+
+        // Parameters cannot be distinguished from question marks already present (e.g. from the mapping)
+        if (serializedString.contains(PARAMETER_STRING))
+            return generate(iqTree, dbParameters, false);
+
+        ImmutableList.Builder<DBConstant> parameterBuilder = ImmutableList.builder();
+        StringBuffer sb = new StringBuffer();
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(serializedString);
+        while (matcher.find()) {
+            String index = Optional.ofNullable(matcher.group(1))
+                    .orElseGet(() -> matcher.group(2));
+            parameterBuilder.add(extractedConstants.get(Integer.parseInt(index)));
+            matcher.appendReplacement(sb, PARAMETER_STRING);
+        }
+        matcher.appendTail(sb);
+        String sqlString = sb.toString();
+
+        if (sqlString.indexOf(PLACEHOLDER_DELIMITER) >= 0)
+            return generate(iqTree, dbParameters, false);
+
+        ImmutableMap<Variable, DBTermType> variableTypeMap = extractVariableTypeMap(iqTree, false);
+
+        return iqFactory.createNativeNode(signature, variableTypeMap, extractColumnNames(serializedQuery),
+                sqlString, parameterBuilder.build(), iqTree.getVariableNullability());
+    }
+
+    private ImmutableMap<Variable, QuotedID> extractColumnNames(SelectFromWhereSerializer.QuerySerialization serializedQuery) {
+        return serializedQuery.getColumnIDs().entrySet().stream()
                 .collect(ImmutableCollectors.toMap(
                         Map.Entry::getKey,
                         e -> e.getValue().getAttribute()));
-
-        return iqFactory.createNativeNode(signature, variableTypeMap, columnNames,
-                serializedQuery.getString(), iqTree.getVariableNullability());
     }
 
     private ImmutableMap<Variable, DBTermType> extractVariableTypeMap(IQTree tree, boolean tolerateUnknownTypes) {
@@ -80,4 +153,89 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
                         "Was expecting a unique and known DB term type to be extracted " +
                                 "for the SQL variable " + v));
     }
+
+
+    /**
+     * Replaces the constants by placeholders.
+     *
+     * Mutable: one instance per tree
+     */
+    private class ParameterExtractor extends DefaultRecursiveIQTreeVisitingTransformer {
+
+        private final List<DBConstant> constants = new ArrayList<>();
+
+        ParameterExtractor() {
+            super(DefaultSQLIQTree2NativeNodeGenerator.this.iqFactory);
+        }
+
+        ImmutableList<DBConstant> getConstants() {
+            return ImmutableList.copyOf(constants);
+        }
+
+        @Override
+        public IQTree transformFilter(IQTree tree, FilterNode rootNode, IQTree child) {
+            FilterNode newRootNode = rootNode.changeFilterCondition(transformExpression(rootNode.getFilterCondition()));
+            return transformUnaryNode(tree, newRootNode, child);
+        }
+
+        @Override
+        public IQTree transformInnerJoin(IQTree tree, InnerJoinNode rootNode, ImmutableList<IQTree> children) {
+            InnerJoinNode newRootNode = rootNode.changeOptionalFilterCondition(
+                    rootNode.getOptionalFilterCondition().map(this::transformExpression));
+            return transformNaryCommutativeNode(tree, newRootNode, children);
+        }
+
+        @Override
+        public IQTree transformLeftJoin(IQTree tree, LeftJoinNode rootNode, IQTree leftChild, IQTree rightChild) {
+            LeftJoinNode newRootNode = rootNode.changeOptionalFilterCondition(
+                    rootNode.getOptionalFilterCondition().map(this::transformExpression));
+            return transformBinaryNonCommutativeNode(tree, newRootNode, leftChild, rightChild);
+        }
+
+        private ImmutableExpression transformExpression(ImmutableExpression expression) {
+            return (ImmutableExpression) transformTerm(expression);
+        }
+
+        private ImmutableTerm transformTerm(ImmutableTerm term) {
+            if (!(term instanceof ImmutableFunctionalTerm))
+                return term;
+
+            ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+            FunctionSymbol functionSymbol = functionalTerm.getFunctionSymbol();
+            boolean isStrictEq = functionSymbol instanceof DBStrictEqFunctionSymbol;
+
+            ImmutableList<? extends ImmutableTerm> terms = functionalTerm.getTerms();
+            ImmutableList<ImmutableTerm> newTerms = terms.stream()
+                    .map(t -> isStrictEq && isParameterizable(t)
+                            ? replaceByPlaceholder((DBConstant) t)
+                            : transformTerm(t))
+                    .collect(ImmutableCollectors.toList());
+
+            if (newTerms.equals(terms))
+                return term;
+
+            return (term instanceof ImmutableExpression)
+                    ? termFactory.getImmutableExpression((BooleanFunctionSymbol) functionSymbol, newTerms)
+                    : termFactory.getImmutableFunctionalTerm(functionSymbol, newTerms);
+        }
+
+        private boolean isParameterizable(ImmutableTerm term) {
+            if (!(term instanceof DBConstant))
+                return false;
+            switch (((DBConstant) term).getType().getCategory()) {
+                case STRING:
+                case INTEGER:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private DBConstant replaceByPlaceholder(DBConstant constant) {
+            int index = constants.size();
+            constants.add(constant);
+            return termFactory.getDBConstant(PLACEHOLDER_DELIMITER + String.valueOf(index) + PLACEHOLDER_DELIMITER,
+                    constant.getType());
+        }
+    }
 }
@@ -7,6 +7,7 @@ import it.unibz.inf.ontop.generation.normalization.DialectExtraNormalizer;
 import it.unibz.inf.ontop.generation.serializer.SelectFromWhereSerializer;
 import it.unibz.inf.ontop.dbschema.DBMetadataProvider;
 import it.unibz.inf.ontop.dbschema.impl.JDBCMetadataProviderFactory;
+import it.unibz.inf.ontop.dbschema.impl.SerializedMetadataProviderFactory;
 import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
 import it.unibz.inf.ontop.injection.OntopSQLCoreSettings;
 import it.unibz.inf.ontop.iq.transform.IQTree2NativeNodeGenerator;
@@ -28,6 +29,7 @@ public class OntopSQLCoreModule extends OntopAbstractModule {
         bindFromSettings(IQTree2SelectFromWhereConverter.class);
         bindFromSettings(DialectExtraNormalizer.class);
         bindFromSettings(IQTree2NativeNodeGenerator.class);
+        bindFromSettings(SerializedMetadataProviderFactory.class);
 
         Module sqlAlgebraFactory = buildFactory(
                 ImmutableList.of(
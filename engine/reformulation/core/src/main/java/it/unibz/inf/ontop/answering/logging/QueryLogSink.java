@@ -0,0 +1,41 @@
+package it.unibz.inf.ontop.answering.logging;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Destination of the query log entries.
+ *
+ * Shared by the query loggers: implementations must be thread-safe.
+ */
+public interface QueryLogSink {
+
+    /**
+     * Called on the request thread: expected to be cheap.
+     */
+    void submit(Event event);
+
+    /**
+     * Blocks until the events submitted so far have been written (or dropped).
+     */
+    void flush();
+
+    /**
+     * Flushes and releases the resources (e.g. background threads).
+     * Events submitted afterwards are still accepted.
+     */
+    default void close() {
+        flush();
+    }
+
+    /**
+     * Log entry, serialized (possibly on another thread) as one JSON object.
+     *
+     * Must only capture immutable values.
+     */
+    @FunctionalInterface
+    interface Event {
+        void serialize(JsonGenerator generator) throws IOException;
+    }
+}
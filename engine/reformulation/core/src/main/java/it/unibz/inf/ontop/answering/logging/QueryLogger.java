@@ -24,6 +24,13 @@ public interface QueryLogger {
 
     void declareConversionException(InconsistentOntologyException e);
 
+    void declareCancellation();
+
+    /**
+     * Duration in nanoseconds. May be declared several times for the same stage.
+     */
+    void declareStageDuration(QueryStage stage, long durationNanos);
+
     void setSparqlQuery(String sparqlQuery);
 
     void setSparqlIQ(IQ sparqlIQ);
@@ -0,0 +1,36 @@
+package it.unibz.inf.ontop.answering.logging;
+
+/**
+ * Stages of the answering of a query whose durations are declared to the QueryLogger
+ */
+public enum QueryStage {
+    /**
+     * Translation of the parsed SPARQL query into an IQ
+     */
+    PARSING("ontop.query.parsing"),
+    REWRITING("ontop.query.rewriting"),
+    UNFOLDING("ontop.query.unfolding"),
+    OPTIMIZATION("ontop.query.optimization"),
+    PLANNING("ontop.query.planning"),
+    NATIVE_QUERY_GENERATION("ontop.query.generation"),
+    CONNECTION_WAIT("ontop.jdbc.connection.wait"),
+    /**
+     * From the end of the reformulation to the availability of the result set (blocking part of the evaluation)
+     */
+    TIME_TO_FIRST_ROW("ontop.query.time.to.first.row"),
+    /**
+     * Conversion of the DB rows into RDF terms (cumulated over all the rows of the query,
+     * estimated from a sample of the rows)
+     */
+    RESULT_CONVERSION("ontop.query.result.conversion");
+
+    private final String metricName;
+
+    QueryStage(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,283 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Request threads only enqueue the events into a bounded lock-free buffer.
+ * A background (daemon) thread serializes them and writes them by batches,
+ * either to the standard output (default) or to a file (optionally rotated).
+ *
+ * When the buffer is full, the events are dropped (default) or the request threads wait.
+ *
+ * The background thread is only started when the first event is submitted, and stopped by close().
+ * A single shutdown hook flushes all the started sinks.
+ */
+@Singleton
+public class AsyncQueryLogSink implements QueryLogSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncQueryLogSink.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long WAIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    // Flushed by the shutdown hook (daemon threads are only stopped after the shutdown hooks)
+    private static final Set<AsyncQueryLogSink> STARTED_SINKS = ConcurrentHashMap.newKeySet();
+    private static boolean isShutdownHookRegistered;
+
+    private final int capacity;
+    private final int batchSize;
+    private final boolean blockWhenFull;
+    private final Optional<Path> file;
+    private final long maxFileSize;
+    private final int maxBackupFiles;
+
+    private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    // Written or failed. Only updated by the background thread
+    private volatile long processedCount;
+    private volatile boolean isIdle;
+    private volatile boolean isStopRequested;
+
+    @Nullable
+    private volatile Thread writerThread;
+
+    // Only accessed by the background thread
+    private final JsonFactory jsonFactory;
+    private final StringWriter buffer = new StringWriter();
+    @Nullable
+    private Writer writer;
+
+    @Inject
+    protected AsyncQueryLogSink(OntopReformulationSettings settings) {
+        this.capacity = settings.getQueryLoggingBufferSize();
+        this.batchSize = settings.getQueryLoggingBatchSize();
+        this.blockWhenFull = settings.isQueryLoggingBlockingWhenFull();
+        this.file = settings.getQueryLoggingFile().map(Paths::get);
+        this.maxFileSize = settings.getQueryLoggingMaxFileSize();
+        this.maxBackupFiles = settings.getQueryLoggingMaxBackupFiles();
+        this.jsonFactory = new JsonFactory();
+    }
+
+    @Override
+    public void submit(Event event) {
+        if (writerThread == null)
+            start();
+
+        while (true) {
+            int currentSize = size.get();
+            if (currentSize < capacity) {
+                if (size.compareAndSet(currentSize, currentSize + 1))
+                    break;
+            }
+            else if (blockWhenFull) {
+                LockSupport.unpark(writerThread);
+                LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+            }
+            else {
+                droppedCount.incrementAndGet();
+                return;
+            }
+        }
+        queue.offer(event);
+        submittedCount.incrementAndGet();
+        if (isIdle)
+            LockSupport.unpark(writerThread);
+    }
+
+    @Override
+    public void flush() {
+        Thread thread = writerThread;
+        if (thread == null)
+            return;
+        long target = submittedCount.get();
+        while (processedCount < target && thread.isAlive()) {
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+        }
+    }
+
+    private synchronized void start() {
+        if (writerThread != null)
+            return;
+        isStopRequested = false;
+        Thread thread = new Thread(this::run, "ontop-query-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        writerThread = thread;
+        STARTED_SINKS.add(this);
+        registerShutdownHook();
+    }
+
+    private static synchronized void registerShutdownHook() {
+        if (isShutdownHookRegistered)
+            return;
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> STARTED_SINKS.forEach(AsyncQueryLogSink::flush),
+                "ontop-query-log-flush"));
+        isShutdownHookRegistered = true;
+    }
+
+    /**
+     * The events submitted concurrently may only be written once the sink is started again
+     */
+    @Override
+    public synchronized void close() {
+        Thread thread = writerThread;
+        if (thread == null)
+            return;
+        flush();
+        isStopRequested = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The background thread has stopped
+        closeWriter();
+        writerThread = null;
+        STARTED_SINKS.remove(this);
+    }
+
+    private void run() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        long reportedDroppedCount = 0;
+        while (!isStopRequested) {
+            Event event;
+            while (batch.size() < batchSize && (event = queue.poll()) != null)
+                batch.add(event);
+
+            if (batch.isEmpty()) {
+                isIdle = true;
+                if (queue.isEmpty())
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                isIdle = false;
+                continue;
+            }
+
+            size.addAndGet(-batch.size());
+            write(batch);
+            processedCount += batch.size();
+            batch.clear();
+
+            long currentDroppedCount = droppedCount.get();
+            if (currentDroppedCount > reportedDroppedCount) {
+                LOGGER.warn("{} query log entries have been dropped (the buffer of {} entries was full)",
+                        currentDroppedCount - reportedDroppedCount, capacity);
+                reportedDroppedCount = currentDroppedCount;
+            }
+        }
+    }
+
+    private void write(List<Event> batch) {
+        try {
+            Writer currentWriter = getWriter();
+            for (Event event : batch) {
+                // Serialized first, so that a failing event does not produce a truncated line
+                buffer.getBuffer().setLength(0);
+                try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+                    event.serialize(generator);
+                }
+                catch (IOException | RuntimeException e) {
+                    LOGGER.error(QueryLoggerImpl.OUTPUT_STREAM_JSON_ERROR + e);
+                    continue;
+                }
+                currentWriter.write(buffer.getBuffer().toString());
+                currentWriter.write(System.lineSeparator());
+            }
+            currentWriter.flush();
+            rotateIfNeeded();
+        }
+        catch (IOException e) {
+            LOGGER.error("Cannot write the query log: " + e);
+            closeWriter();
+        }
+    }
+
+    private Writer getWriter() throws IOException {
+        if (writer == null) {
+            if (file.isPresent()) {
+                Path parent = file.get().toAbsolutePath().getParent();
+                if (parent != null)
+                    Files.createDirectories(parent);
+                writer = Files.newBufferedWriter(file.get(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            else
+                writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        }
+        return writer;
+    }
+
+    /**
+     * file -> file.1 -> ... -> file.maxBackupFiles (deleted)
+     */
+    private void rotateIfNeeded() throws IOException {
+        if ((!file.isPresent()) || maxFileSize <= 0 || Files.size(file.get()) < maxFileSize)
+            return;
+
+        closeWriter();
+        Path path = file.get();
+        if (maxBackupFiles <= 0) {
+            Files.delete(path);
+            return;
+        }
+        Files.deleteIfExists(getBackupFile(path, maxBackupFiles));
+        for (int i = maxBackupFiles - 1; i > 0; i--) {
+            Path backupFile = getBackupFile(path, i);
+            if (Files.exists(backupFile))
+                Files.move(backupFile, getBackupFile(path, i + 1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.move(path, getBackupFile(path, 1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path getBackupFile(Path file, int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void closeWriter() {
+        // The standard output is never closed
+        if (writer != null && file.isPresent()) {
+            try {
+                writer.close();
+            }
+            catch (IOException e) {
+                LOGGER.warn("Cannot close the query log file: " + e);
+            }
+        }
+        writer = null;
+    }
+}
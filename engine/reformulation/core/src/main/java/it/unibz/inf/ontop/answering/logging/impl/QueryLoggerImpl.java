@@ -1,13 +1,14 @@
 package it.unibz.inf.ontop.answering.logging.impl;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.hash.Hashing;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.logging.QueryStage;
 import it.unibz.inf.ontop.answering.logging.impl.ClassAndPropertyExtractor.ClassesAndProperties;
 import it.unibz.inf.ontop.answering.logging.impl.QueryTemplateExtractor.QueryTemplateExtraction;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
@@ -17,17 +18,13 @@ import it.unibz.inf.ontop.model.term.GroundTerm;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.spec.ontology.InconsistentOntologyException;
 import org.apache.commons.rdf.api.IRI;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
-import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
@@ -41,6 +38,7 @@ public class QueryLoggerImpl implements QueryLogger {
     protected static final String EVALUATION_EXC_MSG = "query:exception-evaluation";
     protected static final String CONNECTION_EXC_MSG = "query:exception-connection";
     protected static final String CONVERSION_EXC_MSG = "query:exception-conversion";
+    protected static final String CANCELLATION_MSG = "query:cancelled";
     protected static final String SPARQL_QUERY_KEY = "sparqlQuery";
     protected static final String REFORMULATED_QUERY_KEY = "reformulatedQuery";
     protected static final String TIMESTAMP_KEY = "@timestamp";
@@ -66,19 +64,16 @@ public class QueryLoggerImpl implements QueryLogger {
     protected static final String HASH_KEY = "hash";
     protected static final String PARAMETERS_KEY = "parameters";
 
-    private static final DateFormat  DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
-    private static final Logger REGULAR_LOGGER = LoggerFactory.getLogger(QueryLoggerImpl.class);
-;
-
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+            .withZone(ZoneId.systemDefault());
 
     private final UUID queryId;
     private final long creationTime;
-    private final PrintStream outputStream;
+    private final QueryLogSink sink;
     private final ImmutableMultimap<String, String> httpHeaders;
     private final OntopReformulationSettings settings;
     private final boolean disabled;
     private final String applicationName;
-    private final JsonFactory jsonFactory;
     private long reformulationTime;
     private long unblockedResulSetTime;
     private final ClassAndPropertyExtractor classAndPropertyExtractor;
@@ -99,17 +94,11 @@ public class QueryLoggerImpl implements QueryLogger {
     @AssistedInject
     protected QueryLoggerImpl(@Assisted ImmutableMultimap<String, String> httpHeaders,
                               OntopReformulationSettings settings,
+                              QueryLogSink sink,
                               ClassAndPropertyExtractor classAndPropertyExtractor,
                               RelationNameExtractor relationNameExtractor,
                               QueryTemplateExtractor queryTemplateExtractor) {
-        this(System.out, httpHeaders, settings, classAndPropertyExtractor, relationNameExtractor, queryTemplateExtractor);
-    }
-
-    protected QueryLoggerImpl(PrintStream outputStream, ImmutableMultimap<String, String> httpHeaders,
-                              OntopReformulationSettings settings,
-                              ClassAndPropertyExtractor classAndPropertyExtractor,
-                              RelationNameExtractor relationNameExtractor, QueryTemplateExtractor queryTemplateExtractor) {
-        this.outputStream = outputStream;
+        this.sink = sink;
         this.httpHeaders = httpHeaders;
         this.settings = settings;
         this.classAndPropertyExtractor = classAndPropertyExtractor;
@@ -120,11 +109,27 @@ public class QueryLoggerImpl implements QueryLogger {
         applicationName = settings.getApplicationName();
         reformulationTime = -1;
         unblockedResulSetTime = -1;
-        jsonFactory = new JsonFactory();
 
         this.disabled = !settings.isQueryLoggingEnabled();
     }
 
+    /**
+     * The payload is serialized later (by the sink), so it must only capture immutable values
+     */
+    protected void submit(long time, String message, QueryLogSink.Event payload) {
+        sink.submit(js -> {
+            js.writeStartObject();
+            js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(time));
+            js.writeStringField(MESSAGE_KEY, message);
+            js.writeStringField(APPLICATION_KEY, applicationName);
+            js.writeObjectFieldStart(PAYLOAD_KEY);
+            js.writeStringField(QUERY_ID_KEY, queryId.toString());
+            payload.serialize(js);
+            js.writeEndObject();
+            js.writeEndObject();
+        });
+    }
+
     @Override
     public void declareReformulationFinishedAndSerialize(IQ reformulatedQuery, boolean wasCached) {
         if (disabled)
@@ -132,14 +137,15 @@ public class QueryLoggerImpl implements QueryLogger {
 
         reformulationTime = System.currentTimeMillis();
 
-        StringWriter stringWriter = new StringWriter();
-        try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
-            js.writeStartObject();
-            js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(System.currentTimeMillis()));
-            js.writeStringField(MESSAGE_KEY, QUERY_REFORMULATED);
-            js.writeStringField(APPLICATION_KEY, applicationName);
-            js.writeObjectFieldStart(PAYLOAD_KEY);
-            js.writeStringField(QUERY_ID_KEY, queryId.toString());
+        long reformulationDuration = reformulationTime - creationTime;
+        ImmutableSet<IRI> classes = this.classes;
+        ImmutableSet<IRI> properties = this.properties;
+        ImmutableSet<String> relationNames = this.relationNames;
+        QueryTemplateExtraction queryTemplate = this.queryTemplate;
+        String sparqlQueryString = this.sparqlQueryString;
+        boolean isReformulatedQueryIncluded = settings.isReformulatedQueryIncludedIntoQueryLog();
+
+        submit(reformulationTime, QUERY_REFORMULATED, js -> {
             // Classes
             if (classes != null) {
                 js.writeArrayFieldStart(CLASSES_KEY);
@@ -161,22 +167,17 @@ public class QueryLoggerImpl implements QueryLogger {
                     js.writeString(n);
                 js.writeEndArray();
             }
-            js.writeNumberField(REFORMULATION_DURATION_KEY, reformulationTime - creationTime);
+            js.writeNumberField(REFORMULATION_DURATION_KEY, reformulationDuration);
             js.writeBooleanField(REFORMULATION_CACHE_HIT_KEY, wasCached);
 
             writeHttpHeaders(js);
-            writeQueryTemplateExtraction(js);
+            writeQueryTemplateExtraction(js, queryTemplate);
 
             if (sparqlQueryString != null)
                 js.writeStringField(SPARQL_QUERY_KEY, sparqlQueryString);
-            if (settings.isReformulatedQueryIncludedIntoQueryLog())
+            if (isReformulatedQueryIncluded)
                 js.writeStringField(REFORMULATED_QUERY_KEY, reformulatedQuery.toString());
-            js.writeEndObject();
-            js.writeEndObject();
-        } catch (IOException ex) {
-            REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + ex);
-        }
-        outputStream.println(stringWriter.toString());
+        });
     }
 
     private void writeHttpHeaders(JsonGenerator js) throws IOException {
@@ -193,7 +194,8 @@ public class QueryLoggerImpl implements QueryLogger {
         js.writeEndObject();
     }
 
-    private void writeQueryTemplateExtraction(JsonGenerator js) throws IOException {
+    private static void writeQueryTemplateExtraction(JsonGenerator js, @Nullable QueryTemplateExtraction queryTemplate)
+            throws IOException {
         if (queryTemplate == null)
             return;
         js.writeObjectFieldStart(QUERY_TEMPLATE_KEY);
@@ -222,22 +224,9 @@ public class QueryLoggerImpl implements QueryLogger {
         if (reformulationTime == -1)
             throw new IllegalStateException("Reformulation should have been declared as finished");
 
-        StringWriter stringWriter = new StringWriter();
-        try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
-            js.writeStartObject();
-            js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(unblockedResulSetTime));
-            js.writeStringField(MESSAGE_KEY, QUERY_RESULT_SET_UNBLOCKED);
-            js.writeStringField(APPLICATION_KEY, applicationName);
-            js.writeObjectFieldStart(PAYLOAD_KEY);
-            js.writeStringField(QUERY_ID_KEY, queryId.toString());
-            js.writeNumberField(EXECUTION_BEFORE_UNBLOCKING_DURATION_KEY, unblockedResulSetTime - reformulationTime);
-            js.writeEndObject();
-            js.writeEndObject();
-        } catch (IOException e) {
-            REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
-            return;
-        }
-        outputStream.println(stringWriter.toString());
+        long executionBeforeUnblockingDuration = unblockedResulSetTime - reformulationTime;
+        submit(unblockedResulSetTime, QUERY_RESULT_SET_UNBLOCKED,
+                js -> js.writeNumberField(EXECUTION_BEFORE_UNBLOCKING_DURATION_KEY, executionBeforeUnblockingDuration));
     }
 
     @Override
@@ -249,23 +238,13 @@ public class QueryLoggerImpl implements QueryLogger {
         if (unblockedResulSetTime == -1)
             throw new IllegalStateException("Result set should have been declared as unblocked");
 
-        StringWriter stringWriter = new StringWriter();
-        try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
-            js.writeStartObject();
-            js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(lastResultFetchedTime));
-            js.writeStringField(MESSAGE_KEY, QUERY_LAST_RESULT_FETCHED);
-            js.writeStringField(APPLICATION_KEY, applicationName);
-            js.writeObjectFieldStart(PAYLOAD_KEY);
-            js.writeStringField(QUERY_ID_KEY, queryId.toString());
-            js.writeNumberField(EXECUTION_AND_FETCHING_DURATION_KEY, lastResultFetchedTime - reformulationTime);
-            js.writeNumberField(TOTAL_DURATION_KEY, lastResultFetchedTime - creationTime);
+        long executionAndFetchingDuration = lastResultFetchedTime - reformulationTime;
+        long totalDuration = lastResultFetchedTime - creationTime;
+        submit(lastResultFetchedTime, QUERY_LAST_RESULT_FETCHED, js -> {
+            js.writeNumberField(EXECUTION_AND_FETCHING_DURATION_KEY, executionAndFetchingDuration);
+            js.writeNumberField(TOTAL_DURATION_KEY, totalDuration);
             js.writeNumberField(RESULT_COUNT_KEY, resultCount);
-            js.writeEndObject();
-            js.writeEndObject();
-        } catch (IOException e) {
-            REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
-        }
-        outputStream.println(stringWriter.toString());
+        });
     }
 
     @Override
@@ -288,6 +267,21 @@ public class QueryLoggerImpl implements QueryLogger {
         declareException(e, CONVERSION_EXC_MSG);
     }
 
+    @Override
+    public void declareCancellation() {
+        if (disabled)
+            return;
+
+        submit(System.currentTimeMillis(), CANCELLATION_MSG, js -> { });
+    }
+
+    /**
+     * Not part of the query log (see the reformulation and execution durations)
+     */
+    @Override
+    public void declareStageDuration(QueryStage stage, long durationNanos) {
+    }
+
     @Override
     public void setSparqlQuery(String sparqlQuery) {
         if (disabled || (!settings.isSparqlQueryIncludedIntoQueryLog()))
@@ -328,24 +322,12 @@ public class QueryLoggerImpl implements QueryLogger {
         if (disabled)
             return;
 
-        StringWriter stringWriter = new StringWriter();
-        try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
-            js.writeStartObject();
-            js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(System.currentTimeMillis()));
-            js.writeStringField(MESSAGE_KEY, exceptionType);
-            js.writeStringField(APPLICATION_KEY, applicationName);
-            js.writeObjectFieldStart(PAYLOAD_KEY);
-            js.writeStringField(QUERY_ID_KEY, queryId.toString());
-            js.writeStringField(EXCEPTION_KEY, e.getMessage());
-            js.writeEndObject();
-            js.writeEndObject();
-        } catch (IOException ex) {
-            REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + ex);
-        }
-        outputStream.println(stringWriter.toString());
+        String exceptionMessage = e.getMessage();
+        submit(System.currentTimeMillis(), exceptionType,
+                js -> js.writeStringField(EXCEPTION_KEY, exceptionMessage));
     }
 
     protected String serializeTimestamp(long time) {
-        return DATE_FORMAT.format(new Timestamp(time));
+        return DATE_FORMATTER.format(Instant.ofEpochMilli(time));
     }
 }
@@ -24,6 +24,7 @@ import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.term.functionsymbol.BooleanFunctionSymbol;
 import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbolFactory;
 import it.unibz.inf.ontop.model.term.functionsymbol.SPARQLFunctionSymbol;
+import it.unibz.inf.ontop.model.vocabulary.RDF;
 import it.unibz.inf.ontop.model.vocabulary.SPARQL;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.VariableGenerator;
@@ -35,7 +36,9 @@ import java.util.stream.Stream;
 
 
 /**
- * TODO: move it away from the query logging package if also used for other purposes
+ * Also used by the query template cache (see QuestQueryProcessor).
+ *
+ * TODO: move it away from the query logging package
  */
 @Singleton
 public class QueryTemplateExtractor {
@@ -51,18 +54,37 @@ public class QueryTemplateExtractor {
         this.settings = settings;
     }
 
-    Optional<QueryTemplateExtraction> extract(IQ iq) {
+    public Optional<QueryTemplateExtraction> extract(IQ iq) {
+        return extract(iq, false);
+    }
+
+    /**
+     * For the query template cache: the ground IRIs of the star patterns (i.e. with no property or class IRI)
+     * are kept, as the unfolder only merges the definitions having a compatible IRI template.
+     * They are therefore part of the template.
+     */
+    public Optional<QueryTemplateExtraction> extractForUnfolding(IQ iq) {
+        return extract(iq, true);
+    }
+
+    private Optional<QueryTemplateExtraction> extract(IQ iq, boolean keepStarPatternIRIs) {
 
         IQTree initialIQTree = iq.getTree();
         QueryTemplateTransformer transformer = new QueryTemplateTransformer(coreSingletons,
-                initialIQTree.getKnownVariables(), settings);
+                initialIQTree.getKnownVariables(), settings, keepStarPatternIRIs);
 
-        IQTree newTree = transformer.transform(initialIQTree);
+        IQTree transformedTree = transformer.transform(initialIQTree);
         ImmutableMap<GroundTerm, Variable> parameterMap = transformer.getParameterMap();
 
         if (parameterMap.isEmpty())
             return Optional.empty();
 
+        // Parameters must not be projected (e.g. when there is no construction node at the top)
+        ImmutableSet<Variable> projectedVariables = initialIQTree.getVariables();
+        IQTree newTree = transformedTree.getVariables().equals(projectedVariables)
+                ? transformedTree
+                : iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(projectedVariables), transformedTree);
+
         return Optional.of(new QueryTemplateExtraction(
                 iqFactory.createIQ(iq.getProjectionAtom(), newTree),
                 parameterMap));
@@ -86,10 +108,12 @@ public class QueryTemplateExtractor {
         private final SPARQLFunctionSymbol sparqlEqFunctionSymbol;
         private final TermFactory termFactory;
         private final BooleanFunctionSymbol rdf2BoolFunctionsymbol;
+        private final boolean keepStarPatternIRIs;
 
         protected QueryTemplateTransformer(CoreSingletons coreSingletons, ImmutableSet<Variable> knownVariables,
-                                           OntopModelSettings settings) {
+                                           OntopModelSettings settings, boolean keepStarPatternIRIs) {
             super(coreSingletons);
+            this.keepStarPatternIRIs = keepStarPatternIRIs;
             this.coreSingletons = coreSingletons;
             atomFactory = coreSingletons.getAtomFactory();
             this.settings = settings;
@@ -119,9 +143,12 @@ public class QueryTemplateExtractor {
                         .map(iri -> ImmutableList.of(0))
                         .orElseGet(() -> ImmutableList.of(0, 2));
 
+                boolean keepIRIs = keepStarPatternIRIs && isStarPattern(rdfAtomPredicate, arguments);
+
                 ImmutableMap<Integer, GroundTerm> groundTermIndex = indexes.stream()
                         .flatMap(i -> Optional.of(arguments.get(i))
                                 .filter(ImmutableTerm::isGround)
+                                .filter(t -> !(keepIRIs && (t instanceof IRIConstant)))
                                 .map(t -> (GroundTerm) t)
                                 .map(t -> Maps.immutableEntry(i, t))
                                 .map(Stream::of)
@@ -150,6 +177,12 @@ public class QueryTemplateExtractor {
             return dataNode;
         }
 
+        private boolean isStarPattern(RDFAtomPredicate predicate, ImmutableList<? extends VariableOrGroundTerm> arguments) {
+            return predicate.getPropertyIRI(arguments)
+                    .map(i -> i.equals(RDF.TYPE) && !predicate.getClassIRI(arguments).isPresent())
+                    .orElse(true);
+        }
+
         @Override
         public IQTree transformFilter(IQTree tree, FilterNode rootNode, IQTree child) {
             IQTree newChild = child.acceptTransformer(this);
@@ -166,7 +199,7 @@ public class QueryTemplateExtractor {
         @Override
         public IQTree transformLeftJoin(IQTree tree, LeftJoinNode rootNode, IQTree leftChild, IQTree rightChild) {
             IQTree newLeft = leftChild.acceptTransformer(this);
-            IQTree newRight = leftChild.acceptTransformer(this);
+            IQTree newRight = rightChild.acceptTransformer(this);
 
             Optional<ImmutableExpression> newCondition = rootNode.getOptionalFilterCondition()
                     .flatMap(this::transformFilterCondition);
@@ -0,0 +1,23 @@
+package it.unibz.inf.ontop.answering.reformulation;
+
+import it.unibz.inf.ontop.iq.IQ;
+
+import javax.annotation.Nullable;
+
+/**
+ * Second-level cache: maps a normalized IQ to its rewritten and unfolded form.
+ *
+ * This IQ is usually a query template, where some ground terms have been replaced by projected parameters.
+ *
+ * Mutable class.
+ *
+ */
+public interface QueryTemplateCache {
+
+    @Nullable
+    IQ get(IQ queryTemplate);
+
+    void put(IQ queryTemplate, IQ unfoldedTemplate);
+
+    void clear();
+}
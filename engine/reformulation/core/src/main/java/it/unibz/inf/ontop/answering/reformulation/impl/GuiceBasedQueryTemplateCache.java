@@ -0,0 +1,43 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import it.unibz.inf.ontop.iq.IQ;
+
+import javax.annotation.Nullable;
+
+/**
+ * Relies on the structural equality of IQs
+ */
+public class GuiceBasedQueryTemplateCache implements QueryTemplateCache {
+
+    // NB: still present in more recent versions of Guava
+    @SuppressWarnings("UnstableApiUsage")
+    private final Cache<IQ, IQ> cache;
+
+    @Inject
+    private GuiceBasedQueryTemplateCache(OntopReformulationSettings settings) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(settings.getQueryTemplateCacheMaxSize())
+                .build();
+    }
+
+    @Nullable
+    @Override
+    public IQ get(IQ queryTemplate) {
+        return cache.getIfPresent(queryTemplate);
+    }
+
+    @Override
+    public void put(IQ queryTemplate, IQ unfoldedTemplate) {
+        cache.put(queryTemplate, unfoldedTemplate);
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
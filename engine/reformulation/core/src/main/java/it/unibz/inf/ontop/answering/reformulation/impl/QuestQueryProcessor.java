@@ -1,28 +1,57 @@
 package it.unibz.inf.ontop.answering.reformulation.impl;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.logging.QueryStage;
+import it.unibz.inf.ontop.answering.logging.impl.QueryTemplateExtractor;
+import it.unibz.inf.ontop.answering.logging.impl.QueryTemplateExtractor.QueryTemplateExtraction;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
 import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.QueryRewriter;
 import it.unibz.inf.ontop.answering.reformulation.unfolding.QueryUnfolder;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
 import it.unibz.inf.ontop.injection.TranslationFactory;
 import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.QueryModifierNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.node.VariableNullability;
 import it.unibz.inf.ontop.iq.optimizer.*;
 import it.unibz.inf.ontop.iq.planner.QueryPlanner;
 import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
+import it.unibz.inf.ontop.model.atom.AtomFactory;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.GroundTerm;
+import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.utils.CoreUtilsFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * TODO: rename it QueryTranslatorImpl ?
@@ -46,6 +75,12 @@ public class QuestQueryProcessor implements QueryReformulator {
 	private final GeneralStructuralAndSemanticIQOptimizer generalOptimizer;
 	private final QueryPlanner queryPlanner;
 	private final QueryLogger.Factory queryLoggerFactory;
+	private final QueryTemplateCache queryTemplateCache;
+	private final QueryTemplateExtractor queryTemplateExtractor;
+	private final boolean isQueryTemplateCacheEnabled;
+	private final IntermediateQueryFactory iqFactory;
+	private final AtomFactory atomFactory;
+	private final CoreSingletons coreSingletons;
 
 	@AssistedInject
 	private QuestQueryProcessor(@Assisted OBDASpecification obdaSpecification,
@@ -57,7 +92,11 @@ public class QuestQueryProcessor implements QueryReformulator {
 								InputQueryTranslator inputQueryTranslator,
 								GeneralStructuralAndSemanticIQOptimizer generalOptimizer,
 								QueryPlanner queryPlanner,
-								QueryLogger.Factory queryLoggerFactory) {
+								QueryLogger.Factory queryLoggerFactory,
+								QueryTemplateCache queryTemplateCache,
+								QueryTemplateExtractor queryTemplateExtractor,
+								OntopReformulationSettings settings,
+								CoreSingletons coreSingletons) {
 		this.inputQueryFactory = inputQueryFactory;
 		this.rewriter = queryRewriter;
 		this.generalOptimizer = generalOptimizer;
@@ -71,10 +110,33 @@ public class QuestQueryProcessor implements QueryReformulator {
 		this.inputQueryTranslator = inputQueryTranslator;
 		this.queryCache = queryCache;
 		this.executorRegistry = executorRegistry;
+		this.queryTemplateCache = queryTemplateCache;
+		this.queryTemplateExtractor = queryTemplateExtractor;
+		this.isQueryTemplateCacheEnabled = settings.isQueryTemplateCacheEnabled();
+		this.coreSingletons = coreSingletons;
+		this.iqFactory = coreSingletons.getIQFactory();
+		this.atomFactory = coreSingletons.getAtomFactory();
+
+		this.queryPlanner.prepare(extractRelations(obdaSpecification.getSaturatedMapping()));
 
 		log.info("Ontop has completed the setup and it is ready for query answering!");
 	}
 
+	private static ImmutableSet<RelationDefinition> extractRelations(Mapping mapping) {
+		return mapping.getRDFAtomPredicates().stream()
+				.flatMap(p -> mapping.getQueries(p).stream())
+				.flatMap(q -> extractRelations(q.getTree()))
+				.collect(ImmutableCollectors.toSet());
+	}
+
+	private static Stream<RelationDefinition> extractRelations(IQTree tree) {
+		QueryNode rootNode = tree.getRootNode();
+		if (rootNode instanceof ExtensionalDataNode)
+			return Stream.of(((ExtensionalDataNode) rootNode).getRelationDefinition());
+		return tree.getChildren().stream()
+				.flatMap(QuestQueryProcessor::extractRelations);
+	}
+
 	@Override
 	public IQ reformulateIntoNativeQuery(InputQuery inputQuery, QueryLogger queryLogger)
 			throws OntopReformulationException {
@@ -90,21 +152,15 @@ public class QuestQueryProcessor implements QueryReformulator {
 		try {
 			if (IS_DEBUG_ENABLED)
 				log.debug("SPARQL query:\n{}", inputQuery.getInputString());
+			long parsingStart = System.nanoTime();
 			IQ convertedIQ = inputQuery.translate(inputQueryTranslator);
+			queryLogger.declareStageDuration(QueryStage.PARSING, System.nanoTime() - parsingStart);
 			log.debug("Parsed query converted into IQ (after normalization):\n{}", convertedIQ);
 
 			queryLogger.setSparqlIQ(convertedIQ);
 
             try {
-                log.debug("Start the rewriting process...");
-                IQ rewrittenIQ = rewriter.rewrite(convertedIQ);
-
-                if (IS_DEBUG_ENABLED)
-                	log.debug("Rewritten IQ:\n{}",rewrittenIQ);
-
-                log.debug("Start the unfolding...");
-
-                IQ unfoldedIQ = queryUnfolder.optimize(rewrittenIQ);
+                IQ unfoldedIQ = rewriteAndUnfold(convertedIQ, queryLogger);
                 if (unfoldedIQ.getTree().isDeclaredAsEmpty()) {
                 	log.debug(String.format("Reformulation time: %d ms", System.currentTimeMillis() - beginning));
 					queryLogger.declareReformulationFinishedAndSerialize(unfoldedIQ, false);
@@ -115,14 +171,20 @@ public class QuestQueryProcessor implements QueryReformulator {
                 if (IS_DEBUG_ENABLED)
                 	log.debug("Unfolded query: \n" + unfoldedIQ.toString());
 
+                long optimizationStart = System.nanoTime();
                 IQ optimizedQuery = generalOptimizer.optimize(unfoldedIQ, executorRegistry);
+				long planningStart = System.nanoTime();
+				queryLogger.declareStageDuration(QueryStage.OPTIMIZATION, planningStart - optimizationStart);
 				IQ plannedQuery = queryPlanner.optimize(optimizedQuery, executorRegistry);
+				queryLogger.declareStageDuration(QueryStage.PLANNING, System.nanoTime() - planningStart);
 				if (IS_DEBUG_ENABLED)
 					log.debug("Planned query: \n" + plannedQuery);
 
 				queryLogger.setPlannedQuery(plannedQuery);
 
+				long generationStart = System.nanoTime();
 				IQ executableQuery = generateExecutableQuery(plannedQuery);
+				queryLogger.declareStageDuration(QueryStage.NATIVE_QUERY_GENERATION, System.nanoTime() - generationStart);
 				queryCache.put(inputQuery, executableQuery);
 				log.debug(String.format("Reformulation time: %d ms", System.currentTimeMillis() - beginning));
 				queryLogger.declareReformulationFinishedAndSerialize(executableQuery, false);
@@ -146,6 +208,119 @@ public class QuestQueryProcessor implements QueryReformulator {
 		}
 	}
 
+	/**
+	 * When enabled, reuses the unfolded form of a previous query sharing the same template,
+	 * i.e. differing only by some ground terms.
+	 *
+	 * These ground terms are then injected into the unfolded template as a descending substitution,
+	 * like the unfolder does with the ground terms of the intensional data nodes.
+	 */
+	private IQ rewriteAndUnfold(IQ convertedIQ, QueryLogger queryLogger)
+			throws OntopReformulationException, EmptyQueryException {
+		if (!isQueryTemplateCacheEnabled)
+			return rewriteAndUnfoldWithoutCache(convertedIQ, queryLogger);
+
+		Optional<QueryTemplateExtraction> extraction = queryTemplateExtractor.extractForUnfolding(convertedIQ);
+		Optional<IQ> parameterizedTemplate = extraction
+				.flatMap(e -> exposeParameters(e.getIq(), ImmutableSet.copyOf(e.getParameterMap().values())));
+
+		// Falls back to the normalized query when the parameters cannot be safely exposed
+		IQ cacheKey = parameterizedTemplate.orElse(convertedIQ);
+
+		IQ unfoldedTemplate = queryTemplateCache.get(cacheKey);
+		if (unfoldedTemplate == null) {
+			unfoldedTemplate = rewriteAndUnfoldWithoutCache(cacheKey, queryLogger);
+			queryTemplateCache.put(cacheKey, unfoldedTemplate);
+		}
+		else
+			log.debug("Unfolded query template found in the cache");
+
+		return parameterizedTemplate.isPresent()
+				? injectParameters(unfoldedTemplate, convertedIQ.getProjectionAtom(), extraction.get().getParameterMap())
+				: unfoldedTemplate;
+	}
+
+	private IQ rewriteAndUnfoldWithoutCache(IQ convertedIQ, QueryLogger queryLogger)
+			throws OntopReformulationException, EmptyQueryException {
+		log.debug("Start the rewriting process...");
+		long rewritingStart = System.nanoTime();
+		IQ rewrittenIQ = rewriter.rewrite(convertedIQ);
+		long unfoldingStart = System.nanoTime();
+		queryLogger.declareStageDuration(QueryStage.REWRITING, unfoldingStart - rewritingStart);
+
+		if (IS_DEBUG_ENABLED)
+			log.debug("Rewritten IQ:\n{}",rewrittenIQ);
+
+		log.debug("Start the unfolding...");
+		IQ unfoldedIQ = queryUnfolder.optimize(rewrittenIQ);
+		queryLogger.declareStageDuration(QueryStage.UNFOLDING, System.nanoTime() - unfoldingStart);
+		return unfoldedIQ;
+	}
+
+	/**
+	 * Projects the parameters, so that they can be substituted after unfolding.
+	 *
+	 * Only safe if the parameters are non-nullable variables of the child of the top construction node.
+	 * Query modifiers above it (e.g. DISTINCT, LIMIT) are kept.
+	 */
+	private Optional<IQ> exposeParameters(IQ template, ImmutableSet<Variable> parameters) {
+		DistinctVariableOnlyDataAtom projectionAtom = template.getProjectionAtom();
+		ImmutableList<Variable> newArguments = Sets.union(
+				ImmutableSet.copyOf(projectionAtom.getArguments()), parameters).immutableCopy().asList();
+
+		return exposeParameters(template.getTree(), parameters)
+				.map(t -> iqFactory.createIQ(
+						atomFactory.getDistinctVariableOnlyDataAtom(
+								atomFactory.getRDFAnswerPredicate(newArguments.size()), newArguments),
+						t));
+	}
+
+	private Optional<IQTree> exposeParameters(IQTree tree, ImmutableSet<Variable> parameters) {
+		QueryNode rootNode = tree.getRootNode();
+		if (rootNode instanceof QueryModifierNode) {
+			return exposeParameters(((UnaryIQTree) tree).getChild(), parameters)
+					.map(c -> iqFactory.createUnaryIQTree((QueryModifierNode) rootNode, c));
+		}
+		else if (rootNode instanceof ConstructionNode) {
+			ConstructionNode constructionNode = (ConstructionNode) rootNode;
+			IQTree child = ((UnaryIQTree) tree).getChild();
+			if (!child.getVariables().containsAll(parameters))
+				return Optional.empty();
+
+			VariableNullability variableNullability = child.getVariableNullability();
+			if (parameters.stream().anyMatch(variableNullability::isPossiblyNullable))
+				return Optional.empty();
+
+			return Optional.of(iqFactory.createUnaryIQTree(
+					iqFactory.createConstructionNode(
+							Sets.union(constructionNode.getVariables(), parameters).immutableCopy(),
+							constructionNode.getSubstitution()),
+					child));
+		}
+		return Optional.empty();
+	}
+
+	private IQ injectParameters(IQ unfoldedTemplate, DistinctVariableOnlyDataAtom projectionAtom,
+								ImmutableMap<GroundTerm, Variable> parameterMap) {
+		ImmutableSubstitution<GroundTerm> substitution = coreSingletons.getSubstitutionFactory().getSubstitution(
+				parameterMap.entrySet().stream()
+						.collect(ImmutableCollectors.toMap(Map.Entry::getValue, Map.Entry::getKey)));
+
+		IQTree tree = unfoldedTemplate.getTree();
+		CoreUtilsFactory coreUtilsFactory = coreSingletons.getCoreUtilsFactory();
+
+		IQTree substitutedTree = tree.applyDescendingSubstitution(substitution, Optional.empty());
+
+		// Some trees keep projecting the parameters (now bound to their ground terms)
+		ImmutableSet<Variable> projectedVariables = projectionAtom.getVariables();
+		IQTree newTree = substitutedTree.getVariables().equals(projectedVariables)
+				? substitutedTree
+				: iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(projectedVariables), substitutedTree);
+
+		return iqFactory.createIQ(projectionAtom,
+				newTree.normalizeForOptimization(coreUtilsFactory.createVariableGenerator(tree.getKnownVariables())));
+	}
+
 	private IQ generateExecutableQuery(IQ iq) {
 
 		log.debug("Producing the native query string...");
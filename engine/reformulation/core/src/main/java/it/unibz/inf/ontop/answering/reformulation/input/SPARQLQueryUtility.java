@@ -25,6 +25,8 @@ import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.eclipse.rdf4j.query.parser.sparql.SPARQLParser;
 
+import java.util.Collection;
+
 public class SPARQLQueryUtility {
 	
 	private static final String ASK_KEYWORD = "ask";
@@ -117,14 +119,18 @@ public class SPARQLQueryUtility {
 		return strquery;
 	}
 
-	public static String getConstructObjQuery(String constant) {
-			return "CONSTRUCT { ?s ?p <" + constant
-					+ "> } WHERE { ?s ?p <" + constant + "> }";
-	}
+	/**
+	 * Describes several resources at once, in subject and object positions, in one CONSTRUCT query
+	 * (which has no answer when there is no resource)
+	 */
+	public static String getConstructDescribeQuery(Collection<String> constants) {
+		if (constants.isEmpty())
+			return "CONSTRUCT { ?r ?p ?o } WHERE { ?r ?p ?o FILTER(false) }";
 
-	public static String getConstructSubjQuery(String constant) {
-		return "CONSTRUCT { <" + constant + "> ?p ?o} WHERE { <"
-				+ constant + "> ?p ?o}";
+		StringBuilder sb = new StringBuilder("CONSTRUCT { ?r ?p ?o . ?s ?q ?r } WHERE { VALUES ?r {");
+		for (String constant : constants)
+			sb.append(" <").append(constant).append(">");
+		return sb.append(" } { ?r ?p ?o } UNION { ?s ?q ?r } }").toString();
 	}
 
 	public static String getSelectFromConstruct(String strquery){
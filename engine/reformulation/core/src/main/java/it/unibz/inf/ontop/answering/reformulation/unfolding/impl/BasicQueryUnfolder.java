@@ -23,8 +23,11 @@ import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import it.unibz.inf.ontop.utils.CoreUtilsFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.VariableGenerator;
+import org.apache.commons.rdf.api.IRI;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 /**
@@ -38,6 +41,14 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
     private final UnionBasedQueryMerger queryMerger;
     private final CoreUtilsFactory coreUtilsFactory;
 
+    /**
+     * Merged definitions for triple patterns with a variable property (resp. class).
+     * The mapping is immutable, so they are built once (lazily) and shared by all the queries.
+     * Their variables are renamed when they are inserted into a query.
+     */
+    private final Map<RDFAtomPredicate, Optional<IQ>> starDefinitions = new ConcurrentHashMap<>();
+    private final Map<RDFAtomPredicate, Optional<IQ>> starClassDefinitions = new ConcurrentHashMap<>();
+
     @AssistedInject
     private BasicQueryUnfolder(@Assisted Mapping mapping, IntermediateQueryFactory iqFactory,
                                SubstitutionFactory substitutionFactory, QueryTransformerFactory transformerFactory,
@@ -77,26 +88,52 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
                     .map(i -> i.equals(RDF.TYPE)
                             ? getRDFClassDefinition(predicate, arguments)
                             : mapping.getRDFPropertyDefinition(predicate, i))
-                    .orElseGet(() -> getStarDefinition(predicate));
+                    .orElseGet(() -> getStarDefinition(predicate, arguments));
         }
 
         private Optional<IQ> getRDFClassDefinition(RDFAtomPredicate predicate,
                                                    ImmutableList<? extends VariableOrGroundTerm> arguments) {
             return predicate.getClassIRI(arguments)
                     .map(i -> mapping.getRDFClassDefinition(predicate, i))
-                    .orElseGet(() -> getStarClassDefinition(predicate));
+                    .orElseGet(() -> getStarClassDefinition(predicate, arguments));
+        }
+
+        /**
+         * When the subject is a ground IRI, only the definitions with a compatible IRI template are merged
+         */
+        private Optional<IQ> getStarClassDefinition(RDFAtomPredicate predicate,
+                                                    ImmutableList<? extends VariableOrGroundTerm> arguments) {
+            Optional<IRI> subject = getIRI(predicate.getSubject(arguments));
+            if (subject.isPresent())
+                return queryMerger.mergeDefinitions(mapping.getCompatibleRDFClassDefinitions(predicate, subject.get()));
+
+            return starClassDefinitions.computeIfAbsent(predicate,
+                    p -> queryMerger.mergeDefinitions(mapping.getRDFClasses(p).stream()
+                            .flatMap(i -> mapping.getRDFClassDefinition(p, i)
+                                    .map(Stream::of)
+                                    .orElseGet(Stream::empty))
+                            .collect(ImmutableCollectors.toList())));
         }
 
-        private Optional<IQ> getStarClassDefinition(RDFAtomPredicate predicate) {
-            return queryMerger.mergeDefinitions(mapping.getRDFClasses(predicate).stream()
-                    .flatMap(i -> mapping.getRDFClassDefinition(predicate, i)
-                            .map(Stream::of)
-                            .orElseGet(Stream::empty))
-                    .collect(ImmutableCollectors.toList()));
+        /**
+         * When the subject or the object is a ground IRI, only the definitions with a compatible IRI template are merged
+         */
+        private Optional<IQ> getStarDefinition(RDFAtomPredicate predicate,
+                                               ImmutableList<? extends VariableOrGroundTerm> arguments) {
+            Optional<IRI> subject = getIRI(predicate.getSubject(arguments));
+            Optional<IRI> object = getIRI(predicate.getObject(arguments));
+
+            if (subject.isPresent() || object.isPresent())
+                return queryMerger.mergeDefinitions(mapping.getCompatibleQueries(predicate, subject, object));
+
+            return starDefinitions.computeIfAbsent(predicate,
+                    p -> queryMerger.mergeDefinitions(mapping.getQueries(p)));
         }
 
-        private Optional<IQ> getStarDefinition(RDFAtomPredicate predicate) {
-            return queryMerger.mergeDefinitions(mapping.getQueries(predicate));
+        private Optional<IRI> getIRI(VariableOrGroundTerm term) {
+            return Optional.of(term)
+                    .filter(t -> t instanceof IRIConstant)
+                    .map(t -> ((IRIConstant) t).getIRI());
         }
 
         @Override
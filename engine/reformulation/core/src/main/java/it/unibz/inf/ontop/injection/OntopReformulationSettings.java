@@ -3,12 +3,29 @@ package it.unibz.inf.ontop.injection;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.util.Optional;
+
 public interface OntopReformulationSettings extends OntopOBDASettings, OntopOptimizationSettings {
 
     boolean isExistentialReasoningEnabled();
 
     boolean isDistinctPostProcessingEnabled();
 
+    /**
+     * If true, the DISTINCT post-processing step only keeps 128-bit fingerprints of the rows (within a memory budget,
+     * beyond which they are spilled to temporary files): rows with the same fingerprint are considered as duplicates,
+     * so a row may be dropped because of a collision (with a negligible probability, about n^2 / 2^129 for n rows).
+     *
+     * If false (default), the rows themselves are kept in memory and compared exactly.
+     */
+    boolean isDistinctPostProcessingByFingerprintEnabled();
+
+    /**
+     * In bytes. Memory used for detecting duplicates when the DISTINCT is applied as a post-processing step
+     * by fingerprint. Beyond it, the row fingerprints are spilled to temporary files.
+     */
+    long getDistinctPostProcessingMemoryBudget();
+
     boolean isQueryLoggingEnabled();
     boolean isQueryTemplateExtractionEnabled();
     boolean isSparqlQueryIncludedIntoQueryLog();
@@ -18,8 +35,28 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
 
     ImmutableSet<String> getHttpHeaderNamesToLog();
 
+    /**
+     * If absent, the query log is written to the standard output
+     */
+    Optional<String> getQueryLoggingFile();
+    /**
+     * In bytes. Non-positive: no rotation
+     */
+    long getQueryLoggingMaxFileSize();
+    int getQueryLoggingMaxBackupFiles();
+    int getQueryLoggingBufferSize();
+    int getQueryLoggingBatchSize();
+    /**
+     * If false, the entries are dropped when the buffer is full
+     */
+    boolean isQueryLoggingBlockingWhenFull();
+
     long getQueryCacheMaxSize();
 
+    boolean isQueryTemplateCacheEnabled();
+
+    long getQueryTemplateCacheMaxSize();
+
     String getApplicationName();
 
 
@@ -29,7 +66,12 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
 
     String EXISTENTIAL_REASONING = "ontop.existentialReasoning";
     String DISTINCT_RESULTSET = "ontop.distinctResultSet";
+    String DISTINCT_RESULTSET_FINGERPRINT = "ontop.distinctResultSet.fingerprint";
+    String DISTINCT_RESULTSET_MEMORY_BUDGET = "ontop.distinctResultSet.memoryBudget";
     String QUERY_CACHE_MAX_SIZE = "ontop.cache.query.size";
+    // Second-level cache, keyed by the normalized query where ground terms are replaced by parameters
+    String QUERY_TEMPLATE_CACHE = "ontop.cache.queryTemplate";
+    String QUERY_TEMPLATE_CACHE_MAX_SIZE = "ontop.cache.queryTemplate.size";
     String QUERY_LOGGING = "ontop.queryLogging";
     // Needed for logging
     String APPLICATION_NAME = "ontop.applicationName";
@@ -43,4 +85,10 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
     String TABLES_INCLUDED_QUERY_LOGGING = "ontop.queryLogging.includeTables";
     String HTTP_HEADER_INCLUDED_QUERY_LOGGING_PREFIX = "ontop.queryLogging.includeHttpHeader.";
     String QUERY_TEMPLATE_EXTRACTION = "ontop.queryLogging.extractQueryTemplate";
+    String QUERY_LOGGING_FILE = "ontop.queryLogging.file";
+    String QUERY_LOGGING_MAX_FILE_SIZE = "ontop.queryLogging.file.maxSize";
+    String QUERY_LOGGING_MAX_BACKUP_FILES = "ontop.queryLogging.file.maxBackups";
+    String QUERY_LOGGING_BUFFER_SIZE = "ontop.queryLogging.bufferSize";
+    String QUERY_LOGGING_BATCH_SIZE = "ontop.queryLogging.batchSize";
+    String QUERY_LOGGING_BLOCK_WHEN_FULL = "ontop.queryLogging.blockWhenFull";
 }
@@ -9,6 +9,7 @@ import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.unfolding.QueryUnfolder;
 import it.unibz.inf.ontop.injection.*;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.impl.DummyRewriter;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.ExistentialQueryRewriter;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.QueryRewriter;
@@ -37,6 +38,7 @@ public class OntopReformulationPostModule extends OntopAbstractModule {
         }
 
         bindFromSettings(QueryCache.class);
+        bindFromSettings(QueryTemplateCache.class);
         bindFromSettings(InputQueryTranslator.class);
 
         Module reformulationFactoryModule = buildFactory(
@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import javax.annotation.Nullable;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.Properties;
 
 public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implements OntopReformulationSettings {
@@ -45,6 +46,16 @@ public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implem
         return getRequiredBoolean(DISTINCT_RESULTSET);
     }
 
+    @Override
+    public boolean isDistinctPostProcessingByFingerprintEnabled() {
+        return getRequiredBoolean(DISTINCT_RESULTSET_FINGERPRINT);
+    }
+
+    @Override
+    public long getDistinctPostProcessingMemoryBudget() {
+        return getRequiredLong(DISTINCT_RESULTSET_MEMORY_BUDGET);
+    }
+
     @Override
     public boolean isQueryLoggingEnabled() {
         return getRequiredBoolean(QUERY_LOGGING);
@@ -80,11 +91,52 @@ public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implem
         return getRequiredLong(QUERY_CACHE_MAX_SIZE);
     }
 
+    @Override
+    public boolean isQueryTemplateCacheEnabled() {
+        return getRequiredBoolean(QUERY_TEMPLATE_CACHE);
+    }
+
+    @Override
+    public long getQueryTemplateCacheMaxSize() {
+        return getRequiredLong(QUERY_TEMPLATE_CACHE_MAX_SIZE);
+    }
+
     @Override
     public String getApplicationName() {
         return getRequiredProperty(APPLICATION_NAME);
     }
 
+    @Override
+    public Optional<String> getQueryLoggingFile() {
+        return getProperty(QUERY_LOGGING_FILE)
+                .filter(f -> !f.trim().isEmpty());
+    }
+
+    @Override
+    public long getQueryLoggingMaxFileSize() {
+        return getRequiredLong(QUERY_LOGGING_MAX_FILE_SIZE);
+    }
+
+    @Override
+    public int getQueryLoggingMaxBackupFiles() {
+        return getRequiredInteger(QUERY_LOGGING_MAX_BACKUP_FILES);
+    }
+
+    @Override
+    public int getQueryLoggingBufferSize() {
+        return getRequiredInteger(QUERY_LOGGING_BUFFER_SIZE);
+    }
+
+    @Override
+    public int getQueryLoggingBatchSize() {
+        return getRequiredInteger(QUERY_LOGGING_BATCH_SIZE);
+    }
+
+    @Override
+    public boolean isQueryLoggingBlockingWhenFull() {
+        return getRequiredBoolean(QUERY_LOGGING_BLOCK_WHEN_FULL);
+    }
+
     @Override
     public synchronized ImmutableSet<String> getHttpHeaderNamesToLog() {
         if (httpHeaderNamesToLog == null) {
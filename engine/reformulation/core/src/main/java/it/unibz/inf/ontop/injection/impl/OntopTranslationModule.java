@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.injection.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Module;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.generation.PostProcessingProjectionSplitter;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
@@ -27,6 +28,7 @@ public class OntopTranslationModule extends OntopAbstractModule {
         bindFromSettings(RDF4JInputQueryFactory.class);
         bindFromSettings(InputQueryFactory.class);
         bindFromSettings(PostProcessingProjectionSplitter.class);
+        bindFromSettings(QueryLogSink.class);
 
         Module queryLoggingModule = buildFactory(ImmutableList.of(QueryLogger.class), QueryLogger.Factory.class);
         install(queryLoggingModule);
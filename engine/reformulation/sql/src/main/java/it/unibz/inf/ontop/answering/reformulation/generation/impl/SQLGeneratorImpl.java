@@ -10,6 +10,7 @@ import it.unibz.inf.ontop.generation.normalization.DialectExtraNormalizer;
 import it.unibz.inf.ontop.datalog.UnionFlattener;
 import it.unibz.inf.ontop.dbschema.DBParameters;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopReformulationSQLSettings;
 import it.unibz.inf.ontop.injection.OptimizerFactory;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.IQTree;
@@ -41,6 +42,7 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
     private final IQTree2NativeNodeGenerator defaultIQTree2NativeNodeGenerator;
     private final DialectExtraNormalizer extraNormalizer;
     private final BooleanExpressionPushDownTransformer pushDownTransformer;
+    private final boolean arePreparedStatementsEnabled;
 
     @AssistedInject
     private SQLGeneratorImpl(@Assisted DBParameters dbParameters,
@@ -50,7 +52,8 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
                              PostProcessingProjectionSplitter projectionSplitter,
                              TermTypeTermLifter rdfTypeLifter, PostProcessableFunctionLifter functionLifter,
                              IQTree2NativeNodeGenerator defaultIQTree2NativeNodeGenerator,
-                             DialectExtraNormalizer extraNormalizer, BooleanExpressionPushDownTransformer pushDownTransformer)
+                             DialectExtraNormalizer extraNormalizer, BooleanExpressionPushDownTransformer pushDownTransformer,
+                             OntopReformulationSQLSettings settings)
     {
         this.functionLifter = functionLifter;
         this.extraNormalizer = extraNormalizer;
@@ -62,6 +65,7 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
         this.projectionSplitter = projectionSplitter;
         this.rdfTypeLifter = rdfTypeLifter;
         this.defaultIQTree2NativeNodeGenerator = defaultIQTree2NativeNodeGenerator;
+        this.arePreparedStatementsEnabled = settings.arePreparedStatementsEnabled();
     }
 
     @Override
@@ -137,6 +141,8 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
     }
 
     private NativeNode generateNativeNode(IQTree normalizedSubTree) {
-        return defaultIQTree2NativeNodeGenerator.generate(normalizedSubTree, dbParameters, false);
+        return arePreparedStatementsEnabled
+                ? defaultIQTree2NativeNodeGenerator.generateWithParameters(normalizedSubTree, dbParameters)
+                : defaultIQTree2NativeNodeGenerator.generate(normalizedSubTree, dbParameters, false);
     }
 }
@@ -3,4 +3,18 @@ package it.unibz.inf.ontop.injection;
 
 public interface OntopReformulationSQLSettings extends OntopReformulationSettings, OntopSQLCoreSettings {
 
+    /**
+     * If enabled, some constants of the generated SQL queries are replaced by parameters,
+     * so that the queries are executed as prepared statements.
+     *
+     * Disabled by default: depending on the DB, a bound parameter may not compare like the inlined literal
+     * (e.g. with CHAR(n) columns on Oracle).
+     */
+    boolean arePreparedStatementsEnabled();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String PREPARED_STATEMENTS = "ontop.preparedStatements";
 }
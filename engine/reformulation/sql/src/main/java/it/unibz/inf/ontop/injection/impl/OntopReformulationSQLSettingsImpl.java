@@ -3,12 +3,14 @@ package it.unibz.inf.ontop.injection.impl;
 import it.unibz.inf.ontop.injection.OntopReformulationSQLSettings;
 import it.unibz.inf.ontop.injection.OntopSQLCoreSettings;
 
+import java.util.Optional;
 import java.util.Properties;
 
 public class OntopReformulationSQLSettingsImpl extends OntopReformulationSettingsImpl
         implements OntopReformulationSQLSettings {
 
     private static final String DEFAULT_FILE = "reformulation-sql-default.properties";
+    private static final String PREPARED_STATEMENTS_SUFFIX = "-preparedStatements";
 
     private final OntopSQLCoreSettings sqlSettings;
 
@@ -20,7 +22,18 @@ public class OntopReformulationSQLSettingsImpl extends OntopReformulationSetting
     private static Properties loadProperties(Properties userProperties) {
         Properties properties = loadDefaultQASQLProperties();
         properties.putAll(userProperties);
-        return OntopSQLCoreSettingsImpl.loadSQLCoreProperties(properties);
+        Properties sqlProperties = OntopSQLCoreSettingsImpl.loadSQLCoreProperties(properties);
+
+        /*
+         * Prepared statements enabled for a given JDBC driver only (no dialect enables them by default)
+         */
+        String preparedStatementKey = sqlProperties.getProperty(JDBC_DRIVER) + PREPARED_STATEMENTS_SUFFIX;
+        Optional.ofNullable(sqlProperties.getProperty(preparedStatementKey))
+                // Must NOT override user properties
+                .filter(v -> !userProperties.containsKey(PREPARED_STATEMENTS))
+                .ifPresent(v -> sqlProperties.setProperty(PREPARED_STATEMENTS, v));
+
+        return sqlProperties;
     }
 
     static Properties loadDefaultQASQLProperties() {
@@ -41,4 +54,9 @@ public class OntopReformulationSQLSettingsImpl extends OntopReformulationSetting
     public String getJdbcDriver() {
         return sqlSettings.getJdbcDriver();
     }
+
+    @Override
+    public boolean arePreparedStatementsEnabled() {
+        return getRequiredBoolean(PREPARED_STATEMENTS);
+    }
 }
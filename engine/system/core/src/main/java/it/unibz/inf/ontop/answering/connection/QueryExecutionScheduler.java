@@ -0,0 +1,21 @@
+package it.unibz.inf.ontop.answering.connection;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the evaluation of the reformulated queries.
+ *
+ * Shared by all the statements of a query engine.
+ *
+ * Guice-enabled interface (see OntopSystemSettings for its configuration).
+ */
+public interface QueryExecutionScheduler {
+
+    /**
+     * Cancellation is cooperative: the returned future is never interrupted,
+     * the evaluation is expected to be stopped by cancelling the DB statement.
+     */
+    <R> Future<R> submit(Callable<R> evaluation) throws RejectedExecutionException;
+}
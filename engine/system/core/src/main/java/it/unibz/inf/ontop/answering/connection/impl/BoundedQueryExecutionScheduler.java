@@ -0,0 +1,52 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size pool of daemon threads with a bounded queue.
+ *
+ * Idle threads are released after some time, so that the pool does not need to be shut down.
+ */
+@Singleton
+public class BoundedQueryExecutionScheduler implements QueryExecutionScheduler {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final ThreadPoolExecutor executor;
+
+    @Inject
+    private BoundedQueryExecutionScheduler(OntopSystemSettings settings) {
+        int maxThreads = Math.max(1, settings.getQueryExecutorMaxThreads());
+        int queueSize = settings.getQueryExecutorQueueSize();
+
+        BlockingQueue<Runnable> queue = (queueSize > 0)
+                ? new ArrayBlockingQueue<>(queueSize)
+                : new SynchronousQueue<>();
+
+        this.executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                queue, new QueryThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public <R> Future<R> submit(Callable<R> evaluation) throws RejectedExecutionException {
+        return executor.submit(evaluation);
+    }
+
+    private static class QueryThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ontop-query-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
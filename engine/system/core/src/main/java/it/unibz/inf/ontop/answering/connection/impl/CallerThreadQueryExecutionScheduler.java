@@ -0,0 +1,25 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
+
+import javax.inject.Singleton;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Evaluates the query in the thread submitting it.
+ *
+ * No back-pressure nor deadline (the evaluation is over when the future is returned),
+ * but the query can still be cancelled from another thread.
+ */
+@Singleton
+public class CallerThreadQueryExecutionScheduler implements QueryExecutionScheduler {
+
+    @Override
+    public <R> Future<R> submit(Callable<R> evaluation) {
+        FutureTask<R> task = new FutureTask<>(evaluation);
+        task.run();
+        return task;
+    }
+}
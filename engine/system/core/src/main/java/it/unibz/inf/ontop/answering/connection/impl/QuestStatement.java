@@ -3,11 +3,14 @@ package it.unibz.inf.ontop.answering.connection.impl;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.input.*;
 import it.unibz.inf.ontop.answering.resultset.*;
 import it.unibz.inf.ontop.exception.*;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.model.term.Constant;
 import it.unibz.inf.ontop.model.term.IRIConstant;
@@ -15,7 +18,9 @@ import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.CountDownLatch;
+import javax.annotation.Nullable;
+import java.util.Optional;
+import java.util.concurrent.*;
 
 
 /**
@@ -27,18 +32,34 @@ public abstract class QuestStatement implements OntopStatement {
 	private final QueryReformulator engine;
 	private final InputQueryFactory inputQueryFactory;
 	private final QueryLogger.Factory queryLoggerFactory;
+	private final QueryMetrics metrics;
 
-	private QueryExecutionThread executionThread;
-	private boolean canceled = false;
+	private final QueryExecutionScheduler scheduler;
+	private final Optional<Integer> deadline;
+
+	@Nullable
+	private volatile Future<?> executionFuture;
+	private volatile boolean canceled = false;
+	/*
+	 * Evaluation the caller gave up on (deadline, cancellation), possibly still running
+	 * on the DB statement shared with the next query
+	 */
+	@Nullable
+	private volatile PendingEvaluation<?> abandonedEvaluation;
 
 
 	private static final Logger log = LoggerFactory.getLogger(QuestStatement.class);
 
 
-	public QuestStatement(QueryReformulator queryProcessor, InputQueryFactory inputQueryFactory) {
+	public QuestStatement(QueryReformulator queryProcessor, InputQueryFactory inputQueryFactory,
+						  QueryExecutionScheduler scheduler, QueryMetrics metrics, OntopSystemSettings settings) {
 		this.engine = queryProcessor;
+		this.metrics = metrics;
 		this.inputQueryFactory = inputQueryFactory;
 		this.queryLoggerFactory = queryProcessor.getQueryLoggerFactory();
+		this.scheduler = scheduler;
+		this.deadline = settings.getQueryDeadline()
+				.filter(d -> d > 0);
 	}
 
 	/**
@@ -51,82 +72,6 @@ public abstract class QuestStatement implements OntopStatement {
 				throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException;
 	}
 
-	/**
-	 * Execution thread
-	 */
-	private class QueryExecutionThread<R extends OBDAResultSet, Q extends InputQuery<R>> extends Thread {
-
-		private final Q inputQuery;
-		private final QueryLogger queryLogger;
-		private final QuestStatement.Evaluator<R, Q> evaluator;
-		private final CountDownLatch monitor;
-		private final IQ executableQuery;
-
-		private R resultSet;	  // only for SELECT and ASK queries
-		private Exception exception;
-		private boolean executingTargetQuery;
-
-		QueryExecutionThread(Q inputQuery, IQ executableQuery, QueryLogger queryLogger, Evaluator<R,Q> evaluator,
-							 CountDownLatch monitor) {
-			this.executableQuery = executableQuery;
-			this.inputQuery = inputQuery;
-			this.queryLogger = queryLogger;
-			this.evaluator = evaluator;
-			this.monitor = monitor;
-			this.exception = null;
-			this.executingTargetQuery = false;
-		}
-
-		public boolean errorStatus() {
-			return exception != null;
-		}
-
-		public Exception getException() {
-			return exception;
-		}
-
-		public R getResultSet() {
-			return resultSet;
-		}
-
-		public void cancel() throws OntopQueryEvaluationException {
-			canceled = true;
-			if (!executingTargetQuery) {
-				this.stop();
-			} else {
-				cancelExecution();
-			}
-		}
-
-		@Override
-		public void run() {
-			//                        FOR debugging H2 in-memory database
-//			try {
-//				org.h2.tools.Server.startWebServer(((QuestConnection)conn).getSQLConnection());
-//			} catch (SQLException e) {
-//				e.printStackTrace();
-//			}
-			try {
-				/*
-				 * Executes the target query.
-				 */
-				log.debug("Executing the query and get the result...");
-				executingTargetQuery = true;
-				resultSet = evaluator.evaluate(inputQuery, executableQuery, queryLogger);
-				// NB: finished if the result set is blocking!
-				log.debug("Result set unblocked.\n");
-				/*
-				 * TODO: re-handle the timeout exception.
-				 */
-			} catch (Exception e) {
-				exception = e;
-				log.error(e.getMessage(), e);
-			} finally {
-				monitor.countDown();
-			}
-		}
-	}
-
 	protected abstract TupleResultSet executeSelectQuery(IQ executableQuery, QueryLogger queryLogger)
 			throws OntopQueryEvaluationException;
 
@@ -143,27 +88,19 @@ public abstract class QuestStatement implements OntopStatement {
 		return executeBooleanQuery(executableQuery, queryLogger);
 	}
 
-	/**
-	 * TODO: describe
-	 */
-	private SimpleGraphResultSet executeDescribeConstructQuery(ConstructQuery constructQuery, IQ executableQuery, QueryLogger queryLogger)
-			throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException {
-		return executeGraphQuery(constructQuery, executableQuery, true, queryLogger);
-	}
-
 	/**
 	 * TODO: describe
 	 */
 	private SimpleGraphResultSet executeConstructQuery(ConstructQuery constructQuery, IQ executableQuery, QueryLogger queryLogger)
 			throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException {
-		return executeGraphQuery(constructQuery, executableQuery, false, queryLogger);
+		return executeGraphQuery(constructQuery, executableQuery, queryLogger);
 	}
 
 	/**
 	 * TODO: refactor
 	 */
 	protected abstract SimpleGraphResultSet executeGraphQuery(ConstructQuery query, IQ executableQuery,
-															  boolean collectResults, QueryLogger queryLogger)
+															  QueryLogger queryLogger)
 			throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException;
 
 	/**
@@ -203,53 +140,22 @@ public abstract class QuestStatement implements OntopStatement {
 	}
 
 	/**
-	 * TODO: completely refactor this old-way of processing DESCRIBE.
-	 *  ---> should be converted into 1 CONSTRUCT query
+	 * The described resources are described (in subject and object positions) by one CONSTRUCT query,
+	 * which binds them with VALUES.
 	 */
 	private SimpleGraphResultSet executeDescribeQuery(DescribeQuery inputQuery, ImmutableMultimap<String, String> httpHeaders)
 			throws OntopReformulationException, OntopResultConversionException, OntopConnectionException,
 			OntopQueryEvaluationException {
 
-		ImmutableSet<String> constants = extractDescribeQueryConstants(inputQuery);
-
-		SimpleGraphResultSet describeResultSet = null;
-
+		ImmutableSet<String> resources = extractDescribeQueryConstants(inputQuery);
 		try {
-			// execute describe <uriconst> in subject position
-			for (String constant : constants) {
-				// for each constant we execute a construct with
-				// the uri as subject, and collect the results
-				String str = SPARQLQueryUtility.getConstructSubjQuery(constant);
-				ConstructQuery constructQuery = inputQueryFactory.createConstructQuery(str);
-
-				SimpleGraphResultSet set = executeInThread(constructQuery, httpHeaders, this::executeDescribeConstructQuery);
-				if (describeResultSet == null) { // just for the first time
-					describeResultSet = set;
-				} else if (set != null) {
-					// 2nd and manyth times execute, but collect result into one object
-					while (set.hasNext())
-						describeResultSet.addNewResult(set.next());
-				}
-			}
-			// execute describe <uriconst> in object position
-			for (String constant : constants) {
-				String str = SPARQLQueryUtility.getConstructObjQuery(constant);
-
-				ConstructQuery constructQuery = inputQueryFactory.createConstructQuery(str);
-				SimpleGraphResultSet set = executeInThread(constructQuery, httpHeaders, this::executeDescribeConstructQuery);
-
-				if (describeResultSet == null) { // just for the first time
-					describeResultSet = set;
-				} else if (set != null) {
-					while (set.hasNext())
-						describeResultSet.addNewResult(set.next());
-				}
-			}
+			ConstructQuery constructQuery = inputQueryFactory.createConstructQuery(
+					SPARQLQueryUtility.getConstructDescribeQuery(resources));
+			return executeInThread(constructQuery, httpHeaders, this::executeConstructQuery);
 			// Exception is re-cast because not due to the initial input query
 		} catch (OntopInvalidInputQueryException e) {
 			throw new OntopReformulationException(e);
 		}
-		return describeResultSet;
 	}
 
 	private ImmutableSet<String> extractDescribeQueryConstants(DescribeQuery inputQuery)
@@ -263,18 +169,18 @@ public abstract class QuestStatement implements OntopStatement {
 			String sel = SPARQLQueryUtility.getSelectVarDescribe(inputQueryString);
 			try {
 				SelectQuery selectQuery = inputQueryFactory.createSelectQuery(sel);
-				TupleResultSet resultSet = execute(selectQuery);
-
-				ImmutableSet.Builder<String> constantSetBuilder = ImmutableSet.builder();
-				while (resultSet.hasNext()) {
-                    final OntopBindingSet bindingSet = resultSet.next();
-                    Constant constant = bindingSet.getValues().get(0);
-					if (constant instanceof IRIConstant) {
-						// collect constants in list
-						constantSetBuilder.add(((IRIConstant) constant).getIRI().getIRIString());
+				try (TupleResultSet resultSet = execute(selectQuery)) {
+					ImmutableSet.Builder<String> constantSetBuilder = ImmutableSet.builder();
+					while (resultSet.hasNext()) {
+						final OntopBindingSet bindingSet = resultSet.next();
+						Constant constant = bindingSet.getValues().get(0);
+						if (constant instanceof IRIConstant) {
+							// collect constants in list
+							constantSetBuilder.add(((IRIConstant) constant).getIRI().getIRIString());
+						}
 					}
+					return constantSetBuilder.build();
 				}
-				return constantSetBuilder.build();
 				// Exception is re-cast because not due to the initial input query
 			} catch (OntopInvalidInputQueryException e) {
 				throw new OntopReformulationException(e);
@@ -295,31 +201,84 @@ public abstract class QuestStatement implements OntopStatement {
 
 
 	/**
-	 * Internal method to start a new query execution thread type defines the
+	 * Internal method to submit the query evaluation to the scheduler. Type defines the
 	 * query type SELECT, ASK, CONSTRUCT, or DESCRIBE
 	 */
 	private <R extends OBDAResultSet, Q extends InputQuery<R>> R executeInThread(Q inputQuery, ImmutableMultimap<String, String> httpHeaders,
 																				 Evaluator<R, Q> evaluator)
 			throws OntopReformulationException, OntopQueryEvaluationException {
-		QueryLogger queryLogger = queryLoggerFactory.create(httpHeaders);
+		QueryLogger queryLogger = metrics.createRecordingQueryLogger(queryLoggerFactory.create(httpHeaders));
 
 		queryLogger.setSparqlQuery(inputQuery.getInputString());
 
-		CountDownLatch monitor = new CountDownLatch(1);
 		IQ executableQuery = engine.reformulateIntoNativeQuery(inputQuery, queryLogger);
 
-		QueryExecutionThread<R, Q> executionthread = new QueryExecutionThread<>(inputQuery, executableQuery, queryLogger, evaluator,
-				monitor);
+		awaitAbandonedEvaluation();
 
-		this.executionThread = executionthread;
-		executionthread.start();
+		PendingEvaluation<R> pendingEvaluation = new PendingEvaluation<>();
+		Future<R> future;
 		try {
-			monitor.await();
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+			future = scheduler.submit(() -> {
+				try {
+					// Given up before starting
+					if (!pendingEvaluation.start())
+						return null;
+					log.debug("Executing the query and get the result...");
+					R resultSet = evaluator.evaluate(inputQuery, executableQuery, queryLogger);
+					// NB: finished if the result set is blocking!
+					log.debug("Result set unblocked.\n");
+					pendingEvaluation.complete(resultSet);
+					return resultSet;
+				} finally {
+					pendingEvaluation.terminated.countDown();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			queryLogger.declareEvaluationException(e);
+			throw new OntopQueryEvaluationException("Too many queries are waiting to be executed. Query rejected.");
 		}
-		if (executionthread.errorStatus()) {
-			Exception ex = executionthread.getException();
+
+		this.executionFuture = future;
+		// Cancelled before the submission
+		if (canceled)
+			future.cancel(false);
+
+		try {
+			R resultSet = deadline.isPresent()
+					? future.get(deadline.get(), TimeUnit.SECONDS)
+					: future.get();
+
+			if (canceled)
+				throw new CancellationException();
+			return resultSet;
+
+		} catch (CancellationException e) {
+			abandon(pendingEvaluation);
+			canceled = false;
+			queryLogger.declareCancellation();
+			throw new OntopQueryEvaluationException("Query execution was cancelled");
+		} catch (TimeoutException e) {
+			cancelQuietly(future);
+			abandon(pendingEvaluation);
+			canceled = false;
+			OntopQueryEvaluationException ex = new OntopQueryEvaluationException(
+					"Query execution exceeded the deadline of " + deadline.get() + "s");
+			queryLogger.declareEvaluationException(ex);
+			throw ex;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			cancelQuietly(future);
+			abandon(pendingEvaluation);
+			queryLogger.declareEvaluationException(e);
+			throw new OntopQueryEvaluationException(e);
+		} catch (ExecutionException e) {
+			Exception ex = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+			log.error(ex.getMessage(), ex);
+			if (canceled) {
+				canceled = false;
+				queryLogger.declareCancellation();
+				throw new OntopQueryEvaluationException("Query execution was cancelled");
+			}
 			if (ex instanceof OntopReformulationException) {
 				throw (OntopReformulationException) ex;
 			}
@@ -331,25 +290,55 @@ public abstract class QuestStatement implements OntopStatement {
 				queryLogger.declareEvaluationException(ex);
 				throw new OntopQueryEvaluationException(ex);
 			}
+		} finally {
+			this.executionFuture = null;
 		}
+	}
 
-		if (canceled) {
-			canceled = false;
-			throw new OntopQueryEvaluationException("Query execution was cancelled");
+	private void abandon(PendingEvaluation<?> pendingEvaluation) {
+		pendingEvaluation.abandon();
+		abandonedEvaluation = pendingEvaluation;
+	}
+
+	/**
+	 * The DB statement is shared: waits for the cancelled evaluation to release it.
+	 */
+	private void awaitAbandonedEvaluation() throws OntopQueryEvaluationException {
+		PendingEvaluation<?> previousEvaluation = abandonedEvaluation;
+		if (previousEvaluation == null)
+			return;
+		try {
+			previousEvaluation.terminated.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OntopQueryEvaluationException(e);
+		}
+		abandonedEvaluation = null;
+	}
+
+	private void cancelQuietly(Future<?> future) {
+		try {
+			cancelExecution();
+		} catch (OntopQueryEvaluationException e) {
+			log.warn("Could not cancel the query execution: " + e.getMessage());
 		}
-		R resultSet = executionthread.getResultSet();
-		return resultSet;
+		future.cancel(false);
 	}
 
-	
+	/**
+	 * Cooperative cancellation: the DB statement is cancelled, which makes the evaluation stop.
+	 */
 	@Override
 	public void cancel() throws OntopConnectionException {
 		canceled = true;
+		Future<?> future = executionFuture;
 		try {
-			QuestStatement.this.executionThread.cancel();
+			cancelExecution();
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
+		if (future != null)
+			future.cancel(false);
 	}
 
 	/**
@@ -370,4 +359,49 @@ public abstract class QuestStatement implements OntopStatement {
 			return engine.reformulateIntoNativeQuery(inputQuery, queryLoggerFactory.create(ImmutableMultimap.of()));
 	}
 
+	/**
+	 * Hands over the result set produced by the evaluation thread.
+	 *
+	 * Once the caller has given up, the result set is closed (whether it is produced before or after),
+	 * as nobody else would close it.
+	 */
+	private static class PendingEvaluation<R extends OBDAResultSet> {
+		private final CountDownLatch terminated = new CountDownLatch(1);
+		@Nullable
+		private R resultSet;
+		private boolean started;
+		private boolean abandoned;
+
+		synchronized boolean start() {
+			started = !abandoned;
+			return started;
+		}
+
+		synchronized void complete(R resultSet) {
+			if (abandoned)
+				closeQuietly(resultSet);
+			else
+				this.resultSet = resultSet;
+		}
+
+		synchronized void abandon() {
+			abandoned = true;
+			// Will never use the DB statement
+			if (!started)
+				terminated.countDown();
+			if (resultSet != null) {
+				closeQuietly(resultSet);
+				resultSet = null;
+			}
+		}
+
+		private static void closeQuietly(OBDAResultSet resultSet) {
+			try {
+				resultSet.close();
+			} catch (Exception e) {
+				log.warn("Could not close the result set of an abandoned query: " + e.getMessage());
+			}
+		}
+	}
+
 }
@@ -0,0 +1,30 @@
+package it.unibz.inf.ontop.answering.metrics;
+
+/**
+ * Distribution of the values recorded so far.
+ *
+ * Percentiles are approximated (relative error below 25%).
+ */
+public interface Histogram {
+
+    String NANOSECONDS = "nanoseconds";
+    String ROWS_PER_SECOND = "rows/s";
+
+    String getBaseUnit();
+
+    long getCount();
+
+    long getTotal();
+
+    long getMax();
+
+    default double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : ((double) getTotal()) / count;
+    }
+
+    /**
+     * Percentile between 0 and 100. Returns 0 if no value has been recorded.
+     */
+    long getValueAtPercentile(double percentile);
+}
@@ -0,0 +1,51 @@
+package it.unibz.inf.ontop.answering.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.logging.QueryStage;
+
+import java.util.function.Supplier;
+
+/**
+ * Metrics of the query answering, shared by all the queries of a query engine.
+ *
+ * Names follow the Micrometer conventions (dot-separated, lower case),
+ * so that they can be exposed as such by an adapter.
+ *
+ * Thread-safe.
+ */
+public interface QueryMetrics {
+
+    String ROWS_PER_SECOND = "ontop.query.rows.per.second";
+    String QUERY_CACHE_HITS = "ontop.query.cache.hits";
+    String QUERY_CACHE_MISSES = "ontop.query.cache.misses";
+    String CANCELLATIONS = "ontop.query.cancellations";
+
+    void recordDuration(QueryStage stage, long durationNanos);
+
+    void recordRowsPerSecond(long rowsPerSecond);
+
+    void incrementCounter(String name);
+
+    /**
+     * Replaces the previous gauge of the same name (if any)
+     */
+    void registerGauge(String name, Supplier<? extends Number> valueSupplier);
+
+    /**
+     * Records the metrics declared to the query logger, before delegating to it
+     */
+    QueryLogger createRecordingQueryLogger(QueryLogger queryLogger);
+
+    /**
+     * Includes the histograms of all the stages (possibly empty)
+     */
+    ImmutableMap<String, Histogram> getHistograms();
+
+    ImmutableMap<String, Long> getCounters();
+
+    /**
+     * Current values
+     */
+    ImmutableMap<String, Double> getGauges();
+}
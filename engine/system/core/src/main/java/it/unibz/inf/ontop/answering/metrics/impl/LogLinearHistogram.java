@@ -0,0 +1,95 @@
+package it.unibz.inf.ontop.answering.metrics.impl;
+
+import it.unibz.inf.ontop.answering.metrics.Histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free. Each power of two is divided into 4 buckets of equal width
+ * (values below 4 have their own bucket).
+ */
+class LogLinearHistogram implements Histogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private final String baseUnit;
+    private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE * SUB_BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    LogLinearHistogram(String baseUnit) {
+        this.baseUnit = baseUnit;
+    }
+
+    void record(long value) {
+        long nonNegativeValue = Math.max(value, 0);
+        buckets.incrementAndGet(getBucketIndex(nonNegativeValue));
+        count.increment();
+        total.add(nonNegativeValue);
+        max.accumulateAndGet(nonNegativeValue, Math::max);
+    }
+
+    @Override
+    public String getBaseUnit() {
+        return baseUnit;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getTotal() {
+        return total.sum();
+    }
+
+    @Override
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Upper bound of the bucket of the value (capped by the maximum)
+     */
+    @Override
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = new long[buckets.length()];
+        long bucketTotal = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            bucketTotal += counts[i];
+        }
+        if (bucketTotal == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * bucketTotal));
+        long cumulatedCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulatedCount += counts[i];
+            if (cumulatedCount >= rank)
+                return Math.min(getBucketUpperBound(i), getMax());
+        }
+        return getMax();
+    }
+
+    static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowerBound = ((long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT)) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
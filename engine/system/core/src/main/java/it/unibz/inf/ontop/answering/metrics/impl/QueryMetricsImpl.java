@@ -0,0 +1,98 @@
+package it.unibz.inf.ontop.answering.metrics.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.logging.QueryStage;
+import it.unibz.inf.ontop.answering.metrics.Histogram;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Singleton
+public class QueryMetricsImpl implements QueryMetrics {
+
+    // Read-only after construction
+    private final Map<QueryStage, LogLinearHistogram> stageHistograms;
+    private final LogLinearHistogram rowsPerSecondHistogram;
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<? extends Number>> gauges = new ConcurrentHashMap<>();
+
+    @Inject
+    private QueryMetricsImpl() {
+        stageHistograms = new EnumMap<>(QueryStage.class);
+        for (QueryStage stage : QueryStage.values())
+            stageHistograms.put(stage, new LogLinearHistogram(Histogram.NANOSECONDS));
+        rowsPerSecondHistogram = new LogLinearHistogram(Histogram.ROWS_PER_SECOND);
+
+        for (String counter : new String[] { QUERY_CACHE_HITS, QUERY_CACHE_MISSES, CANCELLATIONS })
+            counters.put(counter, new LongAdder());
+    }
+
+    @Override
+    public void recordDuration(QueryStage stage, long durationNanos) {
+        stageHistograms.get(stage).record(durationNanos);
+    }
+
+    @Override
+    public void recordRowsPerSecond(long rowsPerSecond) {
+        rowsPerSecondHistogram.record(rowsPerSecond);
+    }
+
+    @Override
+    public void incrementCounter(String name) {
+        counters.computeIfAbsent(name, n -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void registerGauge(String name, Supplier<? extends Number> valueSupplier) {
+        gauges.put(name, valueSupplier);
+    }
+
+    @Override
+    public QueryLogger createRecordingQueryLogger(QueryLogger queryLogger) {
+        return new RecordingQueryLogger(queryLogger, this);
+    }
+
+    @Override
+    public ImmutableMap<String, Histogram> getHistograms() {
+        return ImmutableMap.<String, Histogram>builder()
+                .putAll(stageHistograms.entrySet().stream()
+                        .collect(ImmutableCollectors.toMap(e -> e.getKey().getMetricName(), Map.Entry::getValue)))
+                .put(ROWS_PER_SECOND, rowsPerSecondHistogram)
+                .build();
+    }
+
+    @Override
+    public ImmutableMap<String, Long> getCounters() {
+        return counters.entrySet().stream()
+                .collect(ImmutableCollectors.toMap(Map.Entry::getKey, e -> e.getValue().sum()));
+    }
+
+    /**
+     * Gauges failing to provide a value are ignored
+     */
+    @Override
+    public ImmutableMap<String, Double> getGauges() {
+        ImmutableMap.Builder<String, Double> builder = ImmutableMap.builder();
+        gauges.forEach((name, supplier) -> getGaugeValue(supplier).ifPresent(v -> builder.put(name, v)));
+        return builder.build();
+    }
+
+    private static Optional<Double> getGaugeValue(Supplier<? extends Number> supplier) {
+        try {
+            return Optional.ofNullable(supplier.get())
+                    .map(Number::doubleValue);
+        }
+        catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
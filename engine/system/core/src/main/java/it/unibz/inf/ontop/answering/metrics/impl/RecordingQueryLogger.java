@@ -0,0 +1,106 @@
+package it.unibz.inf.ontop.answering.metrics.impl;
+
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.logging.QueryStage;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.spec.ontology.InconsistentOntologyException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the metrics of one query. The declarations may come from different threads, but not concurrently.
+ */
+class RecordingQueryLogger implements QueryLogger {
+
+    private static final long UNDEFINED = -1;
+
+    private final QueryLogger delegate;
+    private final QueryMetrics metrics;
+
+    private volatile long reformulationEndNanos = UNDEFINED;
+    private volatile long unblockingNanos = UNDEFINED;
+    private volatile boolean isLastResultDeclared = false;
+
+    RecordingQueryLogger(QueryLogger delegate, QueryMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void declareReformulationFinishedAndSerialize(IQ reformulatedQuery, boolean wasCached) {
+        reformulationEndNanos = System.nanoTime();
+        metrics.incrementCounter(wasCached ? QueryMetrics.QUERY_CACHE_HITS : QueryMetrics.QUERY_CACHE_MISSES);
+        delegate.declareReformulationFinishedAndSerialize(reformulatedQuery, wasCached);
+    }
+
+    @Override
+    public void declareResultSetUnblockedAndSerialize() {
+        unblockingNanos = System.nanoTime();
+        if (reformulationEndNanos != UNDEFINED)
+            metrics.recordDuration(QueryStage.TIME_TO_FIRST_ROW, unblockingNanos - reformulationEndNanos);
+        delegate.declareResultSetUnblockedAndSerialize();
+    }
+
+    /**
+     * Result sets may declare it several times
+     */
+    @Override
+    public void declareLastResultRetrievedAndSerialize(long rowCount) {
+        if (!isLastResultDeclared) {
+            isLastResultDeclared = true;
+            long elapsedNanos = System.nanoTime() - unblockingNanos;
+            if (unblockingNanos != UNDEFINED && elapsedNanos > 0 && rowCount > 0)
+                metrics.recordRowsPerSecond(rowCount * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+        }
+        delegate.declareLastResultRetrievedAndSerialize(rowCount);
+    }
+
+    @Override
+    public void declareReformulationException(OntopReformulationException e) {
+        delegate.declareReformulationException(e);
+    }
+
+    @Override
+    public void declareEvaluationException(Exception e) {
+        delegate.declareEvaluationException(e);
+    }
+
+    @Override
+    public void declareConnectionException(Exception e) {
+        delegate.declareConnectionException(e);
+    }
+
+    @Override
+    public void declareConversionException(InconsistentOntologyException e) {
+        delegate.declareConversionException(e);
+    }
+
+    @Override
+    public void declareCancellation() {
+        metrics.incrementCounter(QueryMetrics.CANCELLATIONS);
+        delegate.declareCancellation();
+    }
+
+    @Override
+    public void declareStageDuration(QueryStage stage, long durationNanos) {
+        metrics.recordDuration(stage, durationNanos);
+        delegate.declareStageDuration(stage, durationNanos);
+    }
+
+    @Override
+    public void setSparqlQuery(String sparqlQuery) {
+        delegate.setSparqlQuery(sparqlQuery);
+    }
+
+    @Override
+    public void setSparqlIQ(IQ sparqlIQ) {
+        delegate.setSparqlIQ(sparqlIQ);
+    }
+
+    @Override
+    public void setPlannedQuery(IQ plannedQuery) {
+        delegate.setPlannedQuery(plannedQuery);
+    }
+}
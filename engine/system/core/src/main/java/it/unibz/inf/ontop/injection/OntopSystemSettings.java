@@ -18,6 +18,51 @@ public interface OntopSystemSettings extends OntopReformulationSettings {
      */
     boolean isPermanentDBConnectionEnabled();
 
+    // Query execution scheduling
+
+    /**
+     * Maximal number of queries evaluated concurrently by the default QueryExecutionScheduler.
+     */
+    int getQueryExecutorMaxThreads();
+
+    /**
+     * Maximal number of queries waiting for an execution thread.
+     * Beyond it, new queries are rejected.
+     */
+    int getQueryExecutorQueueSize();
+
+    /**
+     * Maximal duration (in seconds) for obtaining the result set of a query.
+     * When reached, the query is cancelled.
+     *
+     * Has no effect if negative or equal to 0.
+     */
+    Optional<Integer> getQueryDeadline();
+
+    /**
+     * If enabled, the size of an RDF4J repository is obtained by a COUNT query over all the triples.
+     * Disabled by default, as such a query may be very expensive.
+     */
+    boolean isStatementCountingEnabled();
+
+    // Consistency checking
+
+    /**
+     * Maximal number of axioms checked by the same query
+     */
+    int getConsistencyCheckBatchSize();
+
+    /**
+     * Number of consistency-checking queries evaluated in parallel
+     */
+    int getConsistencyCheckThreads();
+
+    /**
+     * If enabled, the consistency check stops at the first violated axiom (in the order of the TBox).
+     * Otherwise, all the violated axioms are reported.
+     */
+    boolean isConsistencyCheckStoppingAtFirstViolation();
+
     // HTTP Caching
 
     Optional<Integer> getHttpMaxAge();
@@ -31,6 +76,17 @@ public interface OntopSystemSettings extends OntopReformulationSettings {
     String DEFAULT_QUERY_TIMEOUT = "ontop.query.defaultTimeout";
     String PERMANENT_DB_CONNECTION = "ontop.permanentConnection";
 
+    // Query execution scheduling
+    String QUERY_EXECUTOR_MAX_THREADS = "ontop.query.executor.maxThreads";
+    String QUERY_EXECUTOR_QUEUE_SIZE = "ontop.query.executor.queueSize";
+    String QUERY_DEADLINE = "ontop.query.deadline";
+    String STATEMENT_COUNTING = "ontop.query.statementCounting";
+
+    // Consistency checking
+    String CONSISTENCY_CHECK_BATCH_SIZE = "ontop.consistencyCheck.batchSize";
+    String CONSISTENCY_CHECK_THREADS = "ontop.consistencyCheck.threads";
+    String CONSISTENCY_CHECK_STOP_AT_FIRST_VIOLATION = "ontop.consistencyCheck.stopAtFirstViolation";
+
     // HTTP caching
     String HTTP_CACHE_MAX_AGE = "ontop.http.cache.maxAge";
     String HTTP_CACHE_STALE_WHILE_REVALIDATE = "ontop.http.cache.staleWhileRevalidate";
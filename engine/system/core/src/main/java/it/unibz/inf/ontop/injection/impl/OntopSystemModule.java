@@ -1,6 +1,8 @@
 package it.unibz.inf.ontop.injection.impl;
 
 
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
 import it.unibz.inf.ontop.injection.OntopSystemSettings;
 
 public class OntopSystemModule extends OntopAbstractModule {
@@ -15,5 +17,7 @@ public class OntopSystemModule extends OntopAbstractModule {
     @Override
     protected void configure() {
         bind(OntopSystemSettings.class).toInstance(settings);
+        bindFromSettings(QueryExecutionScheduler.class);
+        bindFromSettings(QueryMetrics.class);
     }
 }
@@ -34,6 +34,41 @@ public class OntopSystemSettingsImpl extends OntopReformulationSettingsImpl impl
         return getRequiredBoolean(PERMANENT_DB_CONNECTION);
     }
 
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return getRequiredInteger(QUERY_EXECUTOR_MAX_THREADS);
+    }
+
+    @Override
+    public int getQueryExecutorQueueSize() {
+        return getRequiredInteger(QUERY_EXECUTOR_QUEUE_SIZE);
+    }
+
+    @Override
+    public Optional<Integer> getQueryDeadline() {
+        return getInteger(QUERY_DEADLINE);
+    }
+
+    @Override
+    public boolean isStatementCountingEnabled() {
+        return getRequiredBoolean(STATEMENT_COUNTING);
+    }
+
+    @Override
+    public int getConsistencyCheckBatchSize() {
+        return getRequiredInteger(CONSISTENCY_CHECK_BATCH_SIZE);
+    }
+
+    @Override
+    public int getConsistencyCheckThreads() {
+        return getRequiredInteger(CONSISTENCY_CHECK_THREADS);
+    }
+
+    @Override
+    public boolean isConsistencyCheckStoppingAtFirstViolation() {
+        return getRequiredBoolean(CONSISTENCY_CHECK_STOP_AT_FIRST_VIOLATION);
+    }
+
     @Override
     public Optional<Integer> getHttpMaxAge() {
         return getInteger(HTTP_CACHE_MAX_AGE);
@@ -2,6 +2,8 @@ package it.unibz.inf.ontop.materialization;
 
 import it.unibz.inf.ontop.materialization.impl.MaterializationParamsImpl;
 
+import java.util.Optional;
+
 /**
  * Materialization-specific parameters
  */
@@ -16,6 +18,34 @@ public interface MaterializationParams {
      */
     boolean canMaterializationBeIncomplete();
 
+    /**
+     * Number of RDF properties/classes materialized concurrently, each on its own DB connection.
+     *
+     * 1 by default (sequential materialization).
+     */
+    int getParallelism();
+
+    /**
+     * If true, the triples of an RDF property/class are returned contiguously,
+     * following the order of the selected vocabulary (as in the sequential materialization).
+     * If false, the triples of the properties/classes materialized concurrently may be interleaved.
+     *
+     * True by default. Only relevant when the parallelism is greater than 1.
+     */
+    boolean isVocabularyOrderPreserved();
+
+    /**
+     * Maximal number of triples buffered between the workers and the consumer
+     * (per RDF property/class when the vocabulary order is preserved).
+     */
+    int getBufferSize();
+
+    /**
+     * Notified each time an RDF property/class has been fully materialized.
+     * Notifications are never concurrent.
+     */
+    Optional<MaterializationProgressListener> getProgressListener();
+
 
     static Builder defaultBuilder() {
         return new MaterializationParamsImpl.DefaultBuilder<>();
@@ -26,6 +56,14 @@ public interface MaterializationParams {
 
         B enableIncompleteMaterialization(boolean enable);
 
+        B parallelism(int parallelism);
+
+        B preserveVocabularyOrder(boolean preserve);
+
+        B bufferSize(int bufferSize);
+
+        B progressListener(MaterializationProgressListener listener);
+
         MaterializationParams build();
 
     }
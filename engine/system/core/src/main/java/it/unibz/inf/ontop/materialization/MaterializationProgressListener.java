@@ -0,0 +1,16 @@
+package it.unibz.inf.ontop.materialization;
+
+import org.apache.commons.rdf.api.IRI;
+
+/**
+ * Reports the progress of a materialization, one RDF property/class at a time
+ */
+@FunctionalInterface
+public interface MaterializationProgressListener {
+
+    /**
+     * @param isComplete false if a problem occurred (only when the materialization can be incomplete)
+     * @param elapsedMillis time between the start of the query and the consumption of its last triple
+     */
+    void onVocabularyEntryMaterialized(IRI predicate, long tripleCount, long elapsedMillis, boolean isComplete);
+}
@@ -0,0 +1,42 @@
+package it.unibz.inf.ontop.materialization;
+
+import it.unibz.inf.ontop.materialization.impl.DefaultNTriplesOutput;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.function.IntFunction;
+
+/**
+ * Byte sink of the N-Triples fast path of the materializer.
+ *
+ * Receives chunks of complete lines (one triple per line). Thread-safe.
+ */
+public interface NTriplesOutput extends Closeable {
+
+    /**
+     * Writes the first length bytes of the chunk, which contains lineCount complete lines
+     */
+    void write(byte[] chunk, int length, int lineCount) throws IOException;
+
+    /**
+     * Number of lines written so far
+     */
+    long getLineCount();
+
+    /**
+     * Writes everything into the stream (e.g. the standard output), which is closed at the end
+     */
+    static NTriplesOutput toStream(OutputStream outputStream, boolean gzip) {
+        return new DefaultNTriplesOutput(i -> outputStream, gzip, Long.MAX_VALUE);
+    }
+
+    /**
+     * Starts a new file each time maxLinesPerFile is reached.
+     * The files are named after their index (starting from 0).
+     */
+    static NTriplesOutput toFiles(IntFunction<Path> fileNaming, boolean gzip, long maxLinesPerFile) {
+        return new DefaultNTriplesOutput(DefaultNTriplesOutput.fileStreamFactory(fileNaming), gzip, maxLinesPerFile);
+    }
+}
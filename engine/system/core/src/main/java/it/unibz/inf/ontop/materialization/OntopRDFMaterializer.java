@@ -3,11 +3,14 @@ package it.unibz.inf.ontop.materialization;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.materialization.impl.DefaultOntopRDFMaterializer;
 import org.apache.commons.rdf.api.IRI;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
 
 public interface OntopRDFMaterializer {
 
@@ -23,6 +26,23 @@ public interface OntopRDFMaterializer {
     MaterializedGraphResultSet materialize(@Nonnull ImmutableSet<IRI> selectedVocabulary)
             throws OBDASpecificationException;
 
+    /**
+     * Fast path for bulk exports: writes the saturated RDF graph in N-Triples
+     * without creating intermediate Assertion objects.
+     *
+     * When the parallelism is greater than 1, the triples of different properties/classes may be interleaved.
+     *
+     * Returns the number of triples written. The output is not closed.
+     */
+    long materializeToNTriples(@Nonnull NTriplesOutput output)
+            throws OntopQueryAnsweringException, OntopConnectionException, IOException;
+
+    /**
+     * Fast path for bulk exports, restricted to the selected vocabulary
+     */
+    long materializeToNTriples(@Nonnull ImmutableSet<IRI> selectedVocabulary, @Nonnull NTriplesOutput output)
+            throws OntopQueryAnsweringException, OntopConnectionException, IOException;
+
     /**
      * Default implementation
      */
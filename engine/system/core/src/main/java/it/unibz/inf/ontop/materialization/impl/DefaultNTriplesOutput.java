@@ -0,0 +1,106 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import it.unibz.inf.ontop.materialization.NTriplesOutput;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPOutputStream;
+
+public class DefaultNTriplesOutput implements NTriplesOutput {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final IntFunction<OutputStream> streamFactory;
+    private final boolean gzip;
+    private final long maxLinesPerFile;
+
+    // Lazily opened, so that no empty file is created
+    @Nullable
+    private OutputStream currentStream;
+    private int fileIndex;
+    private long linesInCurrentFile;
+    private long lineCount;
+
+    /**
+     * The stream factory may throw an UncheckedIOException
+     */
+    public DefaultNTriplesOutput(IntFunction<OutputStream> streamFactory, boolean gzip, long maxLinesPerFile) {
+        if (maxLinesPerFile < 1)
+            throw new IllegalArgumentException("maxLinesPerFile must be positive");
+        this.streamFactory = streamFactory;
+        this.gzip = gzip;
+        this.maxLinesPerFile = maxLinesPerFile;
+        this.fileIndex = 0;
+        this.linesInCurrentFile = 0;
+        this.lineCount = 0;
+        this.currentStream = null;
+    }
+
+    public static IntFunction<OutputStream> fileStreamFactory(IntFunction<Path> fileNaming) {
+        return i -> {
+            try {
+                return Files.newOutputStream(fileNaming.apply(i));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private OutputStream openStream(int index) throws IOException {
+        try {
+            OutputStream stream = streamFactory.apply(index);
+            return gzip
+                    ? new GZIPOutputStream(stream, BUFFER_SIZE)
+                    : new BufferedOutputStream(stream, BUFFER_SIZE);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public synchronized void write(byte[] chunk, int length, int lineCount) throws IOException {
+        if (currentStream == null)
+            currentStream = openStream(fileIndex);
+
+        int offset = 0;
+        int remainingLines = lineCount;
+        // Splits the chunk at the line boundary where the current file is full
+        while (linesInCurrentFile + remainingLines > maxLinesPerFile) {
+            long linesToWrite = maxLinesPerFile - linesInCurrentFile;
+            int end = offset;
+            for (long l = 0; l < linesToWrite; l++) {
+                while (chunk[end] != '\n')
+                    end++;
+                end++;
+            }
+            currentStream.write(chunk, offset, end - offset);
+            this.lineCount += linesToWrite;
+            remainingLines -= linesToWrite;
+            offset = end;
+
+            currentStream.close();
+            currentStream = openStream(++fileIndex);
+            linesInCurrentFile = 0;
+        }
+        currentStream.write(chunk, offset, length - offset);
+        linesInCurrentFile += remainingLines;
+        this.lineCount += remainingLines;
+    }
+
+    @Override
+    public synchronized long getLineCount() {
+        return lineCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (currentStream != null)
+            currentStream.close();
+    }
+}
@@ -16,6 +16,8 @@ import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.injection.OntopSystemFactory;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.MaterializationProgressListener;
+import it.unibz.inf.ontop.materialization.NTriplesOutput;
 import it.unibz.inf.ontop.materialization.OntopRDFMaterializer;
 import it.unibz.inf.ontop.model.atom.TriplePredicate;
 import it.unibz.inf.ontop.spec.OBDASpecification;
@@ -28,9 +30,11 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 
@@ -48,7 +52,7 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 
 	private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
 
-	private static final class VocabularyEntry {
+	static final class VocabularyEntry {
         private final IRI name;
         private final int arity;
 
@@ -62,6 +66,26 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
         private static final String PROPERTY_QUERY = "CONSTRUCT {?s <%s> ?o} WHERE {?s <%s> ?o}";
         private static final String CLASS_QUERY = "CONSTRUCT {?s a <%s>} WHERE {?s a <%s>}";
 
+        static final String SUBJECT = "s";
+        static final String OBJECT = "o";
+        private static final String PROPERTY_SELECT_QUERY = "SELECT ?s ?o WHERE {?s <%s> ?o}";
+        private static final String CLASS_SELECT_QUERY = "SELECT ?s WHERE {?s a <%s>}";
+
+        IRI getName() {
+            return name;
+        }
+
+        boolean isClass() {
+            return arity == 1;
+        }
+
+        /**
+         * Used by the N-Triples fast path
+         */
+        String getSelectQuery() {
+            return String.format((arity == 1) ? CLASS_SELECT_QUERY : PROPERTY_SELECT_QUERY, name.getIRIString());
+        }
+
         String getQuery() {
             return String.format((arity == 1) ? CLASS_QUERY : PROPERTY_QUERY, name.getIRIString(), name.getIRIString());
         }
@@ -79,12 +103,32 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 
 	@Override
 	public MaterializedGraphResultSet materialize() {
-		return new DefaultMaterializedGraphResultSet(vocabulary, params, queryEngine, inputQueryFactory);
+		return createResultSet(vocabulary);
 	}
 
 	@Override
 	public MaterializedGraphResultSet materialize(@Nonnull ImmutableSet<IRI> selectedVocabulary) {
-		return new DefaultMaterializedGraphResultSet(filterVocabularyEntries(selectedVocabulary), params, queryEngine, inputQueryFactory);
+		return createResultSet(filterVocabularyEntries(selectedVocabulary));
+	}
+
+	@Override
+	public long materializeToNTriples(@Nonnull NTriplesOutput output)
+			throws OntopQueryAnsweringException, OntopConnectionException, IOException {
+		return new DirectNTriplesMaterializer(params, queryEngine, inputQueryFactory)
+				.materialize(vocabulary.values().asList(), output);
+	}
+
+	@Override
+	public long materializeToNTriples(@Nonnull ImmutableSet<IRI> selectedVocabulary, @Nonnull NTriplesOutput output)
+			throws OntopQueryAnsweringException, OntopConnectionException, IOException {
+		return new DirectNTriplesMaterializer(params, queryEngine, inputQueryFactory)
+				.materialize(filterVocabularyEntries(selectedVocabulary).values().asList(), output);
+	}
+
+	private MaterializedGraphResultSet createResultSet(ImmutableMap<IRI, VocabularyEntry> selectedVocabulary) {
+		return (params.getParallelism() > 1 && selectedVocabulary.size() > 1)
+				? new ParallelMaterializedGraphResultSet(selectedVocabulary, params, queryEngine, inputQueryFactory)
+				: new DefaultMaterializedGraphResultSet(selectedVocabulary, params, queryEngine, inputQueryFactory);
 	}
 
 	private ImmutableMap<IRI,VocabularyEntry> filterVocabularyEntries(ImmutableSet<IRI> selectedVocabulary) {
@@ -138,12 +182,17 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 		private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
 		private final InputQueryFactory inputQueryFactory;
 		private final boolean canBeIncomplete;
+		private final Optional<MaterializationProgressListener> progressListener;
 
 		private final OntopQueryEngine queryEngine;
 		private final UnmodifiableIterator<VocabularyEntry> vocabularyIterator;
 
 		private int counter;
 		@Nullable
+		private VocabularyEntry currentEntry;
+		private long currentEntryCounter;
+		private long currentEntryStartTime;
+		@Nullable
 		private OntopConnection ontopConnection;
 		@Nullable
 		private OntopStatement tmpStatement;
@@ -164,6 +213,7 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 
 			this.queryEngine = queryEngine;
 			this.canBeIncomplete = params.canMaterializationBeIncomplete();
+			this.progressListener = params.getProgressListener();
 			this.inputQueryFactory = inputQueryFactory;
 			this.possiblyIncompleteClassesAndProperties = new ArrayList<>();
 
@@ -197,6 +247,8 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 				return true;
 			}
 
+			reportCurrentEntry(true);
+
 			while(vocabularyIterator.hasNext()) {
 				/*
 			 	* Closes the previous result set and statement (if open)
@@ -222,6 +274,9 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 				 * New query for the next RDF property/class
 				 */
                 VocabularyEntry predicate = vocabularyIterator.next();
+				currentEntry = predicate;
+				currentEntryCounter = 0;
+				currentEntryStartTime = System.currentTimeMillis();
 				ConstructQuery query = inputQueryFactory.createConstructQuery(predicate.getQuery());
 
 				try {
@@ -232,11 +287,13 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 //						nextAssertion = tmpGraphResultSet.next();
 						return true;
 					}
+					reportCurrentEntry(true);
 				} catch (OntopQueryAnsweringException | OntopConnectionException e) {
 					if (canBeIncomplete) {
 						LOGGER.warn("Possibly incomplete class/property " + predicate + " (materialization problem).\n"
 								+ "Details: " + e);
 						possiblyIncompleteClassesAndProperties.add(predicate.name);
+						reportCurrentEntry(false);
 					}
 					else {
 						LOGGER.error("Problem materialiing the class/property " + predicate);
@@ -248,9 +305,19 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 			return false;
 		}
 
+		private void reportCurrentEntry(boolean isComplete) {
+			if (currentEntry == null)
+				return;
+			VocabularyEntry entry = currentEntry;
+			currentEntry = null;
+			progressListener.ifPresent(l -> l.onVocabularyEntryMaterialized(entry.name, currentEntryCounter,
+					System.currentTimeMillis() - currentEntryStartTime, isComplete));
+		}
+
 		@Override
 		public Assertion next() throws OntopQueryAnsweringException {
 			counter++;
+			currentEntryCounter++;
 			try {
 				return tmpGraphResultSet.next();
 			} catch (OntopResultConversionException e) {
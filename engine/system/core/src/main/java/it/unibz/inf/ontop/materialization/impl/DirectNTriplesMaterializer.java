@@ -0,0 +1,200 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
+import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.MaterializationProgressListener;
+import it.unibz.inf.ontop.materialization.NTriplesOutput;
+import it.unibz.inf.ontop.materialization.impl.DefaultOntopRDFMaterializer.VocabularyEntry;
+import it.unibz.inf.ontop.model.term.ObjectConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.vocabulary.RDF;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fast path of the materializer: the answers of the SELECT query of each class/property are directly encoded
+ * into N-Triples lines, without creating intermediate Assertion (nor RDF4J Statement) objects.
+ *
+ * The lines are written by chunks, so the lines of classes/properties materialized concurrently may be interleaved.
+ */
+class DirectNTriplesMaterializer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectNTriplesMaterializer.class);
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final byte[] RDF_TYPE = NTriplesLineBuffer.encodeIRI(RDF.TYPE.getIRIString());
+
+    private final OntopQueryEngine queryEngine;
+    private final InputQueryFactory inputQueryFactory;
+    private final boolean canBeIncomplete;
+    private final int parallelism;
+    private final Optional<MaterializationProgressListener> progressListener;
+
+    DirectNTriplesMaterializer(MaterializationParams params, OntopQueryEngine queryEngine,
+                               InputQueryFactory inputQueryFactory) {
+        this.queryEngine = queryEngine;
+        this.inputQueryFactory = inputQueryFactory;
+        this.canBeIncomplete = params.canMaterializationBeIncomplete();
+        this.parallelism = params.getParallelism();
+        this.progressListener = params.getProgressListener();
+    }
+
+    /**
+     * Returns the number of triples written
+     */
+    long materialize(ImmutableList<VocabularyEntry> entries, NTriplesOutput output)
+            throws OntopQueryAnsweringException, OntopConnectionException, IOException {
+        if (entries.isEmpty())
+            return 0;
+
+        int workerCount = Math.min(parallelism, entries.size());
+        AtomicInteger nextEntryIndex = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount, new ThreadFactoryBuilder()
+                .setNameFormat("ontop-materializer-%d")
+                .setDaemon(true)
+                .build());
+        long initialLineCount = output.getLineCount();
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < workerCount; i++)
+                futures.add(executor.submit(() -> runWorker(entries, nextEntryIndex, output)));
+
+            for (Future<Void> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OntopConnectionException("Interrupted during the materialization");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof OntopQueryAnsweringException)
+                throw (OntopQueryAnsweringException) cause;
+            if (cause instanceof OntopConnectionException)
+                throw (OntopConnectionException) cause;
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new OntopQueryAnsweringException((Exception) cause);
+        } finally {
+            // Stops the other workers in case of failure
+            nextEntryIndex.set(entries.size());
+            executor.shutdownNow();
+        }
+        return output.getLineCount() - initialLineCount;
+    }
+
+    private Void runWorker(ImmutableList<VocabularyEntry> entries, AtomicInteger nextEntryIndex, NTriplesOutput output)
+            throws OntopQueryAnsweringException, OntopConnectionException, IOException {
+        NTriplesLineBuffer buffer = new NTriplesLineBuffer(CHUNK_SIZE + 1024);
+        int index;
+        try (OntopConnection connection = queryEngine.getConnection()) {
+            while ((index = nextEntryIndex.getAndIncrement()) < entries.size()) {
+                VocabularyEntry entry = entries.get(index);
+                long startTime = System.currentTimeMillis();
+                long tripleCount = 0;
+                boolean isComplete = true;
+                try {
+                    tripleCount = materializeEntry(entry, connection, buffer, output);
+                } catch (OntopQueryAnsweringException | OntopConnectionException e) {
+                    if (!canBeIncomplete) {
+                        LOGGER.error("Problem materializing the class/property " + entry.getName());
+                        throw e;
+                    }
+                    LOGGER.warn("Possibly incomplete class/property " + entry.getName() + " (materialization problem).\n"
+                            + "Details: " + e);
+                    isComplete = false;
+                }
+                flush(buffer, output);
+                reportProgress(entry, tripleCount, System.currentTimeMillis() - startTime, isComplete);
+            }
+        }
+        return null;
+    }
+
+    private long materializeEntry(VocabularyEntry entry, OntopConnection connection, NTriplesLineBuffer buffer,
+                                  NTriplesOutput output)
+            throws OntopQueryAnsweringException, OntopConnectionException, IOException {
+        SelectQuery query = inputQueryFactory.createSelectQuery(entry.getSelectQuery());
+        boolean isClass = entry.isClass();
+        byte[] predicate = isClass ? RDF_TYPE : NTriplesLineBuffer.encodeIRI(entry.getName().getIRIString());
+        @Nullable
+        byte[] classObject = isClass ? NTriplesLineBuffer.encodeIRI(entry.getName().getIRIString()) : null;
+
+        long tripleCount = 0;
+        long literalSubjectCount = 0;
+        try (OntopStatement statement = connection.createStatement();
+             TupleResultSet resultSet = statement.execute(query)) {
+            while (resultSet.hasNext()) {
+                if (Thread.currentThread().isInterrupted())
+                    throw new OntopConnectionException("Interrupted during the materialization");
+
+                OntopBindingSet bindingSet = resultSet.next();
+                RDFConstant subject = bindingSet.getConstant(VocabularyEntry.SUBJECT);
+                @Nullable
+                RDFConstant object = isClass ? null : bindingSet.getConstant(VocabularyEntry.OBJECT);
+                // A triple can only be constructed when none of bindings is missing
+                if (subject == null || (object == null && !isClass))
+                    continue;
+                // Literals are not valid subjects (as for the assertions of the graph result sets)
+                if (!(subject instanceof ObjectConstant)) {
+                    literalSubjectCount++;
+                    continue;
+                }
+
+                buffer.appendSubject((ObjectConstant) subject);
+                buffer.append(predicate);
+                if (isClass)
+                    buffer.append(classObject);
+                else
+                    buffer.appendTerm(object);
+                buffer.endLine();
+                tripleCount++;
+
+                if (buffer.getLength() >= CHUNK_SIZE)
+                    flush(buffer, output);
+            }
+        }
+        if (literalSubjectCount > 0)
+            LOGGER.warn("{} answers of the class/property {} have been ignored: their subject is a literal",
+                    literalSubjectCount, entry.getName());
+        return tripleCount;
+    }
+
+    private static void flush(NTriplesLineBuffer buffer, NTriplesOutput output) throws IOException {
+        if (buffer.getLineCount() > 0)
+            output.write(buffer.getBytes(), buffer.getLength(), buffer.getLineCount());
+        buffer.clear();
+    }
+
+    private void reportProgress(VocabularyEntry entry, long tripleCount, long elapsedMillis, boolean isComplete) {
+        LOGGER.debug("Materialized {} ({} triples in {} ms)", entry.getName(), tripleCount, elapsedMillis);
+        progressListener.ifPresent(l -> {
+            // Notifications are serialized
+            synchronized (l) {
+                l.onVocabularyEntryMaterialized(entry.getName(), tripleCount, elapsedMillis, isComplete);
+            }
+        });
+    }
+}
@@ -1,13 +1,28 @@
 package it.unibz.inf.ontop.materialization.impl;
 
 import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.MaterializationProgressListener;
+
+import javax.annotation.Nullable;
+import java.util.Optional;
 
 public class MaterializationParamsImpl implements MaterializationParams {
 
     private final boolean enableIncompleteMaterialization;
+    private final int parallelism;
+    private final boolean preserveVocabularyOrder;
+    private final int bufferSize;
+    @Nullable
+    private final MaterializationProgressListener progressListener;
 
-    private MaterializationParamsImpl(boolean enableIncompleteMaterialization) {
+    private MaterializationParamsImpl(boolean enableIncompleteMaterialization, int parallelism,
+                                      boolean preserveVocabularyOrder, int bufferSize,
+                                      @Nullable MaterializationProgressListener progressListener) {
         this.enableIncompleteMaterialization = enableIncompleteMaterialization;
+        this.parallelism = parallelism;
+        this.preserveVocabularyOrder = preserveVocabularyOrder;
+        this.bufferSize = bufferSize;
+        this.progressListener = progressListener;
     }
 
 
@@ -16,14 +31,43 @@ public class MaterializationParamsImpl implements MaterializationParams {
         return enableIncompleteMaterialization;
     }
 
+    @Override
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public boolean isVocabularyOrderPreserved() {
+        return preserveVocabularyOrder;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public Optional<MaterializationProgressListener> getProgressListener() {
+        return Optional.ofNullable(progressListener);
+    }
+
 
     public static class DefaultBuilder<B extends Builder<B>> implements Builder<B> {
 
         private final B builder;
         private boolean canMaterializationBeIncomplete;
+        private int parallelism;
+        private boolean preserveVocabularyOrder;
+        private int bufferSize;
+        @Nullable
+        private MaterializationProgressListener progressListener;
 
         public DefaultBuilder() {
             this.canMaterializationBeIncomplete = false;
+            this.parallelism = 1;
+            this.preserveVocabularyOrder = true;
+            this.bufferSize = 10000;
+            this.progressListener = null;
             this.builder = (B) this;
         }
 
@@ -33,9 +77,38 @@ public class MaterializationParamsImpl implements MaterializationParams {
             return builder;
         }
 
+        @Override
+        public B parallelism(int parallelism) {
+            if (parallelism < 1)
+                throw new IllegalArgumentException("The parallelism must be positive");
+            this.parallelism = parallelism;
+            return builder;
+        }
+
+        @Override
+        public B preserveVocabularyOrder(boolean preserve) {
+            this.preserveVocabularyOrder = preserve;
+            return builder;
+        }
+
+        @Override
+        public B bufferSize(int bufferSize) {
+            if (bufferSize < 1)
+                throw new IllegalArgumentException("The buffer size must be positive");
+            this.bufferSize = bufferSize;
+            return builder;
+        }
+
+        @Override
+        public B progressListener(MaterializationProgressListener listener) {
+            this.progressListener = listener;
+            return builder;
+        }
+
         @Override
         public MaterializationParams build() {
-            return new MaterializationParamsImpl(canMaterializationBeIncomplete);
+            return new MaterializationParamsImpl(canMaterializationBeIncomplete, parallelism, preserveVocabularyOrder,
+                    bufferSize, progressListener);
         }
     }
 
@@ -0,0 +1,268 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.ObjectConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.RDFLiteralConstant;
+import it.unibz.inf.ontop.model.type.LanguageTag;
+import it.unibz.inf.ontop.model.type.RDFDatatype;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import org.apache.commons.rdf.api.IRI;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Growable byte buffer into which RDF terms are directly encoded in UTF-8, following the N-Triples syntax.
+ *
+ * Not thread-safe: one per worker.
+ */
+class NTriplesLineBuffer {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final byte[] LINE_END = {'.', '\n'};
+
+    private byte[] bytes;
+    private int length;
+    private int lineCount;
+
+    // Datatype suffixes (^^<...>) are shared by many literals
+    private final Map<IRI, byte[]> datatypeSuffixes;
+
+    NTriplesLineBuffer(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+        this.length = 0;
+        this.lineCount = 0;
+        this.datatypeSuffixes = new HashMap<>();
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    int getLineCount() {
+        return lineCount;
+    }
+
+    void clear() {
+        length = 0;
+        lineCount = 0;
+    }
+
+    void appendTerm(RDFConstant term) {
+        if (term instanceof IRIConstant)
+            appendIRI(((IRIConstant) term).getIRI().getIRIString());
+        else if (term instanceof RDFLiteralConstant)
+            appendLiteral((RDFLiteralConstant) term);
+        else if (term instanceof BNode)
+            appendBNode(((BNode) term).getName());
+        else
+            throw new IllegalArgumentException("Unexpected RDF term: " + term);
+    }
+
+    /**
+     * Literals are not valid subjects in N-Triples
+     */
+    void appendSubject(ObjectConstant subject) {
+        if (subject instanceof IRIConstant)
+            appendIRI(((IRIConstant) subject).getIRI().getIRIString());
+        else if (subject instanceof BNode)
+            appendBNode(((BNode) subject).getName());
+        else
+            throw new IllegalArgumentException("Unexpected subject: " + subject);
+    }
+
+    void append(byte[] encoded) {
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, bytes, length, encoded.length);
+        length += encoded.length;
+    }
+
+    /**
+     * Each term is followed by a space
+     */
+    void endLine() {
+        append(LINE_END);
+        lineCount++;
+    }
+
+    /**
+     * Pre-encodes terms that are repeated on every line (e.g. the predicate)
+     */
+    static byte[] encodeIRI(String iri) {
+        NTriplesLineBuffer buffer = new NTriplesLineBuffer(iri.length() + 8);
+        buffer.appendIRI(iri);
+        return Arrays.copyOf(buffer.bytes, buffer.length);
+    }
+
+    private void appendIRI(String iri) {
+        appendAscii('<');
+        int size = iri.length();
+        for (int i = 0; i < size; i++) {
+            char c = iri.charAt(i);
+            switch (c) {
+                case '<': case '>': case '"': case '{': case '}': case '|': case '^': case '`': case '\\':
+                    appendUnicodeEscape(c);
+                    break;
+                default:
+                    if (c <= 0x20)
+                        appendUnicodeEscape(c);
+                    else
+                        i = appendUtf8(iri, i, c);
+            }
+        }
+        appendAscii('>');
+        appendAscii(' ');
+    }
+
+    private void appendLiteral(RDFLiteralConstant literal) {
+        appendAscii('"');
+        String value = literal.getValue();
+        int size = value.length();
+        for (int i = 0; i < size; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    appendAscii('\\');
+                    appendAscii('"');
+                    break;
+                case '\\':
+                    appendAscii('\\');
+                    appendAscii('\\');
+                    break;
+                case '\n':
+                    appendAscii('\\');
+                    appendAscii('n');
+                    break;
+                case '\r':
+                    appendAscii('\\');
+                    appendAscii('r');
+                    break;
+                default:
+                    i = appendUtf8(value, i, c);
+            }
+        }
+        appendAscii('"');
+
+        RDFDatatype datatype = literal.getType();
+        Optional<LanguageTag> languageTag = datatype.getLanguageTag();
+        if (languageTag.isPresent()) {
+            appendAscii('@');
+            appendAsciiString(languageTag.get().getFullString());
+        }
+        else {
+            IRI datatypeIRI = datatype.getIRI();
+            // Simple literals are serialized without their datatype
+            if (!datatypeIRI.equals(XSD.STRING)) {
+                byte[] suffix = datatypeSuffixes.get(datatypeIRI);
+                if (suffix == null) {
+                    suffix = encodeDatatypeSuffix(datatypeIRI);
+                    datatypeSuffixes.put(datatypeIRI, suffix);
+                }
+                append(suffix);
+            }
+        }
+        appendAscii(' ');
+    }
+
+    private static byte[] encodeDatatypeSuffix(IRI datatypeIRI) {
+        NTriplesLineBuffer buffer = new NTriplesLineBuffer(datatypeIRI.getIRIString().length() + 8);
+        buffer.appendAscii('^');
+        buffer.appendAscii('^');
+        buffer.appendIRI(datatypeIRI.getIRIString());
+        // Removes the trailing space
+        return Arrays.copyOf(buffer.bytes, buffer.length - 1);
+    }
+
+    /**
+     * Only letters and digits are kept as such (except 'x', used as escape character),
+     * so that the encoding is injective and always produces a valid label
+     */
+    private void appendBNode(String name) {
+        appendAscii('_');
+        appendAscii(':');
+        int size = name.length();
+        for (int i = 0; i < size; i++) {
+            char c = name.charAt(i);
+            if (((c >= 'a' && c <= 'z') && c != 'x') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))
+                appendAscii(c);
+            else {
+                appendAscii('x');
+                appendHex4(c);
+            }
+        }
+        appendAscii(' ');
+    }
+
+    private void appendUnicodeEscape(char c) {
+        appendAscii('\\');
+        appendAscii('u');
+        appendHex4(c);
+    }
+
+    private void appendHex4(char c) {
+        appendAscii(HEX[(c >> 12) & 0xF]);
+        appendAscii(HEX[(c >> 8) & 0xF]);
+        appendAscii(HEX[(c >> 4) & 0xF]);
+        appendAscii(HEX[c & 0xF]);
+    }
+
+    private void appendAsciiString(String s) {
+        int size = s.length();
+        for (int i = 0; i < size; i++)
+            appendAscii(s.charAt(i));
+    }
+
+    private void appendAscii(char c) {
+        if (length == bytes.length)
+            ensureCapacity(1);
+        bytes[length++] = (byte) c;
+    }
+
+    /**
+     * Returns the index of the last char consumed (surrogate pairs consume two chars)
+     */
+    private int appendUtf8(String s, int index, char c) {
+        ensureCapacity(4);
+        if (c < 0x80) {
+            bytes[length++] = (byte) c;
+        }
+        else if (c < 0x800) {
+            bytes[length++] = (byte) (0xC0 | (c >> 6));
+            bytes[length++] = (byte) (0x80 | (c & 0x3F));
+        }
+        else if (Character.isHighSurrogate(c) && index + 1 < s.length()
+                && Character.isLowSurrogate(s.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, s.charAt(index + 1));
+            bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+            bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            return index + 1;
+        }
+        else if (Character.isSurrogate(c)) {
+            // Unpaired surrogate: replacement character
+            bytes[length++] = (byte) 0xEF;
+            bytes[length++] = (byte) 0xBF;
+            bytes[length++] = (byte) 0xBD;
+        }
+        else {
+            bytes[length++] = (byte) (0xE0 | (c >> 12));
+            bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            bytes[length++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (length + additional > bytes.length)
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+    }
+}
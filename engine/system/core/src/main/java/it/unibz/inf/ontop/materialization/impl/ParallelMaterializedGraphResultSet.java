@@ -0,0 +1,281 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.reformulation.input.ConstructQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
+import it.unibz.inf.ontop.answering.resultset.SimpleGraphResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
+import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.MaterializationProgressListener;
+import it.unibz.inf.ontop.materialization.impl.DefaultOntopRDFMaterializer.VocabularyEntry;
+import it.unibz.inf.ontop.spec.ontology.Assertion;
+import org.apache.commons.rdf.api.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Materializes the RDF properties/classes concurrently.
+ *
+ * Each worker evaluates the query of one property/class at a time on its own connection
+ * and pushes the triples into a bounded buffer, which is drained by the (single) consumer thread.
+ * When the vocabulary order is preserved, each property/class has its own buffer,
+ * which are drained one after the other.
+ *
+ * Like the sequential implementation, does not allocate resources before hasNext() is called.
+ */
+class ParallelMaterializedGraphResultSet implements MaterializedGraphResultSet {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelMaterializedGraphResultSet.class);
+
+    private final ImmutableList<VocabularyEntry> entries;
+    private final ImmutableSet<IRI> selectedVocabulary;
+    private final InputQueryFactory inputQueryFactory;
+    private final OntopQueryEngine queryEngine;
+    private final boolean canBeIncomplete;
+    private final boolean preserveOrder;
+    private final int parallelism;
+    private final int bufferSize;
+    private final Optional<MaterializationProgressListener> progressListener;
+
+    private final List<IRI> possiblyIncompleteClassesAndProperties;
+    private final AtomicLong counter;
+
+    // Lately initialized
+    @Nullable
+    private ExecutorService executor;
+    @Nullable
+    private ImmutableList<BlockingQueue<Object>> buffers;
+    private final AtomicInteger nextEntryIndex;
+
+    private int currentBufferIndex;
+    private int completedEntries;
+    @Nullable
+    private Assertion nextAssertion;
+    private volatile boolean isClosed;
+
+    ParallelMaterializedGraphResultSet(ImmutableMap<IRI, VocabularyEntry> vocabulary, MaterializationParams params,
+                                       OntopQueryEngine queryEngine, InputQueryFactory inputQueryFactory) {
+        this.entries = ImmutableList.copyOf(vocabulary.values());
+        this.selectedVocabulary = vocabulary.keySet();
+        this.queryEngine = queryEngine;
+        this.inputQueryFactory = inputQueryFactory;
+        this.canBeIncomplete = params.canMaterializationBeIncomplete();
+        this.preserveOrder = params.isVocabularyOrderPreserved();
+        this.parallelism = Math.min(params.getParallelism(), entries.size());
+        this.bufferSize = params.getBufferSize();
+        this.progressListener = params.getProgressListener();
+        this.possiblyIncompleteClassesAndProperties = new ArrayList<>();
+        this.counter = new AtomicLong(0);
+        this.nextEntryIndex = new AtomicInteger(0);
+        this.currentBufferIndex = 0;
+        this.completedEntries = 0;
+        this.isClosed = false;
+    }
+
+    @Override
+    public ImmutableSet<IRI> getSelectedVocabulary() {
+        return selectedVocabulary;
+    }
+
+    @Override
+    public boolean hasNext() throws OntopQueryAnsweringException, OntopConnectionException {
+        if (nextAssertion != null)
+            return true;
+        if (isClosed)
+            return false;
+        if (executor == null)
+            start();
+
+        try {
+            while (completedEntries < entries.size()) {
+                Object item = buffers.get(currentBufferIndex).take();
+                if (item instanceof Assertion) {
+                    nextAssertion = (Assertion) item;
+                    return true;
+                }
+                handleCompletion((EntryCompletion) item);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new OntopConnectionException("Interrupted while waiting for the materialized triples");
+        }
+        close();
+        return false;
+    }
+
+    @Override
+    public Assertion next() throws OntopQueryAnsweringException {
+        try {
+            if (!hasNext())
+                throw new NoSuchElementException();
+        } catch (OntopConnectionException e) {
+            throw new OntopQueryAnsweringException(e);
+        }
+        Assertion assertion = nextAssertion;
+        nextAssertion = null;
+        counter.incrementAndGet();
+        return assertion;
+    }
+
+    private void start() {
+        int bufferCount = preserveOrder ? entries.size() : 1;
+        ImmutableList.Builder<BlockingQueue<Object>> bufferBuilder = ImmutableList.builder();
+        // LinkedBlockingQueue does not pre-allocate its capacity
+        for (int i = 0; i < bufferCount; i++)
+            bufferBuilder.add(new LinkedBlockingQueue<>(bufferSize));
+        buffers = bufferBuilder.build();
+
+        executor = Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+                .setNameFormat("ontop-materializer-%d")
+                .setDaemon(true)
+                .build());
+        for (int i = 0; i < parallelism; i++)
+            executor.execute(this::runWorker);
+        executor.shutdown();
+    }
+
+    private void handleCompletion(EntryCompletion completion) throws OntopQueryAnsweringException, OntopConnectionException {
+        completedEntries++;
+        if (preserveOrder)
+            currentBufferIndex++;
+
+        IRI predicate = completion.entry.getName();
+        if (completion.exception instanceof Error) {
+            LOGGER.error("Problem materializing the class/property " + predicate);
+            close();
+            throw (Error) completion.exception;
+        }
+        if (completion.exception != null) {
+            if (canBeIncomplete) {
+                LOGGER.warn("Possibly incomplete class/property " + predicate + " (materialization problem).\n"
+                        + "Details: " + completion.exception);
+                possiblyIncompleteClassesAndProperties.add(predicate);
+            }
+            else {
+                LOGGER.error("Problem materializing the class/property " + predicate);
+                close();
+                if (completion.exception instanceof OntopConnectionException)
+                    throw (OntopConnectionException) completion.exception;
+                if (completion.exception instanceof OntopQueryAnsweringException)
+                    throw (OntopQueryAnsweringException) completion.exception;
+                throw (RuntimeException) completion.exception;
+            }
+        }
+
+        LOGGER.debug("Materialized {} ({} triples in {} ms)", predicate, completion.tripleCount, completion.elapsedMillis);
+        progressListener.ifPresent(l -> l.onVocabularyEntryMaterialized(predicate, completion.tripleCount,
+                completion.elapsedMillis, completion.exception == null));
+    }
+
+    /**
+     * Takes the next property/class until none are left, re-using the same connection.
+     *
+     * Whatever happens, a completion is posted for each property/class taken, so that the consumer never blocks.
+     */
+    private void runWorker() {
+        OntopConnection connection = null;
+        try {
+            int index;
+            while ((!isClosed) && (index = nextEntryIndex.getAndIncrement()) < entries.size()) {
+                VocabularyEntry entry = entries.get(index);
+                BlockingQueue<Object> buffer = buffers.get(preserveOrder ? index : 0);
+                long startTime = System.currentTimeMillis();
+                long tripleCount = 0;
+                Throwable exception = null;
+
+                try {
+                    if (connection == null)
+                        connection = queryEngine.getConnection();
+                    tripleCount = materializeEntry(entry, connection, buffer);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Throwable e) {
+                    exception = e;
+                }
+                buffer.put(new EntryCompletion(entry, tripleCount, System.currentTimeMillis() - startTime, exception));
+            }
+        } catch (InterruptedException e) {
+            // Closed by the consumer
+            Thread.currentThread().interrupt();
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (OntopConnectionException e) {
+                    LOGGER.warn("Non-critical exception while closing the connection: " + e);
+                }
+            }
+        }
+    }
+
+    private long materializeEntry(VocabularyEntry entry, OntopConnection connection, BlockingQueue<Object> buffer)
+            throws OntopQueryAnsweringException, OntopConnectionException, InterruptedException {
+        ConstructQuery query = inputQueryFactory.createConstructQuery(entry.getQuery());
+        long tripleCount = 0;
+        try (OntopStatement statement = connection.createStatement();
+             SimpleGraphResultSet resultSet = statement.execute(query)) {
+            while ((!isClosed) && resultSet.hasNext()) {
+                buffer.put(resultSet.next());
+                tripleCount++;
+            }
+        }
+        return tripleCount;
+    }
+
+    /**
+     * Stops the workers and releases their connections
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        if (executor != null)
+            executor.shutdownNow();
+    }
+
+    @Override
+    public long getTripleCountSoFar() {
+        return counter.get();
+    }
+
+    @Override
+    public ImmutableList<IRI> getPossiblyIncompleteRDFPropertiesAndClassesSoFar() {
+        return ImmutableList.copyOf(possiblyIncompleteClassesAndProperties);
+    }
+
+
+    private static class EntryCompletion {
+        private final VocabularyEntry entry;
+        private final long tripleCount;
+        private final long elapsedMillis;
+        @Nullable
+        private final Throwable exception;
+
+        private EntryCompletion(VocabularyEntry entry, long tripleCount, long elapsedMillis, @Nullable Throwable exception) {
+            this.entry = entry;
+            this.tripleCount = tripleCount;
+            this.elapsedMillis = elapsedMillis;
+            this.exception = exception;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.impl.DefaultOntopRDFMaterializer.VocabularyEntry;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.simple.SimpleRDF;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * The consumer must not block when a worker fails with an Error
+ */
+public class ParallelMaterializedGraphResultSetTest {
+
+    private static final RDF RDF_FACTORY = new SimpleRDF();
+    private static final IRI P1 = RDF_FACTORY.createIRI("http://example.org/p1");
+    private static final IRI P2 = RDF_FACTORY.createIRI("http://example.org/p2");
+
+    @Test(timeout = 10000)
+    public void testWorkerError() throws Exception {
+        checkWorkerError(false);
+    }
+
+    @Test(timeout = 10000)
+    public void testWorkerErrorIncompleteMaterialization() throws Exception {
+        checkWorkerError(true);
+    }
+
+    private void checkWorkerError(boolean canBeIncomplete) throws Exception {
+        MaterializationParams params = MaterializationParams.defaultBuilder()
+                .parallelism(2)
+                .enableIncompleteMaterialization(canBeIncomplete)
+                .build();
+
+        ParallelMaterializedGraphResultSet resultSet = new ParallelMaterializedGraphResultSet(
+                ImmutableMap.of(P1, new VocabularyEntry(P1, 2), P2, new VocabularyEntry(P2, 2)),
+                params, new FailingQueryEngine(), null);
+        try {
+            resultSet.hasNext();
+            fail("The error of the worker was expected");
+        } catch (WorkerError e) {
+            assertEquals(FailingQueryEngine.MESSAGE, e.getMessage());
+        } finally {
+            resultSet.close();
+        }
+    }
+
+    private static class WorkerError extends Error {
+        private WorkerError(String message) {
+            super(message);
+        }
+    }
+
+    private static class FailingQueryEngine implements OntopQueryEngine {
+        private static final String MESSAGE = "Simulated error of a worker";
+
+        @Override
+        public boolean connect() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public OntopConnection getConnection() {
+            throw new WorkerError(MESSAGE);
+        }
+    }
+}
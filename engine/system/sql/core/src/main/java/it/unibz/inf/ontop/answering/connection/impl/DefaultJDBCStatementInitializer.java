@@ -5,6 +5,7 @@ import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -22,6 +23,12 @@ public class DefaultJDBCStatementInitializer implements JDBCStatementInitializer
         return init(create(connection));
     }
 
+    @Override
+    public PreparedStatement createAndInitPreparedStatement(Connection connection, String sql) throws SQLException {
+        return (PreparedStatement) init(connection.prepareStatement(sql,
+                java.sql.ResultSet.TYPE_FORWARD_ONLY, java.sql.ResultSet.CONCUR_READ_ONLY));
+    }
+
     protected Statement create(Connection connection) throws SQLException {
         return connection.createStatement(java.sql.ResultSet.TYPE_FORWARD_ONLY, java.sql.ResultSet.CONCUR_READ_ONLY);
     }
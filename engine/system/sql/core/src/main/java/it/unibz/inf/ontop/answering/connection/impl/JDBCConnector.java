@@ -5,11 +5,15 @@ import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.connection.DBConnector;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
+import it.unibz.inf.ontop.answering.logging.QueryStage;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
 
 import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
@@ -40,6 +44,8 @@ public class JDBCConnector implements DBConnector {
     private final TermFactory termFactory;
     private final RDF rdfFactory;
     private final JDBCStatementInitializer statementInitializer;
+    private final QueryExecutionScheduler scheduler;
+    private final QueryMetrics metrics;
 
     @AssistedInject
     private JDBCConnector(@Assisted QueryReformulator queryReformulator,
@@ -49,6 +55,8 @@ public class JDBCConnector implements DBConnector {
                           SubstitutionFactory substitutionFactory,
                           RDF rdfFactory,
                           JDBCStatementInitializer statementInitializer,
+                          QueryExecutionScheduler scheduler,
+                          QueryMetrics metrics,
                           OntopSystemSQLSettings settings) {
         this.queryReformulator = queryReformulator;
         this.inputQueryFactory = inputQueryFactory;
@@ -58,6 +66,16 @@ public class JDBCConnector implements DBConnector {
         this.connectionPool = connectionPool;
         this.rdfFactory = rdfFactory;
         this.statementInitializer = statementInitializer;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        registerConnectionPoolGauges();
+    }
+
+    private void registerConnectionPoolGauges() {
+        metrics.registerGauge("ontop.jdbc.pool.active", () -> connectionPool.getMetrics().getActiveConnectionCount());
+        metrics.registerGauge("ontop.jdbc.pool.idle", () -> connectionPool.getMetrics().getIdleConnectionCount());
+        metrics.registerGauge("ontop.jdbc.pool.pending", () -> connectionPool.getMetrics().getPendingRequestCount());
+        metrics.registerGauge("ontop.jdbc.pool.max", () -> connectionPool.getMetrics().getMaxSize());
     }
 
     /**
@@ -65,6 +83,7 @@ public class JDBCConnector implements DBConnector {
      *
      * Needed by some in-memory DBs (such as H2).
      *
+     * Also pre-warms the connection pool (if enabled in the settings).
      */
     public boolean connect() throws OntopConnectionException {
         try {
@@ -73,7 +92,12 @@ public class JDBCConnector implements DBConnector {
             }
             if (settings.isPermanentDBConnectionEnabled()) {
                 localConnection = LocalJDBCConnectionUtils.createConnection(settings);
-                return localConnection != null;
+                if (localConnection == null)
+                    return false;
+            }
+            if (settings.isConnectionPoolPrewarmEnabled()) {
+                connectionPool.prewarm();
+                log.debug("Connection pool pre-warmed: {}", connectionPool.getMetrics());
             }
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
@@ -93,14 +117,24 @@ public class JDBCConnector implements DBConnector {
         connectionPool.close();
     }
 
-    public synchronized Connection getSQLPoolConnection() throws OntopConnectionException {
+    /**
+     * No lock: the connection pool is thread-safe
+     */
+    public Connection getSQLPoolConnection() throws OntopConnectionException {
         try {
-            return connectionPool.getConnection();
+            long start = System.nanoTime();
+            Connection connection = connectionPool.getConnection();
+            metrics.recordDuration(QueryStage.CONNECTION_WAIT, System.nanoTime() - start);
+            return connection;
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
         }
     }
 
+    public JDBCConnectionPoolMetrics getConnectionPoolMetrics() {
+        return connectionPool.getMetrics();
+    }
+
     /***
      * Returns an OntopConnection, the main object that a client should use to
      * access the query answering services of Quest. With the QuestConnection
@@ -119,7 +153,8 @@ public class JDBCConnector implements DBConnector {
     public OntopConnection getConnection() throws OntopConnectionException {
 
         return new SQLConnection(this, queryReformulator, getSQLPoolConnection(),
-                inputQueryFactory, termFactory, rdfFactory, substitutionFactory, statementInitializer, settings);
+                inputQueryFactory, termFactory, rdfFactory, substitutionFactory, statementInitializer, scheduler,
+                metrics, settings);
     }
 
 
@@ -0,0 +1,397 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.dbschema.Attribute;
+import it.unibz.inf.ontop.dbschema.DatabaseRelationDefinition;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.dbschema.RelationID;
+import it.unibz.inf.ontop.iq.planner.RelationStatistics;
+import it.unibz.inf.ontop.iq.planner.RelationStatisticsProvider;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the row count, and the number of distinct values and the fraction of NULLs of each attribute,
+ * without scanning the tables:
+ *   - the first SAMPLE_SIZE rows of the table are read. When the table has no more rows, the statistics are exact;
+ *   - otherwise, they are obtained from the catalog statistics maintained by the DBMS (PostgreSQL: pg_class
+ *     and pg_stats, Oracle: ALL_TABLES and ALL_TAB_COL_STATISTICS, SQL Server: sys.partitions for the row count,
+ *     other DBMSs: the table statistic of DatabaseMetaData.getIndexInfo() for the row count).
+ *     What is missing is estimated from the sample (Haas and Stokes' Duj1 estimator for the distinct values).
+ *     Without a row count in the catalog, no statistics are provided.
+ *
+ * The statistics of the relations of the mapping are collected in the background when the query answering
+ * is set up (see collectStatistics()), with a connection of a dedicated connection pool (closed afterwards).
+ * Until then, getStatistics() returns nothing: it never accesses the database.
+ */
+@Singleton
+public class JDBCRelationStatisticsProvider implements RelationStatisticsProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JDBCRelationStatisticsProvider.class);
+    static final int SAMPLE_SIZE = 10000;
+
+    private final Provider<JDBCConnectionPool> connectionPoolProvider;
+    private final Map<RelationID, RelationStatistics> cache = new ConcurrentHashMap<>();
+    // Collected or being collected
+    private final Set<RelationID> requestedRelations = ConcurrentHashMap.newKeySet();
+
+    @Inject
+    private JDBCRelationStatisticsProvider(Provider<JDBCConnectionPool> connectionPoolProvider) {
+        this.connectionPoolProvider = connectionPoolProvider;
+    }
+
+    @Override
+    public Optional<RelationStatistics> getStatistics(RelationDefinition relation) {
+        if (!(relation instanceof DatabaseRelationDefinition))
+            return Optional.empty();
+
+        return Optional.ofNullable(cache.get(((DatabaseRelationDefinition) relation).getID()));
+    }
+
+    @Override
+    public void collectStatistics(ImmutableSet<RelationDefinition> relations) {
+        ImmutableList<DatabaseRelationDefinition> newRelations = relations.stream()
+                .filter(r -> r instanceof DatabaseRelationDefinition)
+                .map(r -> (DatabaseRelationDefinition) r)
+                .filter(r -> requestedRelations.add(r.getID()))
+                .collect(ImmutableCollectors.toList());
+        if (newRelations.isEmpty())
+            return;
+
+        Thread thread = new Thread(() -> collectStatistics(newRelations), "ontop-relation-statistics");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void collectStatistics(ImmutableList<DatabaseRelationDefinition> relations) {
+        long start = System.currentTimeMillis();
+        try (JDBCConnectionPool connectionPool = connectionPoolProvider.get();
+             Connection connection = connectionPool.getConnection()) {
+            StatisticsSource source = getSource(connection);
+            for (DatabaseRelationDefinition relation : relations) {
+                try {
+                    Optional<RelationStatistics> statistics = collectStatistics(connection, source, relation);
+                    if (statistics.isPresent()) {
+                        LOGGER.debug("Statistics of {}: {}", relation.getID(), statistics.get());
+                        cache.put(relation.getID(), statistics.get());
+                    }
+                    else
+                        LOGGER.debug("No statistics for {} (no row count in the catalog)", relation.getID());
+                }
+                catch (SQLException e) {
+                    LOGGER.warn("Cannot collect the statistics of {}: {}", relation.getID(), e.getMessage());
+                }
+            }
+        }
+        catch (SQLException | RuntimeException e) {
+            LOGGER.warn("Cannot collect the relation statistics", e);
+        }
+        LOGGER.debug("Statistics of {} relations collected in {} ms", relations.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    private static Optional<RelationStatistics> collectStatistics(Connection connection, StatisticsSource source,
+                                                                  DatabaseRelationDefinition relation)
+            throws SQLException {
+        Sample sample = new Sample(connection, relation);
+
+        ImmutableList<Attribute> attributes = relation.getAttributes();
+        ImmutableMap.Builder<Integer, Long> distinctCountBuilder = ImmutableMap.builder();
+        ImmutableMap.Builder<Integer, Double> nullFractionBuilder = ImmutableMap.builder();
+
+        if (!sample.isTruncated()) {
+            // The whole table has been read
+            for (int i = 0; i < attributes.size(); i++) {
+                int attributeIndex = attributes.get(i).getIndex();
+                distinctCountBuilder.put(attributeIndex, (long) sample.getDistinctCount(i));
+                if (sample.getRowCount() > 0)
+                    nullFractionBuilder.put(attributeIndex, sample.getNullFraction(i));
+            }
+            return Optional.of(new RelationStatistics(sample.getRowCount(), distinctCountBuilder.build(),
+                    nullFractionBuilder.build()));
+        }
+
+        CatalogStatistics catalogStatistics = source.getStatistics(connection, relation);
+        if (catalogStatistics.rowCount == null)
+            return Optional.empty();
+
+        long rowCount = catalogStatistics.rowCount;
+        for (int i = 0; i < attributes.size(); i++) {
+            Attribute attribute = attributes.get(i);
+            String name = attribute.getID().getName();
+
+            Double nullFraction = catalogStatistics.nullFractions.get(name);
+            nullFractionBuilder.put(attribute.getIndex(), nullFraction != null ? nullFraction : sample.getNullFraction(i));
+
+            Long distinctCount = catalogStatistics.distinctCounts.get(name);
+            distinctCountBuilder.put(attribute.getIndex(), distinctCount != null
+                    ? distinctCount
+                    : sample.estimateDistinctCount(i, rowCount));
+        }
+        return Optional.of(new RelationStatistics(rowCount, distinctCountBuilder.build(),
+                nullFractionBuilder.build()));
+    }
+
+    private static StatisticsSource getSource(Connection connection) throws SQLException {
+        String productName = connection.getMetaData().getDatabaseProductName().toLowerCase();
+        if (productName.contains("postgresql"))
+            return JDBCRelationStatisticsProvider::getPostgresStatistics;
+        if (productName.contains("oracle"))
+            return JDBCRelationStatisticsProvider::getOracleStatistics;
+        if (productName.contains("microsoft sql server"))
+            return JDBCRelationStatisticsProvider::getSQLServerStatistics;
+        return JDBCRelationStatisticsProvider::getIndexInfoStatistics;
+    }
+
+    @FunctionalInterface
+    private interface StatisticsSource {
+        CatalogStatistics getStatistics(Connection connection, DatabaseRelationDefinition relation)
+                throws SQLException;
+    }
+
+    /**
+     * Only what is available in the catalog: the attributes are designated by their name
+     */
+    private static class CatalogStatistics {
+        @Nullable
+        private final Long rowCount;
+        private final Map<String, Long> distinctCounts = new HashMap<>();
+        private final Map<String, Double> nullFractions = new HashMap<>();
+
+        CatalogStatistics(@Nullable Long rowCount) {
+            this.rowCount = rowCount;
+        }
+    }
+
+    /**
+     * reltuples is negative (PostgreSQL 14+) or 0 when the table has not been analyzed.
+     * A negative n_distinct is the opposite of the ratio of distinct values to rows.
+     */
+    private static CatalogStatistics getPostgresStatistics(Connection connection,
+                                                           DatabaseRelationDefinition relation)
+            throws SQLException {
+        Long rowCount = null;
+        try (PreparedStatement statement = prepare(connection,
+                "SELECT c.reltuples FROM pg_catalog.pg_class c " +
+                        "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+                        "WHERE c.relname = ? AND n.nspname = COALESCE(?, current_schema())", relation);
+             ResultSet rs = statement.executeQuery()) {
+            if (rs.next() && rs.getDouble(1) > 0)
+                rowCount = (long) rs.getDouble(1);
+        }
+        CatalogStatistics statistics = new CatalogStatistics(rowCount);
+        if (rowCount == null)
+            return statistics;
+
+        try (PreparedStatement statement = prepare(connection,
+                "SELECT attname, n_distinct, null_frac FROM pg_catalog.pg_stats " +
+                        "WHERE tablename = ? AND schemaname = COALESCE(?, current_schema())", relation);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                String name = rs.getString(1);
+                double distinct = rs.getDouble(2);
+                if (distinct > 0)
+                    statistics.distinctCounts.put(name, (long) distinct);
+                else if (distinct < 0)
+                    statistics.distinctCounts.put(name, (long) Math.ceil(-distinct * rowCount));
+                statistics.nullFractions.put(name, rs.getDouble(3));
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * NUM_ROWS is NULL when the table has not been analyzed
+     */
+    private static CatalogStatistics getOracleStatistics(Connection connection,
+                                                         DatabaseRelationDefinition relation)
+            throws SQLException {
+        Long rowCount = null;
+        try (PreparedStatement statement = prepare(connection,
+                "SELECT NUM_ROWS FROM ALL_TABLES " +
+                        "WHERE TABLE_NAME = ? AND OWNER = COALESCE(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA'))",
+                relation);
+             ResultSet rs = statement.executeQuery()) {
+            if (rs.next()) {
+                long numRows = rs.getLong(1);
+                if (!rs.wasNull())
+                    rowCount = numRows;
+            }
+        }
+        CatalogStatistics statistics = new CatalogStatistics(rowCount);
+        if (rowCount == null)
+            return statistics;
+
+        try (PreparedStatement statement = prepare(connection,
+                "SELECT COLUMN_NAME, NUM_DISTINCT, NUM_NULLS FROM ALL_TAB_COL_STATISTICS " +
+                        "WHERE TABLE_NAME = ? AND OWNER = COALESCE(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA'))",
+                relation);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                String name = rs.getString(1);
+                long distinct = rs.getLong(2);
+                if (!rs.wasNull())
+                    statistics.distinctCounts.put(name, distinct);
+                long nulls = rs.getLong(3);
+                if (!rs.wasNull() && rowCount > 0)
+                    statistics.nullFractions.put(name, ((double) nulls) / rowCount);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * The distribution statistics (sys.stats) are only available through DBCC SHOW_STATISTICS:
+     * the attribute statistics are obtained from the sample.
+     */
+    private static CatalogStatistics getSQLServerStatistics(Connection connection,
+                                                            DatabaseRelationDefinition relation)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT SUM(rows) FROM sys.partitions WHERE object_id = OBJECT_ID(?) AND index_id IN (0, 1)")) {
+            statement.setString(1, relation.getID().getSQLRendering());
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    long rows = rs.getLong(1);
+                    if (!rs.wasNull())
+                        return new CatalogStatistics(rows);
+                }
+                return new CatalogStatistics(null);
+            }
+        }
+    }
+
+    /**
+     * Approximate values are accepted: the drivers are not expected to scan the table
+     */
+    private static CatalogStatistics getIndexInfoStatistics(Connection connection,
+                                                            DatabaseRelationDefinition relation)
+            throws SQLException {
+        RelationID id = relation.getID();
+        try (ResultSet rs = connection.getMetaData().getIndexInfo(null, id.getSchemaID().getName(),
+                id.getTableID().getName(), false, true)) {
+            while (rs.next()) {
+                if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    long cardinality = rs.getLong("CARDINALITY");
+                    if (!rs.wasNull() && cardinality > 0)
+                        return new CatalogStatistics(cardinality);
+                }
+            }
+        }
+        return new CatalogStatistics(null);
+    }
+
+    /**
+     * Parameters: table name and (possibly NULL) schema name
+     */
+    private static PreparedStatement prepare(Connection connection, String query,
+                                             DatabaseRelationDefinition relation) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(query);
+        RelationID id = relation.getID();
+        statement.setString(1, id.getTableID().getName());
+        String schema = id.getSchemaID().getName();
+        if (schema == null)
+            statement.setNull(2, Types.VARCHAR);
+        else
+            statement.setString(2, schema);
+        return statement;
+    }
+
+    /**
+     * The first SAMPLE_SIZE rows of the table (not a random sample: no portable way to obtain one
+     * without scanning the table)
+     */
+    private static class Sample {
+        private final int rowCount;
+        private final boolean isTruncated;
+        private final int[] nullCounts;
+        // For each attribute: number of occurrences of each non-null value
+        private final Map<Object, Integer>[] valueCounts;
+
+        @SuppressWarnings("unchecked")
+        Sample(Connection connection, DatabaseRelationDefinition relation) throws SQLException {
+            ImmutableList<Attribute> attributes = relation.getAttributes();
+            nullCounts = new int[attributes.size()];
+            valueCounts = new Map[attributes.size()];
+            for (int i = 0; i < attributes.size(); i++)
+                valueCounts[i] = new HashMap<>();
+
+            String query = "SELECT "
+                    + attributes.stream()
+                        .map(a -> a.getID().getSQLRendering())
+                        .collect(Collectors.joining(", "))
+                    + " FROM " + relation.getID().getSQLRendering();
+
+            int count = 0;
+            try (Statement statement = connection.createStatement()) {
+                // One more row for detecting whether the table has more rows than the sample
+                statement.setMaxRows(SAMPLE_SIZE + 1);
+                statement.setFetchSize(Math.min(SAMPLE_SIZE + 1, 1000));
+                try (ResultSet rs = statement.executeQuery(query)) {
+                    while (count < SAMPLE_SIZE && rs.next()) {
+                        for (int i = 0; i < attributes.size(); i++) {
+                            Object value = rs.getObject(i + 1);
+                            if (value == null)
+                                nullCounts[i]++;
+                            else
+                                valueCounts[i].merge(value, 1, Integer::sum);
+                        }
+                        count++;
+                    }
+                    isTruncated = count == SAMPLE_SIZE && rs.next();
+                }
+            }
+            rowCount = count;
+        }
+
+        int getRowCount() {
+            return rowCount;
+        }
+
+        boolean isTruncated() {
+            return isTruncated;
+        }
+
+        int getDistinctCount(int i) {
+            return valueCounts[i].size();
+        }
+
+        double getNullFraction(int i) {
+            return rowCount == 0 ? 0 : ((double) nullCounts[i]) / rowCount;
+        }
+
+        /**
+         * Duj1: n * d / (n - f1 + f1 * n / N), where n is the number of non-null values of the sample,
+         * d the number of distinct values and f1 the number of values occurring once,
+         * N the (estimated) number of non-null values of the table.
+         */
+        long estimateDistinctCount(int i, long tableRowCount) {
+            double n = rowCount - nullCounts[i];
+            if (n == 0)
+                return 0;
+            double tableValueCount = Math.max(n, tableRowCount * n / rowCount);
+            long d = valueCounts[i].size();
+            long f1 = valueCounts[i].values().stream()
+                    .filter(c -> c == 1)
+                    .count();
+            double estimate = n * d / (n - f1 + f1 * n / tableValueCount);
+            return (long) Math.min(tableValueCount, Math.max(d, estimate));
+        }
+    }
+}
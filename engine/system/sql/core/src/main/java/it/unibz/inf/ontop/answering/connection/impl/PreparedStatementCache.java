@@ -0,0 +1,91 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-connection cache of idle prepared statements, indexed by their SQL string.
+ *
+ * A statement is borrowed for the time of an execution (including the consumption of its result set)
+ * and released afterwards, so that concurrent statements of the same connection never share it.
+ * The least recently used idle statements are closed when the capacity is exceeded.
+ */
+public class PreparedStatementCache implements AutoCloseable {
+
+    private final Connection connection;
+    private final JDBCStatementInitializer statementInitializer;
+    private final int capacity;
+    private final LinkedHashMap<String, PreparedStatement> idleStatements;
+    private boolean isClosed;
+
+    public PreparedStatementCache(Connection connection, JDBCStatementInitializer statementInitializer, int capacity) {
+        this.connection = connection;
+        this.statementInitializer = statementInitializer;
+        this.capacity = capacity;
+        this.idleStatements = new LinkedHashMap<>(16, 0.75f, true);
+        this.isClosed = false;
+    }
+
+    public PreparedStatement borrow(String sql) throws SQLException {
+        PreparedStatement statement;
+        synchronized (this) {
+            statement = idleStatements.remove(sql);
+        }
+        if (statement != null && !statement.isClosed())
+            return statement;
+        return statementInitializer.createAndInitPreparedStatement(connection, sql);
+    }
+
+    public void release(String sql, PreparedStatement statement) throws SQLException {
+        if (statement.isClosed())
+            return;
+
+        List<PreparedStatement> toClose = new ArrayList<>();
+        synchronized (this) {
+            if (isClosed || capacity <= 0 || idleStatements.containsKey(sql))
+                toClose.add(statement);
+            else {
+                statement.clearParameters();
+                idleStatements.put(sql, statement);
+                Iterator<Map.Entry<String, PreparedStatement>> it = idleStatements.entrySet().iterator();
+                while (idleStatements.size() > capacity && it.hasNext()) {
+                    toClose.add(it.next().getValue());
+                    it.remove();
+                }
+            }
+        }
+        closeAll(toClose);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        List<PreparedStatement> toClose;
+        synchronized (this) {
+            isClosed = true;
+            toClose = new ArrayList<>(idleStatements.values());
+            idleStatements.clear();
+        }
+        closeAll(toClose);
+    }
+
+    private static void closeAll(List<PreparedStatement> statements) throws SQLException {
+        SQLException exception = null;
+        for (PreparedStatement statement : statements) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                exception = e;
+            }
+        }
+        if (exception != null)
+            throw exception;
+    }
+}
@@ -5,6 +5,8 @@ import java.sql.Connection;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
@@ -38,12 +40,17 @@ public class SQLConnection implements OntopConnection {
 	private boolean isClosed;
 	private final RDF rdfFactory;
 	private final JDBCStatementInitializer statementInitializer;
+	private final QueryExecutionScheduler scheduler;
+	private final QueryMetrics metrics;
+	private PreparedStatementCache preparedStatementCache;
 
 
 	public SQLConnection(JDBCConnector jdbcConnector, QueryReformulator queryProcessor, Connection connection,
 						 InputQueryFactory inputQueryFactory, TermFactory termFactory,
 						 RDF rdfFactory, SubstitutionFactory substitutionFactory,
 			 			 JDBCStatementInitializer statementInitializer,
+						 QueryExecutionScheduler scheduler,
+						 QueryMetrics metrics,
 						 OntopSystemSQLSettings settings) {
 		this.jdbcConnector = jdbcConnector;
 		this.queryProcessor = queryProcessor;
@@ -52,15 +59,26 @@ public class SQLConnection implements OntopConnection {
 		this.termFactory = termFactory;
 		this.substitutionFactory = substitutionFactory;
 		this.statementInitializer = statementInitializer;
+		this.scheduler = scheduler;
+		this.metrics = metrics;
 		this.settings = settings;
 		this.rdfFactory = rdfFactory;
 		this.isClosed = false;
+		this.preparedStatementCache = createPreparedStatementCache(connection);
+	}
+
+	private PreparedStatementCache createPreparedStatementCache(Connection connection) {
+		return new PreparedStatementCache(connection, statementInitializer, settings.getPreparedStatementCacheSize());
 	}
 
 	@Override
 	public void close() throws OntopConnectionException {
 		try {
-			conn.close();
+			try {
+				preparedStatementCache.close();
+			} finally {
+				conn.close();
+			}
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
@@ -72,11 +90,12 @@ public class SQLConnection implements OntopConnection {
 			if (conn.isClosed()) {
 				// Sometimes it gets dropped, reconnect
 				conn = jdbcConnector.getSQLPoolConnection();
+				preparedStatementCache = createPreparedStatementCache(conn);
 			}
 			return new SQLQuestStatement(
 					this.queryProcessor,
-					statementInitializer.createAndInitStatement(conn),
-					inputQueryFactory, termFactory, rdfFactory, substitutionFactory, settings);
+					statementInitializer.createAndInitStatement(conn), preparedStatementCache,
+					inputQueryFactory, termFactory, rdfFactory, substitutionFactory, scheduler, metrics, settings);
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
@@ -2,9 +2,12 @@ package it.unibz.inf.ontop.answering.connection.impl;
 
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
 import it.unibz.inf.ontop.answering.reformulation.input.*;
 import it.unibz.inf.ontop.answering.resultset.impl.*;
 import it.unibz.inf.ontop.answering.resultset.BooleanResultSet;
@@ -21,12 +24,14 @@ import it.unibz.inf.ontop.iq.UnaryIQTree;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
 import it.unibz.inf.ontop.iq.node.ConstructionNode;
 import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.model.term.DBConstant;
 import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import org.apache.commons.rdf.api.RDF;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.sql.ResultSet;
 
@@ -37,18 +42,29 @@ import java.sql.ResultSet;
 public class SQLQuestStatement extends QuestStatement {
 
     private final Statement sqlStatement;
+    private final PreparedStatementCache preparedStatementCache;
     private final TermFactory termFactory;
     private final RDF rdfFactory;
     private final SubstitutionFactory substitutionFactory;
     private final OntopSystemSQLSettings settings;
 
+    /**
+     * Prepared statement borrowed from the cache for the current execution (if any)
+     */
+    private volatile PreparedStatement currentPreparedStatement;
+    private volatile String currentPreparedSQL;
+
     public SQLQuestStatement(QueryReformulator queryProcessor, Statement sqlStatement,
+                             PreparedStatementCache preparedStatementCache,
                              InputQueryFactory inputQueryFactory,
                              TermFactory termFactory,
                              RDF rdfFactory, SubstitutionFactory substitutionFactory,
+                             QueryExecutionScheduler scheduler,
+                             QueryMetrics metrics,
                              OntopSystemSQLSettings settings) {
-        super(queryProcessor, inputQueryFactory);
+        super(queryProcessor, inputQueryFactory, scheduler, metrics, settings);
         this.sqlStatement = sqlStatement;
+        this.preparedStatementCache = preparedStatementCache;
         this.termFactory = termFactory;
         this.rdfFactory = rdfFactory;
         this.substitutionFactory = substitutionFactory;
@@ -120,16 +136,15 @@ public class SQLQuestStatement extends QuestStatement {
         IQ targetQuery = getExecutableQuery(inputQuery);
         try {
             String sql = extractSQLQuery(targetQuery);
+            ImmutableList<DBConstant> parameters = extractNativeNode(targetQuery).getParameters();
             String newsql = "SELECT count(*) FROM (" + sql + ") t1";
             if (!isCanceled()) {
                 try {
-
-                    java.sql.ResultSet set = sqlStatement.executeQuery(newsql);
-                    if (set.next()) {
-                        return set.getInt(1);
-                    } else {
-                        //throw new OBDAException("Tuple count failed due to empty result set.");
-                        return 0;
+                    // The result set is consumed here: the prepared statement (if any) is released right away
+                    try (ResultSet set = executeSQLQuery(newsql, parameters)) {
+                        return extractTupleCount(set);
+                    } finally {
+                        releasePreparedStatement();
                     }
                 } catch (SQLException e) {
                     throw new OntopQueryEvaluationException(e);
@@ -142,11 +157,24 @@ public class SQLQuestStatement extends QuestStatement {
         }
     }
 
+    private static int extractTupleCount(ResultSet set) throws SQLException {
+        if (set.next()) {
+            return set.getInt(1);
+        } else {
+            //throw new OBDAException("Tuple count failed due to empty result set.");
+            return 0;
+        }
+    }
+
     @Override
     public void close() throws OntopConnectionException {
         try {
-            if (sqlStatement != null)
-                sqlStatement.close();
+            try {
+                releasePreparedStatement();
+            } finally {
+                if (sqlStatement != null)
+                    sqlStatement.close();
+            }
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
         }
@@ -155,6 +183,9 @@ public class SQLQuestStatement extends QuestStatement {
     protected void cancelExecution() throws OntopQueryEvaluationException {
         try {
             sqlStatement.cancel();
+            PreparedStatement preparedStatement = currentPreparedStatement;
+            if (preparedStatement != null)
+                preparedStatement.cancel();
         } catch (SQLException e) {
             throw new OntopQueryEvaluationException(e);
         }
@@ -165,8 +196,9 @@ public class SQLQuestStatement extends QuestStatement {
             throws OntopQueryEvaluationException {
         try {
             String sqlQuery = extractSQLQuery(executableQuery);
+            NativeNode nativeNode = extractNativeNode(executableQuery);
             try {
-                java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
+                java.sql.ResultSet set = executeSQLQuery(sqlQuery, nativeNode.getParameters());
                 queryLogger.declareResultSetUnblockedAndSerialize();
                 return new SQLBooleanResultSet(set, queryLogger);
             } catch (SQLException e) {
@@ -188,11 +220,15 @@ public class SQLQuestStatement extends QuestStatement {
             ImmutableSortedSet<Variable> signature = nativeNode.getVariables();
             ImmutableMap<Variable, DBTermType> typeMap = nativeNode.getTypeMap();
             try {
-                java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
+                java.sql.ResultSet set = executeSQLQuery(sqlQuery, nativeNode.getParameters());
                 queryLogger.declareResultSetUnblockedAndSerialize();
-                return settings.isDistinctPostProcessingEnabled()
-                        ? new DistinctJDBCTupleResultSet(set, signature, typeMap, constructionNode, executableQuery.getProjectionAtom(), queryLogger, termFactory, substitutionFactory)
-                        : new JDBCTupleResultSet(set, signature, typeMap, constructionNode, executableQuery.getProjectionAtom(), queryLogger, termFactory, substitutionFactory);
+                if (!settings.isDistinctPostProcessingEnabled())
+                    return new JDBCTupleResultSet(set, signature, typeMap, constructionNode, executableQuery.getProjectionAtom(), queryLogger, termFactory, substitutionFactory);
+
+                return settings.isDistinctPostProcessingByFingerprintEnabled()
+                        ? new DistinctJDBCTupleResultSet(set, signature, typeMap, constructionNode, executableQuery.getProjectionAtom(), queryLogger, termFactory, substitutionFactory,
+                                settings.getDistinctPostProcessingMemoryBudget())
+                        : new DistinctJDBCTupleResultSet(set, signature, typeMap, constructionNode, executableQuery.getProjectionAtom(), queryLogger, termFactory, substitutionFactory);
             } catch (SQLException e) {
                 throw new OntopQueryEvaluationException(e);
             }
@@ -203,7 +239,7 @@ public class SQLQuestStatement extends QuestStatement {
     }
 
     @Override
-    protected SimpleGraphResultSet executeGraphQuery(ConstructQuery inputQuery, IQ executableQuery, boolean collectResults,
+    protected SimpleGraphResultSet executeGraphQuery(ConstructQuery inputQuery, IQ executableQuery,
                                                      QueryLogger queryLogger)
             throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException {
         TupleResultSet tuples;
@@ -214,7 +250,7 @@ public class SQLQuestStatement extends QuestStatement {
             ImmutableSortedSet<Variable> SQLSignature = nativeNode.getVariables();
             ImmutableMap<Variable, DBTermType> SQLTypeMap = nativeNode.getTypeMap();
             try {
-                ResultSet rs = sqlStatement.executeQuery(sqlQuery);
+                ResultSet rs = executeSQLQuery(sqlQuery, nativeNode.getParameters());
                 queryLogger.declareResultSetUnblockedAndSerialize();
                 tuples = new JDBCTupleResultSet(rs, SQLSignature, SQLTypeMap, constructionNode,
                         executableQuery.getProjectionAtom(), queryLogger, termFactory, substitutionFactory);
@@ -225,7 +261,52 @@ public class SQLQuestStatement extends QuestStatement {
             queryLogger.declareResultSetUnblockedAndSerialize();
             tuples = new EmptyTupleResultSet(executableQuery.getProjectionAtom().getArguments(), queryLogger);
         }
-        return new DefaultSimpleGraphResultSet(tuples, inputQuery.getConstructTemplate(), collectResults, queryLogger, termFactory, rdfFactory);
+        return new DefaultSimpleGraphResultSet(tuples, inputQuery.getConstructTemplate(), queryLogger, termFactory, rdfFactory);
+    }
+
+    /**
+     * Parameterized queries are executed through a prepared statement borrowed from the connection cache.
+     * It is released at the next execution or when the statement is closed, as its result set may still be consumed.
+     */
+    private ResultSet executeSQLQuery(String sqlQuery, ImmutableList<DBConstant> parameters) throws SQLException {
+        releasePreparedStatement();
+        if (parameters.isEmpty())
+            return sqlStatement.executeQuery(sqlQuery);
+
+        PreparedStatement preparedStatement = preparedStatementCache.borrow(sqlQuery);
+        currentPreparedSQL = sqlQuery;
+        currentPreparedStatement = preparedStatement;
+        preparedStatement.setQueryTimeout(sqlStatement.getQueryTimeout());
+        preparedStatement.setMaxRows(sqlStatement.getMaxRows());
+        bindParameters(preparedStatement, parameters);
+        return preparedStatement.executeQuery();
+    }
+
+    private static void bindParameters(PreparedStatement preparedStatement, ImmutableList<DBConstant> parameters)
+            throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            DBConstant parameter = parameters.get(i);
+            String value = parameter.getValue();
+            if (parameter.getType().getCategory() == DBTermType.Category.INTEGER) {
+                BigDecimal number = new BigDecimal(value);
+                try {
+                    preparedStatement.setLong(i + 1, number.longValueExact());
+                } catch (ArithmeticException e) {
+                    preparedStatement.setBigDecimal(i + 1, number);
+                }
+            }
+            else
+                preparedStatement.setString(i + 1, value);
+        }
+    }
+
+    private void releasePreparedStatement() throws SQLException {
+        PreparedStatement preparedStatement = currentPreparedStatement;
+        String sql = currentPreparedSQL;
+        currentPreparedStatement = null;
+        currentPreparedSQL = null;
+        if (preparedStatement != null)
+            preparedStatementCache.release(sql, preparedStatement);
     }
 
     private NativeNode extractNativeNode(IQ executableQuery) throws EmptyQueryException {
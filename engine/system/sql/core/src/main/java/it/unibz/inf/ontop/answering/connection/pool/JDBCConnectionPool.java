@@ -4,10 +4,20 @@ package it.unibz.inf.ontop.answering.connection.pool;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+/**
+ * Thread-safe: connections can be acquired concurrently without external synchronization.
+ */
 public interface JDBCConnectionPool extends AutoCloseable {
 
     @Override
     void close();
 
     Connection getConnection() throws SQLException;
+
+    /**
+     * Opens the initial connections of the pool, instead of waiting for the first requests
+     */
+    void prewarm() throws SQLException;
+
+    JDBCConnectionPoolMetrics getMetrics();
 }
@@ -0,0 +1,31 @@
+package it.unibz.inf.ontop.answering.connection.pool;
+
+/**
+ * Snapshot of the state of a connection pool.
+ *
+ * Wait times cover the whole acquisition of a connection, including the opening of a new physical connection.
+ */
+public interface JDBCConnectionPoolMetrics {
+
+    int getActiveConnectionCount();
+
+    int getIdleConnectionCount();
+
+    /**
+     * Requests waiting for a connection
+     */
+    int getPendingRequestCount();
+
+    int getMaxSize();
+
+    long getAcquisitionCount();
+
+    long getTotalWaitTimeMicros();
+
+    long getMaxWaitTimeMicros();
+
+    default double getAverageWaitTimeMicros() {
+        long count = getAcquisitionCount();
+        return count == 0 ? 0 : ((double) getTotalWaitTimeMicros()) / count;
+    }
+}
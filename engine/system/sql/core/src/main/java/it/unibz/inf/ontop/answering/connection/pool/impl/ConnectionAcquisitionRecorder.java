@@ -0,0 +1,46 @@
+package it.unibz.inf.ontop.answering.connection.pool.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the time spent waiting for connections, without introducing any lock
+ */
+class ConnectionAcquisitionRecorder {
+
+    @FunctionalInterface
+    interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    private final LongAdder acquisitionCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    Connection acquire(ConnectionSupplier supplier) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            acquisitionCount.increment();
+            totalWaitNanos.add(elapsed);
+            maxWaitNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    long getAcquisitionCount() {
+        return acquisitionCount.sum();
+    }
+
+    long getTotalWaitTimeMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.sum());
+    }
+
+    long getMaxWaitTimeMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get());
+    }
+}
@@ -3,11 +3,15 @@ package it.unibz.inf.ontop.answering.connection.pool.impl;
 import com.google.inject.Inject;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * NOT a singleton
@@ -16,6 +20,7 @@ public class HikariConnectionPool implements JDBCConnectionPool {
 
 
     private final HikariDataSource ds;
+    private final ConnectionAcquisitionRecorder recorder;
 
     @Inject
     private HikariConnectionPool(OntopSystemSQLSettings settings) {
@@ -31,6 +36,7 @@ public class HikariConnectionPool implements JDBCConnectionPool {
         config.setReadOnly(true);
 
         ds = new HikariDataSource(config);
+        recorder = new ConnectionAcquisitionRecorder();
     }
 
 
@@ -41,6 +47,29 @@ public class HikariConnectionPool implements JDBCConnectionPool {
 
     @Override
     public Connection getConnection() throws SQLException {
-        return ds.getConnection();
+        return recorder.acquire(ds::getConnection);
+    }
+
+    /**
+     * Hikari fills the pool up to the minimum number of idle connections in the background:
+     * borrowing them forces these connections to be opened before returning.
+     */
+    @Override
+    public void prewarm() throws SQLException {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < ds.getMinimumIdle(); i++)
+                connections.add(ds.getConnection());
+        } finally {
+            for (Connection connection : connections)
+                connection.close();
+        }
+    }
+
+    @Override
+    public JDBCConnectionPoolMetrics getMetrics() {
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        return new JDBCConnectionPoolMetricsImpl(pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getThreadsAwaitingConnection(), ds.getMaximumPoolSize(), recorder);
     }
 }
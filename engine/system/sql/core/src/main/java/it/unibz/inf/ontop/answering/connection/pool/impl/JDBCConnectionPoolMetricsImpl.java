@@ -0,0 +1,74 @@
+package it.unibz.inf.ontop.answering.connection.pool.impl;
+
+import com.google.common.base.MoreObjects;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
+
+class JDBCConnectionPoolMetricsImpl implements JDBCConnectionPoolMetrics {
+
+    private final int activeConnectionCount;
+    private final int idleConnectionCount;
+    private final int pendingRequestCount;
+    private final int maxSize;
+    private final long acquisitionCount;
+    private final long totalWaitTimeMicros;
+    private final long maxWaitTimeMicros;
+
+    JDBCConnectionPoolMetricsImpl(int activeConnectionCount, int idleConnectionCount, int pendingRequestCount,
+                                  int maxSize, ConnectionAcquisitionRecorder recorder) {
+        this.activeConnectionCount = activeConnectionCount;
+        this.idleConnectionCount = idleConnectionCount;
+        this.pendingRequestCount = pendingRequestCount;
+        this.maxSize = maxSize;
+        this.acquisitionCount = recorder.getAcquisitionCount();
+        this.totalWaitTimeMicros = recorder.getTotalWaitTimeMicros();
+        this.maxWaitTimeMicros = recorder.getMaxWaitTimeMicros();
+    }
+
+    @Override
+    public int getActiveConnectionCount() {
+        return activeConnectionCount;
+    }
+
+    @Override
+    public int getIdleConnectionCount() {
+        return idleConnectionCount;
+    }
+
+    @Override
+    public int getPendingRequestCount() {
+        return pendingRequestCount;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long getAcquisitionCount() {
+        return acquisitionCount;
+    }
+
+    @Override
+    public long getTotalWaitTimeMicros() {
+        return totalWaitTimeMicros;
+    }
+
+    @Override
+    public long getMaxWaitTimeMicros() {
+        return maxWaitTimeMicros;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("active", activeConnectionCount)
+                .add("idle", idleConnectionCount)
+                .add("pending", pendingRequestCount)
+                .add("maxSize", maxSize)
+                .add("acquisitions", acquisitionCount)
+                .add("averageWaitMicros", String.format("%.1f", getAverageWaitTimeMicros()))
+                .add("maxWaitMicros", maxWaitTimeMicros)
+                .toString();
+    }
+}
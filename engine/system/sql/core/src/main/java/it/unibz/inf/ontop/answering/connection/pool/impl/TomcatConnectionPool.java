@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.answering.connection.pool.impl;
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
 import org.apache.tomcat.jdbc.pool.DataSource;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
 import org.slf4j.Logger;
@@ -19,6 +20,7 @@ public class TomcatConnectionPool implements JDBCConnectionPool {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TomcatConnectionPool.class);
     private final DataSource tomcatPool;
+    private final ConnectionAcquisitionRecorder recorder;
 
     @Inject
     private TomcatConnectionPool(OntopSystemSQLSettings settings) {
@@ -63,6 +65,7 @@ public class TomcatConnectionPool implements JDBCConnectionPool {
                 + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer");
         tomcatPool = new DataSource();
         tomcatPool.setPoolProperties(poolProperties);
+        recorder = new ConnectionAcquisitionRecorder();
 
         LOGGER.debug("Connection Pool Properties:");
         LOGGER.debug("Start size: " + startPoolSize);
@@ -77,6 +80,20 @@ public class TomcatConnectionPool implements JDBCConnectionPool {
 
     @Override
     public Connection getConnection() throws SQLException {
-        return tomcatPool.getConnection();
+        return recorder.acquire(tomcatPool::getConnection);
+    }
+
+    /**
+     * By default, the pool (and its initial connections) is only created on the first request
+     */
+    @Override
+    public void prewarm() throws SQLException {
+        tomcatPool.createPool();
+    }
+
+    @Override
+    public JDBCConnectionPoolMetrics getMetrics() {
+        return new JDBCConnectionPoolMetricsImpl(tomcatPool.getActive(), tomcatPool.getIdle(),
+                tomcatPool.getWaitCount(), tomcatPool.getMaxActive(), recorder);
     }
 }
@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.answering.resultset.impl;
 
 import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.logging.QueryStage;
 import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
@@ -15,6 +16,10 @@ import java.util.NoSuchElementException;
 
 public abstract class AbstractTupleResultSet implements TupleResultSet {
 
+    // Only the conversion of one row out of CONVERSION_SAMPLING_INTERVAL is timed (System.nanoTime() is not free
+    // compared to the conversion of a row): the duration of the others is extrapolated
+    private static final int CONVERSION_SAMPLING_INTERVAL = 64;
+
     protected final ResultSet rs;
     protected final ImmutableList<Variable> signature;
     private final QueryLogger queryLogger;
@@ -31,6 +36,12 @@ public abstract class AbstractTupleResultSet implements TupleResultSet {
 
     private long rowCount = 0;
 
+    // Time spent in readCurrentRow() for the sampled rows, extrapolated and declared once the last row has been reached
+    private long convertedRowCount = 0;
+    private long sampledRowCount = 0;
+    private long sampledConversionNanos = 0;
+    private boolean isConversionDurationDeclared = false;
+
     AbstractTupleResultSet(ResultSet rs, ImmutableList<Variable> signature, QueryLogger queryLogger){
         this.rs = rs;
         this.signature = signature;
@@ -74,7 +85,14 @@ public abstract class AbstractTupleResultSet implements TupleResultSet {
         if (!foundNextElement) {
             throw new NoSuchElementException("No next OntopBindingSet in this TupleResultSet");
         }
-        return readCurrentRow();
+        if (convertedRowCount++ % CONVERSION_SAMPLING_INTERVAL != 0)
+            return readCurrentRow();
+
+        long conversionStart = System.nanoTime();
+        OntopBindingSet bindingSet = readCurrentRow();
+        sampledConversionNanos += System.nanoTime() - conversionStart;
+        sampledRowCount++;
+        return bindingSet;
     }
 
     @Override
@@ -90,11 +108,22 @@ public abstract class AbstractTupleResultSet implements TupleResultSet {
                 throw buildConnectionException(e);
             }
         }
-        if (!foundNextElement)
+        if (!foundNextElement) {
+            if (!isConversionDurationDeclared) {
+                isConversionDurationDeclared = true;
+                queryLogger.declareStageDuration(QueryStage.RESULT_CONVERSION, getConversionDuration());
+            }
             queryLogger.declareLastResultRetrievedAndSerialize(rowCount);
+        }
         return foundNextElement;
     }
 
+    private long getConversionDuration() {
+        return sampledRowCount == 0
+                ? 0
+                : (long) ((double) sampledConversionNanos / sampledRowCount * convertedRowCount);
+    }
+
     /* This method can be overwritten to ensure distinct rows */
     protected boolean moveCursor() throws SQLException, OntopConnectionException {
         return rs.next();
@@ -0,0 +1,114 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Row decoded by a RowDecoder: the values are stored by position in the signature (null when unbound).
+ *
+ * No binding is created unless requested, so reading the values through getConstant(...) does not allocate.
+ */
+class DecodedOntopBindingSet implements OntopBindingSet {
+
+    private final ImmutableList<Variable> signature;
+    private final RDFConstant[] values;
+
+    // LAZY
+    @Nullable
+    private String uuid;
+
+    DecodedOntopBindingSet(ImmutableList<Variable> signature, RDFConstant[] values) {
+        this.signature = signature;
+        this.values = values;
+    }
+
+    @Override
+    @Nonnull
+    public Iterator<OntopBinding> iterator() {
+        return getBindings().iterator();
+    }
+
+    @Override
+    public ImmutableList<OntopBinding> getBindings() {
+        return getBoundIndexes()
+                .mapToObj(i -> new OntopBindingImpl(signature.get(i), values[i]))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    @Override
+    public ImmutableList<RDFConstant> getValues() {
+        return getBoundIndexes()
+                .mapToObj(i -> values[i])
+                .collect(ImmutableCollectors.toList());
+    }
+
+    @Override
+    public ImmutableList<String> getBindingNames() {
+        return getBoundIndexes()
+                .mapToObj(i -> signature.get(i).getName())
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private IntStream getBoundIndexes() {
+        return IntStream.range(0, values.length)
+                .filter(i -> values[i] != null);
+    }
+
+    @Nullable
+    @Override
+    public RDFConstant getConstant(String name) {
+        int index = getIndex(name);
+        return index < 0 ? null : values[index];
+    }
+
+    @Nullable
+    @Override
+    public OntopBinding getBinding(String name) {
+        int index = getIndex(name);
+        return (index < 0 || values[index] == null)
+                ? null
+                : new OntopBindingImpl(signature.get(index), values[index]);
+    }
+
+    @Override
+    public boolean hasBinding(String bindingName) {
+        return getConstant(bindingName) != null;
+    }
+
+    /**
+     * Linear search: signatures are small
+     */
+    private int getIndex(String name) {
+        for (int i = 0; i < values.length; i++) {
+            if (signature.get(i).getName().equals(name))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public synchronized String getRowUUIDStr() {
+        if (uuid == null)
+            uuid = UUID.randomUUID().toString();
+        return uuid;
+    }
+
+    @Override
+    public String toString() {
+        return getBindings().stream()
+                .map(OntopBinding::toString)
+                .collect(joining(",", "[", "]"));
+    }
+}
@@ -22,6 +22,10 @@ package it.unibz.inf.ontop.answering.resultset.impl;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
@@ -32,26 +36,74 @@ import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 
+
 /**
  * Class to handle distinct in SPARQL query. Avoid returning duplicate rows.
  * See test case DistinctResultSetTest
+ *
+ * By default, the rows are kept in memory and compared exactly.
+ *
+ * When a memory budget is given (opt-in, see OntopReformulationSettings.DISTINCT_RESULTSET_FINGERPRINT),
+ * only their 128-bit fingerprints are kept, within the budget (beyond it, they are spilled to temporary files,
+ * see FingerprintSet). Rows with the same fingerprint are then considered as duplicates. The fingerprints are
+ * keyed hashes (two SipHash-2-4 with random keys drawn for each result set): the probability that a row is dropped
+ * because of a collision is about n^2 / 2^129 for n rows, whatever the data, and a collision
+ * cannot be crafted from the data (nor reproduced by running the query again).
  */
-
 public class DistinctJDBCTupleResultSet extends JDBCTupleResultSet implements TupleResultSet {
 
-    private Set<List<Object>> rowKeys;
+    private static final SecureRandom KEY_GENERATOR = new SecureRandom();
+
+    private final int columnCount;
+
+    // Exact mode
+    @Nullable
+    private final Set<List<Object>> rowKeys;
+
+    // Fingerprint mode
+    @Nullable
+    private final HashFunction hashFunction;
+    @Nullable
+    private final FingerprintSet fingerprints;
 
+    /**
+     * Exact mode: the rows are kept in memory
+     */
     public DistinctJDBCTupleResultSet(ResultSet rs, ImmutableSortedSet<Variable> sqlSignature, ImmutableMap<Variable, DBTermType> sqlTypes,
                                       ConstructionNode constructionNode,
                                       DistinctVariableOnlyDataAtom answerAtom, QueryLogger queryLogger, TermFactory termFactory,
                                       SubstitutionFactory substitutionFactory) {
 
         super(rs, sqlSignature, sqlTypes, constructionNode, answerAtom, queryLogger, termFactory, substitutionFactory);
-        rowKeys = new HashSet<>();
+        this.columnCount = sqlSignature.size();
+        this.rowKeys = new HashSet<>();
+        this.hashFunction = null;
+        this.fingerprints = null;
+    }
+
+    /**
+     * Fingerprint mode: the memory is bounded, but a row may be dropped because of a fingerprint collision
+     */
+    public DistinctJDBCTupleResultSet(ResultSet rs, ImmutableSortedSet<Variable> sqlSignature, ImmutableMap<Variable, DBTermType> sqlTypes,
+                                      ConstructionNode constructionNode,
+                                      DistinctVariableOnlyDataAtom answerAtom, QueryLogger queryLogger, TermFactory termFactory,
+                                      SubstitutionFactory substitutionFactory, long memoryBudget) {
+
+        super(rs, sqlSignature, sqlTypes, constructionNode, answerAtom, queryLogger, termFactory, substitutionFactory);
+        this.columnCount = sqlSignature.size();
+        this.rowKeys = null;
+        this.hashFunction = Hashing.concatenating(
+                Hashing.sipHash24(KEY_GENERATOR.nextLong(), KEY_GENERATOR.nextLong()),
+                Hashing.sipHash24(KEY_GENERATOR.nextLong(), KEY_GENERATOR.nextLong()));
+        this.fingerprints = new FingerprintSet(memoryBudget);
     }
 
     /**
@@ -59,35 +111,48 @@ public class DistinctJDBCTupleResultSet extends JDBCTupleResultSet implements Tu
      */
     @Override
     protected boolean moveCursor() throws SQLException, OntopConnectionException {
-        boolean foundFreshTuple;
-        List<Object> currentKey;
-        do{
-           foundFreshTuple = rs.next();
-           // Cannot use this in the while condition: limit case where the last row was a duplicate
-           if(!foundFreshTuple) {
-               break;
-           }
-           currentKey = computeTupleKey(rs);
-        } while(!rowKeys.add(currentKey));
-
-        return foundFreshTuple;
+        while (rs.next()) {
+            if (fingerprints == null ? isFreshRow() : isFreshFingerprint())
+                return true;
+        }
+        return false;
     }
 
-    private List<Object> computeTupleKey(ResultSet rs) throws OntopConnectionException {
+    private boolean isFreshRow() throws SQLException {
+        List<Object> rowKey = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++)
+            rowKey.add(rs.getObject(i));
+        return rowKeys.add(rowKey);
+    }
 
-        ArrayList rowKey = new ArrayList<>();
-        for (int i = 1; i <= getSignature().size();  i ++ ) {
-            rowKey.add(getRawObject(i)); //value
+    private boolean isFreshFingerprint() throws SQLException, OntopConnectionException {
+        Hasher hasher = hashFunction.newHasher();
+        for (int i = 1; i <= columnCount; i++) {
+            String value = rs.getString(i);
+            if (value == null)
+                hasher.putBoolean(false);
+            else
+                // The length prevents ambiguities between consecutive columns
+                hasher.putBoolean(true)
+                        .putInt(value.length())
+                        .putUnencodedChars(value);
+        }
+        HashCode hashCode = hasher.hash();
+        ByteBuffer bytes = ByteBuffer.wrap(hashCode.asBytes());
+        try {
+            return fingerprints.add(bytes.getLong(), bytes.getLong());
+        } catch (IOException e) {
+            throw buildConnectionException(e);
         }
-        return rowKey;
     }
 
-    Object getRawObject(int column) throws OntopConnectionException {
+    @Override
+    public void close() throws OntopConnectionException {
         try {
-            Object realValue = rs.getObject(column);
-            return realValue;
-        } catch (Exception e) {
-            throw buildConnectionException(e);
+            super.close();
+        } finally {
+            if (fingerprints != null)
+                fingerprints.close();
         }
     }
 }
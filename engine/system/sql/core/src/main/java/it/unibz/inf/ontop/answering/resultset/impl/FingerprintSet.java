@@ -0,0 +1,378 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Set of 128-bit fingerprints whose heap footprint is bounded by a memory budget.
+ *
+ * The fingerprints are kept in a primitive open-addressing table (linear probing, load factor of at most 1/2).
+ * Once the table has reached the maximal capacity allowed by the budget, its content is sorted and spilled
+ * to a temporary file (a run). Runs are memory-mapped and looked up by binary search.
+ *
+ * Merges cascade: the spilled runs are of level 0 and, when MAX_RUNS runs of the same level have accumulated,
+ * they are merged into one run of the next level. The number of runs is therefore logarithmic
+ * in the number of fingerprints. As a MappedByteBuffer is limited to 2 GB, large runs are mapped in several segments.
+ *
+ * The runs are unmapped (and their files deleted) when they are merged and on close.
+ *
+ * Not thread-safe (in particular, close() must not be called while add() is running).
+ */
+class FingerprintSet implements AutoCloseable {
+
+    private static final int ENTRY_SIZE = 2 * Long.BYTES;
+    private static final int MIN_CAPACITY = 16;
+    // Two arrays of 1 GB at most
+    private static final int MAX_CAPACITY = 1 << 27;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RUNS = 8;
+    // 1 GB
+    private static final int SEGMENT_ENTRIES = 1 << 26;
+
+    private final int maxCapacity;
+    private final int segmentEntries;
+    private long[] highs;
+    private long[] lows;
+    private int size;
+    // (0, 0) marks the empty slots
+    private boolean containsZero;
+
+    private final List<Run> runs = new ArrayList<>();
+
+    FingerprintSet(long memoryBudget) {
+        this(memoryBudget, SEGMENT_ENTRIES);
+    }
+
+    /**
+     * For tests (small segments)
+     */
+    FingerprintSet(long memoryBudget, int segmentEntries) {
+        this.segmentEntries = segmentEntries;
+        long maxSlots = Math.max(MIN_CAPACITY, Math.min(MAX_CAPACITY, memoryBudget / ENTRY_SIZE));
+        this.maxCapacity = Integer.highestOneBit((int) maxSlots);
+        allocate(Math.min(INITIAL_CAPACITY, maxCapacity));
+    }
+
+    /**
+     * Returns false if the fingerprint was already present
+     */
+    boolean add(long high, long low) throws IOException {
+        if (high == 0 && low == 0) {
+            if (containsZero)
+                return false;
+            containsZero = true;
+            return true;
+        }
+
+        int mask = highs.length - 1;
+        int index = getIndex(high, mask);
+        while (highs[index] != 0 || lows[index] != 0) {
+            if (highs[index] == high && lows[index] == low)
+                return false;
+            index = (index + 1) & mask;
+        }
+
+        for (Run run : runs) {
+            if (run.contains(high, low))
+                return false;
+        }
+
+        highs[index] = high;
+        lows[index] = low;
+        size++;
+
+        if (2 * size > highs.length) {
+            if (highs.length < maxCapacity)
+                rehash(2 * highs.length);
+            else
+                spill();
+        }
+        return true;
+    }
+
+    int getRunCount() {
+        return runs.size();
+    }
+
+    private static int getIndex(long high, int mask) {
+        // Fingerprints are already uniformly distributed
+        return (int) ((high ^ (high >>> 32)) & mask);
+    }
+
+    private void allocate(int capacity) {
+        highs = new long[capacity];
+        lows = new long[capacity];
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldHighs = highs;
+        long[] oldLows = lows;
+        allocate(newCapacity);
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldHighs.length; i++) {
+            if (oldHighs[i] != 0 || oldLows[i] != 0) {
+                int index = getIndex(oldHighs[i], mask);
+                while (highs[index] != 0 || lows[index] != 0)
+                    index = (index + 1) & mask;
+                highs[index] = oldHighs[i];
+                lows[index] = oldLows[i];
+            }
+        }
+    }
+
+    /**
+     * Writes the content of the table as a sorted run and clears the table.
+     * Sorts in place (after compaction) so as to stay within the budget.
+     */
+    private void spill() throws IOException {
+        int count = 0;
+        for (int i = 0; i < highs.length; i++) {
+            if (highs[i] != 0 || lows[i] != 0) {
+                highs[count] = highs[i];
+                lows[count] = lows[i];
+                count++;
+            }
+        }
+        sort(highs, lows, 0, count - 1);
+
+        Path path = Files.createTempFile("ontop-distinct-", ".run");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            for (int i = 0; i < count; i++) {
+                out.writeLong(highs[i]);
+                out.writeLong(lows[i]);
+            }
+        }
+        runs.add(new Run(path, count, 0, segmentEntries));
+
+        Arrays.fill(highs, 0);
+        Arrays.fill(lows, 0);
+        size = 0;
+
+        for (int level = 0; ; level++) {
+            int currentLevel = level;
+            List<Run> levelRuns = runs.stream()
+                    .filter(r -> r.level == currentLevel)
+                    .collect(Collectors.toList());
+            if (levelRuns.size() < MAX_RUNS)
+                break;
+            mergeRuns(levelRuns, level + 1);
+        }
+    }
+
+    /**
+     * K-way merge into a run of the given level. The runs are disjoint, so no duplicate has to be removed.
+     */
+    private void mergeRuns(List<Run> mergedRuns, int level) throws IOException {
+        long totalCount = mergedRuns.stream().mapToLong(r -> r.count).sum();
+
+        PriorityQueue<RunCursor> queue = new PriorityQueue<>();
+        for (Run run : mergedRuns) {
+            RunCursor cursor = new RunCursor(run);
+            if (cursor.advance())
+                queue.add(cursor);
+        }
+
+        Path path = Files.createTempFile("ontop-distinct-", ".run");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            while (!queue.isEmpty()) {
+                RunCursor cursor = queue.poll();
+                out.writeLong(cursor.high);
+                out.writeLong(cursor.low);
+                if (cursor.advance())
+                    queue.add(cursor);
+            }
+        }
+        for (Run run : mergedRuns)
+            run.release();
+        runs.removeAll(mergedRuns);
+        runs.add(new Run(path, totalCount, level, segmentEntries));
+    }
+
+    @Override
+    public void close() {
+        for (Run run : runs)
+            run.release();
+        runs.clear();
+    }
+
+    private static int compare(long high1, long low1, long high2, long low2) {
+        int highComparison = Long.compare(high1, high2);
+        return highComparison != 0 ? highComparison : Long.compare(low1, low2);
+    }
+
+    /**
+     * Quicksort of the pairs (highs[i], lows[i]), bounds included
+     */
+    private static void sort(long[] highs, long[] lows, int from, int to) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            long pivotHigh = highs[middle];
+            long pivotLow = lows[middle];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (compare(highs[i], lows[i], pivotHigh, pivotLow) < 0)
+                    i++;
+                while (compare(highs[j], lows[j], pivotHigh, pivotLow) > 0)
+                    j--;
+                if (i <= j) {
+                    swap(highs, i, j);
+                    swap(lows, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            // Recursion on the smaller part, iteration on the larger one
+            if (j - from < to - i) {
+                sort(highs, lows, from, j);
+                from = i;
+            }
+            else {
+                sort(highs, lows, i, to);
+                to = j;
+            }
+        }
+    }
+
+    private static void swap(long[] array, int i, int j) {
+        long tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+
+    /**
+     * Releases the mapping without waiting for the buffer to be garbage-collected
+     * (otherwise, the address space and, on some platforms, the file remain held).
+     * The buffer must not be accessed anymore.
+     *
+     * Best effort: if the cleaner of the JVM is not accessible, the buffer is left to the garbage collector.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                // Java 9+
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            }
+            catch (NoSuchMethodException e) {
+                // Java 8
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null)
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                return;
+            }
+            Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            invokeCleaner.invoke(unsafeField.get(null), buffer);
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            // Left to the garbage collector
+        }
+    }
+
+
+    private static class Run {
+        private final Path path;
+        private final long count;
+        private final int level;
+        private final int segmentEntries;
+        private final MappedByteBuffer[] segments;
+
+        private Run(Path path, long count, int level, int segmentEntries) throws IOException {
+            this.path = path;
+            this.count = count;
+            this.level = level;
+            this.segmentEntries = segmentEntries;
+            this.segments = new MappedByteBuffer[(int) ((count + segmentEntries - 1) / segmentEntries)];
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                for (int i = 0; i < segments.length; i++) {
+                    long first = (long) i * segmentEntries;
+                    long entries = Math.min(segmentEntries, count - first);
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                            first * ENTRY_SIZE, entries * ENTRY_SIZE);
+                }
+            }
+        }
+
+        private long getHigh(long i) {
+            return segments[(int) (i / segmentEntries)].getLong((int) (i % segmentEntries) * ENTRY_SIZE);
+        }
+
+        private long getLow(long i) {
+            return segments[(int) (i / segmentEntries)].getLong((int) (i % segmentEntries) * ENTRY_SIZE + Long.BYTES);
+        }
+
+        private boolean contains(long high, long low) {
+            long from = 0;
+            long to = count - 1;
+            while (from <= to) {
+                long middle = (from + to) >>> 1;
+                int comparison = compare(getHigh(middle), getLow(middle), high, low);
+                if (comparison < 0)
+                    from = middle + 1;
+                else if (comparison > 0)
+                    to = middle - 1;
+                else
+                    return true;
+            }
+            return false;
+        }
+
+        private void release() {
+            for (MappedByteBuffer segment : segments)
+                unmap(segment);
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Temporary file: not critical
+            }
+        }
+    }
+
+    private static class RunCursor implements Comparable<RunCursor> {
+        private final Run run;
+        private long position;
+        private long high;
+        private long low;
+
+        private RunCursor(Run run) {
+            this.run = run;
+            this.position = -1;
+        }
+
+        /**
+         * Returns false when the end of the run is reached
+         */
+        private boolean advance() {
+            position++;
+            if (position >= run.count)
+                return false;
+            high = run.getHigh(position);
+            low = run.getLow(position);
+            return true;
+        }
+
+        @Override
+        public int compareTo(RunCursor other) {
+            return compare(high, low, other.high, other.low);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.answering.resultset.impl;
 
 import com.google.common.collect.*;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.iq.node.ConstructionNode;
@@ -15,6 +16,7 @@ import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Iterator;
+import java.util.Optional;
 
 public class JDBCTupleResultSet extends AbstractTupleResultSet implements TupleResultSet {
 
@@ -23,6 +25,8 @@ public class JDBCTupleResultSet extends AbstractTupleResultSet implements TupleR
     private final ImmutableSubstitution<ImmutableTerm> sparqlVar2Term;
     private final SubstitutionFactory substitutionFactory;
     private final TermFactory termFactory;
+    // Empty if the substitution cannot be compiled
+    private final Optional<RowDecoder> rowDecoder;
 
     public JDBCTupleResultSet(ResultSet rs,
                               ImmutableSortedSet<Variable> sqlSignature,
@@ -37,11 +41,20 @@ public class JDBCTupleResultSet extends AbstractTupleResultSet implements TupleR
         this.substitutionFactory = substitutionFactory;
         this.termFactory = termFactory;
         this.sparqlVar2Term = constructionNode.getSubstitution();
+        this.rowDecoder = RowDecoder.compile(signature, sqlSignature, sqlTypeMap, sparqlVar2Term, termFactory,
+                substitutionFactory);
     }
 
 
     @Override
-    protected SQLOntopBindingSet readCurrentRow() throws OntopConnectionException {
+    protected OntopBindingSet readCurrentRow() throws OntopConnectionException {
+        if (rowDecoder.isPresent()) {
+            try {
+                return new DecodedOntopBindingSet(signature, rowDecoder.get().decode(rs));
+            } catch (SQLException e) {
+                throw buildConnectionException(e);
+            }
+        }
 
         //builder (+loop) in order to throw checked exception
         final ImmutableMap.Builder<Variable, Constant> builder = ImmutableMap.builder();
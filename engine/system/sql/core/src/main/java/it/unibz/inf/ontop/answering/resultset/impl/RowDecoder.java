@@ -0,0 +1,344 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import it.unibz.inf.ontop.answering.resultset.impl.SQLOntopBindingSet.InvalidConstantTypeInResultException;
+import it.unibz.inf.ontop.answering.resultset.impl.SQLOntopBindingSet.InvalidTermAsResultException;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBTypeConversionFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.ObjectStringTemplateFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.R2RMLIRISafeEncodeFunctionSymbol;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Converts a JDBC row into RDF constants.
+ *
+ * Compiled once per query from the substitution of the root construction node, so that no
+ * substitution composition is needed per row. IRI templates, RDF(...) terms with a constant term type
+ * and simple casts are evaluated directly on the values. Other functional terms are simplified
+ * after substituting their variables, as SQLOntopBindingSet does for the complete term.
+ *
+ * When the substitution cannot be compiled (see {@link #compile}),
+ * the regular simplification-based path (SQLOntopBindingSet) must be used.
+ */
+public class RowDecoder {
+
+    private final ImmutableList<Variable> signature;
+    private final ImmutableList<TermEvaluator> evaluators;
+    private final ImmutableList<Integer> usedColumns;
+    private final ImmutableList<DBTermType> columnTypes;
+    private final TermFactory termFactory;
+
+    private RowDecoder(ImmutableList<Variable> signature, ImmutableList<TermEvaluator> evaluators,
+                       ImmutableList<Integer> usedColumns, ImmutableList<DBTermType> columnTypes,
+                       TermFactory termFactory) {
+        this.signature = signature;
+        this.evaluators = evaluators;
+        this.usedColumns = usedColumns;
+        this.columnTypes = columnTypes;
+        this.termFactory = termFactory;
+    }
+
+    /**
+     * Returns empty if some term refers to a variable not provided by the SQL query
+     */
+    public static Optional<RowDecoder> compile(ImmutableList<Variable> signature,
+                                               ImmutableSortedSet<Variable> sqlSignature,
+                                               ImmutableMap<Variable, DBTermType> sqlTypeMap,
+                                               ImmutableSubstitution<ImmutableTerm> sparqlVar2Term,
+                                               TermFactory termFactory,
+                                               SubstitutionFactory substitutionFactory) {
+        ImmutableList<Variable> sqlVariables = sqlSignature.asList();
+        if (!sqlTypeMap.keySet().containsAll(sqlVariables))
+            return Optional.empty();
+
+        Compiler compiler = new Compiler(sqlVariables, termFactory, substitutionFactory);
+        ImmutableList.Builder<TermEvaluator> evaluatorBuilder = ImmutableList.builder();
+        for (Variable v : signature) {
+            Optional<TermEvaluator> evaluator = compiler.compile(sparqlVar2Term.apply(v));
+            if (!evaluator.isPresent())
+                return Optional.empty();
+            evaluatorBuilder.add(evaluator.get());
+        }
+
+        ImmutableList<Integer> usedColumns = IntStream.range(0, sqlVariables.size())
+                .filter(i -> compiler.usedColumns[i])
+                .boxed()
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableList<DBTermType> columnTypes = sqlVariables.stream()
+                .map(sqlTypeMap::get)
+                .collect(ImmutableCollectors.toList());
+
+        return Optional.of(new RowDecoder(signature, evaluatorBuilder.build(), usedColumns, columnTypes, termFactory));
+    }
+
+    /**
+     * Reads the current row of the result set.
+     * Returns the values in the order of the signature (null when unbound).
+     */
+    public RDFConstant[] decode(ResultSet rs) throws SQLException {
+        Constant[] row = new Constant[columnTypes.size()];
+        for (int i : usedColumns) {
+            String jdbcValue = rs.getString(i + 1);
+            row[i] = (jdbcValue == null)
+                    ? termFactory.getNullConstant()
+                    : termFactory.getDBConstant(jdbcValue, columnTypes.get(i));
+        }
+
+        RDFConstant[] values = new RDFConstant[evaluators.size()];
+        for (int i = 0; i < evaluators.size(); i++)
+            values[i] = convertIntoRDFConstant(evaluators.get(i).evaluate(row));
+        return values;
+    }
+
+    /**
+     * Returns null for NULL. Same checks as SQLOntopBindingSet.
+     */
+    private static RDFConstant convertIntoRDFConstant(ImmutableTerm term) {
+        if (term instanceof RDFConstant)
+            return (RDFConstant) term;
+        if (term instanceof Constant) {
+            Constant constant = (Constant) term;
+            if (constant.isNull())
+                return null;
+            if (constant instanceof DBConstant)
+                throw new InvalidConstantTypeInResultException(
+                        constant + "is a DB constant. But a binding cannot have a DB constant as value");
+            throw new InvalidConstantTypeInResultException("Unexpected constant type for " + constant);
+        }
+        throw new InvalidTermAsResultException(term);
+    }
+
+
+    /**
+     * Evaluates a term on a row. The result is expected to be a constant, but may not be (invalid term).
+     */
+    private interface TermEvaluator {
+        ImmutableTerm evaluate(Constant[] row);
+    }
+
+
+    private static class Compiler {
+        private final ImmutableList<Variable> sqlVariables;
+        private final TermFactory termFactory;
+        private final SubstitutionFactory substitutionFactory;
+        private final boolean[] usedColumns;
+
+        private Compiler(ImmutableList<Variable> sqlVariables, TermFactory termFactory,
+                         SubstitutionFactory substitutionFactory) {
+            this.sqlVariables = sqlVariables;
+            this.termFactory = termFactory;
+            this.substitutionFactory = substitutionFactory;
+            this.usedColumns = new boolean[sqlVariables.size()];
+        }
+
+        private Optional<TermEvaluator> compile(ImmutableTerm term) {
+            if (term instanceof Variable) {
+                int index = sqlVariables.indexOf(term);
+                if (index < 0)
+                    return Optional.empty();
+                usedColumns[index] = true;
+                return Optional.of(row -> row[index]);
+            }
+            if (term instanceof Constant) {
+                ImmutableTerm constant = term.simplify();
+                return Optional.of(row -> constant);
+            }
+
+            ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+            Optional<GenericEvaluator> optionalFallback = compileGeneric(functionalTerm);
+            if (!optionalFallback.isPresent())
+                return Optional.empty();
+            GenericEvaluator fallback = optionalFallback.get();
+
+            FunctionSymbol functionSymbol = functionalTerm.getFunctionSymbol();
+
+            if (functionSymbol instanceof RDFTermFunctionSymbol) {
+                Optional<RDFTermType> rdfTermType = Optional.of(functionalTerm.getTerm(1))
+                        .filter(t -> t instanceof RDFTermTypeConstant)
+                        .map(t -> ((RDFTermTypeConstant) t).getRDFTermType())
+                        .filter(t -> !t.isAbstract());
+                if (rdfTermType.isPresent())
+                    return compile(functionalTerm.getTerm(0))
+                            .map(e -> new RDFTermEvaluator(e, rdfTermType.get(), fallback, termFactory));
+            }
+            else if (functionSymbol instanceof ObjectStringTemplateFunctionSymbol) {
+                FunctionSymbol encodeFunctionSymbol = termFactory.getDBFunctionSymbolFactory().getR2RMLIRISafeEncode();
+                if (encodeFunctionSymbol instanceof R2RMLIRISafeEncodeFunctionSymbol) {
+                    ImmutableList<TermEvaluator> argEvaluators = compileArguments(functionalTerm.getTerms());
+                    if (argEvaluators.size() == functionalTerm.getArity())
+                        return Optional.of(new TemplateEvaluator(
+                                ((ObjectStringTemplateFunctionSymbol) functionSymbol).getTemplate(),
+                                argEvaluators,
+                                (R2RMLIRISafeEncodeFunctionSymbol) encodeFunctionSymbol,
+                                fallback, termFactory));
+                }
+            }
+            else if ((functionSymbol instanceof DBTypeConversionFunctionSymbol)
+                    && ((DBTypeConversionFunctionSymbol) functionSymbol).isSimple()
+                    && (!((DBTypeConversionFunctionSymbol) functionSymbol).isTemporary())) {
+                DBTermType targetType = ((DBTypeConversionFunctionSymbol) functionSymbol).getTargetType();
+                return compile(functionalTerm.getTerm(0))
+                        .map(e -> new SimpleCastEvaluator(e, targetType, fallback, termFactory));
+            }
+
+            return Optional.of(fallback);
+        }
+
+        private Optional<GenericEvaluator> compileGeneric(ImmutableFunctionalTerm functionalTerm) {
+            ImmutableList<Variable> variables = functionalTerm.getVariableStream()
+                    .distinct()
+                    .collect(ImmutableCollectors.toList());
+
+            ImmutableList<Integer> indexes = variables.stream()
+                    .map(sqlVariables::indexOf)
+                    .collect(ImmutableCollectors.toList());
+            if (indexes.contains(-1))
+                return Optional.empty();
+
+            indexes.forEach(i -> usedColumns[i] = true);
+            return Optional.of(new GenericEvaluator(functionalTerm, variables, indexes, substitutionFactory));
+        }
+
+        /**
+         * Stops at the first argument that cannot be compiled
+         */
+        private ImmutableList<TermEvaluator> compileArguments(ImmutableList<? extends ImmutableTerm> arguments) {
+            ImmutableList.Builder<TermEvaluator> builder = ImmutableList.builder();
+            for (ImmutableTerm argument : arguments) {
+                Optional<TermEvaluator> evaluator = compile(argument);
+                if (!evaluator.isPresent())
+                    break;
+                builder.add(evaluator.get());
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Fallback: same behavior as SQLOntopBindingSet, but restricted to a sub-term
+     */
+    private static class GenericEvaluator implements TermEvaluator {
+        private final ImmutableFunctionalTerm term;
+        private final ImmutableList<Variable> variables;
+        private final ImmutableList<Integer> indexes;
+        private final SubstitutionFactory substitutionFactory;
+
+        private GenericEvaluator(ImmutableFunctionalTerm term, ImmutableList<Variable> variables,
+                                 ImmutableList<Integer> indexes, SubstitutionFactory substitutionFactory) {
+            this.term = term;
+            this.variables = variables;
+            this.indexes = indexes;
+            this.substitutionFactory = substitutionFactory;
+        }
+
+        @Override
+        public ImmutableTerm evaluate(Constant[] row) {
+            ImmutableMap.Builder<Variable, Constant> builder = ImmutableMap.builder();
+            for (int i = 0; i < variables.size(); i++)
+                builder.put(variables.get(i), row[indexes.get(i)]);
+
+            return substitutionFactory.getSubstitution(builder.build()).apply(term).simplify();
+        }
+    }
+
+    private static class RDFTermEvaluator implements TermEvaluator {
+        private final TermEvaluator lexicalEvaluator;
+        private final RDFTermType rdfTermType;
+        private final GenericEvaluator fallback;
+        private final TermFactory termFactory;
+
+        private RDFTermEvaluator(TermEvaluator lexicalEvaluator, RDFTermType rdfTermType, GenericEvaluator fallback,
+                                 TermFactory termFactory) {
+            this.lexicalEvaluator = lexicalEvaluator;
+            this.rdfTermType = rdfTermType;
+            this.fallback = fallback;
+            this.termFactory = termFactory;
+        }
+
+        @Override
+        public ImmutableTerm evaluate(Constant[] row) {
+            ImmutableTerm lexicalTerm = lexicalEvaluator.evaluate(row);
+            if ((lexicalTerm instanceof DBConstant))
+                return termFactory.getRDFConstant(((DBConstant) lexicalTerm).getValue(), rdfTermType);
+            // NULL lexical value with a non-null term type: not expected, let the simplification complain
+            return fallback.evaluate(row);
+        }
+    }
+
+    private static class TemplateEvaluator implements TermEvaluator {
+        private final String template;
+        private final ImmutableList<TermEvaluator> argEvaluators;
+        private final R2RMLIRISafeEncodeFunctionSymbol encoder;
+        private final GenericEvaluator fallback;
+        private final TermFactory termFactory;
+
+        private TemplateEvaluator(String template, ImmutableList<TermEvaluator> argEvaluators,
+                                  R2RMLIRISafeEncodeFunctionSymbol encoder, GenericEvaluator fallback,
+                                  TermFactory termFactory) {
+            this.template = template;
+            this.argEvaluators = argEvaluators;
+            this.encoder = encoder;
+            this.fallback = fallback;
+            this.termFactory = termFactory;
+        }
+
+        @Override
+        public ImmutableTerm evaluate(Constant[] row) {
+            StringBuilder sb = new StringBuilder(template.length() + 16 * argEvaluators.size());
+            int beginIndex = 0;
+            for (TermEvaluator argEvaluator : argEvaluators) {
+                ImmutableTerm argument = argEvaluator.evaluate(row);
+                if (!(argument instanceof DBConstant)) {
+                    if ((argument instanceof Constant) && ((Constant) argument).isNull())
+                        return termFactory.getNullConstant();
+                    return fallback.evaluate(row);
+                }
+                int endIndex = template.indexOf("{}", beginIndex);
+                sb.append(template, beginIndex, endIndex)
+                        .append(encoder.encode(((DBConstant) argument).getValue()));
+                beginIndex = endIndex + 2;
+            }
+            sb.append(template, beginIndex, template.length());
+            return termFactory.getDBStringConstant(sb.toString());
+        }
+    }
+
+    private static class SimpleCastEvaluator implements TermEvaluator {
+        private final TermEvaluator argEvaluator;
+        private final DBTermType targetType;
+        private final GenericEvaluator fallback;
+        private final TermFactory termFactory;
+
+        private SimpleCastEvaluator(TermEvaluator argEvaluator, DBTermType targetType, GenericEvaluator fallback,
+                                    TermFactory termFactory) {
+            this.argEvaluator = argEvaluator;
+            this.targetType = targetType;
+            this.fallback = fallback;
+            this.termFactory = termFactory;
+        }
+
+        @Override
+        public ImmutableTerm evaluate(Constant[] row) {
+            ImmutableTerm argument = argEvaluator.evaluate(row);
+            if (argument instanceof DBConstant)
+                return termFactory.getDBConstant(((DBConstant) argument).getValue(), targetType);
+            if ((argument instanceof Constant) && ((Constant) argument).isNull())
+                return termFactory.getNullConstant();
+            return fallback.evaluate(row);
+        }
+    }
+}
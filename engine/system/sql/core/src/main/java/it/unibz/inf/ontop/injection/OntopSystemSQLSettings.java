@@ -13,9 +13,18 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
     int getConnectionTimeout();
     int getConnectionPoolInitialSize();
     int getConnectionPoolMaxSize();
+    /**
+     * Opens the initial connections of the pool when connecting, instead of on the first queries
+     */
+    boolean isConnectionPoolPrewarmEnabled();
 
     int getFetchSize();
 
+    /**
+     * Maximum number of idle prepared statements kept per connection
+     */
+    int getPreparedStatementCacheSize();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -26,9 +35,11 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
     // Connection timeout (in ms)
     String CONNECTION_TIMEOUT = "jdbc.pool.connectionTimeout";
     String KEEP_ALIVE = "jdbc.pool.keepAlive";
+    String PREWARM_POOL = "jdbc.pool.prewarm";
 
     /*
      * If <= 0, the fetch size is ignored
      */
     String FETCH_SIZE = "jdbc.fetchSize";
+    String PREPARED_STATEMENT_CACHE_SIZE = "jdbc.preparedStatementCacheSize";
 }
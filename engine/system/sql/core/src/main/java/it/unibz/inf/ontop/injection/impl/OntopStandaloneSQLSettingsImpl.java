@@ -33,6 +33,16 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return getRequiredBoolean(DISTINCT_RESULTSET);
     }
 
+    @Override
+    public boolean isDistinctPostProcessingByFingerprintEnabled() {
+        return getRequiredBoolean(DISTINCT_RESULTSET_FINGERPRINT);
+    }
+
+    @Override
+    public long getDistinctPostProcessingMemoryBudget() {
+        return getRequiredLong(DISTINCT_RESULTSET_MEMORY_BUDGET);
+    }
+
     @Override
     public boolean isQueryLoggingEnabled() {
         return getRequiredBoolean(QUERY_LOGGING);
@@ -68,6 +78,21 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return getRequiredLong(QUERY_CACHE_MAX_SIZE);
     }
 
+    @Override
+    public boolean isQueryTemplateCacheEnabled() {
+        return systemSettings.isQueryTemplateCacheEnabled();
+    }
+
+    @Override
+    public long getQueryTemplateCacheMaxSize() {
+        return systemSettings.getQueryTemplateCacheMaxSize();
+    }
+
+    @Override
+    public boolean arePreparedStatementsEnabled() {
+        return systemSettings.arePreparedStatementsEnabled();
+    }
+
     @Override
     public String getApplicationName() {
         return getRequiredProperty(APPLICATION_NAME);
@@ -78,6 +103,36 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.getHttpHeaderNamesToLog();
     }
 
+    @Override
+    public Optional<String> getQueryLoggingFile() {
+        return systemSettings.getQueryLoggingFile();
+    }
+
+    @Override
+    public long getQueryLoggingMaxFileSize() {
+        return systemSettings.getQueryLoggingMaxFileSize();
+    }
+
+    @Override
+    public int getQueryLoggingMaxBackupFiles() {
+        return systemSettings.getQueryLoggingMaxBackupFiles();
+    }
+
+    @Override
+    public int getQueryLoggingBufferSize() {
+        return systemSettings.getQueryLoggingBufferSize();
+    }
+
+    @Override
+    public int getQueryLoggingBatchSize() {
+        return systemSettings.getQueryLoggingBatchSize();
+    }
+
+    @Override
+    public boolean isQueryLoggingBlockingWhenFull() {
+        return systemSettings.isQueryLoggingBlockingWhenFull();
+    }
+
     @Override
     public boolean isKeepAliveEnabled() {
         return systemSettings.isKeepAliveEnabled();
@@ -103,11 +158,21 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.getConnectionPoolMaxSize();
     }
 
+    @Override
+    public boolean isConnectionPoolPrewarmEnabled() {
+        return systemSettings.isConnectionPoolPrewarmEnabled();
+    }
+
     @Override
     public int getFetchSize() {
         return systemSettings.getFetchSize();
     }
 
+    @Override
+    public int getPreparedStatementCacheSize() {
+        return systemSettings.getPreparedStatementCacheSize();
+    }
+
     @Override
     public Optional<Integer> getDefaultQueryTimeout() {
         return getInteger(DEFAULT_QUERY_TIMEOUT);
@@ -118,6 +183,41 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.isPermanentDBConnectionEnabled();
     }
 
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return systemSettings.getQueryExecutorMaxThreads();
+    }
+
+    @Override
+    public int getQueryExecutorQueueSize() {
+        return systemSettings.getQueryExecutorQueueSize();
+    }
+
+    @Override
+    public Optional<Integer> getQueryDeadline() {
+        return systemSettings.getQueryDeadline();
+    }
+
+    @Override
+    public boolean isStatementCountingEnabled() {
+        return systemSettings.isStatementCountingEnabled();
+    }
+
+    @Override
+    public int getConsistencyCheckBatchSize() {
+        return systemSettings.getConsistencyCheckBatchSize();
+    }
+
+    @Override
+    public int getConsistencyCheckThreads() {
+        return systemSettings.getConsistencyCheckThreads();
+    }
+
+    @Override
+    public boolean isConsistencyCheckStoppingAtFirstViolation() {
+        return systemSettings.isConsistencyCheckStoppingAtFirstViolation();
+    }
+
     @Override
     public Optional<Integer> getHttpMaxAge() {
         return systemSettings.getHttpMaxAge();
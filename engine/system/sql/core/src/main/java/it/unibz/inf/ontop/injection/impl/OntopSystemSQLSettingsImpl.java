@@ -54,6 +54,16 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return systemSettings.isDistinctPostProcessingEnabled();
     }
 
+    @Override
+    public boolean isDistinctPostProcessingByFingerprintEnabled() {
+        return systemSettings.isDistinctPostProcessingByFingerprintEnabled();
+    }
+
+    @Override
+    public long getDistinctPostProcessingMemoryBudget() {
+        return systemSettings.getDistinctPostProcessingMemoryBudget();
+    }
+
     @Override
     public boolean isKeepAliveEnabled() {
         return getRequiredBoolean(KEEP_ALIVE);
@@ -79,11 +89,21 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return getRequiredInteger(MAX_POOL_SIZE);
     }
 
+    @Override
+    public boolean isConnectionPoolPrewarmEnabled() {
+        return getRequiredBoolean(PREWARM_POOL);
+    }
+
     @Override
     public int getFetchSize() {
         return getRequiredInteger(FETCH_SIZE);
     }
 
+    @Override
+    public int getPreparedStatementCacheSize() {
+        return getRequiredInteger(PREPARED_STATEMENT_CACHE_SIZE);
+    }
+
     @Override
     public Optional<Integer> getDefaultQueryTimeout() {
         return getInteger(DEFAULT_QUERY_TIMEOUT);
@@ -94,6 +114,41 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return systemSettings.isPermanentDBConnectionEnabled();
     }
 
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return systemSettings.getQueryExecutorMaxThreads();
+    }
+
+    @Override
+    public int getQueryExecutorQueueSize() {
+        return systemSettings.getQueryExecutorQueueSize();
+    }
+
+    @Override
+    public Optional<Integer> getQueryDeadline() {
+        return systemSettings.getQueryDeadline();
+    }
+
+    @Override
+    public boolean isStatementCountingEnabled() {
+        return systemSettings.isStatementCountingEnabled();
+    }
+
+    @Override
+    public int getConsistencyCheckBatchSize() {
+        return systemSettings.getConsistencyCheckBatchSize();
+    }
+
+    @Override
+    public int getConsistencyCheckThreads() {
+        return systemSettings.getConsistencyCheckThreads();
+    }
+
+    @Override
+    public boolean isConsistencyCheckStoppingAtFirstViolation() {
+        return systemSettings.isConsistencyCheckStoppingAtFirstViolation();
+    }
+
     @Override
     public Optional<Integer> getHttpMaxAge() {
         return systemSettings.getHttpMaxAge();
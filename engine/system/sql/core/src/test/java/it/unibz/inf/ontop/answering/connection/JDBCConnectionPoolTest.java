@@ -0,0 +1,105 @@
+package it.unibz.inf.ontop.answering.connection;
+
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
+import it.unibz.inf.ontop.answering.connection.pool.impl.HikariConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.impl.TomcatConnectionPool;
+import it.unibz.inf.ontop.injection.OntopStandaloneSQLConfiguration;
+import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JDBCConnectionPoolTest {
+
+    private static final String OBDA_FILE = "src/test/resources/marriage/marriage.obda";
+    private static final String JDBC_URL = "jdbc:h2:mem:connectionpooltest";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+    private static final int INITIAL_SIZE = 3;
+    private static final int CLIENTS = 8;
+
+    /*
+     * DB connection (keeps it alive)
+     */
+    private static Connection CONN;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Test
+    public void testTomcatPool() throws Exception {
+        checkPool(TomcatConnectionPool.class);
+    }
+
+    @Test
+    public void testHikariPool() throws Exception {
+        checkPool(HikariConnectionPool.class);
+    }
+
+    private static void checkPool(Class<? extends JDBCConnectionPool> poolClass) throws Exception {
+        try (JDBCConnectionPool pool = createPool(poolClass)) {
+            pool.prewarm();
+            JDBCConnectionPoolMetrics warmMetrics = pool.getMetrics();
+            assertEquals(0, warmMetrics.getActiveConnectionCount());
+            assertTrue(warmMetrics.getIdleConnectionCount() >= INITIAL_SIZE);
+
+            // Concurrent acquisitions, the connections being held until all of them are obtained
+            ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+            List<Connection> connections = new ArrayList<>();
+            try {
+                List<Future<Connection>> futures = new ArrayList<>();
+                for (int i = 0; i < CLIENTS; i++)
+                    futures.add(executor.submit(pool::getConnection));
+                for (Future<Connection> future : futures)
+                    connections.add(future.get());
+
+                JDBCConnectionPoolMetrics busyMetrics = pool.getMetrics();
+                assertEquals(CLIENTS, busyMetrics.getActiveConnectionCount());
+                assertTrue(busyMetrics.getAcquisitionCount() >= CLIENTS);
+                assertTrue(busyMetrics.getMaxWaitTimeMicros() <= busyMetrics.getTotalWaitTimeMicros());
+            } finally {
+                for (Connection connection : connections)
+                    connection.close();
+                executor.shutdown();
+            }
+            assertEquals(0, pool.getMetrics().getActiveConnectionCount());
+        }
+    }
+
+    private static JDBCConnectionPool createPool(Class<? extends JDBCConnectionPool> poolClass) {
+        Properties properties = new Properties();
+        properties.setProperty(JDBCConnectionPool.class.getCanonicalName(), poolClass.getCanonicalName());
+        properties.setProperty(OntopSystemSQLSettings.INIT_POOL_SIZE, String.valueOf(INITIAL_SIZE));
+
+        // The mapping is not loaded
+        OntopStandaloneSQLConfiguration configuration = OntopStandaloneSQLConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(OBDA_FILE)
+                .properties(properties)
+                .jdbcUrl(JDBC_URL)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .enableTestMode()
+                .build();
+        return configuration.getInjector().getInstance(JDBCConnectionPool.class);
+    }
+}
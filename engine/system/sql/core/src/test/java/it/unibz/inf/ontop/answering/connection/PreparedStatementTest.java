@@ -0,0 +1,230 @@
+package it.unibz.inf.ontop.answering.connection;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.OntopReformulationSQLSettings;
+import it.unibz.inf.ontop.injection.OntopSystemSQLConfiguration;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.model.term.DBConstant;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.*;
+
+/**
+ * Extraction of the parameters by the SQL generator and their binding when executing the prepared statements.
+ *
+ * The answers must be the same as with inlined constants.
+ */
+public class PreparedStatementTest {
+
+    private static final String OBDA_FILE = "src/test/resources/marriage/marriage.obda";
+    private static final String CREATE_DB_FILE = "src/test/resources/marriage/create-db.sql";
+    private static final String JDBC_URL = "jdbc:h2:mem:preparedstatementdb";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+    private static final String PREFIX = "PREFIX : <http://example.org/marriage/voc#>\n";
+
+    private static Connection CONN;
+    private static OBDASpecification SPECIFICATION;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+
+        try (Statement st = CONN.createStatement()) {
+            String s = Files.lines(Paths.get(CREATE_DB_FILE)).collect(joining());
+            st.executeUpdate(s);
+            CONN.commit();
+        }
+
+        SPECIFICATION = OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(OBDA_FILE)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build()
+                .loadSpecification();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        NativeNode nativeNode = getNativeNode(createConfiguration(Optional.empty()),
+                PREFIX + "SELECT ?x WHERE { ?x :firstName \"Mary\" }");
+        assertTrue(nativeNode.getParameters().isEmpty());
+        assertTrue(nativeNode.getNativeQueryString().contains("'Mary'"));
+    }
+
+    @Test
+    public void testStringParameterExtraction() throws Exception {
+        NativeNode nativeNode = getNativeNode(createConfiguration(Optional.of(true)),
+                PREFIX + "SELECT ?x WHERE { ?x :firstName \"Mary\" }");
+
+        assertEquals(ImmutableList.of("Mary"), getParameterValues(nativeNode));
+        String sql = nativeNode.getNativeQueryString();
+        assertFalse(sql.contains("'Mary'"));
+        assertEquals(1, sql.chars().filter(c -> c == '?').count());
+    }
+
+    /**
+     * Parameters are listed in their order of appearance in the query string
+     */
+    @Test
+    public void testParameterOrder() throws Exception {
+        NativeNode nativeNode = getNativeNode(createConfiguration(Optional.of(true)),
+                PREFIX + "SELECT ?x WHERE { ?x :firstName \"Mary\" ; :lastName \"Smith\" }");
+
+        ImmutableList<String> values = getParameterValues(nativeNode);
+        assertEquals(ImmutableSet.of("Mary", "Smith"), ImmutableSet.copyOf(values));
+
+        String sql = nativeNode.getNativeQueryString();
+        assertEquals(values.size(), sql.chars().filter(c -> c == '?').count());
+    }
+
+    @Test
+    public void testStringBinding() throws Exception {
+        checkSameAnswers(PREFIX + "SELECT ?x WHERE { ?x :firstName \"Mary\" }", 1);
+    }
+
+    @Test
+    public void testIRIBinding() throws Exception {
+        checkSameAnswers(PREFIX + "SELECT ?x WHERE { ?x :hasSpouse <http://example.com/person/2> }", 1);
+    }
+
+    @Test
+    public void testSeveralBindings() throws Exception {
+        checkSameAnswers(PREFIX + "SELECT ?x WHERE { ?x :firstName \"John\" ; :lastName \"Doe\" ; " +
+                ":hasSpouse <http://example.com/person/1> }", 1);
+    }
+
+    @Test
+    public void testNoMatch() throws Exception {
+        checkSameAnswers(PREFIX + "SELECT ?x WHERE { ?x :firstName \"Nobody\" }", 0);
+    }
+
+    /**
+     * The same prepared statement is reused (from the cache) with other values
+     */
+    @Test
+    public void testReuse() throws Exception {
+        try (OntopQueryEngine queryEngine = createConfiguration(Optional.of(true)).loadQueryEngine()) {
+            queryEngine.connect();
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement statement = connection.createStatement()) {
+                for (String name : ImmutableList.of("Mary", "John", "Bob", "Mary")) {
+                    ImmutableSet<String> answers = evaluate(connection, statement,
+                            PREFIX + "SELECT ?x WHERE { ?x :firstName \"" + name + "\" }");
+                    assertEquals(1, answers.size());
+                }
+            }
+        }
+    }
+
+    private static void checkSameAnswers(String sparqlQuery, int expectedCount) throws Exception {
+        ImmutableSet<String> expectedAnswers = evaluate(createConfiguration(Optional.of(false)), sparqlQuery);
+        assertEquals(expectedCount, expectedAnswers.size());
+
+        OntopSystemSQLConfiguration configuration = createConfiguration(Optional.of(true));
+        if (expectedCount > 0)
+            assertFalse(getNativeNode(configuration, sparqlQuery).getParameters().isEmpty());
+        assertEquals(expectedAnswers, evaluate(configuration, sparqlQuery));
+    }
+
+    private static ImmutableSet<String> evaluate(OntopSystemSQLConfiguration configuration, String sparqlQuery)
+            throws Exception {
+        try (OntopQueryEngine queryEngine = configuration.loadQueryEngine()) {
+            queryEngine.connect();
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement statement = connection.createStatement()) {
+                ImmutableSet<String> answers = evaluate(connection, statement, sparqlQuery);
+
+                // Same parameters for the COUNT query
+                SelectQuery query = connection.getInputQueryFactory().createSelectQuery(sparqlQuery);
+                assertEquals(answers.size(), statement.getTupleCount(query));
+                return answers;
+            }
+        }
+    }
+
+    private static ImmutableSet<String> evaluate(OntopConnection connection, OntopStatement statement,
+                                                 String sparqlQuery) throws Exception {
+        try (TupleResultSet resultSet = statement.execute(
+                connection.getInputQueryFactory().createSelectQuery(sparqlQuery))) {
+            ImmutableSet.Builder<String> answerBuilder = ImmutableSet.builder();
+            while (resultSet.hasNext()) {
+                OntopBindingSet bindingSet = resultSet.next();
+                answerBuilder.add(bindingSet.getBinding("x").getValue().getValue());
+            }
+            return answerBuilder.build();
+        }
+    }
+
+    private static NativeNode getNativeNode(OntopSystemSQLConfiguration configuration, String sparqlQuery)
+            throws Exception {
+        try (OntopQueryEngine queryEngine = configuration.loadQueryEngine()) {
+            queryEngine.connect();
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement statement = connection.createStatement()) {
+                IQTree tree = statement.getExecutableQuery(
+                        connection.getInputQueryFactory().createSelectQuery(sparqlQuery)).getTree();
+                return findNativeNode(tree)
+                        .orElseThrow(() -> new IllegalStateException("No native node in " + tree));
+            }
+        }
+    }
+
+    private static Optional<NativeNode> findNativeNode(IQTree tree) {
+        if (tree instanceof NativeNode)
+            return Optional.of((NativeNode) tree);
+        return tree.getChildren().stream()
+                .map(PreparedStatementTest::findNativeNode)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
+    }
+
+    private static ImmutableList<String> getParameterValues(NativeNode nativeNode) {
+        return nativeNode.getParameters().stream()
+                .map(DBConstant::getValue)
+                .collect(Collectors.collectingAndThen(Collectors.toList(), ImmutableList::copyOf));
+    }
+
+    private static OntopSystemSQLConfiguration createConfiguration(Optional<Boolean> arePreparedStatementsEnabled) {
+        Properties properties = new Properties();
+        arePreparedStatementsEnabled.ifPresent(b -> properties.setProperty(
+                OntopReformulationSQLSettings.PREPARED_STATEMENTS, b.toString()));
+
+        return OntopSystemSQLConfiguration.defaultBuilder()
+                .obdaSpecification(SPECIFICATION)
+                .properties(properties)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build();
+    }
+}
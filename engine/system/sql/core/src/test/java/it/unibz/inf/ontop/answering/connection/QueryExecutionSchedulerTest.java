@@ -0,0 +1,206 @@
+package it.unibz.inf.ontop.answering.connection;
+
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.exception.OntopQueryEvaluationException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.OntopSystemSQLConfiguration;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Deadline, cancellation and rejection of the queries submitted to the QueryExecutionScheduler.
+ *
+ * The view "slow_item" calls a Java function sleeping for each row.
+ */
+public class QueryExecutionSchedulerTest {
+
+    private static final String OBDA_FILE = "src/test/resources/scheduler/scheduler.obda";
+    private static final String JDBC_URL = "jdbc:h2:mem:schedulertest";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+    private static final String PREFIX = "PREFIX : <http://example.org/scheduler/voc#>\n";
+    private static final String SLOW_QUERY = PREFIX + "SELECT * WHERE { ?x :slowName ?n }";
+    private static final String FAST_QUERY = PREFIX + "SELECT * WHERE { ?x :name ?n }";
+    private static final int ITEM_COUNT = 40;
+    private static final long SLEEP_PER_ROW_MS = 250;
+
+    private static Connection CONN;
+    private static OBDASpecification SPECIFICATION;
+
+    // Signaled when the slow query is being evaluated by the DB
+    private static volatile CountDownLatch SLOW_QUERY_STARTED;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+
+        try (Statement st = CONN.createStatement()) {
+            st.executeUpdate("CREATE TABLE \"item\" (\"id\" INT NOT NULL PRIMARY KEY, \"label\" VARCHAR(40))");
+            for (int i = 0; i < ITEM_COUNT; i++)
+                st.executeUpdate("INSERT INTO \"item\" VALUES (" + i + ", 'item" + i + "')");
+            st.executeUpdate("CREATE ALIAS \"SLOW_LABEL\" FOR \""
+                    + QueryExecutionSchedulerTest.class.getCanonicalName() + ".slowLabel\"");
+            st.executeUpdate("CREATE VIEW \"slow_item\" AS SELECT \"id\", \"SLOW_LABEL\"(\"label\") AS \"label\" FROM \"item\"");
+        }
+
+        SPECIFICATION = OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(OBDA_FILE)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build()
+                .loadSpecification();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Before
+    public void resetLatch() {
+        SLOW_QUERY_STARTED = new CountDownLatch(1);
+    }
+
+    /**
+     * Called by H2 for each row of "slow_item"
+     */
+    public static String slowLabel(String label) throws InterruptedException {
+        SLOW_QUERY_STARTED.countDown();
+        Thread.sleep(SLEEP_PER_ROW_MS);
+        return label;
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(OntopSystemSettings.QUERY_DEADLINE, "1");
+
+        try (OntopQueryEngine queryEngine = createConfiguration(properties).loadQueryEngine()) {
+            queryEngine.connect();
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement statement = connection.createStatement()) {
+
+                long start = System.currentTimeMillis();
+                try {
+                    execute(connection, statement, SLOW_QUERY);
+                    fail("The deadline should have been exceeded");
+                } catch (OntopQueryEvaluationException e) {
+                    assertTrue(e.getMessage().contains("deadline"));
+                }
+                // Far less than the complete evaluation
+                assertTrue(System.currentTimeMillis() - start < ITEM_COUNT * SLEEP_PER_ROW_MS / 2);
+
+                // The statement can be reused
+                assertEquals(ITEM_COUNT, execute(connection, statement, FAST_QUERY));
+            }
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (OntopQueryEngine queryEngine = createConfiguration(new Properties()).loadQueryEngine()) {
+            queryEngine.connect();
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement statement = connection.createStatement()) {
+
+                long start = System.currentTimeMillis();
+                Future<Integer> slowQuery = executor.submit(() -> execute(connection, statement, SLOW_QUERY));
+                assertTrue(SLOW_QUERY_STARTED.await(10, TimeUnit.SECONDS));
+                statement.cancel();
+
+                try {
+                    slowQuery.get();
+                    fail("The query should have been cancelled");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof OntopQueryEvaluationException);
+                    assertTrue(e.getCause().getMessage().contains("cancelled"));
+                }
+                assertTrue(System.currentTimeMillis() - start < ITEM_COUNT * SLEEP_PER_ROW_MS / 2);
+
+                // The statement can be reused
+                assertEquals(ITEM_COUNT, execute(connection, statement, FAST_QUERY));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * One execution thread, no waiting queue: a second query submitted while the first one is running is rejected
+     */
+    @Test
+    public void testRejection() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(OntopSystemSettings.QUERY_EXECUTOR_MAX_THREADS, "1");
+        properties.setProperty(OntopSystemSettings.QUERY_EXECUTOR_QUEUE_SIZE, "0");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (OntopQueryEngine queryEngine = createConfiguration(properties).loadQueryEngine()) {
+            queryEngine.connect();
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement slowStatement = connection.createStatement();
+                 OntopStatement otherStatement = connection.createStatement()) {
+
+                Future<Integer> slowQuery = executor.submit(() -> execute(connection, slowStatement, SLOW_QUERY));
+                assertTrue(SLOW_QUERY_STARTED.await(10, TimeUnit.SECONDS));
+
+                try {
+                    execute(connection, otherStatement, FAST_QUERY);
+                    fail("The query should have been rejected");
+                } catch (OntopQueryEvaluationException e) {
+                    assertTrue(e.getMessage().contains("rejected"));
+                }
+
+                slowStatement.cancel();
+                try {
+                    slowQuery.get();
+                    fail("The query should have been cancelled");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof OntopQueryEvaluationException);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int execute(OntopConnection connection, OntopStatement statement, String sparqlQuery)
+            throws Exception {
+        int count = 0;
+        try (TupleResultSet resultSet = statement.execute(
+                connection.getInputQueryFactory().createSelectQuery(sparqlQuery))) {
+            while (resultSet.hasNext()) {
+                resultSet.next();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static OntopSystemSQLConfiguration createConfiguration(Properties properties) {
+        return OntopSystemSQLConfiguration.defaultBuilder()
+                .obdaSpecification(SPECIFICATION)
+                .properties(properties)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build();
+    }
+}
@@ -0,0 +1,157 @@
+package it.unibz.inf.ontop.answering.logging;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.logging.impl.AsyncQueryLogSink;
+import it.unibz.inf.ontop.answering.logging.impl.QueryLoggerImpl;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import it.unibz.inf.ontop.injection.OntopSystemSQLConfiguration;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncQueryLogSinkTest {
+
+    private static final String OBDA_FILE = "src/test/resources/marriage/marriage.obda";
+    private static final String CREATE_DB_FILE = "src/test/resources/marriage/create-db.sql";
+    private static final String JDBC_URL = "jdbc:h2:mem:asyncquerylogdb";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+    private static final String QUERY = "PREFIX : <http://example.org/marriage/voc#>\n" +
+            "SELECT ?x WHERE { ?x a :Person }";
+
+    private static Connection CONN;
+    private static OBDASpecification SPECIFICATION;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+
+        try (Statement st = CONN.createStatement()) {
+            String s = Files.lines(Paths.get(CREATE_DB_FILE)).collect(joining());
+            st.executeUpdate(s);
+            CONN.commit();
+        }
+
+        SPECIFICATION = OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(OBDA_FILE)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build()
+                .loadSpecification();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Test
+    public void testFile() throws Exception {
+        Path logFile = folder.getRoot().toPath().resolve("query.log");
+        OntopSystemSQLConfiguration configuration = createConfiguration(logFile, 0);
+        assertTrue(configuration.getInjector().getInstance(QueryLogSink.class) instanceof AsyncQueryLogSink);
+
+        evaluate(configuration, 1);
+
+        ImmutableList<String> lines = ImmutableList.copyOf(Files.readAllLines(logFile));
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains(QueryLoggerImpl.QUERY_REFORMULATED));
+        assertTrue(lines.get(1).contains(QueryLoggerImpl.QUERY_RESULT_SET_UNBLOCKED));
+        assertTrue(lines.get(2).contains(QueryLoggerImpl.QUERY_LAST_RESULT_FETCHED));
+    }
+
+    @Test
+    public void testRotation() throws Exception {
+        Path logFile = folder.getRoot().toPath().resolve("query.log");
+        evaluate(createConfiguration(logFile, 1), 3);
+
+        assertTrue(Files.exists(logFile.resolveSibling("query.log.1")));
+        assertTrue(Files.exists(logFile.resolveSibling("query.log.2")));
+        assertFalse(Files.exists(logFile.resolveSibling("query.log.3")));
+    }
+
+    /**
+     * The sink can be used again after being closed
+     */
+    @Test
+    public void testClose() throws Exception {
+        Path logFile = folder.getRoot().toPath().resolve("query.log");
+        OntopSystemSQLConfiguration configuration = createConfiguration(logFile, 0);
+        QueryLogSink sink = configuration.getInjector().getInstance(QueryLogSink.class);
+
+        evaluate(configuration, 1);
+        sink.close();
+        assertEquals(3, Files.readAllLines(logFile).size());
+        // Closing twice is allowed
+        sink.close();
+
+        evaluate(configuration, 1);
+        sink.close();
+        assertEquals(6, Files.readAllLines(logFile).size());
+    }
+
+    /**
+     * The log is flushed after each query
+     */
+    private static void evaluate(OntopSystemSQLConfiguration configuration, int queryCount) throws Exception {
+        QueryLogSink sink = configuration.getInjector().getInstance(QueryLogSink.class);
+        try (OntopQueryEngine queryEngine = configuration.loadQueryEngine()) {
+            queryEngine.connect();
+
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement statement = connection.createStatement()) {
+                for (int i = 0; i < queryCount; i++) {
+                    try (TupleResultSet resultSet = statement.execute(
+                            connection.getInputQueryFactory().createSelectQuery(QUERY))) {
+                        while (resultSet.hasNext())
+                            resultSet.next();
+                    }
+                    sink.flush();
+                }
+            }
+        }
+    }
+
+    private static OntopSystemSQLConfiguration createConfiguration(Path logFile, long maxFileSize) {
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSettings.QUERY_LOGGING, "true");
+        properties.setProperty(OntopReformulationSettings.QUERY_LOGGING_FILE, logFile.toString());
+        properties.setProperty(OntopReformulationSettings.QUERY_LOGGING_MAX_FILE_SIZE, String.valueOf(maxFileSize));
+        properties.setProperty(OntopReformulationSettings.QUERY_LOGGING_MAX_BACKUP_FILES, "2");
+
+        return OntopSystemSQLConfiguration.defaultBuilder()
+                .obdaSpecification(SPECIFICATION)
+                .properties(properties)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package it.unibz.inf.ontop.answering.metrics;
+
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.logging.QueryStage;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.injection.OntopSystemSQLConfiguration;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QueryMetricsTest {
+
+    private static final String OBDA_FILE = "src/test/resources/marriage/marriage.obda";
+    private static final String CREATE_DB_FILE = "src/test/resources/marriage/create-db.sql";
+    private static final String JDBC_URL = "jdbc:h2:mem:querymetricsdb";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+    private static final String QUERY = "PREFIX : <http://example.org/marriage/voc#>\n" +
+            "SELECT ?x WHERE { ?x a :Person }";
+
+    private static Connection CONN;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+
+        try (Statement st = CONN.createStatement()) {
+            String s = Files.lines(Paths.get(CREATE_DB_FILE)).collect(joining());
+            st.executeUpdate(s);
+            CONN.commit();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Test
+    public void testQueryMetrics() throws Exception {
+        OntopSystemSQLConfiguration configuration = OntopSystemSQLConfiguration.defaultBuilder()
+                .obdaSpecification(OntopMappingSQLAllConfiguration.defaultBuilder()
+                        .nativeOntopMappingFile(OBDA_FILE)
+                        .jdbcUser(JDBC_USER)
+                        .jdbcPassword(JDBC_PASSWORD)
+                        .jdbcUrl(JDBC_URL)
+                        .enableTestMode()
+                        .build()
+                        .loadSpecification())
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build();
+
+        QueryMetrics metrics = configuration.getInjector().getInstance(QueryMetrics.class);
+
+        try (OntopQueryEngine queryEngine = configuration.loadQueryEngine()) {
+            queryEngine.connect();
+
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement statement = connection.createStatement()) {
+                // The second evaluation hits the query cache
+                for (int i = 0; i < 2; i++) {
+                    try (TupleResultSet resultSet = statement.execute(
+                            connection.getInputQueryFactory().createSelectQuery(QUERY))) {
+                        while (resultSet.hasNext())
+                            resultSet.next();
+                    }
+                }
+            }
+            assertTrue(metrics.getGauges().containsKey("ontop.jdbc.pool.active"));
+        }
+
+        assertEquals(1L, (long) metrics.getCounters().get(QueryMetrics.QUERY_CACHE_HITS));
+        assertEquals(1L, (long) metrics.getCounters().get(QueryMetrics.QUERY_CACHE_MISSES));
+        assertEquals(1, metrics.getHistograms().get(QueryStage.PARSING.getMetricName()).getCount());
+        assertEquals(1, metrics.getHistograms().get(QueryStage.NATIVE_QUERY_GENERATION.getMetricName()).getCount());
+        assertEquals(2, metrics.getHistograms().get(QueryStage.TIME_TO_FIRST_ROW.getMetricName()).getCount());
+        assertEquals(2, metrics.getHistograms().get(QueryStage.RESULT_CONVERSION.getMetricName()).getCount());
+        assertTrue(metrics.getHistograms().get(QueryStage.CONNECTION_WAIT.getMetricName()).getCount() > 0);
+        assertEquals(2, metrics.getHistograms().get(QueryMetrics.ROWS_PER_SECOND).getCount());
+    }
+}
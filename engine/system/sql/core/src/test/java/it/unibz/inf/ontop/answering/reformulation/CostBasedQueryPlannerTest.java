@@ -0,0 +1,174 @@
+package it.unibz.inf.ontop.answering.reformulation;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.impl.JDBCRelationStatisticsProvider;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.OntopSystemSQLConfiguration;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.planner.QueryPlanner;
+import it.unibz.inf.ontop.iq.planner.RelationStatistics;
+import it.unibz.inf.ontop.iq.planner.RelationStatisticsProvider;
+import it.unibz.inf.ontop.iq.planner.impl.CostBasedQueryPlanner;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The cost-based planner (with the statistics collected from the DB) must not change the answers
+ */
+public class CostBasedQueryPlannerTest {
+
+    private static final String OBDA_FILE = "src/test/resources/marriage/marriage.obda";
+    private static final String CREATE_DB_FILE = "src/test/resources/marriage/create-db.sql";
+    private static final String JDBC_URL = "jdbc:h2:mem:costbasedplannerdb";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+    private static final String PREFIX = "PREFIX : <http://example.org/marriage/voc#>\n";
+
+    private static Connection CONN;
+    private static OBDASpecification SPECIFICATION;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+
+        try (Statement st = CONN.createStatement()) {
+            String s = Files.lines(Paths.get(CREATE_DB_FILE)).collect(joining());
+            st.executeUpdate(s);
+            CONN.commit();
+        }
+
+        SPECIFICATION = OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(OBDA_FILE)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build()
+                .loadSpecification();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Test
+    public void testInjection() {
+        OntopSystemSQLConfiguration configuration = createConfiguration(true);
+        assertTrue(configuration.getInjector().getInstance(QueryPlanner.class) instanceof CostBasedQueryPlanner);
+        assertTrue(configuration.getInjector().getInstance(RelationStatisticsProvider.class)
+                instanceof JDBCRelationStatisticsProvider);
+    }
+
+    /**
+     * Collected in the background when the query engine is created (the table is smaller than the sample)
+     */
+    @Test
+    public void testStatistics() throws Exception {
+        OntopSystemSQLConfiguration configuration = createConfiguration(true);
+        RelationStatisticsProvider provider = configuration.getInjector().getInstance(RelationStatisticsProvider.class);
+        RelationDefinition person = SPECIFICATION.getSaturatedMapping().getRDFAtomPredicates().stream()
+                .flatMap(p -> SPECIFICATION.getSaturatedMapping().getQueries(p).stream())
+                .flatMap(q -> extractRelations(q.getTree()))
+                .findAny()
+                .get();
+
+        try (OntopQueryEngine queryEngine = configuration.loadQueryEngine()) {
+            Optional<RelationStatistics> statistics = provider.getStatistics(person);
+            for (int i = 0; i < 100 && !statistics.isPresent(); i++) {
+                Thread.sleep(100);
+                statistics = provider.getStatistics(person);
+            }
+            assertTrue(statistics.isPresent());
+            assertEquals(3, statistics.get().getRowCount());
+            // spouse
+            assertEquals(Optional.of(2L), statistics.get().getDistinctCount(4));
+            assertEquals(1.0 / 3, statistics.get().getNullFraction(4).get(), 1e-9);
+            // id
+            assertEquals(Optional.of(3L), statistics.get().getDistinctCount(1));
+            assertEquals(0.0, statistics.get().getNullFraction(1).get(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testJoin() throws Exception {
+        checkSameAnswers(PREFIX + "SELECT ?x ?n WHERE { ?x :hasSpouse ?y . ?y :firstName ?n }", 2);
+    }
+
+    @Test
+    public void testJoinAboveUnion() throws Exception {
+        checkSameAnswers(PREFIX + "SELECT ?x ?n WHERE { ?x :hasSpouse ?y . \n" +
+                "{ ?y :firstName ?n } UNION { ?y :lastName ?n } }", 4);
+    }
+
+    private void checkSameAnswers(String sparqlQuery, int expectedCount) throws Exception {
+        ImmutableSet<String> expectedAnswers = evaluate(createConfiguration(false), sparqlQuery);
+        assertEquals(expectedCount, expectedAnswers.size());
+        assertEquals(expectedAnswers, evaluate(createConfiguration(true), sparqlQuery));
+    }
+
+    private static ImmutableSet<String> evaluate(OntopSystemSQLConfiguration configuration, String sparqlQuery)
+            throws Exception {
+        try (OntopQueryEngine queryEngine = configuration.loadQueryEngine()) {
+            queryEngine.connect();
+
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement statement = connection.createStatement();
+                 TupleResultSet resultSet = statement.execute(
+                         connection.getInputQueryFactory().createSelectQuery(sparqlQuery))) {
+
+                ImmutableSet.Builder<String> answerBuilder = ImmutableSet.builder();
+                while (resultSet.hasNext()) {
+                    OntopBindingSet bindingSet = resultSet.next();
+                    answerBuilder.add(bindingSet.getBinding("x").getValue().getValue() + " "
+                            + bindingSet.getBinding("n").getValue().getValue());
+                }
+                return answerBuilder.build();
+            }
+        }
+    }
+
+    private static Stream<RelationDefinition> extractRelations(IQTree tree) {
+        if (tree.getRootNode() instanceof ExtensionalDataNode)
+            return Stream.of(((ExtensionalDataNode) tree.getRootNode()).getRelationDefinition());
+        return tree.getChildren().stream()
+                .flatMap(CostBasedQueryPlannerTest::extractRelations);
+    }
+
+    private static OntopSystemSQLConfiguration createConfiguration(boolean isCostBased) {
+        Properties properties = new Properties();
+        if (isCostBased)
+            properties.setProperty(QueryPlanner.class.getCanonicalName(), CostBasedQueryPlanner.class.getCanonicalName());
+
+        return OntopSystemSQLConfiguration.defaultBuilder()
+                .obdaSpecification(SPECIFICATION)
+                .properties(properties)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package it.unibz.inf.ontop.answering.reformulation;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
+import it.unibz.inf.ontop.answering.reformulation.unfolding.QueryUnfolder;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.OntopSystemSQLConfiguration;
+import it.unibz.inf.ontop.injection.TranslationFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The merged definitions of the triple patterns with a variable property (resp. class) are memoized
+ * by the unfolder. A new unfolder has no memoized definition: the unfolded queries must be the same
+ * as with an unfolder that has already unfolded other queries (or the same ones).
+ */
+public class QueryUnfolderMemoizationTest {
+
+    private static final String OBDA_FILE = "src/test/resources/marriage/marriage.obda";
+    private static final String CREATE_DB_FILE = "src/test/resources/marriage/create-db.sql";
+    private static final String JDBC_URL = "jdbc:h2:mem:unfoldermemoizationdb";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+
+    private static final String PREFIXES = "PREFIX : <http://example.org/marriage/voc#>\n";
+
+    private static final ImmutableList<String> QUERIES = ImmutableList.of(
+            // Variable property
+            "SELECT * WHERE { ?s ?p ?o }",
+            // Variable class
+            "SELECT * WHERE { ?x a ?c }",
+            // The same merged definition twice in the same query (the variables must be renamed apart)
+            "SELECT * WHERE { ?x ?p ?y . ?y ?q ?z }",
+            // Ground subject: restricted by the IRI templates, not memoized
+            "SELECT * WHERE { <http://example.com/person/1> ?p ?o }",
+            "SELECT * WHERE { ?x a :Person ; ?p ?o }");
+
+    /*
+     * DB connection (keep it alive)
+     */
+    private static Connection CONN;
+    private static Injector INJECTOR;
+    private static OBDASpecification SPECIFICATION;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+
+        try (Statement st = CONN.createStatement()) {
+            String s = Files.lines(Paths.get(CREATE_DB_FILE)).collect(joining());
+            st.executeUpdate(s);
+            CONN.commit();
+        }
+
+        SPECIFICATION = OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(OBDA_FILE)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build()
+                .loadSpecification();
+
+        INJECTOR = OntopSystemSQLConfiguration.defaultBuilder()
+                .obdaSpecification(SPECIFICATION)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build()
+                .getInjector();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Test
+    public void testWithAndWithoutMemoization() throws Exception {
+        QueryUnfolder sharedUnfolder = createUnfolder();
+
+        for (String query : QUERIES) {
+            IQ withoutMemoization = createUnfolder().optimize(translate(query));
+            IQ withMemoization = sharedUnfolder.optimize(translate(query));
+            assertEquals(query, withoutMemoization, withMemoization);
+        }
+    }
+
+    @Test
+    public void testRepeatedQueries() throws Exception {
+        QueryUnfolder unfolder = createUnfolder();
+
+        ImmutableList<IQ> firstRun = unfold(unfolder);
+        assertEquals(firstRun, unfold(unfolder));
+
+        // In the reverse order: the memoized definitions are used by the first queries
+        ImmutableList<IQ> reversedRun = unfold(unfolder, QUERIES.reverse()).reverse();
+        assertEquals(firstRun, reversedRun);
+    }
+
+    private static ImmutableList<IQ> unfold(QueryUnfolder unfolder) throws Exception {
+        return unfold(unfolder, QUERIES);
+    }
+
+    private static ImmutableList<IQ> unfold(QueryUnfolder unfolder, ImmutableList<String> queries) throws Exception {
+        ImmutableList.Builder<IQ> builder = ImmutableList.builder();
+        for (String query : queries)
+            builder.add(unfolder.optimize(translate(query)));
+        return builder.build();
+    }
+
+    private static QueryUnfolder createUnfolder() {
+        return INJECTOR.getInstance(TranslationFactory.class).create(SPECIFICATION.getSaturatedMapping());
+    }
+
+    private static IQ translate(String query) throws Exception {
+        return INJECTOR.getInstance(InputQueryFactory.class)
+                .createSelectQuery(PREFIXES + query)
+                .translate(INJECTOR.getInstance(InputQueryTranslator.class));
+    }
+}
@@ -0,0 +1,287 @@
+package it.unibz.inf.ontop.answering.reformulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.dbschema.impl.ImmutableMetadataImpl;
+import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.SpecificationFactory;
+import it.unibz.inf.ontop.injection.OntopSystemSQLConfiguration;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.dbschema.tools.DBMetadataExtractorAndSerializer;
+import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import it.unibz.inf.ontop.spec.mapping.impl.SpecificationSnapshot;
+import it.unibz.inf.ontop.spec.mapping.impl.SpecificationSnapshotSerializer;
+import it.unibz.inf.ontop.spec.ontology.ClassifiedTBox;
+import org.apache.commons.rdf.api.IRI;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The OBDA specification is loaded from the serialized DB metadata (or from a specification snapshot),
+ * while being connected to an empty database (the catalog is not used).
+ */
+public class SerializedDBMetadataTest {
+
+    private static final String OBDA_FILE = "src/test/resources/marriage/marriage.obda";
+    private static final String CREATE_DB_FILE = "src/test/resources/marriage/create-db.sql";
+    private static final String JDBC_URL = "jdbc:h2:mem:serializedmetadatadb";
+    private static final String EMPTY_JDBC_URL = "jdbc:h2:mem:serializedmetadataemptydb";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+    private static final String WRONG_JDBC_PASSWORD = "wrong";
+    private static final String PERSON_PREFIX = "http://example.com/person/";
+
+    /*
+     * DB connections (keep them alive)
+     */
+    private static Connection CONN;
+    private static Connection EMPTY_CONN;
+    private static File DB_METADATA_FILE;
+    private static File SNAPSHOT_FILE;
+    private static File OUTDATED_SNAPSHOT_FILE;
+    private static OBDASpecification SPECIFICATION;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+        EMPTY_CONN = DriverManager.getConnection(EMPTY_JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+
+        try (Statement st = CONN.createStatement()) {
+            String s = Files.lines(Paths.get(CREATE_DB_FILE)).collect(joining());
+            st.executeUpdate(s);
+            CONN.commit();
+        }
+
+        OntopMappingSQLAllConfiguration configuration = createMappingConfigurationBuilder(JDBC_URL).build();
+        String dbMetadata = configuration.getInjector()
+                .getInstance(DBMetadataExtractorAndSerializer.class)
+                .extractAndSerialize();
+
+        DB_METADATA_FILE = File.createTempFile("ontop-db-metadata", ".json");
+        DB_METADATA_FILE.deleteOnExit();
+        Files.write(DB_METADATA_FILE.toPath(), dbMetadata.getBytes(StandardCharsets.UTF_8));
+
+        SPECIFICATION = configuration.loadSpecification();
+        byte[] fingerprint = SpecificationSnapshot.computeFingerprint(
+                configuration.loadProvidedPPMapping().getTripleMaps(), Optional.empty(), Optional.empty(),
+                configuration.getSettings(), configuration.getTmappingExclusions());
+        SpecificationSnapshotSerializer serializer = configuration.getInjector()
+                .getInstance(SpecificationSnapshotSerializer.class);
+
+        SNAPSHOT_FILE = File.createTempFile("ontop-snapshot", ".bin");
+        SNAPSHOT_FILE.deleteOnExit();
+        assertTrue(serializer.write(SPECIFICATION, dbMetadata, fingerprint, SNAPSHOT_FILE));
+
+        OUTDATED_SNAPSHOT_FILE = File.createTempFile("ontop-outdated-snapshot", ".bin");
+        OUTDATED_SNAPSHOT_FILE.deleteOnExit();
+        assertTrue(serializer.write(SPECIFICATION, dbMetadata, new byte[fingerprint.length],
+                OUTDATED_SNAPSHOT_FILE));
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+        EMPTY_CONN.close();
+    }
+
+    @Test
+    public void testQueryEngine() throws Exception {
+        checkQueryEngine(createMappingConfigurationBuilder(EMPTY_JDBC_URL)
+                .dbMetadataFile(DB_METADATA_FILE)
+                .build()
+                .loadSpecification());
+    }
+
+    /**
+     * The JDBC URL is part of the fingerprint: the wrong password shows that the snapshot is loaded
+     * without connecting to the database.
+     */
+    @Test
+    public void testSpecificationSnapshot() throws Exception {
+        OBDASpecification specification = createMappingConfigurationBuilder(JDBC_URL, WRONG_JDBC_PASSWORD)
+                .specificationSnapshotFile(SNAPSHOT_FILE)
+                .build()
+                .loadSpecification();
+
+        Mapping expectedMapping = SPECIFICATION.getSaturatedMapping();
+        Mapping mapping = specification.getSaturatedMapping();
+        assertEquals(expectedMapping.getRDFAtomPredicates(), mapping.getRDFAtomPredicates());
+        for (RDFAtomPredicate predicate : expectedMapping.getRDFAtomPredicates()) {
+            assertEquals(expectedMapping.getRDFProperties(predicate), mapping.getRDFProperties(predicate));
+            for (IRI property : expectedMapping.getRDFProperties(predicate))
+                assertEquals(expectedMapping.getRDFPropertyDefinition(predicate, property).map(Object::toString),
+                        mapping.getRDFPropertyDefinition(predicate, property).map(Object::toString));
+
+            assertEquals(expectedMapping.getRDFClasses(predicate), mapping.getRDFClasses(predicate));
+            for (IRI rdfClass : expectedMapping.getRDFClasses(predicate))
+                assertEquals(expectedMapping.getRDFClassDefinition(predicate, rdfClass).map(Object::toString),
+                        mapping.getRDFClassDefinition(predicate, rdfClass).map(Object::toString));
+        }
+
+        checkQueryEngine(specification);
+    }
+
+    @Test
+    public void testOutdatedSpecificationSnapshot() {
+        try {
+            createMappingConfigurationBuilder(JDBC_URL, WRONG_JDBC_PASSWORD)
+                    .specificationSnapshotFile(OUTDATED_SNAPSHOT_FILE)
+                    .build()
+                    .loadSpecification();
+            fail("The specification snapshot should have been found outdated (fingerprint mismatch)");
+        }
+        catch (OBDASpecificationException e) {
+            // Expected: the relations are extracted from the database, with the wrong password
+        }
+    }
+
+    @Test
+    public void testSpecificationSnapshotOfAnotherDatabase() {
+        try {
+            createMappingConfigurationBuilder(EMPTY_JDBC_URL)
+                    .specificationSnapshotFile(SNAPSHOT_FILE)
+                    .build()
+                    .loadSpecification();
+            fail("The specification snapshot should have been found outdated (the JDBC URL has changed)");
+        }
+        catch (OBDASpecificationException e) {
+            // Expected: the relations are extracted from the empty database
+        }
+    }
+
+    /**
+     * A TBox that cannot be serialized: no snapshot is written
+     */
+    @Test
+    public void testUnsupportedTBox() throws Exception {
+        OntopMappingSQLAllConfiguration configuration = createMappingConfigurationBuilder(JDBC_URL).build();
+        ClassifiedTBox tbox = (ClassifiedTBox) Proxy.newProxyInstance(ClassifiedTBox.class.getClassLoader(),
+                new Class<?>[]{ClassifiedTBox.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        OBDASpecification specification = configuration.getInjector()
+                .getInstance(SpecificationFactory.class)
+                .createSpecification(SPECIFICATION.getSaturatedMapping(), SPECIFICATION.getDBParameters(), tbox);
+
+        File snapshotFile = new File(SNAPSHOT_FILE.getPath() + ".unsupported");
+        assertFalse(configuration.getInjector()
+                .getInstance(SpecificationSnapshotSerializer.class)
+                .write(specification, "{}", new byte[32], snapshotFile));
+        assertFalse(snapshotFile.exists());
+    }
+
+    @Test
+    public void testMissingFormatVersion() throws Exception {
+        checkUnsupportedFormatVersion(n -> n.remove("formatVersion"), "no format version");
+    }
+
+    @Test
+    public void testFormatVersionMismatch() throws Exception {
+        checkUnsupportedFormatVersion(n -> n.put("formatVersion", ImmutableMetadataImpl.FORMAT_VERSION + 1),
+                "format version " + (ImmutableMetadataImpl.FORMAT_VERSION + 1));
+    }
+
+    private static void checkUnsupportedFormatVersion(Consumer<ObjectNode> modifier, String expectedMessage)
+            throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = (ObjectNode) mapper.readTree(DB_METADATA_FILE);
+        assertEquals(ImmutableMetadataImpl.FORMAT_VERSION, root.path("formatVersion").intValue());
+        modifier.accept(root);
+
+        File dbMetadataFile = File.createTempFile("ontop-db-metadata-unsupported", ".json");
+        dbMetadataFile.deleteOnExit();
+        mapper.writeValue(dbMetadataFile, root);
+
+        try {
+            createMappingConfigurationBuilder(EMPTY_JDBC_URL)
+                    .dbMetadataFile(dbMetadataFile)
+                    .build()
+                    .loadSpecification();
+            fail("The format version of the DB metadata file should have been rejected");
+        }
+        catch (OBDASpecificationException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(expectedMessage));
+            assertTrue(e.getMessage(), e.getMessage().contains("extract-db-metadata"));
+        }
+    }
+
+    @Test
+    public void testStalenessCheck() {
+        try {
+            createMappingConfigurationBuilder(EMPTY_JDBC_URL)
+                    .dbMetadataFile(DB_METADATA_FILE)
+                    .enableDBMetadataStalenessCheck(true)
+                    .build()
+                    .loadSpecification();
+            fail("The DB metadata file should have been found stale (the person table is missing)");
+        }
+        catch (OBDASpecificationException e) {
+            // Expected: the relations are extracted from the empty database
+        }
+    }
+
+    private static void checkQueryEngine(OBDASpecification obdaSpecification) throws Exception {
+        OntopSystemSQLConfiguration systemConfiguration = OntopSystemSQLConfiguration.defaultBuilder()
+                .obdaSpecification(obdaSpecification)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build();
+
+        try (OntopQueryEngine queryEngine = systemConfiguration.loadQueryEngine()) {
+            queryEngine.connect();
+
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement statement = connection.createStatement();
+                 TupleResultSet resultSet = statement.execute(connection.getInputQueryFactory().createSelectQuery(
+                         "PREFIX : <http://example.org/marriage/voc#>\n" +
+                                 "SELECT ?x WHERE { ?x a :Person ; :hasSpouse ?y }"))) {
+
+                ImmutableSet.Builder<String> answerBuilder = ImmutableSet.builder();
+                while (resultSet.hasNext())
+                    answerBuilder.add(resultSet.next().getBinding("x").getValue().getValue());
+
+                assertEquals(ImmutableSet.of(PERSON_PREFIX + 1, PERSON_PREFIX + 2), answerBuilder.build());
+            }
+        }
+    }
+
+    private static OntopMappingSQLAllConfiguration.Builder<? extends OntopMappingSQLAllConfiguration.Builder> createMappingConfigurationBuilder(String jdbcUrl) {
+        return createMappingConfigurationBuilder(jdbcUrl, JDBC_PASSWORD);
+    }
+
+    private static OntopMappingSQLAllConfiguration.Builder<? extends OntopMappingSQLAllConfiguration.Builder> createMappingConfigurationBuilder(String jdbcUrl, String jdbcPassword) {
+        return OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(OBDA_FILE)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(jdbcPassword)
+                .jdbcUrl(jdbcUrl)
+                .enableTestMode();
+    }
+}
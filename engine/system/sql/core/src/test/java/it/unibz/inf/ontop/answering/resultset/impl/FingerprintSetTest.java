@@ -0,0 +1,70 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FingerprintSetTest {
+
+    @Test
+    public void testInMemory() throws Exception {
+        try (FingerprintSet set = new FingerprintSet(1 << 20)) {
+            assertTrue(set.add(0, 0));
+            assertFalse(set.add(0, 0));
+            assertTrue(set.add(1, 2));
+            assertTrue(set.add(1, 3));
+            assertFalse(set.add(1, 2));
+            assertTrue(set.getRunCount() == 0);
+        }
+    }
+
+    /**
+     * A tiny budget forces many spills and merges
+     */
+    @Test
+    public void testSpill() throws Exception {
+        int count = 20000;
+        try (FingerprintSet set = new FingerprintSet(1024)) {
+            Random random = new Random(42);
+            for (int i = 0; i < count; i++)
+                assertTrue(set.add(random.nextLong(), random.nextLong()));
+
+            assertTrue(set.getRunCount() > 0);
+
+            random = new Random(42);
+            for (int i = 0; i < count; i++)
+                assertFalse(set.add(random.nextLong(), random.nextLong()));
+
+            // Same high part, different low part
+            random = new Random(42);
+            for (int i = 0; i < count; i++) {
+                long high = random.nextLong();
+                assertTrue(set.add(high, random.nextLong() + 1));
+            }
+        }
+    }
+
+    /**
+     * Runs spanning several (tiny) segments, merged level by level
+     */
+    @Test
+    public void testCascadingMerges() throws Exception {
+        // About 600 runs of 33 fingerprints are spilled
+        int count = 20000;
+        try (FingerprintSet set = new FingerprintSet(1024, 16)) {
+            Random random = new Random(42);
+            for (int i = 0; i < count; i++) {
+                assertTrue(set.add(random.nextLong(), random.nextLong()));
+                // At most 7 runs per level, and 4 levels
+                assertTrue(set.getRunCount() <= 28);
+            }
+
+            random = new Random(42);
+            for (int i = 0; i < count; i++)
+                assertFalse(set.add(random.nextLong(), random.nextLong()));
+        }
+    }
+}
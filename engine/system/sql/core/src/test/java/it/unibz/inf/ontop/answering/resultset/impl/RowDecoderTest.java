@@ -0,0 +1,196 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * The compiled RowDecoder must produce the same bindings as the substitution-based path (SQLOntopBindingSet)
+ */
+public class RowDecoderTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:rowdecoderdb";
+    private static final String SELECT_QUERY = "SELECT \"v0\", \"v1\", \"v2\" FROM \"ROWS\" ORDER BY \"id\"";
+
+    private static Connection CONN;
+    private static TermFactory TERM_FACTORY;
+    private static TypeFactory TYPE_FACTORY;
+    private static SubstitutionFactory SUBSTITUTION_FACTORY;
+
+    private static Variable V0, V1, V2;
+    private static ImmutableSortedSet<Variable> SQL_SIGNATURE;
+    private static ImmutableMap<Variable, DBTermType> SQL_TYPE_MAP;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, "sa", "");
+        try (Statement st = CONN.createStatement()) {
+            st.executeUpdate("CREATE TABLE \"ROWS\" (\"id\" INT PRIMARY KEY, \"v0\" INT, \"v1\" VARCHAR(100), \"v2\" VARCHAR(100))");
+            st.executeUpdate("INSERT INTO \"ROWS\" VALUES (1, 1, 'simple', 'en-value')");
+            st.executeUpdate("INSERT INTO \"ROWS\" VALUES (2, 2, 'needs encoding: é/?#{}', NULL)");
+            st.executeUpdate("INSERT INTO \"ROWS\" VALUES (3, NULL, NULL, NULL)");
+            st.executeUpdate("INSERT INTO \"ROWS\" VALUES (4, -30, '', '\"quoted\"')");
+        }
+
+        Injector injector = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl(JDBC_URL)
+                .jdbcDriver("org.h2.Driver")
+                .enableTestMode()
+                .build()
+                .getInjector();
+        TERM_FACTORY = injector.getInstance(TermFactory.class);
+        TYPE_FACTORY = injector.getInstance(TypeFactory.class);
+        SUBSTITUTION_FACTORY = injector.getInstance(SubstitutionFactory.class);
+
+        V0 = TERM_FACTORY.getVariable("v0");
+        V1 = TERM_FACTORY.getVariable("v1");
+        V2 = TERM_FACTORY.getVariable("v2");
+        SQL_SIGNATURE = ImmutableSortedSet.of(V0, V1, V2);
+
+        DBTypeFactory dbTypeFactory = TYPE_FACTORY.getDBTypeFactory();
+        SQL_TYPE_MAP = ImmutableMap.of(
+                V0, dbTypeFactory.getDBLargeIntegerType(),
+                V1, dbTypeFactory.getDBStringType(),
+                V2, dbTypeFactory.getDBStringType());
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Test
+    public void testIRITemplates() throws Exception {
+        Variable x = TERM_FACTORY.getVariable("x");
+        Variable y = TERM_FACTORY.getVariable("y");
+        ImmutableSubstitution<ImmutableTerm> substitution = SUBSTITUTION_FACTORY.getSubstitution(ImmutableMap.of(
+                x, TERM_FACTORY.getIRIFunctionalTerm("http://example.org/person/{}", ImmutableList.of(V0)),
+                y, TERM_FACTORY.getIRIFunctionalTerm("http://example.org/{}/{}", ImmutableList.of(V0, V1))));
+
+        assertSameBindings(ImmutableList.of(x, y), substitution);
+    }
+
+    @Test
+    public void testTypedAndLangLiterals() throws Exception {
+        Variable n = TERM_FACTORY.getVariable("n");
+        Variable s = TERM_FACTORY.getVariable("s");
+        Variable l = TERM_FACTORY.getVariable("l");
+        ImmutableSubstitution<ImmutableTerm> substitution = SUBSTITUTION_FACTORY.getSubstitution(ImmutableMap.of(
+                n, TERM_FACTORY.getRDFLiteralFunctionalTerm(V0, XSD.INTEGER),
+                s, TERM_FACTORY.getRDFLiteralFunctionalTerm(V1, XSD.STRING),
+                l, TERM_FACTORY.getRDFLiteralFunctionalTerm(V2, "en")));
+
+        assertSameBindings(ImmutableList.of(n, s, l), substitution);
+    }
+
+    /**
+     * Unbound variables and NULL columns (the third row only contains NULLs)
+     */
+    @Test
+    public void testNulls() throws Exception {
+        Variable x = TERM_FACTORY.getVariable("x");
+        Variable n = TERM_FACTORY.getVariable("n");
+        Variable u = TERM_FACTORY.getVariable("u");
+        ImmutableSubstitution<ImmutableTerm> substitution = SUBSTITUTION_FACTORY.getSubstitution(ImmutableMap.of(
+                x, TERM_FACTORY.getIRIFunctionalTerm("http://example.org/{}", ImmutableList.of(V2)),
+                n, TERM_FACTORY.getRDFLiteralFunctionalTerm(V2, XSD.STRING),
+                u, TERM_FACTORY.getNullConstant()));
+
+        assertSameBindings(ImmutableList.of(x, n, u), substitution);
+    }
+
+    /**
+     * The term type is not a constant: evaluated by simplification, restricted to the sub-term
+     */
+    @Test
+    public void testGenericFallback() throws Exception {
+        Variable o = TERM_FACTORY.getVariable("o");
+        ImmutableTerm typeTerm = TERM_FACTORY.getIfElseNull(
+                TERM_FACTORY.getDBIsNotNull(V2),
+                TERM_FACTORY.getRDFTermTypeConstant(TYPE_FACTORY.getXsdStringDatatype()));
+        ImmutableSubstitution<ImmutableTerm> substitution = SUBSTITUTION_FACTORY.getSubstitution(ImmutableMap.of(
+                o, TERM_FACTORY.getRDFFunctionalTerm(V2, typeTerm)));
+
+        assertSameBindings(ImmutableList.of(o), substitution);
+    }
+
+    /**
+     * Refers to a variable not provided by the SQL query: the regular path must be used
+     */
+    @Test
+    public void testNonCompilable() {
+        Variable x = TERM_FACTORY.getVariable("x");
+        ImmutableSubstitution<ImmutableTerm> substitution = SUBSTITUTION_FACTORY.getSubstitution(ImmutableMap.of(
+                x, TERM_FACTORY.getIRIFunctionalTerm("http://example.org/{}",
+                        ImmutableList.of(TERM_FACTORY.getVariable("missing")))));
+
+        assertFalse(RowDecoder.compile(ImmutableList.of(x), SQL_SIGNATURE, SQL_TYPE_MAP, substitution,
+                TERM_FACTORY, SUBSTITUTION_FACTORY).isPresent());
+
+        // Missing type for a column
+        ImmutableSubstitution<ImmutableTerm> otherSubstitution = SUBSTITUTION_FACTORY.getSubstitution(ImmutableMap.of(
+                x, TERM_FACTORY.getIRIFunctionalTerm("http://example.org/{}", ImmutableList.of(V0))));
+        assertFalse(RowDecoder.compile(ImmutableList.of(x), SQL_SIGNATURE,
+                ImmutableMap.of(V0, SQL_TYPE_MAP.get(V0)), otherSubstitution,
+                TERM_FACTORY, SUBSTITUTION_FACTORY).isPresent());
+    }
+
+    private static void assertSameBindings(ImmutableList<Variable> signature,
+                                           ImmutableSubstitution<ImmutableTerm> substitution) throws Exception {
+        Optional<RowDecoder> decoder = RowDecoder.compile(signature, SQL_SIGNATURE, SQL_TYPE_MAP, substitution,
+                TERM_FACTORY, SUBSTITUTION_FACTORY);
+        assertTrue(decoder.isPresent());
+
+        int rowCount = 0;
+        try (Statement st = CONN.createStatement();
+             ResultSet rs = st.executeQuery(SELECT_QUERY)) {
+            while (rs.next()) {
+                rowCount++;
+                RDFConstant[] decodedValues = decoder.get().decode(rs);
+                SQLOntopBindingSet expected = new SQLOntopBindingSet(signature, readRow(rs), substitution);
+                DecodedOntopBindingSet decoded = new DecodedOntopBindingSet(signature, decodedValues);
+
+                for (Variable v : signature)
+                    assertEquals("Row " + rowCount + ", " + v, expected.getConstant(v.getName()),
+                            decoded.getConstant(v.getName()));
+                assertEquals(expected.getBindingNames(), decoded.getBindingNames());
+            }
+        }
+        assertEquals(4, rowCount);
+    }
+
+    /**
+     * Same conversion as JDBCTupleResultSet
+     */
+    private static ImmutableSubstitution<Constant> readRow(ResultSet rs) throws Exception {
+        ImmutableMap.Builder<Variable, Constant> builder = ImmutableMap.builder();
+        int i = 1;
+        for (Variable v : SQL_SIGNATURE) {
+            String value = rs.getString(i++);
+            builder.put(v, value == null
+                    ? TERM_FACTORY.getNullConstant()
+                    : TERM_FACTORY.getDBConstant(value, SQL_TYPE_MAP.get(v)));
+        }
+        return SUBSTITUTION_FACTORY.getSubstitution(builder.build());
+    }
+}
@@ -52,16 +52,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.FileReader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class OntopMaterializerTest {
 
@@ -132,6 +137,10 @@ public class OntopMaterializerTest {
     }
 
 	private static OntopStandaloneSQLConfiguration.Builder<? extends OntopStandaloneSQLConfiguration.Builder> createAndInitConfiguration() {
+		return createAndInitConfiguration(url);
+	}
+
+	private static OntopStandaloneSQLConfiguration.Builder<? extends OntopStandaloneSQLConfiguration.Builder> createAndInitConfiguration(String url) {
 		return OntopStandaloneSQLConfiguration.defaultBuilder()
 				.jdbcUrl(url)
 				.jdbcUser(username)
@@ -190,6 +199,112 @@ public class OntopMaterializerTest {
 
 
 
+	@Test
+	public void testParallel() throws Exception {
+		String parallelUrl = "jdbc:h2:mem:aboxdumpparallel";
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration(parallelUrl)
+				.ppMapping(createMapping())
+				.build();
+
+		try (Connection conn = DriverManager.getConnection(parallelUrl, username, password);
+			 Statement st = conn.createStatement()) {
+			String s = Files.lines(Paths.get("src/test/resources/mapping-test-db.sql")).collect(joining());
+			st.executeUpdate(s);
+			conn.commit();
+
+			ImmutableSet<IRI> vocabulary = Stream.of(fnIRI, lnIRI, ageIRI, hasschoolIRI, schoolIRI)
+					.collect(ImmutableCollectors.toSet());
+
+			for (boolean preserveOrder : new boolean[]{true, false}) {
+				List<IRI> materializedPredicates = new ArrayList<>();
+				MaterializationParams params = MaterializationParams.defaultBuilder()
+						.parallelism(3)
+						.preserveVocabularyOrder(preserveOrder)
+						.bufferSize(2)
+						.progressListener((p, count, time, isComplete) -> materializedPredicates.add(p))
+						.build();
+
+				OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration, params);
+				try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(vocabulary)) {
+					ImmutableList.Builder<Assertion> rdfGraphBuilder = ImmutableList.builder();
+					while (materializationResultSet.hasNext()) {
+						rdfGraphBuilder.add(materializationResultSet.next());
+					}
+					assertEquals(15, rdfGraphBuilder.build().size());
+					assertEquals(15, materializationResultSet.getTripleCountSoFar());
+
+					assertEquals(vocabulary, ImmutableSet.copyOf(materializedPredicates));
+					if (preserveOrder)
+						assertEquals(materializationResultSet.getSelectedVocabulary().asList(), materializedPredicates);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testNTriplesFastPath() throws Exception {
+		String fastPathUrl = "jdbc:h2:mem:aboxdumpntriples";
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration(fastPathUrl)
+				.ppMapping(createMapping())
+				.build();
+
+		try (Connection conn = DriverManager.getConnection(fastPathUrl, username, password);
+			 Statement st = conn.createStatement()) {
+			String s = Files.lines(Paths.get("src/test/resources/mapping-test-db.sql")).collect(joining());
+			st.executeUpdate(s);
+			conn.commit();
+
+			ImmutableSet<IRI> vocabulary = Stream.of(fnIRI, lnIRI, ageIRI, hasschoolIRI, schoolIRI)
+					.collect(ImmutableCollectors.toSet());
+
+			OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration,
+					MaterializationParams.defaultBuilder()
+							.parallelism(2)
+							.build());
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			try (NTriplesOutput output = NTriplesOutput.toStream(outputStream, false)) {
+				assertEquals(15, materializer.materializeToNTriples(vocabulary, output));
+			}
+			List<String> lines = Arrays.asList(outputStream.toString("UTF-8").split("\n"));
+			assertEquals(15, lines.size());
+			assertTrue(lines.contains("<http://schools.com/person/mariano-rodriguez> <" + fnIRI.getIRIString() + "> \"mariano\" ."));
+		}
+	}
+
+	/**
+	 * Literals are not valid subjects in N-Triples: the answers with a literal subject are ignored
+	 */
+	@Test
+	public void testNTriplesFastPathLiteralSubject() throws Exception {
+		String fastPathUrl = "jdbc:h2:mem:aboxdumpntriplesliteral";
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration(fastPathUrl)
+				.ppMapping(createLiteralSubjectMapping())
+				.build();
+
+		try (Connection conn = DriverManager.getConnection(fastPathUrl, username, password);
+			 Statement st = conn.createStatement()) {
+			String s = Files.lines(Paths.get("src/test/resources/mapping-test-db.sql")).collect(joining());
+			st.executeUpdate(s);
+			conn.commit();
+
+			ImmutableSet<IRI> vocabulary = Stream.of(fnIRI, lnIRI)
+					.collect(ImmutableCollectors.toSet());
+
+			OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration,
+					MaterializationParams.defaultBuilder()
+							.parallelism(2)
+							.build());
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			try (NTriplesOutput output = NTriplesOutput.toStream(outputStream, false)) {
+				assertEquals(3, materializer.materializeToNTriples(vocabulary, output));
+			}
+			List<String> lines = Arrays.asList(outputStream.toString("UTF-8").split("\n"));
+			assertEquals(3, lines.size());
+			assertTrue(lines.stream().allMatch(l -> l.startsWith("<http://schools.com/person/")
+					&& l.contains("<" + fnIRI.getIRIString() + ">")));
+		}
+	}
+
 	private SQLPPMapping createMapping()  {
 
 		String sql = "SELECT \"fn\", \"ln\", \"age\", \"schooluri\" FROM \"data\"";
@@ -218,6 +333,29 @@ public class OntopMaterializerTest {
 		return ppMappingFactory.createSQLPreProcessedMapping(ImmutableList.of(map1), prefixManager);
 	}
 
+	/**
+	 * The subject of the ln triples is a literal
+	 */
+	private SQLPPMapping createLiteralSubjectMapping()  {
+
+		String sql = "SELECT \"fn\", \"ln\" FROM \"data\"";
+
+		ImmutableFunctionalTerm personTemplate = termFactory.getIRIFunctionalTerm(
+				"http://schools.com/person/{}-{}",
+				ImmutableList.of(
+					termFactory.getVariable("fn"),
+					termFactory.getVariable("ln")));
+
+		ImmutableList<TargetAtom> body =  ImmutableList.of(
+			targetAtomFactory.getTripleTargetAtom(personTemplate, fn, termFactory.getRDFLiteralFunctionalTerm(termFactory.getVariable("fn"), xsdStringDt)),
+			targetAtomFactory.getTripleTargetAtom(termFactory.getRDFLiteralFunctionalTerm(termFactory.getVariable("fn"), xsdStringDt), ln, termFactory.getRDFLiteralFunctionalTerm(termFactory.getVariable("ln"), xsdStringDt)));
+
+		SQLPPTriplesMap map1 = new OntopNativeSQLPPTriplesMap(IDGenerator.getNextUniqueID("MAPID-"), sourceQueryFactory.createSourceQuery(sql), body);
+
+		PrefixManager prefixManager = specificationFactory.createPrefixManager(ImmutableMap.of());
+		return ppMappingFactory.createSQLPreProcessedMapping(ImmutableList.of(map1), prefixManager);
+	}
+
 
 //	public void testTwoSources() throws Exception {
 //        try{
@@ -31,7 +31,8 @@ public class OntopSQLOWLAPIConfigurationImpl extends OntopStandaloneSQLConfigura
 
     @Override
     public OBDASpecification loadOBDASpecification() throws OBDASpecificationException {
-        return loadSpecification(mappingOWLConfiguration::loadOntology);
+        return loadSpecification(mappingOWLConfiguration::loadOntology,
+                mappingOWLConfiguration::computeOntologyFingerprint);
     }
 
     @Override
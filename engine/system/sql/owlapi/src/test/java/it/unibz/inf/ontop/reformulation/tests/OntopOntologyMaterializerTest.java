@@ -23,6 +23,8 @@ package it.unibz.inf.ontop.reformulation.tests;
 import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.materialization.OntopRDFMaterializer;
+import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
 import it.unibz.inf.ontop.spec.ontology.Assertion;
 import it.unibz.inf.ontop.spec.ontology.ClassAssertion;
 import it.unibz.inf.ontop.spec.ontology.ObjectPropertyAssertion;
@@ -166,4 +168,28 @@ public class OntopOntologyMaterializerTest extends TestCase {
 			assertEquals(3, objAss); //3 since no subprop for obj prop
 		}
 	}
+
+	public void testParallelMappingCompilation() throws Exception {
+		Mapping sequentialMapping = loadSaturatedMapping(false);
+		Mapping parallelMapping = loadSaturatedMapping(true);
+
+		assertEquals(sequentialMapping.getRDFAtomPredicates(), parallelMapping.getRDFAtomPredicates());
+		for (RDFAtomPredicate predicate : sequentialMapping.getRDFAtomPredicates())
+			assertEquals(sequentialMapping.getQueries(predicate).toString(),
+					parallelMapping.getQueries(predicate).toString());
+	}
+
+	private Mapping loadSaturatedMapping(boolean parallel) throws Exception {
+		return OntopSQLOWLAPIConfiguration.defaultBuilder()
+				.ontologyFile("src/test/resources/materializer/MaterializeTest.owl")
+				.nativeOntopMappingFile("src/test/resources/materializer/MaterializeTest.obda")
+				.jdbcUrl(url)
+				.jdbcUser(username)
+				.jdbcPassword(password)
+				.enableParallelMappingCompilation(parallel)
+				.enableTestMode()
+				.build()
+				.loadSpecification()
+				.getSaturatedMapping();
+	}
 }
@@ -29,6 +29,8 @@ public interface OntopMappingConfiguration extends OntopOBDAConfiguration, Ontop
 
         B enableDefaultDatatypeInference(boolean inferDefaultDatatype);
 
+        B enableParallelMappingCompilation(boolean parallelMappingCompilation);
+
     }
 
     interface Builder<B extends Builder<B>> extends OntopMappingBuilderFragment<B>, OntopOBDAConfiguration.Builder<B>,
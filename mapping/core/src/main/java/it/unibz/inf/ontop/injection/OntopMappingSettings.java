@@ -35,6 +35,12 @@ public interface OntopMappingSettings extends OntopOBDASettings, OntopOptimizati
      */
     boolean isCanIRIComplete();
 
+    /**
+     * If true, the mapping assertions are transformed and saturated in parallel (common fork-join pool).
+     * The resulting mapping is the same as in the sequential mode.
+     */
+    boolean isParallelMappingCompilationEnabled();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -43,6 +49,7 @@ public interface OntopMappingSettings extends OntopOBDASettings, OntopOptimizati
     String INFER_DEFAULT_DATATYPE = "ontop.inferDefaultDatatype";
     String TOLERATE_ABSTRACT_DATATYPE = "ontop.tolerateAbstractDatatype";
     String IS_CANONICAL_IRI_COMPLETE = "ontop.isCanonicalIRIComplete";
+    String PARALLEL_MAPPING_COMPILATION = "ontop.parallelMappingCompilation";
 
 
     /**
@@ -0,0 +1,15 @@
+package it.unibz.inf.ontop.injection.impl;
+
+
+import it.unibz.inf.ontop.exception.OntologyException;
+
+import java.util.Optional;
+
+/**
+ * Digest of the input ontology (if any), for checking that a specification snapshot is up-to-date
+ */
+@FunctionalInterface
+public interface OntologyFingerprintSupplier {
+
+    Optional<byte[]> get() throws OntologyException;
+}
@@ -181,6 +181,7 @@ public class OntopMappingConfigurationImpl extends OntopOBDAConfigurationImpl im
         private final B builder;
         private Optional<Boolean> queryingAnnotationsInOntology = Optional.empty();
         private Optional<Boolean> inferDefaultDatatype =  Optional.empty();
+        private Optional<Boolean> parallelMappingCompilation = Optional.empty();
         private Optional<TMappingExclusionConfig> excludeFromTMappings = Optional.empty();
 
         DefaultOntopMappingBuilderFragment(B builder, Runnable declareDBMetadataCB) {
@@ -205,6 +206,12 @@ public class OntopMappingConfigurationImpl extends OntopOBDAConfigurationImpl im
             return builder;
         }
 
+        @Override
+        public B enableParallelMappingCompilation(boolean parallelMappingCompilation) {
+            this.parallelMappingCompilation = Optional.of(parallelMappingCompilation);
+            return builder;
+        }
+
         final OntopMappingOptions generateMappingOptions(OntopOBDAOptions obdaOptions,
                                                          OntopOptimizationOptions optimizationOptions) {
             return new OntopMappingOptions(excludeFromTMappings, obdaOptions, optimizationOptions);
@@ -214,6 +221,7 @@ public class OntopMappingConfigurationImpl extends OntopOBDAConfigurationImpl im
             Properties properties = new Properties();
             queryingAnnotationsInOntology.ifPresent(b -> properties.put(OntopMappingSettings.QUERY_ONTOLOGY_ANNOTATIONS, b));
             inferDefaultDatatype.ifPresent(b -> properties.put(OntopMappingSettings.INFER_DEFAULT_DATATYPE, b));
+            parallelMappingCompilation.ifPresent(b -> properties.put(OntopMappingSettings.PARALLEL_MAPPING_COMPILATION, b));
 
             return properties;
         }
@@ -255,6 +263,11 @@ public class OntopMappingConfigurationImpl extends OntopOBDAConfigurationImpl im
             return mappingBuilderFragment.enableDefaultDatatypeInference(inferDefaultDatatype);
         }
 
+        @Override
+        public B enableParallelMappingCompilation(boolean parallelMappingCompilation) {
+            return mappingBuilderFragment.enableParallelMappingCompilation(parallelMappingCompilation);
+        }
+
         final OntopMappingOptions generateMappingOptions() {
             return generateMappingOptions(generateOBDAOptions());
         }
@@ -46,4 +46,9 @@ class OntopMappingSettingsImpl extends OntopOBDASettingsImpl implements OntopMap
     public boolean isCanIRIComplete() {
         return getRequiredBoolean(IS_CANONICAL_IRI_COMPLETE);
     }
+
+    @Override
+    public boolean isParallelMappingCompilationEnabled() {
+        return getRequiredBoolean(PARALLEL_MAPPING_COMPILATION);
+    }
 }
@@ -45,6 +45,13 @@ public interface OBDASpecInput {
         return getFile(CONSTRAINT_KEY);
     }
 
+    /**
+     * Serialized DB metadata, used instead of extracting the DB metadata from the database
+     */
+    default Optional<Reader> getDBMetadataReader() {
+        return getReader(DB_METADATA_KEY);
+    }
+
 
     interface Builder {
 
@@ -69,6 +76,10 @@ public interface OBDASpecInput {
         default Builder addConstraintFile(File constraintFile) {
             return addFile(CONSTRAINT_KEY, constraintFile);
         }
+
+        default Builder addDBMetadataReader(Reader dbMetadataReader) {
+            return addReader(DB_METADATA_KEY, dbMetadataReader);
+        }
     }
 
 
@@ -78,6 +89,7 @@ public interface OBDASpecInput {
 
     String MAPPING_KEY = "mapping";
     String CONSTRAINT_KEY = "constraint";
+    String DB_METADATA_KEY = "dbMetadata";
 
 
 
@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Class for TMapping Optimization. The Mappings for the classes and properties in the configuration are assumed to "exact".
@@ -40,6 +41,15 @@ public class TMappingExclusionConfig {
         return  properties.contains(propertyExpression.getIRI().getIRIString());
     }
 
+    /**
+     * Sorted, so that equal configurations have the same string (see SpecificationSnapshot)
+     */
+    @Override
+    public String toString() {
+        return "TMappingExclusionConfig{classes=" + new TreeSet<>(classes)
+                + ", properties=" + new TreeSet<>(properties) + "}";
+    }
+
     private static final TMappingExclusionConfig EMPTY = new TMappingExclusionConfig(Collections.<String>emptySet(), Collections.<String>emptySet());
 
     /**
@@ -29,6 +29,7 @@ import it.unibz.inf.ontop.datalog.*;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.tools.UnionBasedQueryMerger;
 import it.unibz.inf.ontop.iq.transform.NoNullValueEnforcer;
@@ -52,6 +53,7 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 @Singleton
@@ -70,6 +72,7 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
     private final SubstitutionFactory substitutionFactory;
     private final CoreUtilsFactory coreUtilsFactory;
     private final CoreSingletons coreSingletons;
+    private final OntopMappingSettings settings;
 
     @Inject
 	private TMappingSaturatorImpl(TMappingExclusionConfig tMappingExclusionConfig,
@@ -77,7 +80,8 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
                                   UnionFlattener unionNormalizer,
                                   MappingCQCOptimizer mappingCqcOptimizer,
                                   UnionBasedQueryMerger queryMerger,
-                                  CoreSingletons coreSingletons) {
+                                  CoreSingletons coreSingletons,
+                                  OntopMappingSettings settings) {
         this.tMappingExclusionConfig = tMappingExclusionConfig;
 		this.atomFactory = coreSingletons.getAtomFactory();
 		this.termFactory = coreSingletons.getTermFactory();
@@ -89,6 +93,7 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
         this.substitutionFactory = coreSingletons.getSubstitutionFactory();
         this.coreUtilsFactory = coreSingletons.getCoreUtilsFactory();
         this.coreSingletons = coreSingletons;
+        this.settings = settings;
     }
 
     @Override
@@ -103,36 +108,48 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
         //     but the same IRI cannot be an object and a data or annotation property name at the same time
         // see https://www.w3.org/TR/owl2-new-features/#F12:_Punning
 
-        ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original = mapping.stream()
-                .flatMap(a -> unionSplitter.splitUnion(unionNormalizer.optimize(a.getQuery()))
+        // In the parallel mode, the results are first collected into (ordered) lists
+        // so that the saturated mapping does not depend on the scheduling
+        ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original = stream(mapping)
+                .map(a -> unionSplitter.splitUnion(unionNormalizer.optimize(a.getQuery()))
                         .map(IQ::normalizeForOptimization) // replaces join equalities
                         .map(q -> mappingCqcOptimizer.optimize(cqc, q))
-                        .map(q -> Maps.immutableEntry(a.getIndex(), new TMappingRule(q, termFactory, iqFactory))))
+                        .map(q -> Maps.immutableEntry(a.getIndex(), new TMappingRule(q, termFactory, iqFactory)))
+                        .collect(ImmutableCollectors.toList()))
+                .collect(ImmutableCollectors.toList()).stream()
+                .flatMap(Collection::stream)
                 .collect(ImmutableCollectors.toMultimap()).asMap();
 
-        ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> saturated = original.keySet().stream()
+        // one task per DAG node: the saturation of the representative is shared by the members of the node
+        ImmutableList<Supplier<Stream<Map.Entry<MappingAssertionIndex, ImmutableList<TMappingRule>>>>> nodeSaturations = original.keySet().stream()
                 .map(MappingAssertionIndex::getPredicate)
                 .distinct()
                 .map(rdfAtomPredicate -> new TMappingRuleHeadConstructorProvider(rdfAtomPredicate, termFactory))
                 .flatMap(provider -> Stream.concat(Stream.concat(
                     reasoner.objectPropertiesDAG().stream()
                         .filter(node -> !node.getRepresentative().isInverse() && !tMappingExclusionConfig.contains(node.getRepresentative()))
-                        .flatMap(node -> node.getMembers().stream()
+                        .map(node -> nodeSaturation(() -> node.getMembers().stream()
                                 .filter(d -> !d.isInverse() || d.getInverse() != node.getRepresentative())
-                                .map(saturator(node, reasoner.objectPropertiesDAG(), original, provider::constructor, cqc))),
+                                .map(saturator(node, reasoner.objectPropertiesDAG(), original, provider::constructor, cqc)))),
 
                     reasoner.dataPropertiesDAG().stream()
                         .filter(node -> !tMappingExclusionConfig.contains(node.getRepresentative()))
-                        .flatMap(node -> node.getMembers().stream()
-                                .map(saturator(node, reasoner.dataPropertiesDAG(), original, provider::constructor, cqc)))),
+                        .map(node -> nodeSaturation(() -> node.getMembers().stream()
+                                .map(saturator(node, reasoner.dataPropertiesDAG(), original, provider::constructor, cqc))))),
 
                     reasoner.classesDAG().stream()
                         .filter(node -> (node.getRepresentative() instanceof OClass) && !tMappingExclusionConfig.contains((OClass)node.getRepresentative()))
-                        .flatMap(node -> node.getMembers().stream()
+                        .map(node -> nodeSaturation(() -> node.getMembers().stream()
                                 .filter(d -> d instanceof OClass)
-                                .map(saturator(node, reasoner.classesDAG(), original, provider::constructor, cqc)))))
+                                .map(saturator(node, reasoner.classesDAG(), original, provider::constructor, cqc))))))
+                .collect(ImmutableCollectors.toList());
 
-                .filter(e -> !e.getValue().isEmpty())
+        ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> saturated = stream(nodeSaturations)
+                .map(nodeSaturation -> nodeSaturation.get()
+                        .filter(e -> !e.getValue().isEmpty())
+                        .collect(ImmutableCollectors.toList()))
+                .collect(ImmutableCollectors.toList()).stream()
+                .flatMap(Collection::stream)
                 .collect(ImmutableCollectors.toMap());
 
         ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> combined = Stream.concat(
@@ -143,11 +160,25 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
                                         .collect(TMappingEntry.toTMappingEntry(cqc, coreSingletons)))))
                 .collect(ImmutableCollectors.toMap());
 
-        return combined.entrySet().stream()
+        return stream(combined.entrySet().asList())
                 .map(e -> new MappingAssertion(e.getKey(), toIQ(e.getValue()), null))
                 .collect(ImmutableCollectors.toList());
     }
 
+    private <T> Stream<T> stream(ImmutableList<T> list) {
+        return settings.isParallelMappingCompilationEnabled()
+                ? list.parallelStream()
+                : list.stream();
+    }
+
+    /**
+     * Only for helping the type inference
+     */
+    private static Supplier<Stream<Map.Entry<MappingAssertionIndex, ImmutableList<TMappingRule>>>> nodeSaturation(
+            Supplier<Stream<Map.Entry<MappingAssertionIndex, ImmutableList<TMappingRule>>>> supplier) {
+        return supplier;
+    }
+
     private IQ toIQ(Collection<TMappingRule> rules) {
         return queryMerger.mergeDefinitions(rules.stream()
                         .map(r -> r.asIQ(iqFactory, termFactory, substitutionFactory))
@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.injection.OntopMappingSettings;
 import it.unibz.inf.ontop.injection.impl.OntopMappingOntologyBuilders.OntopMappingOntologyOptions;
 import it.unibz.inf.ontop.spec.ontology.Ontology;
 import it.unibz.inf.ontop.spec.ontology.owlapi.OWLAPITranslatorOWL2QL;
+import it.unibz.inf.ontop.spec.ontology.owlapi.OWLOntologyDigester;
 import org.protege.xmlcatalog.owlapi.XMLCatalogIRIMapper;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -102,6 +103,19 @@ public class OntopMappingOWLAPIConfigurationImpl extends OntopMappingConfigurati
         }
     }
 
+    /**
+     * See OWLOntologyDigester
+     */
+    Optional<byte[]> computeOntologyFingerprint() throws OntologyException {
+        try {
+            return loadInputOntology()
+                    .map(OWLOntologyDigester::digest);
+        }
+        catch (OWLOntologyCreationException e) {
+            throw new OntologyException(e.getMessage());
+        }
+    }
+
     static class OntopMappingOWLAPIOptions {
 
         private final Optional<OWLOntology> ontology;
@@ -43,8 +43,14 @@ public class OntopMappingSQLAllConfigurationImpl extends OntopMappingSQLConfigur
 
     OBDASpecification loadSpecification(OntologySupplier ontologySupplier)
             throws OBDASpecificationException {
+        return loadSpecification(ontologySupplier, Optional::empty);
+    }
+
+    OBDASpecification loadSpecification(OntologySupplier ontologySupplier,
+                                        OntologyFingerprintSupplier ontologyFingerprintSupplier)
+            throws OBDASpecificationException {
 
-        return loadSpecification(ontologySupplier,
+        return loadSpecification(ontologySupplier, ontologyFingerprintSupplier,
                 () -> options.mappingFile,
                 () -> options.mappingReader,
                 () -> options.mappingGraph,
@@ -6,6 +6,7 @@ import it.unibz.inf.ontop.injection.impl.OntopMappingSQLConfigurationImpl;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
 
 import javax.annotation.Nonnull;
+import java.io.File;
 import java.util.Optional;
 
 public interface OntopMappingSQLConfiguration extends OntopSQLCredentialConfiguration, OntopMappingConfiguration {
@@ -34,6 +35,23 @@ public interface OntopMappingSQLConfiguration extends OntopSQLCredentialConfigur
     interface OntopMappingSQLBuilderFragment<B extends Builder<B>> {
 
         B ppMapping(@Nonnull SQLPPMapping ppMapping);
+
+        /**
+         * DB metadata serialized by extract-db-metadata, used instead of the DB catalog
+         */
+        B dbMetadataFile(@Nonnull File dbMetadataFile);
+
+        B dbMetadataFile(@Nonnull String dbMetadataFilename);
+
+        B enableDBMetadataStalenessCheck(boolean checkStaleness);
+
+        /**
+         * Snapshot of the DB metadata and of the classified TBox written by the compile command.
+         * Ignored if it does not match the inputs (mapping, ontology, constraint file and properties).
+         */
+        B specificationSnapshotFile(@Nonnull File snapshotFile);
+
+        B specificationSnapshotFile(@Nonnull String snapshotFilename);
     }
 
     interface Builder<B extends Builder<B>> extends OntopMappingSQLBuilderFragment<B>,
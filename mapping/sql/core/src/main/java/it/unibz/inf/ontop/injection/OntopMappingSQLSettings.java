@@ -1,6 +1,34 @@
 package it.unibz.inf.ontop.injection;
 
 
+import java.util.Optional;
+
 public interface OntopMappingSQLSettings extends OntopMappingSettings, OntopSQLCredentialSettings {
 
+    /**
+     * DB metadata serialized by extract-db-metadata.
+     * When present, the relations are not extracted from the DB catalog.
+     */
+    Optional<String> getDBMetadataFile();
+
+    /**
+     * If true, the list of relations of the DB metadata file is compared with the one of the DB catalog
+     * (without extracting the relations themselves). If they differ, the DB metadata file is ignored.
+     */
+    boolean isDBMetadataStalenessCheckEnabled();
+
+    /**
+     * Snapshot of the DB metadata and of the classified TBox written by the compile command
+     * (see SpecificationSnapshotSerializer).
+     * Takes precedence over the DB metadata file when it matches the inputs.
+     */
+    Optional<String> getSpecificationSnapshotFile();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String DB_METADATA_FILE = "ontop.dbMetadataFile";
+    String CHECK_DB_METADATA_STALENESS = "ontop.dbMetadataFile.checkStaleness";
+    String SPECIFICATION_SNAPSHOT_FILE = "ontop.specificationSnapshotFile";
 }
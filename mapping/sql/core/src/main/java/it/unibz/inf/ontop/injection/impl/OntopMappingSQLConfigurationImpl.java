@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.inject.Module;
 import it.unibz.inf.ontop.exception.InvalidMappingException;
 import it.unibz.inf.ontop.exception.MappingIOException;
+import it.unibz.inf.ontop.exception.MissingInputMappingException;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.injection.impl.OntopSQLCoreConfigurationImpl.DefaultOntopSQLCoreBuilderFragment;
 import it.unibz.inf.ontop.injection.impl.OntopSQLCredentialConfigurationImpl.DefaultOntopSQLCredentialBuilderFragment;
@@ -13,15 +14,23 @@ import it.unibz.inf.ontop.iq.executor.ProposalExecutor;
 import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.injection.OntopMappingSQLConfiguration;
 import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.spec.mapping.impl.SpecificationSnapshot;
+import it.unibz.inf.ontop.spec.mapping.impl.SpecificationSnapshotSerializer;
+import it.unibz.inf.ontop.spec.mapping.impl.SpecificationSnapshotSerializer.Snapshot;
 import it.unibz.inf.ontop.spec.mapping.parser.SQLMappingParser;
 import it.unibz.inf.ontop.iq.proposal.QueryOptimizationProposal;
 import it.unibz.inf.ontop.spec.mapping.pp.PreProcessedMapping;
+import it.unibz.inf.ontop.spec.OBDASpecInput;
 import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.OBDASpecificationExtractor;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
 import org.apache.commons.rdf.api.Graph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.io.File;
+import java.io.IOException;
 import java.io.Reader;
 import java.util.Optional;
 import java.util.Properties;
@@ -30,6 +39,8 @@ import java.util.stream.Stream;
 
 public class OntopMappingSQLConfigurationImpl extends OntopMappingConfigurationImpl implements OntopMappingSQLConfiguration {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(OntopMappingSQLConfigurationImpl.class);
+
     private final OntopMappingSQLSettings settings;
     private final OntopMappingSQLOptions options;
     private final OntopSQLCredentialConfigurationImpl sqlConfiguration;
@@ -81,14 +92,76 @@ public class OntopMappingSQLConfigurationImpl extends OntopMappingConfigurationI
                                         Supplier<Optional<Graph>> mappingGraphSupplier,
                                         Supplier<Optional<File>> constraintFileSupplier)
             throws OBDASpecificationException {
+        return loadSpecification(ontologySupplier, Optional::empty, mappingFileSupplier, mappingReaderSupplier,
+                mappingGraphSupplier, constraintFileSupplier);
+    }
+
+    /**
+     * When a specification snapshot is given and matches the inputs, the DB metadata and the classified TBox
+     * are read from it (the mapping is compiled again).
+     * Otherwise (in which case a warning is logged), the specification is extracted from the inputs.
+     */
+    OBDASpecification loadSpecification(OntologySupplier ontologySupplier,
+                                        OntologyFingerprintSupplier ontologyFingerprintSupplier,
+                                        Supplier<Optional<File>> mappingFileSupplier,
+                                        Supplier<Optional<Reader>> mappingReaderSupplier,
+                                        Supplier<Optional<Graph>> mappingGraphSupplier,
+                                        Supplier<Optional<File>> constraintFileSupplier)
+            throws OBDASpecificationException {
+
+        Optional<String> snapshotFile = settings.getSpecificationSnapshotFile();
+        if (!snapshotFile.isPresent())
+            return loadSpecification(
+                    ontologySupplier,
+                    () -> options.ppMapping.map(m -> (PreProcessedMapping) m),
+                    mappingFileSupplier,
+                    mappingReaderSupplier,
+                    mappingGraphSupplier,
+                    constraintFileSupplier
+            );
+
+        // Parsed once (a reader can only be consumed once)
+        Optional<SQLPPMapping> ppMapping = loadPPMapping(mappingFileSupplier, mappingReaderSupplier,
+                mappingGraphSupplier);
+        if (!ppMapping.isPresent())
+            throw new MissingInputMappingException();
+
+        Optional<File> constraintFile = constraintFileSupplier.get();
+        Optional<Snapshot> snapshot = Optional.empty();
+        try {
+            byte[] fingerprint = SpecificationSnapshot.computeFingerprint(ppMapping.get().getTripleMaps(),
+                    ontologyFingerprintSupplier.get(), constraintFile, settings, getTmappingExclusions());
+
+            snapshot = getInjector()
+                    .getInstance(SpecificationSnapshotSerializer.class)
+                    .read(new File(snapshotFile.get()), fingerprint);
+            if (!snapshot.isPresent())
+                LOGGER.warn("The specification snapshot {} is outdated (the mapping, the ontology, the constraint file " +
+                        "or the properties have changed). Please compile it again.", snapshotFile.get());
+        }
+        catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot use the specification snapshot " + snapshotFile.get(), e);
+        }
+
+        if (snapshot.isPresent()) {
+            Snapshot s = snapshot.get();
+            OBDASpecInput.Builder specInputBuilder = OBDASpecInput.defaultBuilder()
+                    .addDBMetadataReader(s.getDBMetadataReader());
+            constraintFile.ifPresent(specInputBuilder::addConstraintFile);
+
+            return getInjector().getInstance(OBDASpecificationExtractor.class)
+                    .extract(specInputBuilder.build(), ppMapping.get(),
+                            ontologySupplier.get().map(s::withClassifiedTBox),
+                            getExecutorRegistry());
+        }
+
         return loadSpecification(
                 ontologySupplier,
-                () -> options.ppMapping.map(m -> (PreProcessedMapping) m),
-                mappingFileSupplier,
-                mappingReaderSupplier,
-                mappingGraphSupplier,
-                constraintFileSupplier
-        );
+                () -> ppMapping.map(m -> (PreProcessedMapping) m),
+                Optional::empty,
+                Optional::empty,
+                Optional::empty,
+                () -> constraintFile);
     }
 
 
@@ -169,6 +242,9 @@ public class OntopMappingSQLConfigurationImpl extends OntopMappingConfigurationI
         private final Supplier<Boolean> isMappingDefinedSupplier;
         private final Runnable declareMappingDefinedCB;
         private Optional<SQLPPMapping> ppMapping = Optional.empty();
+        private Optional<File> dbMetadataFile = Optional.empty();
+        private Optional<Boolean> checkDBMetadataStaleness = Optional.empty();
+        private Optional<File> specificationSnapshotFile = Optional.empty();
 
         /**
          * Default constructor
@@ -194,6 +270,34 @@ public class OntopMappingSQLConfigurationImpl extends OntopMappingConfigurationI
             return builder;
         }
 
+        @Override
+        public B dbMetadataFile(@Nonnull File dbMetadataFile) {
+            this.dbMetadataFile = Optional.of(dbMetadataFile);
+            return builder;
+        }
+
+        @Override
+        public B dbMetadataFile(@Nonnull String dbMetadataFilename) {
+            return dbMetadataFile(new File(dbMetadataFilename));
+        }
+
+        @Override
+        public B enableDBMetadataStalenessCheck(boolean checkStaleness) {
+            this.checkDBMetadataStaleness = Optional.of(checkStaleness);
+            return builder;
+        }
+
+        @Override
+        public B specificationSnapshotFile(@Nonnull File snapshotFile) {
+            this.specificationSnapshotFile = Optional.of(snapshotFile);
+            return builder;
+        }
+
+        @Override
+        public B specificationSnapshotFile(@Nonnull String snapshotFilename) {
+            return specificationSnapshotFile(new File(snapshotFilename));
+        }
+
 
         final OntopMappingSQLOptions generateMappingSQLOptions(OntopSQLCredentialOptions sqlOptions,
                                                                OntopMappingOptions mappingOptions) {
@@ -201,7 +305,11 @@ public class OntopMappingSQLConfigurationImpl extends OntopMappingConfigurationI
         }
 
         Properties generateProperties() {
-            return new Properties();
+            Properties properties = new Properties();
+            dbMetadataFile.ifPresent(f -> properties.put(OntopMappingSQLSettings.DB_METADATA_FILE, f.getAbsolutePath()));
+            checkDBMetadataStaleness.ifPresent(b -> properties.put(OntopMappingSQLSettings.CHECK_DB_METADATA_STALENESS, b));
+            specificationSnapshotFile.ifPresent(f -> properties.put(OntopMappingSQLSettings.SPECIFICATION_SNAPSHOT_FILE, f.getAbsolutePath()));
+            return properties;
         }
     }
 
@@ -227,6 +335,31 @@ public class OntopMappingSQLConfigurationImpl extends OntopMappingConfigurationI
             return localBuilderFragment.ppMapping(ppMapping);
         }
 
+        @Override
+        public B dbMetadataFile(@Nonnull File dbMetadataFile) {
+            return localBuilderFragment.dbMetadataFile(dbMetadataFile);
+        }
+
+        @Override
+        public B dbMetadataFile(@Nonnull String dbMetadataFilename) {
+            return localBuilderFragment.dbMetadataFile(dbMetadataFilename);
+        }
+
+        @Override
+        public B enableDBMetadataStalenessCheck(boolean checkStaleness) {
+            return localBuilderFragment.enableDBMetadataStalenessCheck(checkStaleness);
+        }
+
+        @Override
+        public B specificationSnapshotFile(@Nonnull File snapshotFile) {
+            return localBuilderFragment.specificationSnapshotFile(snapshotFile);
+        }
+
+        @Override
+        public B specificationSnapshotFile(@Nonnull String snapshotFilename) {
+            return localBuilderFragment.specificationSnapshotFile(snapshotFilename);
+        }
+
         @Override
         protected Properties generateProperties() {
             Properties properties = super.generateProperties();
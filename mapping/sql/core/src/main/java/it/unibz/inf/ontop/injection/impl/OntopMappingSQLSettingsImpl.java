@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.injection.impl;
 import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
 import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 
+import java.util.Optional;
 import java.util.Properties;
 
 import static it.unibz.inf.ontop.injection.impl.OntopSQLCoreSettingsImpl.loadSQLCoreProperties;
@@ -29,6 +30,21 @@ public class OntopMappingSQLSettingsImpl extends OntopMappingSettingsImpl implem
         return loadDefaultPropertiesFromFile(OntopMappingSQLSettings.class, DEFAULT_PROPERTY_FILE);
     }
 
+    @Override
+    public Optional<String> getDBMetadataFile() {
+        return getProperty(DB_METADATA_FILE);
+    }
+
+    @Override
+    public boolean isDBMetadataStalenessCheckEnabled() {
+        return getRequiredBoolean(CHECK_DB_METADATA_STALENESS);
+    }
+
+    @Override
+    public Optional<String> getSpecificationSnapshotFile() {
+        return getProperty(SPECIFICATION_SNAPSHOT_FILE);
+    }
+
     @Override
     public String getJdbcUrl() {
         return sqlSettings.getJdbcUrl();
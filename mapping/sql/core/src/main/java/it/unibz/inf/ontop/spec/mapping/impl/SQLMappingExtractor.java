@@ -5,6 +5,7 @@ import com.google.inject.Inject;
 import it.unibz.inf.ontop.dbschema.*;
 import it.unibz.inf.ontop.dbschema.impl.CachingMetadataLookup;
 import it.unibz.inf.ontop.dbschema.impl.JDBCMetadataProviderFactory;
+import it.unibz.inf.ontop.dbschema.impl.SerializedMetadataProviderFactory;
 import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
@@ -26,12 +27,19 @@ import it.unibz.inf.ontop.spec.mapping.transformer.MappingDatatypeFiller;
 import it.unibz.inf.ontop.spec.mapping.transformer.MappingEqualityTransformer;
 import it.unibz.inf.ontop.spec.mapping.validation.MappingOntologyComplianceValidator;
 import it.unibz.inf.ontop.spec.ontology.Ontology;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
 import org.apache.commons.rdf.api.Graph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.io.File;
+import java.io.IOException;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Optional;
@@ -41,6 +49,8 @@ import java.util.Optional;
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public class SQLMappingExtractor implements MappingExtractor {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SQLMappingExtractor.class);
+
     private final SQLPPMappingConverter ppMappingConverter;
     private final OntopMappingSQLSettings settings;
     private final MappingDatatypeFiller mappingDatatypeFiller;
@@ -50,6 +60,7 @@ public class SQLMappingExtractor implements MappingExtractor {
     private final NoNullValueEnforcer noNullValueEnforcer;
     private final IntermediateQueryFactory iqFactory;
     private final JDBCMetadataProviderFactory metadataProviderFactory;
+    private final SerializedMetadataProviderFactory serializedMetadataProviderFactory;
 
     private final MappingOntologyComplianceValidator ontologyComplianceValidator;
     private final SQLMappingParser mappingParser;
@@ -77,7 +88,8 @@ public class SQLMappingExtractor implements MappingExtractor {
                                 IntermediateQueryFactory iqFactory,
                                 MetaMappingExpander metamappingExpander,
                                 ImplicitDBConstraintsProviderFactory implicitDBConstraintExtractor,
-                                JDBCMetadataProviderFactory metadataProviderFactory) {
+                                JDBCMetadataProviderFactory metadataProviderFactory,
+                                SerializedMetadataProviderFactory serializedMetadataProviderFactory) {
 
         this.ontologyComplianceValidator = ontologyComplianceValidator;
         this.mappingParser = mappingParser;
@@ -91,6 +103,7 @@ public class SQLMappingExtractor implements MappingExtractor {
         this.iqFactory = iqFactory;
         this.metamappingExpander = metamappingExpander;
         this.metadataProviderFactory = metadataProviderFactory;
+        this.serializedMetadataProviderFactory = serializedMetadataProviderFactory;
         this.implicitDBConstraintExtractor = implicitDBConstraintExtractor;
     }
 
@@ -143,25 +156,22 @@ public class SQLMappingExtractor implements MappingExtractor {
             throws MetaMappingExpansionException, MetadataExtractionException, MappingOntologyMismatchException,
             InvalidMappingSourceQueriesException, UnknownDatatypeException {
 
-        MappingAndDBParameters mm = convert(ppMapping.getTripleMaps(), specInput.getConstraintFile());
+        MappingAndDBParameters mm = convert(ppMapping.getTripleMaps(), specInput.getConstraintFile(),
+                specInput.getDBMetadataReader());
 
         ImmutableList<MappingAssertion> expMapping = metamappingExpander.transform(mm.getMapping(), mm.getDBParameters());
 
-        ImmutableList.Builder<MappingAssertion> builder = ImmutableList.builder();
-        // no streams because of exception handling
-        for (MappingAssertion assertion : expMapping) {
-            IQTree tree = assertion.getQuery().getTree();
-            IQTree equalityTransformedTree = mappingEqualityTransformer.transform(tree);
-            IQTree normalizedTree = equalityTransformedTree.normalizeForOptimization(assertion.getQuery().getVariableGenerator());
-            IQTree noNullTree = noNullValueEnforcer.transform(normalizedTree);
-            MappingAssertion noNullAssertion = assertion.copyOf(noNullTree, iqFactory);
-
-            MappingAssertion filledProvAssertion = mappingDatatypeFiller.transform(noNullAssertion);
-            MappingAssertion castAssertion = mappingCaster.transform(filledProvAssertion);
-            builder.add(castAssertion);
+        ImmutableList<MappingAssertion> castMapping;
+        try {
+            // The assertions are independent: the ordered collection keeps the output deterministic
+            castMapping = (settings.isParallelMappingCompilationEnabled() ? expMapping.parallelStream() : expMapping.stream())
+                    .map(this::transformAssertion)
+                    .collect(ImmutableCollectors.toList());
+        }
+        catch (UnknownDatatypeRuntimeException e) {
+            throw e.getCause();
         }
 
-        ImmutableList<MappingAssertion> castMapping = builder.build();
         ImmutableList<MappingAssertion> canonizedMapping = canonicalTransformer.transform(castMapping);
 
         // Validation: Mismatch between the ontology and the mapping
@@ -172,21 +182,116 @@ public class SQLMappingExtractor implements MappingExtractor {
         return new MappingAndDBParametersImpl(canonizedMapping, mm.getDBParameters());
     }
 
+    private MappingAssertion transformAssertion(MappingAssertion assertion) {
+        IQTree tree = assertion.getQuery().getTree();
+        IQTree equalityTransformedTree = mappingEqualityTransformer.transform(tree);
+        IQTree normalizedTree = equalityTransformedTree.normalizeForOptimization(assertion.getQuery().getVariableGenerator());
+        IQTree noNullTree = noNullValueEnforcer.transform(normalizedTree);
+        MappingAssertion noNullAssertion = assertion.copyOf(noNullTree, iqFactory);
+
+        try {
+            MappingAssertion filledProvAssertion = mappingDatatypeFiller.transform(noNullAssertion);
+            return mappingCaster.transform(filledProvAssertion);
+        }
+        catch (UnknownDatatypeException e) {
+            throw new UnknownDatatypeRuntimeException(e);
+        }
+    }
+
+    /**
+     * Carries the checked exception out of the (possibly parallel) stream
+     */
+    private static class UnknownDatatypeRuntimeException extends RuntimeException {
+        UnknownDatatypeRuntimeException(UnknownDatatypeException e) {
+            super(e);
+        }
+
+        @Override
+        public synchronized UnknownDatatypeException getCause() {
+            return (UnknownDatatypeException) super.getCause();
+        }
+    }
+
+    /**
+     * The DB metadata given in the input (e.g. by a specification snapshot) has precedence over the DB metadata file
+     */
     private MappingAndDBParameters convert(ImmutableList<SQLPPTriplesMap> mapping,
-                                           Optional<File> constraintFile) throws MetadataExtractionException, InvalidMappingSourceQueriesException, MetaMappingExpansionException {
+                                           Optional<File> constraintFile,
+                                           Optional<Reader> dbMetadataReader) throws MetadataExtractionException, InvalidMappingSourceQueriesException, MetaMappingExpansionException {
+
+        if (dbMetadataReader.isPresent())
+            return convert(mapping, constraintFile,
+                    serializedMetadataProviderFactory.getMetadataProvider(dbMetadataReader.get()));
+
+        Optional<MetadataProvider> serializedMetadataProvider = loadSerializedMetadataProvider();
+        if (serializedMetadataProvider.isPresent())
+            return convert(mapping, constraintFile, serializedMetadataProvider.get());
 
         try (Connection connection = LocalJDBCConnectionUtils.createConnection(settings)) {
+            return convert(mapping, constraintFile, metadataProviderFactory.getMetadataProvider(connection));
+        }
+        catch (SQLException e) {
+            throw new MetadataExtractionException(e.getMessage());
+        }
+    }
 
-            MetadataProvider dbMetadataProvider = metadataProviderFactory.getMetadataProvider(connection);
-            MetadataProvider withImplicitConstraintsMetadataProvider =
-                    implicitDBConstraintExtractor.extract(constraintFile, dbMetadataProvider);
+    private MappingAndDBParameters convert(ImmutableList<SQLPPTriplesMap> mapping,
+                                           Optional<File> constraintFile,
+                                           MetadataProvider dbMetadataProvider) throws MetadataExtractionException, InvalidMappingSourceQueriesException, MetaMappingExpansionException {
+
+        MetadataProvider withImplicitConstraintsMetadataProvider =
+                implicitDBConstraintExtractor.extract(constraintFile, dbMetadataProvider);
 
-            CachingMetadataLookup metadataLookup = new CachingMetadataLookup(withImplicitConstraintsMetadataProvider);
-            ImmutableList<MappingAssertion> provMapping = ppMappingConverter.convert(mapping, metadataLookup);
+        CachingMetadataLookup metadataLookup = new CachingMetadataLookup(withImplicitConstraintsMetadataProvider);
+        ImmutableList<MappingAssertion> provMapping = ppMappingConverter.convert(mapping, metadataLookup);
 
-            metadataLookup.extractImmutableMetadata();
+        metadataLookup.extractImmutableMetadata();
 
-            return new MappingAndDBParametersImpl(provMapping, withImplicitConstraintsMetadataProvider.getDBParameters());
+        return new MappingAndDBParametersImpl(provMapping, withImplicitConstraintsMetadataProvider.getDBParameters());
+    }
+
+    /**
+     * Is empty if no DB metadata file is given or if it is found to be stale
+     */
+    private Optional<MetadataProvider> loadSerializedMetadataProvider() throws MetadataExtractionException {
+        Optional<String> dbMetadataFile = settings.getDBMetadataFile();
+        if (!dbMetadataFile.isPresent())
+            return Optional.empty();
+
+        MetadataProvider serializedMetadataProvider;
+        try (Reader reader = Files.newBufferedReader(Paths.get(dbMetadataFile.get()), StandardCharsets.UTF_8)) {
+            serializedMetadataProvider = serializedMetadataProviderFactory.getMetadataProvider(reader);
+        }
+        catch (IOException e) {
+            throw new MetadataExtractionException("Cannot read the DB metadata file " + dbMetadataFile.get() + "\n" + e);
+        }
+
+        if (settings.isDBMetadataStalenessCheckEnabled() && isStale(serializedMetadataProvider)) {
+            LOGGER.warn("The DB metadata file {} does not match the relations of the database. " +
+                    "Extracting the DB metadata from the database instead.", dbMetadataFile.get());
+            return Optional.empty();
+        }
+        return Optional.of(serializedMetadataProvider);
+    }
+
+    /**
+     * Only compares the relation IDs (one catalog query), not the attributes and constraints of the relations
+     */
+    private boolean isStale(MetadataProvider serializedMetadataProvider) throws MetadataExtractionException {
+        try (Connection connection = LocalJDBCConnectionUtils.createConnection(settings)) {
+            ImmutableList<RelationID> relationIds = metadataProviderFactory.getMetadataProvider(connection).getRelationIDs();
+            if (relationIds.size() != serializedMetadataProvider.getRelationIDs().size())
+                return true;
+
+            for (RelationID id : relationIds) {
+                try {
+                    serializedMetadataProvider.getRelation(id);
+                }
+                catch (MetadataExtractionException e) {
+                    return true;
+                }
+            }
+            return false;
         }
         catch (SQLException e) {
             throw new MetadataExtractionException(e.getMessage());
@@ -0,0 +1,152 @@
+package it.unibz.inf.ontop.spec.mapping.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.injection.OntopModelSettings;
+import it.unibz.inf.ontop.injection.OntopOptimizationSettings;
+import it.unibz.inf.ontop.injection.OntopSQLCoreSettings;
+import it.unibz.inf.ontop.spec.mapping.TMappingExclusionConfig;
+import it.unibz.inf.ontop.spec.mapping.TargetAtom;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPTriplesMap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Header and fingerprint of the binary snapshots written by the compile command
+ * (see SpecificationSnapshotSerializer for their content).
+ *
+ * Layout of the header: magic number, format version and fingerprint of the inputs (SHA-256).
+ *
+ * The fingerprint covers the mapping (as parsed), the ontology (see OWLOntologyDigester),
+ * the implicit constraint file, the T-mapping exclusions and the properties that change the saturated specification
+ * (including the JDBC URL and driver, but not the credentials).
+ * The snapshot is ignored as soon as one of them changes.
+ */
+public class SpecificationSnapshot {
+
+    public static final int FORMAT_VERSION = 4;
+    private static final byte[] MAGIC = "ONTOPSPC".getBytes(StandardCharsets.US_ASCII);
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+
+    /**
+     * Properties having an influence on the saturated specification
+     */
+    private static final ImmutableList<String> FINGERPRINT_PROPERTIES = ImmutableList.of(
+            OntopModelSettings.CARDINALITY_MODE,
+            OntopOptimizationSettings.MAX_NB_CHILDREN_LIFTING_DB_FS,
+            OntopOptimizationSettings.MAX_UNION_WIDTH_FOR_JOIN_PUSHING,
+            OntopSQLCoreSettings.JDBC_URL,
+            OntopSQLCoreSettings.JDBC_NAME,
+            OntopSQLCoreSettings.JDBC_DRIVER,
+            OntopMappingSettings.QUERY_ONTOLOGY_ANNOTATIONS,
+            OntopMappingSettings.INFER_DEFAULT_DATATYPE,
+            OntopMappingSettings.TOLERATE_ABSTRACT_DATATYPE,
+            OntopMappingSettings.IS_CANONICAL_IRI_COMPLETE);
+
+    private SpecificationSnapshot() {
+    }
+
+    static void writeHeader(DataOutput out, byte[] fingerprint) throws IOException {
+        out.write(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(fingerprint.length);
+        out.write(fingerprint);
+    }
+
+    /**
+     * Throws an IOException if the file is not a snapshot of the current format version
+     */
+    static byte[] readFingerprint(DataInput in, File file) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC))
+            throw new IOException(file + " is not an Ontop specification snapshot");
+
+        int formatVersion = in.readInt();
+        if (formatVersion != FORMAT_VERSION)
+            throw new IOException("The specification snapshot " + file + " has the format version "
+                    + formatVersion + " (expected: " + FORMAT_VERSION + "). Please compile it again");
+
+        int length = in.readInt();
+        if (length < 0 || length > 1024)
+            throw new IOException("Invalid fingerprint length in " + file + ": " + length);
+        byte[] fingerprint = new byte[length];
+        in.readFully(fingerprint);
+        return fingerprint;
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0)
+            throw new IOException("Invalid string length: " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param ontologyFingerprint digest of the ontology, if any
+     */
+    public static byte[] computeFingerprint(ImmutableList<SQLPPTriplesMap> mapping,
+                                            Optional<byte[]> ontologyFingerprint,
+                                            Optional<File> constraintFile,
+                                            OntopModelSettings settings,
+                                            Optional<TMappingExclusionConfig> tMappingExclusions) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        update(digest, Integer.toString(FORMAT_VERSION));
+
+        for (SQLPPTriplesMap triplesMap : mapping) {
+            update(digest, triplesMap.getId());
+            update(digest, triplesMap.getSourceQuery().getSQL());
+            for (TargetAtom targetAtom : triplesMap.getTargetAtoms())
+                update(digest, targetAtom.toString());
+        }
+
+        update(digest, ontologyFingerprint.isPresent() ? "ontology" : "no ontology");
+        ontologyFingerprint.ifPresent(digest::update);
+
+        update(digest, constraintFile.isPresent() ? "constraints" : "no constraints");
+        if (constraintFile.isPresent())
+            digest.update(Files.readAllBytes(constraintFile.get().toPath()));
+
+        for (String key : FINGERPRINT_PROPERTIES)
+            update(digest, settings.getProperty(key)
+                    .map(v -> key + "=" + v)
+                    .orElse(key));
+
+        update(digest, tMappingExclusions
+                .map(TMappingExclusionConfig::toString)
+                .orElse("no T-mapping exclusions"));
+
+        return digest.digest();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        // Separator, so that the concatenation of the values is not ambiguous
+        digest.update((byte) 0);
+    }
+}
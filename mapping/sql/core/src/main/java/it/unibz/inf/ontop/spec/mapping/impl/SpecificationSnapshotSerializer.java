@@ -0,0 +1,155 @@
+package it.unibz.inf.ontop.spec.mapping.impl;
+
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.ontology.*;
+import it.unibz.inf.ontop.spec.ontology.impl.ClassifiedTBoxSerializer;
+import org.apache.commons.rdf.api.RDF;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Writes and reads the specification snapshots of the compile command.
+ *
+ * Layout: header (see SpecificationSnapshot), DB metadata (serialized as by DBMetadataExtractorAndSerializer)
+ * and classified TBox (see ClassifiedTBoxSerializer).
+ *
+ * Loading a snapshot does not connect to the database and does not classify the ontology.
+ * The mapping is compiled again from the DB metadata and the classified TBox of the snapshot:
+ * IQs and function symbols have no stable serialized form.
+ */
+public class SpecificationSnapshotSerializer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpecificationSnapshotSerializer.class);
+
+    private final RDF rdfFactory;
+
+    @Inject
+    private SpecificationSnapshotSerializer(RDF rdfFactory) {
+        this.rdfFactory = rdfFactory;
+    }
+
+    /**
+     * The snapshot is read again before being written. If the classified TBox would not be obtained again,
+     * no snapshot is written and a warning is logged.
+     *
+     * @param dbMetadata the DB metadata the specification has been built from, serialized by
+     *                   DBMetadataExtractorAndSerializer
+     * @return false if no snapshot has been written
+     */
+    public boolean write(OBDASpecification specification, String dbMetadata, byte[] fingerprint, File file)
+            throws IOException {
+        ClassifiedTBox tbox = specification.getSaturatedTBox();
+        try {
+            byte[] content = serialize(tbox, dbMetadata, fingerprint);
+
+            Snapshot snapshot;
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content))) {
+                SpecificationSnapshot.readFingerprint(in, file);
+                snapshot = readContent(in);
+            }
+            if (!Arrays.equals(serialize(snapshot.tbox, dbMetadata, fingerprint), content)) {
+                LOGGER.warn("No specification snapshot is written: the classified TBox is not obtained again " +
+                        "when reading the snapshot");
+                return false;
+            }
+
+            Files.write(file.toPath(), content);
+            return true;
+        }
+        catch (IllegalArgumentException e) {
+            LOGGER.warn("No specification snapshot is written: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Is empty if the fingerprint of the snapshot does not match.
+     * Throws an IOException if the file is not a snapshot of the current format version or if it is truncated.
+     */
+    public Optional<Snapshot> read(File file, byte[] fingerprint) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            byte[] snapshotFingerprint = SpecificationSnapshot.readFingerprint(in, file);
+            if (!MessageDigest.isEqual(snapshotFingerprint, fingerprint))
+                return Optional.empty();
+
+            return Optional.of(readContent(in));
+        }
+        catch (EOFException e) {
+            throw new IOException("The specification snapshot " + file + " is truncated");
+        }
+    }
+
+    private static byte[] serialize(ClassifiedTBox tbox, String dbMetadata, byte[] fingerprint) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            SpecificationSnapshot.writeHeader(out, fingerprint);
+            SpecificationSnapshot.writeString(out, dbMetadata);
+            ClassifiedTBoxSerializer.write(tbox, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Snapshot readContent(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0)
+            throw new IOException("Invalid length of the DB metadata: " + length);
+        byte[] dbMetadata = new byte[length];
+        in.readFully(dbMetadata);
+
+        return new Snapshot(dbMetadata, ClassifiedTBoxSerializer.read(in, rdfFactory));
+    }
+
+
+    public static class Snapshot {
+        private final byte[] dbMetadata;
+        private final ClassifiedTBox tbox;
+
+        private Snapshot(byte[] dbMetadata, ClassifiedTBox tbox) {
+            this.dbMetadata = dbMetadata;
+            this.tbox = tbox;
+        }
+
+        /**
+         * Serialized by DBMetadataExtractorAndSerializer
+         */
+        public Reader getDBMetadataReader() {
+            return new InputStreamReader(new ByteArrayInputStream(dbMetadata), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * The ontology the snapshot has been compiled from, with the classified TBox of the snapshot
+         * (the TBox of the given ontology is not classified).
+         */
+        public Ontology withClassifiedTBox(Ontology ontology) {
+            return new Ontology() {
+                @Override
+                public ClassifiedTBox tbox() {
+                    return tbox;
+                }
+
+                @Override
+                public Datatype getDatatype(String uri) {
+                    return ontology.getDatatype(uri);
+                }
+
+                @Override
+                public OntologyABox abox() {
+                    return ontology.abox();
+                }
+
+                @Override
+                public OntologyVocabularyCategory<AnnotationProperty> annotationProperties() {
+                    return ontology.annotationProperties();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package it.unibz.inf.ontop.spec.ontology.owlapi;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Digest (SHA-256) of the axioms of an ontology and of its imports,
+ * as translated by OWLAPITranslatorOWL2QL.
+ *
+ * Used for fingerprinting the inputs of the specification snapshots.
+ * The axioms are sorted: the digest does not depend on the order of the axioms in the documents.
+ */
+public class OWLOntologyDigester {
+
+    private OWLOntologyDigester() {
+    }
+
+    public static byte[] digest(OWLOntology owl) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        owl.getOWLOntologyManager().getImportsClosure(owl).stream()
+                .flatMap(o -> o.getAxioms().stream())
+                .map(OWLAxiom::toString)
+                .sorted()
+                .distinct()
+                .forEach(a -> {
+                    digest.update(a.getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                });
+
+        return digest.digest();
+    }
+}
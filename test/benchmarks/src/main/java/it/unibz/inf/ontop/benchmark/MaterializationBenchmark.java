@@ -0,0 +1,82 @@
+package it.unibz.inf.ontop.benchmark;
+
+import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
+import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.NTriplesOutput;
+import it.unibz.inf.ontop.materialization.OntopRDFMaterializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Materialization of the whole synthetic workload (one SELECT query per class/property).
+ *
+ * The fast path (materializeToNTriples) directly encodes the answers into N-Triples lines.
+ * The Assertion path (materialize) only iterates over the Assertion objects: the cost of the conversion
+ * into RDF4J statements and of the Rio writer, paid by the former "ontop materialize" command, is not included,
+ * so it is a lower bound of the cost of that path.
+ *
+ * Run with e.g. "java -jar test/benchmarks/target/benchmarks.jar MaterializationBenchmark -p rows=100000".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MaterializationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MaterializerState {
+
+        @Param({"1000", "10000"})
+        public int rows;
+
+        @Param({"1", "4"})
+        public int parallelism;
+
+        SyntheticWorkload workload;
+        OntopRDFMaterializer materializer;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            workload = new SyntheticWorkload(10, 20, 1, rows);
+            materializer = OntopRDFMaterializer.defaultMaterializer(workload.createMaterializationConfiguration(),
+                    MaterializationParams.defaultBuilder()
+                            .parallelism(parallelism)
+                            .build());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            workload.close();
+        }
+    }
+
+    @Benchmark
+    public long materializeAssertions(MaterializerState state, Blackhole blackhole) throws Exception {
+        try (MaterializedGraphResultSet resultSet = state.materializer.materialize()) {
+            while (resultSet.hasNext())
+                blackhole.consume(resultSet.next());
+            return resultSet.getTripleCountSoFar();
+        }
+    }
+
+    @Benchmark
+    public long materializeToNTriples(MaterializerState state) throws Exception {
+        try (NTriplesOutput output = NTriplesOutput.toStream(new DiscardingOutputStream(), false)) {
+            return state.materializer.materializeToNTriples(output);
+        }
+    }
+
+    private static class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package it.unibz.inf.ontop.benchmark;
+
+import it.unibz.inf.ontop.iq.IQ;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per stage of QuestQueryProcessor.reformulateIntoNativeQuery(), plus the whole pipeline
+ * (with the query caches disabled).
+ *
+ * Build with "mvn install -Pbenchmarks" and run with "java -jar test/benchmarks/target/benchmarks.jar".
+ * The size of the workload can be changed with the JMH parameters, e.g. "-p classes=200 -p branches=8".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReformulationBenchmark {
+
+    @Benchmark
+    public IQ translate(ReformulationState state) throws Exception {
+        return state.inputQuery.translate(state.inputQueryTranslator);
+    }
+
+    @Benchmark
+    public IQ rewrite(ReformulationState state) throws Exception {
+        return state.rewriter.rewrite(state.sparqlIQ);
+    }
+
+    @Benchmark
+    public IQ unfold(ReformulationState state) {
+        return state.unfolder.optimize(state.rewrittenIQ);
+    }
+
+    @Benchmark
+    public IQ optimize(ReformulationState state) {
+        return state.generalOptimizer.optimize(state.unfoldedIQ, state.executorRegistry);
+    }
+
+    @Benchmark
+    public IQ plan(ReformulationState state) {
+        return state.queryPlanner.optimize(state.optimizedIQ, state.executorRegistry);
+    }
+
+    @Benchmark
+    public IQ generateSQL(ReformulationState state) {
+        return state.nativeQueryGenerator.generateSourceQuery(state.plannedIQ);
+    }
+
+    @Benchmark
+    public IQ reformulate(ReformulationState state) throws Exception {
+        return state.reformulator.reformulateIntoNativeQuery(state.inputQuery, state.createQueryLogger());
+    }
+}
@@ -0,0 +1,96 @@
+package it.unibz.inf.ontop.benchmark;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
+import it.unibz.inf.ontop.answering.reformulation.rewriting.QueryRewriter;
+import it.unibz.inf.ontop.answering.reformulation.unfolding.QueryUnfolder;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.injection.ReformulationFactory;
+import it.unibz.inf.ontop.injection.TranslationFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.optimizer.GeneralStructuralAndSemanticIQOptimizer;
+import it.unibz.inf.ontop.iq.planner.QueryPlanner;
+import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Components of each stage of QuestQueryProcessor.reformulateIntoNativeQuery(), obtained like the query processor does,
+ * together with the input of each stage (i.e. the output of the previous one), computed once per trial.
+ */
+@State(Scope.Benchmark)
+public class ReformulationState {
+
+    @Param({"10", "50"})
+    public int classes;
+
+    @Param({"5", "20"})
+    public int properties;
+
+    @Param({"1", "4"})
+    public int branches;
+
+    SyntheticWorkload workload;
+    ExecutorRegistry executorRegistry;
+
+    QueryReformulator reformulator;
+    QueryLogger.Factory queryLoggerFactory;
+
+    InputQueryTranslator inputQueryTranslator;
+    QueryRewriter rewriter;
+    QueryUnfolder unfolder;
+    GeneralStructuralAndSemanticIQOptimizer generalOptimizer;
+    QueryPlanner queryPlanner;
+    NativeQueryGenerator nativeQueryGenerator;
+
+    SelectQuery inputQuery;
+    IQ sparqlIQ;
+    IQ rewrittenIQ;
+    IQ unfoldedIQ;
+    IQ optimizedIQ;
+    IQ plannedIQ;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        workload = new SyntheticWorkload(classes, properties, branches);
+        OntopSQLOWLAPIConfiguration configuration = workload.createConfiguration();
+        Injector injector = configuration.getInjector();
+        OBDASpecification specification = configuration.loadSpecification();
+        executorRegistry = configuration.getExecutorRegistry();
+
+        // The specification is loaded only once (the mapping reader cannot be consumed twice)
+        reformulator = injector.getInstance(ReformulationFactory.class).create(specification, executorRegistry);
+        queryLoggerFactory = reformulator.getQueryLoggerFactory();
+
+        TranslationFactory translationFactory = injector.getInstance(TranslationFactory.class);
+        inputQueryTranslator = injector.getInstance(InputQueryTranslator.class);
+        rewriter = injector.getInstance(QueryRewriter.class);
+        rewriter.setTBox(specification.getSaturatedTBox());
+        unfolder = translationFactory.create(specification.getSaturatedMapping());
+        generalOptimizer = injector.getInstance(GeneralStructuralAndSemanticIQOptimizer.class);
+        queryPlanner = injector.getInstance(QueryPlanner.class);
+        nativeQueryGenerator = translationFactory.create(specification.getDBParameters());
+
+        inputQuery = injector.getInstance(InputQueryFactory.class).createSelectQuery(workload.getSparqlQuery());
+        sparqlIQ = inputQuery.translate(inputQueryTranslator);
+        rewrittenIQ = rewriter.rewrite(sparqlIQ);
+        unfoldedIQ = unfolder.optimize(rewrittenIQ);
+        optimizedIQ = generalOptimizer.optimize(unfoldedIQ, executorRegistry);
+        plannedIQ = queryPlanner.optimize(optimizedIQ, executorRegistry);
+    }
+
+    QueryLogger createQueryLogger() {
+        return queryLoggerFactory.create(ImmutableMultimap.of());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        workload.close();
+    }
+}
@@ -0,0 +1,68 @@
+package it.unibz.inf.ontop.benchmark;
+
+import it.unibz.inf.ontop.iq.IQ;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Impact of the structural hashing and equality of IQs and functional terms on the reformulation.
+ *
+ * The end-to-end benchmarks run the reformulation pipeline (query caches disabled), where the hash codes
+ * and equality are used by the unfolder and the optimizers (sets and maps of terms, trees and substitutions).
+ * For a before/after comparison, run them on this tree and on a tree where the string-based hashCode() and
+ * equals() of ImmutableFunctionalTermImpl, AbstractCompositeIQTree and IQImpl are restored, e.g.
+ *   java -jar test/benchmarks/target/benchmarks.jar StructuralHashBenchmark -rf json -rff after.json
+ *
+ * The other benchmarks isolate the hashing and equality of a fresh (but structurally equal) copy of the unfolded IQ,
+ * as performed when it is used as a cache key: hash codes are memoized, so the copy is produced before each invocation.
+ * The string-based variants reproduce the previous implementation (hashing and comparing the string representations).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StructuralHashBenchmark {
+
+    @State(Scope.Thread)
+    public static class FreshIQ {
+        IQ iq;
+
+        @Setup(Level.Invocation)
+        public void setUp(ReformulationState state) {
+            iq = state.unfolder.optimize(state.rewrittenIQ);
+        }
+    }
+
+    @Benchmark
+    public IQ reformulate(ReformulationState state) throws Exception {
+        return state.reformulator.reformulateIntoNativeQuery(state.inputQuery, state.createQueryLogger());
+    }
+
+    @Benchmark
+    public IQ unfoldAndOptimize(ReformulationState state) {
+        IQ unfoldedIQ = state.unfolder.optimize(state.rewrittenIQ);
+        return state.generalOptimizer.optimize(unfoldedIQ, state.executorRegistry);
+    }
+
+    @Benchmark
+    public int hashFreshIQ(FreshIQ fresh) {
+        return fresh.iq.hashCode();
+    }
+
+    @Benchmark
+    public int stringHashFreshIQ(FreshIQ fresh) {
+        return fresh.iq.toString().hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsFreshIQ(ReformulationState state, FreshIQ fresh) {
+        return fresh.iq.equals(state.unfoldedIQ);
+    }
+
+    @Benchmark
+    public boolean stringEqualsFreshIQ(ReformulationState state, FreshIQ fresh) {
+        return fresh.iq.toString().equals(state.unfoldedIQ.toString());
+    }
+}
@@ -0,0 +1,213 @@
+package it.unibz.inf.ontop.benchmark;
+
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generated ontology, mapping and in-memory H2 database, whose size is controlled by:
+ *   - the number of classes (C0 ... Cn, organized as a binary tree of sub-classes)
+ *   - the number of data properties (p0 ... pm, also organized as a binary tree of sub-properties)
+ *   - the number of UNION branches, i.e. the number of tables (T0 ... Tk) mapped to each class and property.
+ *
+ * Every class is a sub-class of "knows some Thing", so that the tree-witness rewriter has some work to do.
+ * All the tables share the same IRI template, so that the unions are not pruned by the optimizer.
+ *
+ * The database lives as long as the workload is not closed.
+ */
+public class SyntheticWorkload implements AutoCloseable {
+
+    public static final String NAMESPACE = "http://example.org/ontop-benchmark#";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+    private static final int DEFAULT_ROWS_PER_TABLE = 10;
+    // Width of the star query, independent of the number of properties to avoid an explosion of the joins of unions
+    private static final int QUERY_PROPERTIES = 3;
+
+    private final int classCount;
+    private final int propertyCount;
+    private final int branchCount;
+    private final int rowsPerTable;
+    private final String jdbcUrl;
+    private final Connection connection;
+
+    public SyntheticWorkload(int classCount, int propertyCount, int branchCount) throws SQLException {
+        this(classCount, propertyCount, branchCount, DEFAULT_ROWS_PER_TABLE);
+    }
+
+    public SyntheticWorkload(int classCount, int propertyCount, int branchCount, int rowsPerTable) throws SQLException {
+        if (classCount < 1 || propertyCount < 1 || branchCount < 1 || rowsPerTable < 1)
+            throw new IllegalArgumentException("At least one class, one property, one branch and one row are expected");
+
+        this.classCount = classCount;
+        this.propertyCount = propertyCount;
+        this.branchCount = branchCount;
+        this.rowsPerTable = rowsPerTable;
+        this.jdbcUrl = String.format("jdbc:h2:mem:ontop-benchmark-%d-%d-%d-%d", classCount, propertyCount, branchCount,
+                rowsPerTable);
+        this.connection = DriverManager.getConnection(jdbcUrl, USER, PASSWORD);
+        createTables();
+    }
+
+    /**
+     * Existential reasoning is enabled (tree-witness rewriter) and the query caches are disabled,
+     * so that each call to the reformulator goes through the whole pipeline.
+     */
+    public OntopSQLOWLAPIConfiguration createConfiguration() throws OWLOntologyCreationException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSettings.QUERY_CACHE_MAX_SIZE, "0");
+        properties.setProperty(OntopReformulationSettings.QUERY_TEMPLATE_CACHE, "false");
+
+        return OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .ontology(createOntology())
+                .nativeOntopMappingReader(new StringReader(createMapping()))
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser(USER)
+                .jdbcPassword(PASSWORD)
+                .enableExistentialReasoning(true)
+                .properties(properties)
+                .enableTestMode()
+                .build();
+    }
+
+    /**
+     * Without existential reasoning nor ontology-based saturation of the answers of the SELECT queries:
+     * for the materializer.
+     */
+    public OntopSQLOWLAPIConfiguration createMaterializationConfiguration() {
+        return OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingReader(new StringReader(createMapping()))
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser(USER)
+                .jdbcPassword(PASSWORD)
+                .enableTestMode()
+                .build();
+    }
+
+    /**
+     * Star query on the root class: its sub-classes, the existential restriction and the sub-properties
+     * all produce unions.
+     */
+    public String getSparqlQuery() {
+        int width = Math.min(QUERY_PROPERTIES, propertyCount);
+        return "PREFIX : <" + NAMESPACE + ">\n"
+                + "SELECT ?x " + IntStream.range(0, width)
+                        .mapToObj(j -> "?v" + j)
+                        .collect(Collectors.joining(" ")) + "\n"
+                + "WHERE {\n"
+                + "  ?x a :C0 ;\n"
+                + "     :knows ?y "
+                + IntStream.range(0, width)
+                        .mapToObj(j -> ";\n     :p" + j + " ?v" + j)
+                        .collect(Collectors.joining())
+                + " .\n}";
+    }
+
+    private void createTables() throws SQLException {
+        String propertyColumns = IntStream.range(0, propertyCount)
+                .mapToObj(j -> ", P" + j)
+                .collect(Collectors.joining());
+        String placeholders = IntStream.range(0, propertyCount)
+                .mapToObj(j -> ", ?")
+                .collect(Collectors.joining());
+
+        for (int b = 0; b < branchCount; b++) {
+            try (Statement st = connection.createStatement()) {
+                st.executeUpdate("CREATE TABLE T" + b + " (ID INT PRIMARY KEY, CLS INT NOT NULL, KNOWS INT"
+                        + IntStream.range(0, propertyCount)
+                                .mapToObj(j -> ", P" + j + " VARCHAR(100)")
+                                .collect(Collectors.joining())
+                        + ")");
+            }
+            try (PreparedStatement st = connection.prepareStatement("INSERT INTO T" + b
+                    + " (ID, CLS, KNOWS" + propertyColumns + ") VALUES (?, ?, ?" + placeholders + ")")) {
+                for (int r = 0; r < rowsPerTable; r++) {
+                    int id = b * rowsPerTable + r;
+                    st.setInt(1, id);
+                    st.setInt(2, r % classCount);
+                    st.setInt(3, b * rowsPerTable + (r + 1) % rowsPerTable);
+                    for (int j = 0; j < propertyCount; j++)
+                        st.setString(4 + j, "v" + j + "-" + id);
+                    st.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private OWLOntology createOntology() throws OWLOntologyCreationException {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        OWLDataFactory factory = manager.getOWLDataFactory();
+        OWLOntology ontology = manager.createOntology(IRI.create(NAMESPACE));
+
+        OWLObjectProperty knows = factory.getOWLObjectProperty(IRI.create(NAMESPACE + "knows"));
+        manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(knows));
+        OWLClassExpression knowsSomething = factory.getOWLObjectSomeValuesFrom(knows, factory.getOWLThing());
+
+        for (int i = 0; i < classCount; i++) {
+            OWLClass c = getClass(factory, i);
+            manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(c));
+            manager.addAxiom(ontology, factory.getOWLSubClassOfAxiom(c, knowsSomething));
+            if (i > 0)
+                manager.addAxiom(ontology, factory.getOWLSubClassOfAxiom(c, getClass(factory, (i - 1) / 2)));
+        }
+        for (int j = 0; j < propertyCount; j++) {
+            OWLDataProperty p = getDataProperty(factory, j);
+            manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(p));
+            if (j > 0)
+                manager.addAxiom(ontology, factory.getOWLSubDataPropertyOfAxiom(p, getDataProperty(factory, (j - 1) / 2)));
+        }
+        return ontology;
+    }
+
+    private static OWLClass getClass(OWLDataFactory factory, int i) {
+        return factory.getOWLClass(IRI.create(NAMESPACE + "C" + i));
+    }
+
+    private static OWLDataProperty getDataProperty(OWLDataFactory factory, int j) {
+        return factory.getOWLDataProperty(IRI.create(NAMESPACE + "p" + j));
+    }
+
+    private String createMapping() {
+        StringBuilder sb = new StringBuilder()
+                .append("[PrefixDeclaration]\n")
+                .append(":\t\t").append(NAMESPACE).append("\n\n")
+                .append("[MappingDeclaration] @collection [[\n");
+
+        for (int b = 0; b < branchCount; b++) {
+            for (int i = 0; i < classCount; i++)
+                appendMapping(sb, "class-" + i + "-" + b,
+                        ":r/{ID} a :C" + i + " .",
+                        "SELECT ID FROM T" + b + " WHERE CLS = " + i);
+            for (int j = 0; j < propertyCount; j++)
+                appendMapping(sb, "property-" + j + "-" + b,
+                        ":r/{ID} :p" + j + " {P" + j + "} .",
+                        "SELECT ID, P" + j + " FROM T" + b);
+            appendMapping(sb, "knows-" + b,
+                    ":r/{ID} :knows :r/{KNOWS} .",
+                    "SELECT ID, KNOWS FROM T" + b + " WHERE KNOWS IS NOT NULL");
+        }
+        return sb.append("]]\n").toString();
+    }
+
+    private static void appendMapping(StringBuilder sb, String id, String target, String source) {
+        sb.append("mappingId\t").append(id).append("\n")
+                .append("target\t\t").append(target).append("\n")
+                .append("source\t\t").append(source).append("\n\n");
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
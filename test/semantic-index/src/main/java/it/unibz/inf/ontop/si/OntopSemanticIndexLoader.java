@@ -19,6 +19,25 @@ import java.util.Properties;
  */
 public interface OntopSemanticIndexLoader extends AutoCloseable {
 
+    /**
+     * Stores the IRI dictionary in a compact off-heap layout (see CompactIRIDictionary) instead of hash maps.
+     * Recommended for large ABoxes. False by default.
+     *
+     * The IRIs are then stored in direct memory (in chunks of 64 MB), which is limited by -XX:MaxDirectMemorySize
+     * (by default, the maximum heap size): the limit must be large enough for all the IRIs of the ABox.
+     */
+    String COMPACT_IRI_DICTIONARY = "ontop.si.compactIRIDictionary";
+
+    /**
+     * Inserts the ABox with multi-row INSERTs over several connections and only creates the indexes
+     * once the data is loaded. False by default.
+     */
+    String BULK_LOAD = "ontop.si.bulkLoad";
+
+    /**
+     * Number of connections used by the bulk load. By default, the number of available processors.
+     */
+    String BULK_LOAD_CONNECTIONS = "ontop.si.bulkLoad.connections";
 
     OntopSQLOWLAPIConfiguration getConfiguration();
 
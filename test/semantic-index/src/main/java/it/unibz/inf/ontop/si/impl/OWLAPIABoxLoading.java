@@ -39,7 +39,7 @@ public class OWLAPIABoxLoading {
 
         Ontology ontology = translatorOWL2QL.translateAndClassify(owlOntology);
 
-        SIRepository repo = new SIRepository(ontology.tbox(), loadingConfiguration);
+        SIRepository repo = new SIRepository(ontology.tbox(), loadingConfiguration, properties);
 
         try {
             Connection connection = repo.createConnection();
@@ -48,6 +48,7 @@ public class OWLAPIABoxLoading {
             Set<OWLOntology> ontologyClosure = owlOntology.getOWLOntologyManager().getImportsClosure(owlOntology);
             OWLAPIABoxIterator aBoxIter = new OWLAPIABoxIterator(ontologyClosure, ontology.tbox(), translatorOWL2QL);
             int count = repo.insertData(connection, aBoxIter);
+            repo.finishLoading(connection);
             LOG.debug("Inserted {} triples from the ontology.", count);
 
             return new OntopSemanticIndexLoaderImpl(repo, connection, properties,
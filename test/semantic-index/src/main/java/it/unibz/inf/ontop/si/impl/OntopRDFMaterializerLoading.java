@@ -41,7 +41,7 @@ public class OntopRDFMaterializerLoading {
             OWLAPITranslatorOWL2QL translatorOWL2QL = loadingConfiguration.getTranslatorOWL2QL();
 
             Ontology ontology = translatorOWL2QL.translateAndClassify(inputOntology);
-            SIRepository repo = new SIRepository(ontology.tbox(), loadingConfiguration);
+            SIRepository repo = new SIRepository(ontology.tbox(), loadingConfiguration, properties);
 
             MaterializationParams materializationParams = MaterializationParams.defaultBuilder()
                     .build();
@@ -70,6 +70,7 @@ public class OntopRDFMaterializerLoading {
                                 }
                             }
                         });
+                repo.finishLoading(connection);
                 LOG.debug("Inserted {} triples from the mappings.", count);
                 return new OntopSemanticIndexLoaderImpl(repo, connection, properties,
                         Optional.of(extractTBox(inputOntology)));
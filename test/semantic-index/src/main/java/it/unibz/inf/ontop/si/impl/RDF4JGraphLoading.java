@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.*;
 
 public class RDF4JGraphLoading {
@@ -46,7 +47,7 @@ public class RDF4JGraphLoading {
         }
         Ontology vocabulary = collectVocabulary.vb.build();
 
-        SIRepository repo = new SIRepository(vocabulary.tbox(), loadingConfiguration);
+        SIRepository repo = new SIRepository(vocabulary.tbox(), loadingConfiguration, properties);
         Connection connection = repo.createConnection();
 
         //  Load the data
@@ -57,6 +58,12 @@ public class RDF4JGraphLoading {
         for (IRI graphURL : graphURLs) {
             processRDF(insertData, graphURL);
         }
+        try {
+            repo.finishLoading(connection);
+        }
+        catch (SQLException e) {
+            throw new SemanticIndexException(e.getMessage());
+        }
         LOG.info("Inserted {} triples", insertData.count);
 
         return new OntopSemanticIndexLoaderImpl(repo, connection, properties, Optional.empty() /* no tbox */);
@@ -0,0 +1,372 @@
+package it.unibz.inf.ontop.si.repository.impl;
+
+import it.unibz.inf.ontop.si.OntopSemanticIndexLoader;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * IRI dictionary with a compact layout, for large ABoxes.
+ *
+ * The IRIs are stored in UTF-8 (prefixed by their length) in an off-heap arena made of direct byte buffers
+ * (chunks of 64 MB). The heap only holds primitive arrays: the location of each IRI in the arena and its hash
+ * (indexed by id), and an open-addressing index (linear probing) from the hashes to the ids.
+ *
+ * The chunks count against the direct memory limit of the JVM (-XX:MaxDirectMemorySize, by default the maximum
+ * heap size), not against the heap. If the limit is reached, set() throws an OutOfMemoryError saying so.
+ *
+ * The dictionary can be saved to a file and loaded back. When loaded, the arena is memory-mapped
+ * instead of being read.
+ *
+ * Each IRI and each id can only be set once. Thread-safe: set() excludes the other operations,
+ * lookups may run concurrently.
+ */
+public class CompactIRIDictionary implements SemanticIndexIRIDictionary {
+
+	private static final int MAGIC = 0x4F534944;
+	private static final int VERSION = 1;
+	private static final int DEFAULT_CHUNK_SIZE = 1 << 26;
+	private static final int INITIAL_CAPACITY = 1 << 10;
+	private static final int EMPTY = -1;
+	private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+	private final int chunkSize;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	// All the chunks but the current one have their limit set to their used size
+	private final List<ByteBuffer> chunks;
+	private ByteBuffer current;
+
+	// id -> (chunk index << 32 | position in the chunk), -1 if the id is not used
+	private long[] locations;
+	// id -> hash of the IRI
+	private int[] hashes;
+	// slot -> id
+	private int[] slots;
+	private int size;
+	private int maxId;
+
+	public CompactIRIDictionary() {
+		this(DEFAULT_CHUNK_SIZE);
+	}
+
+	CompactIRIDictionary(int chunkSize) {
+		this.chunkSize = chunkSize;
+		this.chunks = new ArrayList<>();
+		this.locations = newLocations(INITIAL_CAPACITY);
+		this.hashes = new int[INITIAL_CAPACITY];
+		this.slots = newSlots(INITIAL_CAPACITY);
+		this.size = 0;
+		this.maxId = -1;
+	}
+
+	private CompactIRIDictionary(List<ByteBuffer> chunks, long[] locations, int[] hashes, int[] slots,
+								 int size, int maxId) {
+		this.chunkSize = DEFAULT_CHUNK_SIZE;
+		this.chunks = chunks;
+		this.locations = locations;
+		this.hashes = hashes;
+		this.slots = slots;
+		this.size = size;
+		this.maxId = maxId;
+	}
+
+	@Override
+	public void set(String uri, int id) {
+		if (id < 0)
+			throw new IllegalArgumentException("Negative id: " + id);
+
+		lock.writeLock().lock();
+		try {
+			setUnderLock(uri, id);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void setUnderLock(String uri, int id) {
+		if (id < locations.length && locations[id] != -1)
+			throw new IllegalArgumentException("The id " + id + " is already used");
+
+		byte[] bytes = uri.getBytes(StandardCharsets.UTF_8);
+		int hash = hash(uri);
+		if (find(bytes, hash) != EMPTY)
+			throw new IllegalArgumentException("The IRI " + uri + " is already in the dictionary");
+
+		if (id >= locations.length)
+			grow(Math.max(id + 1, 2 * locations.length));
+		locations[id] = append(bytes);
+		hashes[id] = hash;
+		maxId = Math.max(maxId, id);
+
+		if (4L * (size + 1) > 3L * slots.length)
+			rehash(2 * slots.length);
+		insert(slots, id, hash);
+		size++;
+	}
+
+	/***
+	 * -2 if the IRI is not in the dictionary (see IRIDictionary)
+	 */
+	@Override
+	public int getId(String uri) {
+		byte[] bytes = uri.getBytes(StandardCharsets.UTF_8);
+		int hash = hash(uri);
+		lock.readLock().lock();
+		try {
+			int id = find(bytes, hash);
+			return id == EMPTY ? -2 : id;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public String getURI(Integer id) {
+		byte[] bytes;
+		lock.readLock().lock();
+		try {
+			if (id == null || id < 0 || id >= locations.length || locations[id] == -1)
+				return null;
+
+			long location = locations[id];
+			ByteBuffer chunk = chunks.get((int) (location >>> 32)).duplicate();
+			int position = (int) location;
+			bytes = new byte[chunk.getInt(position)];
+			chunk.position(position + Integer.BYTES);
+			chunk.get(bytes);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public int getMaxId() {
+		lock.readLock().lock();
+		try {
+			return maxId;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return size;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Layout: header, slots, locations, hashes, chunk sizes and then the chunks.
+	 */
+	public void save(Path path) throws IOException {
+		lock.readLock().lock();
+		try {
+			write(path);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void write(Path path) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path),
+				COPY_BUFFER_SIZE))) {
+			int idCount = maxId + 1;
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(size);
+			out.writeInt(maxId);
+			out.writeInt(slots.length);
+			out.writeInt(chunks.size());
+
+			for (int slot : slots)
+				out.writeInt(slot);
+			for (int i = 0; i < idCount; i++)
+				out.writeLong(locations[i]);
+			for (int i = 0; i < idCount; i++)
+				out.writeInt(hashes[i]);
+			for (ByteBuffer chunk : chunks)
+				out.writeInt(getUsedSize(chunk));
+
+			byte[] buffer = new byte[COPY_BUFFER_SIZE];
+			for (ByteBuffer chunk : chunks) {
+				ByteBuffer source = chunk.duplicate();
+				source.limit(getUsedSize(chunk));
+				source.position(0);
+				while (source.hasRemaining()) {
+					int length = Math.min(buffer.length, source.remaining());
+					source.get(buffer, 0, length);
+					out.write(buffer, 0, length);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads a dictionary saved by save(). The arena is memory-mapped (read-only): the file must not be modified
+	 * while the dictionary is in use. IRIs added afterwards are stored in new chunks.
+	 */
+	public static CompactIRIDictionary load(Path path) throws IOException {
+		int size, maxId, chunkCount;
+		int[] slots, hashes, chunkSizes;
+		long[] locations;
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path),
+				COPY_BUFFER_SIZE))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION)
+				throw new IOException("Not a compact IRI dictionary file: " + path);
+			size = in.readInt();
+			maxId = in.readInt();
+			slots = new int[in.readInt()];
+			chunkCount = in.readInt();
+
+			for (int i = 0; i < slots.length; i++)
+				slots[i] = in.readInt();
+			locations = newLocations(Math.max(INITIAL_CAPACITY, maxId + 1));
+			for (int i = 0; i <= maxId; i++)
+				locations[i] = in.readLong();
+			hashes = new int[locations.length];
+			for (int i = 0; i <= maxId; i++)
+				hashes[i] = in.readInt();
+			chunkSizes = new int[chunkCount];
+			for (int i = 0; i < chunkCount; i++)
+				chunkSizes[i] = in.readInt();
+		}
+
+		long offset = 6L * Integer.BYTES + (long) slots.length * Integer.BYTES
+				+ (maxId + 1L) * (Long.BYTES + Integer.BYTES) + (long) chunkCount * Integer.BYTES;
+
+		List<ByteBuffer> chunks = new ArrayList<>(chunkCount);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			for (int chunkSize : chunkSizes) {
+				chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, offset, chunkSize));
+				offset += chunkSize;
+			}
+		}
+		return new CompactIRIDictionary(chunks, locations, hashes, slots, size, maxId);
+	}
+
+	@Override
+	public String toString() {
+		return "si-dict";
+	}
+
+	private int getUsedSize(ByteBuffer chunk) {
+		return chunk == current ? chunk.position() : chunk.limit();
+	}
+
+	private static int hash(String uri) {
+		int h = uri.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private int find(byte[] bytes, int hash) {
+		int mask = slots.length - 1;
+		for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+			int id = slots[slot];
+			if (id == EMPTY || (hashes[id] == hash && matches(id, bytes)))
+				return id;
+		}
+	}
+
+	private boolean matches(int id, byte[] bytes) {
+		long location = locations[id];
+		ByteBuffer chunk = chunks.get((int) (location >>> 32));
+		int position = (int) location;
+		if (chunk.getInt(position) != bytes.length)
+			return false;
+		position += Integer.BYTES;
+		for (int i = 0; i < bytes.length; i++) {
+			if (chunk.get(position + i) != bytes[i])
+				return false;
+		}
+		return true;
+	}
+
+	private long append(byte[] bytes) {
+		int required = Integer.BYTES + bytes.length;
+		if (current == null || current.remaining() < required) {
+			if (current != null)
+				current.flip();
+			current = allocateChunk(Math.max(chunkSize, required));
+			chunks.add(current);
+		}
+		long location = ((long) (chunks.size() - 1) << 32) | current.position();
+		current.putInt(bytes.length);
+		current.put(bytes);
+		return location;
+	}
+
+	private ByteBuffer allocateChunk(int capacity) {
+		try {
+			return ByteBuffer.allocateDirect(capacity);
+		}
+		catch (OutOfMemoryError e) {
+			long allocated = chunks.stream()
+					.filter(ByteBuffer::isDirect)
+					.mapToLong(ByteBuffer::capacity)
+					.sum();
+			OutOfMemoryError error = new OutOfMemoryError("Cannot allocate a chunk of " + capacity
+					+ " bytes for the compact IRI dictionary (" + allocated + " bytes already allocated): "
+					+ "the direct memory limit is reached. Increase it with -XX:MaxDirectMemorySize or disable "
+					+ OntopSemanticIndexLoader.COMPACT_IRI_DICTIONARY);
+			error.initCause(e);
+			throw error;
+		}
+	}
+
+	private void grow(int capacity) {
+		int oldCapacity = locations.length;
+		locations = Arrays.copyOf(locations, capacity);
+		Arrays.fill(locations, oldCapacity, capacity, -1);
+		hashes = Arrays.copyOf(hashes, capacity);
+	}
+
+	private void rehash(int capacity) {
+		int[] newSlots = newSlots(capacity);
+		for (int id : slots) {
+			if (id != EMPTY)
+				insert(newSlots, id, hashes[id]);
+		}
+		slots = newSlots;
+	}
+
+	private static void insert(int[] slots, int id, int hash) {
+		int mask = slots.length - 1;
+		int slot = hash & mask;
+		while (slots[slot] != EMPTY)
+			slot = (slot + 1) & mask;
+		slots[slot] = id;
+	}
+
+	private static int[] newSlots(int capacity) {
+		int[] slots = new int[capacity];
+		Arrays.fill(slots, EMPTY);
+		return slots;
+	}
+
+	private static long[] newLocations(int capacity) {
+		long[] locations = new long[capacity];
+		Arrays.fill(locations, -1);
+		return locations;
+	}
+}
@@ -0,0 +1,191 @@
+package it.unibz.inf.ontop.si.repository.impl;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Inserts the rows with multi-row INSERT statements, executed in parallel over several connections
+ * (one per worker).
+ *
+ * Rows are buffered per view. Insertions are asynchronous: close() flushes the buffers, waits for the workers
+ * and reports the throughput (overall and per view).
+ */
+class ParallelBulkInserter implements RDBMSSIRepositoryManager.RowSink, AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ParallelBulkInserter.class);
+
+	private static final String VALUES = " VALUES ";
+
+	private final int rowsPerStatement;
+	private final ImmutableList<Connection> connections;
+	private final BlockingQueue<Connection> idleConnections;
+	private final ExecutorService executor;
+	// Bounds the number of buffered statements
+	private final Semaphore pendingStatements;
+
+	private final Map<String, Buffer> buffers = new HashMap<>();
+	private final Map<String, String> multiRowInserts = new ConcurrentHashMap<>();
+	private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+	private final AtomicReference<Exception> error = new AtomicReference<>();
+	private final long start = System.nanoTime();
+
+	ParallelBulkInserter(ImmutableList<Connection> connections, int rowsPerStatement) throws SQLException {
+		this.rowsPerStatement = rowsPerStatement;
+		this.connections = connections;
+		this.idleConnections = new ArrayBlockingQueue<>(connections.size());
+		for (Connection connection : connections) {
+			connection.setAutoCommit(false);
+			idleConnections.add(connection);
+		}
+		this.executor = Executors.newFixedThreadPool(connections.size(), r -> {
+			Thread thread = new Thread(r, "ontop-si-bulk-loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.pendingStatements = new Semaphore(2 * connections.size());
+	}
+
+	@Override
+	public void add(String target, String insert, Object[] values) throws SQLException {
+		checkError();
+		Buffer buffer = buffers.computeIfAbsent(target, t -> new Buffer(insert));
+		buffer.rows.add(values);
+		if (buffer.rows.size() == rowsPerStatement)
+			submit(target, buffer);
+	}
+
+	private void submit(String target, Buffer buffer) throws SQLException {
+		List<Object[]> rows = buffer.rows;
+		buffer.rows = new ArrayList<>(rowsPerStatement);
+
+		try {
+			pendingStatements.acquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while bulk loading", e);
+		}
+
+		executor.execute(() -> {
+			try {
+				Connection connection = idleConnections.take();
+				try {
+					long startInsert = System.nanoTime();
+					insert(connection, buffer.insert, rows);
+					connection.commit();
+					statistics.computeIfAbsent(target, t -> new Statistics())
+							.record(rows.size(), System.nanoTime() - startInsert);
+				}
+				finally {
+					idleConnections.add(connection);
+				}
+			}
+			catch (Exception e) {
+				error.compareAndSet(null, e);
+			}
+			finally {
+				pendingStatements.release();
+			}
+		});
+	}
+
+	private void insert(Connection connection, String insert, List<Object[]> rows) throws SQLException {
+		String sql = rows.size() == rowsPerStatement
+				? multiRowInserts.computeIfAbsent(insert, i -> getMultiRowInsert(i, rowsPerStatement))
+				: getMultiRowInsert(insert, rows.size());
+
+		try (PreparedStatement stm = connection.prepareStatement(sql)) {
+			int index = 1;
+			for (Object[] row : rows)
+				for (Object value : row)
+					stm.setObject(index++, value);
+			stm.executeUpdate();
+		}
+	}
+
+	/**
+	 * INSERT INTO T (...) VALUES (?, ?, FALSE) -> INSERT INTO T (...) VALUES (?, ?, FALSE), (?, ?, FALSE), ...
+	 */
+	private static String getMultiRowInsert(String insert, int rowCount) {
+		int index = insert.indexOf(VALUES) + VALUES.length();
+		return insert.substring(0, index) + Joiner.on(", ").join(Collections.nCopies(rowCount, insert.substring(index)));
+	}
+
+	private void checkError() throws SQLException {
+		Exception e = error.get();
+		if (e != null)
+			throw (e instanceof SQLException) ? (SQLException) e : new SQLException(e);
+	}
+
+	/**
+	 * Flushes the buffers, waits for the insertions to complete and closes the connections
+	 */
+	@Override
+	public void close() throws SQLException {
+		try {
+			for (Map.Entry<String, Buffer> e : buffers.entrySet()) {
+				if (!e.getValue().rows.isEmpty())
+					submit(e.getKey(), e.getValue());
+			}
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while bulk loading", e);
+		}
+		finally {
+			executor.shutdownNow();
+			for (Connection connection : connections)
+				connection.close();
+		}
+		checkError();
+		report();
+	}
+
+	private void report() {
+		long elapsed = System.nanoTime() - start;
+		long total = statistics.values().stream().mapToLong(s -> s.rows.get()).sum();
+		LOG.info("Bulk load: {} rows in {} ms ({} rows/s, {} connections)", total,
+				TimeUnit.NANOSECONDS.toMillis(elapsed), getRate(total, elapsed), connections.size());
+
+		statistics.entrySet().stream()
+				.sorted(Comparator.comparingLong(e -> -e.getValue().rows.get()))
+				.forEach(e -> LOG.info("Bulk load of {}: {} rows ({} rows/s of insertion time)", e.getKey(),
+						e.getValue().rows.get(), getRate(e.getValue().rows.get(), e.getValue().nanos.get())));
+	}
+
+	private static long getRate(long rows, long nanos) {
+		return nanos == 0 ? 0 : rows * TimeUnit.SECONDS.toNanos(1) / nanos;
+	}
+
+
+	private final class Buffer {
+		private final String insert;
+		private List<Object[]> rows = new ArrayList<>(rowsPerStatement);
+
+		private Buffer(String insert) {
+			this.insert = insert;
+		}
+	}
+
+	private static final class Statistics {
+		private final AtomicLong rows = new AtomicLong();
+		private final AtomicLong nanos = new AtomicLong();
+
+		private void record(int rowCount, long duration) {
+			rows.addAndGet(rowCount);
+			nanos.addAndGet(duration);
+		}
+	}
+}
@@ -241,7 +241,7 @@ public class RDBMSSIRepositoryManager {
 		ATTRIBUTE_TABLE_MAP = datatypeTableMapBuilder.build();
 	}
 	
-	private final SemanticIndexURIMap uriMap;
+	private final SemanticIndexIRIDictionary uriMap;
 	
 	private final ClassifiedTBox reasonerDag;
 
@@ -257,7 +257,8 @@ public class RDBMSSIRepositoryManager {
 	public RDBMSSIRepositoryManager(ClassifiedTBox reasonerDag,
 									TermFactory termFactory, TypeFactory typeFactory,
 									TargetAtomFactory targetAtomFactory,
-									SQLPPSourceQueryFactory sourceQueryFactory) {
+									SQLPPSourceQueryFactory sourceQueryFactory,
+									SemanticIndexIRIDictionary uriMap) {
 		this.reasonerDag = reasonerDag;
 		this.termFactory = termFactory;
 		this.sourceQueryFactory = sourceQueryFactory;
@@ -265,7 +266,8 @@ public class RDBMSSIRepositoryManager {
         cacheSI = new SemanticIndexCache(reasonerDag);
 		this.targetAtomFactory = targetAtomFactory;
 		cacheSI.buildSemanticIndexFromReasoner();
-		uriMap = new SemanticIndexURIMap();
+		this.uriMap = uriMap;
+		this.maxURIId = uriMap.getMaxId();
 
 		DBTypeFactory dbTypeFactory = typeFactory.getDBTypeFactory();
 		int2IRIStringFunctionSymbol = new Int2IRIStringFunctionSymbolImpl(
@@ -274,7 +276,7 @@ public class RDBMSSIRepositoryManager {
 	}
 
 
-	public SemanticIndexURIMap getUriMap() {
+	public SemanticIndexIRIDictionary getUriMap() {
 		return uriMap;
 	}
 	
@@ -350,6 +352,18 @@ public class RDBMSSIRepositoryManager {
 	}
 */
 
+	/**
+	 * Destination of the rows produced from the ABox assertions
+	 */
+	interface RowSink {
+
+		/**
+		 * @param target name of the view (or table) the row belongs to
+		 * @param insert single-row parameterized INSERT statement
+		 */
+		void add(String target, String insert, Object[] values) throws SQLException;
+	}
+
 	public int insertData(Connection conn, Iterator<Assertion> data, int commitLimit, int batchLimit) throws SQLException {
 		log.debug("Inserting data into DB");
 
@@ -360,104 +374,70 @@ public class RDBMSSIRepositoryManager {
 		boolean oldAutoCommit = conn.getAutoCommit();
 		conn.setAutoCommit(false);
 
-		PreparedStatement uriidStm = conn.prepareStatement(uriIdTable.getINSERT("?, ?"));
-		Map<SemanticIndexViewID, PreparedStatement> stmMap = new HashMap<>();
-		
+		int success;
+		try (JDBCBatchSink sink = new JDBCBatchSink(conn, commitLimit, batchLimit)) {
+			success = insertData(data, sink);
+			// Execute and commit the rest of the batch
+			sink.flush();
+		}
+
+		conn.setAutoCommit(oldAutoCommit);
+		return success;
+	}
+
+	/**
+	 * Converts the assertions into rows (registering the new URIs in the dictionary) and passes them to the sink.
+	 * Not thread-safe: the conversion is sequential, only the sink may insert in parallel.
+	 */
+	int insertData(Iterator<Assertion> data, RowSink sink) throws SQLException {
 		// For counting the insertion
 		int success = 0;
 		Map<IRI, Integer> failures = new HashMap<>();
 
-		int batchCount = 0;
-		int commitCount = 0;
+		List<Row> rows = new ArrayList<>();
 
-		try {
-			while (data.hasNext()) {
-				Assertion ax = data.next();
-
-				// log.debug("Inserting statement: {}", ax);
-				batchCount++;
-				commitCount++;
-
-				if (ax instanceof ClassAssertion) {
-					ClassAssertion ca = (ClassAssertion) ax; 
-					try {
-						process(conn, ca, uriidStm, stmMap);
-						success++;
-					}
-					catch (Exception e) {
-						IRI iri = ca.getConcept().getIRI();
-						Integer counter = failures.get(iri);
-						if (counter == null)
-							counter = 0;
-						failures.put(iri, counter + 1);
-					}
-				} 
-				else if (ax instanceof ObjectPropertyAssertion) {
-					ObjectPropertyAssertion opa = (ObjectPropertyAssertion)ax;
-					try {
-						process(conn, opa, uriidStm, stmMap);	
-						success++;
-					}
-					catch (Exception e) {
-						IRI iri = opa.getProperty().getIRI();
-						Integer counter = failures.get(iri);
-						if (counter == null) 
-							counter = 0;
-						failures.put(iri, counter + 1);
-					}
-				}
-				else if (ax instanceof DataPropertyAssertion)  {
-					DataPropertyAssertion dpa = (DataPropertyAssertion)ax;
-					try {
-						process(conn, dpa, uriidStm, stmMap);				
-						success++;					
-					}
-					catch (Exception e) {
-						IRI iri = dpa.getProperty().getIRI();
-						Integer counter = failures.get(iri);
-						if (counter == null) 
-							counter = 0;
-						failures.put(iri, counter + 1);
-					}
-				}
+		while (data.hasNext()) {
+			Assertion ax = data.next();
 
+			// log.debug("Inserting statement: {}", ax);
 
-				// Check if the batch count is already in the batch limit
-				if (batchCount == batchLimit) {
-					uriidStm.executeBatch();
-					uriidStm.clearBatch();
-					for (PreparedStatement stm : stmMap.values()) {
-						stm.executeBatch();
-						stm.clearBatch();
-					}
-					batchCount = 0; // reset the counter
+			if (ax instanceof ClassAssertion) {
+				ClassAssertion ca = (ClassAssertion) ax;
+				try {
+					process(ca, rows);
+					success++;
 				}
-
-				// Check if the commit count is already in the commit limit
-				if (commitCount == commitLimit) {
-					conn.commit();
-					commitCount = 0; // reset the counter
+				catch (Exception e) {
+					failures.merge(ca.getConcept().getIRI(), 1, Integer::sum);
 				}
 			}
-
-			// Execute the rest of the batch
-			uriidStm.executeBatch();
-			uriidStm.clearBatch();
-			for (PreparedStatement stm : stmMap.values()) {
-				stm.executeBatch();
-				stm.clearBatch();
+			else if (ax instanceof ObjectPropertyAssertion) {
+				ObjectPropertyAssertion opa = (ObjectPropertyAssertion)ax;
+				try {
+					process(opa, rows);
+					success++;
+				}
+				catch (Exception e) {
+					failures.merge(opa.getProperty().getIRI(), 1, Integer::sum);
+				}
+			}
+			else if (ax instanceof DataPropertyAssertion)  {
+				DataPropertyAssertion dpa = (DataPropertyAssertion)ax;
+				try {
+					process(dpa, rows);
+					success++;
+				}
+				catch (Exception e) {
+					failures.merge(dpa.getProperty().getIRI(), 1, Integer::sum);
+				}
 			}
-			// Commit the rest of the batch insert
-			conn.commit();
-		}
-		finally {
-			// Close all open statements
-			uriidStm.close();
-			for (PreparedStatement stm : stmMap.values()) 
-				stm.close();
-		}
 
-		conn.setAutoCommit(oldAutoCommit);
+			// Outside of the try blocks: insertion errors are not conversion failures.
+			// The URIs registered before a failure are inserted as well (they are in the dictionary)
+			for (Row row : rows)
+				sink.add(row.target, row.insert, row.values);
+			rows.clear();
+		}
 
 		// Print the monitoring log
 		log.debug("Total successful insertions: " + success + ".");
@@ -473,8 +453,81 @@ public class RDBMSSIRepositoryManager {
 		return success;
 	}
 
+	private static final class Row {
+		private final String target;
+		private final String insert;
+		private final Object[] values;
+
+		private Row(SemanticIndexView view, Object... values) {
+			this(view.getId().toString().trim(), view.getINSERT(), values);
+		}
+
+		private Row(String target, String insert, Object... values) {
+			this.target = target;
+			this.insert = insert;
+			this.values = values;
+		}
+	}
+
+	/**
+	 * Executes the batches every batchLimit rows and commits every commitLimit rows
+	 */
+	private static final class JDBCBatchSink implements RowSink, AutoCloseable {
+		private final Connection conn;
+		private final int commitLimit;
+		private final int batchLimit;
+		private final Map<String, PreparedStatement> stmMap = new HashMap<>();
+		private int count;
+
+		JDBCBatchSink(Connection conn, int commitLimit, int batchLimit) {
+			this.conn = conn;
+			this.commitLimit = commitLimit;
+			this.batchLimit = batchLimit;
+		}
+
+		@Override
+		public void add(String target, String insert, Object[] values) throws SQLException {
+			PreparedStatement stm = stmMap.get(insert);
+			if (stm == null) {
+				stm = conn.prepareStatement(insert);
+				stmMap.put(insert, stm);
+			}
+			for (int i = 0; i < values.length; i++)
+				stm.setObject(i + 1, values[i]);
+			stm.addBatch();
+			count++;
+
+			if (count % batchLimit == 0)
+				executeBatches();
+
+			if (count % commitLimit == 0) {
+				executeBatches();
+				conn.commit();
+			}
+		}
+
+		void flush() throws SQLException {
+			executeBatches();
+			conn.commit();
+		}
+
+		private void executeBatches() throws SQLException {
+			for (PreparedStatement stm : stmMap.values()) {
+				stm.executeBatch();
+				stm.clearBatch();
+			}
+		}
+
+		@Override
+		public void close() throws SQLException {
+			// Close all open statements
+			for (PreparedStatement stm : stmMap.values())
+				stm.close();
+		}
+	}
+
 
-	private void process(Connection conn, ObjectPropertyAssertion ax, PreparedStatement uriidStm, Map<SemanticIndexViewID, PreparedStatement> stmMap) throws SQLException {
+	private void process(ObjectPropertyAssertion ax, List<Row> rows) {
 
 		ObjectPropertyExpression ope0 = ax.getProperty();
 		if (ope0.isInverse()) 
@@ -502,26 +555,17 @@ public class RDBMSSIRepositoryManager {
 
 		SemanticIndexView view = views.getView(o1.getType(), o2.getType());
 		
-		PreparedStatement stm = stmMap.get(view.getId());
-		if (stm == null) {
-			stm = conn.prepareStatement(view.getINSERT());
-			stmMap.put(view.getId(), stm);
-		}
-		
-		int uri_id = getObjectConstantUriId(o1, uriidStm);
-		int uri2_id = getObjectConstantUriId(o2, uriidStm);
+		int uri_id = getObjectConstantUriId(o1, rows);
+		int uri2_id = getObjectConstantUriId(o2, rows);
 		
 		// Construct the database INSERT statements		
-		stm.setInt(1, uri_id);
-		stm.setInt(2, uri2_id);		
-		stm.setInt(3, idx);
-		stm.addBatch();
+		rows.add(new Row(view, uri_id, uri2_id, idx));
 		
 		// Register non emptiness
 		view.addIndex(idx);
 	} 
 
-	private void process(Connection conn, DataPropertyAssertion ax, PreparedStatement uriidStm, Map<SemanticIndexViewID, PreparedStatement> stmMap) throws SQLException {
+	private void process(DataPropertyAssertion ax, List<Row> rows) {
 
 		// replace the property by its canonical representative
 		DataPropertyExpression dpe0 = ax.getProperty();
@@ -529,38 +573,30 @@ public class RDBMSSIRepositoryManager {
 		int idx = cacheSI.getEntry(dpe).getIndex();
 		
 		ObjectConstant subject = ax.getSubject();
-		int uri_id = getObjectConstantUriId(subject, uriidStm);
+		int uri_id = getObjectConstantUriId(subject, rows);
 
 		RDFLiteralConstant object = ax.getValue();
 
 		// ROMAN (28 June 2016): quite fragile because objectType is UNSUPPORTED for SHORT, BYTE, etc.
 		//                       a a workaround, obtain the URI ID first, without triggering an exception here
 		SemanticIndexView view =  views.getView(subject.getType(), object.getType());
-		PreparedStatement stm = stmMap.get(view.getId());
-		if (stm == null) {
-			stm = conn.prepareStatement(view.getINSERT());
-			stmMap.put(view.getId(), stm);
-		}
 
-		stm.setInt(1, uri_id);
-		
 		String value = object.getValue();
 		
 		switch (COL_TYPE.getColType(object.getType().getIRI())) {
 			case LANG_STRING:  // -3
-				stm.setString(2, value);
-				stm.setString(4, object.getType().getLanguageTag().get().getFullString());
+				rows.add(new Row(view, uri_id, value, idx, object.getType().getLanguageTag().get().getFullString()));
 				break;  
 			case STRING:   // 1
-				stm.setString(2, value);
+				rows.add(new Row(view, uri_id, value, idx));
 				break;
 	        case INT:   // 3
 	            //if (value.charAt(0) == '+') // ROMAN: not needed in Java 7
 	            //    value = value.substring(1, value.length());
-	        	stm.setInt(2, Integer.parseInt(value));
+	        	rows.add(new Row(view, uri_id, Integer.parseInt(value), idx));
 	            break;
 	        case UNSIGNED_INT:  // 4
-	        	stm.setInt(2, Integer.parseInt(value));
+	        	rows.add(new Row(view, uri_id, Integer.parseInt(value), idx));
 	            break;
 	        case INTEGER:  // 2
 	        case NEGATIVE_INTEGER:   // 5
@@ -570,24 +606,24 @@ public class RDBMSSIRepositoryManager {
 	        case LONG: // 10
 	            //if (value.charAt(0) == '+')  // ROMAN: not needed in Java 7
 	            //    value = value.substring(1, value.length());
-	            stm.setLong(2, Long.parseLong(value));
+	            rows.add(new Row(view, uri_id, Long.parseLong(value), idx));
 	            break;
 	        case FLOAT: // 9
-				stm.setDouble(2, Float.parseFloat(value));
+				rows.add(new Row(view, uri_id, (double) Float.parseFloat(value), idx));
 	            break;
 			case DOUBLE: // 12
-				stm.setDouble(2, Double.parseDouble(value));
+				rows.add(new Row(view, uri_id, Double.parseDouble(value), idx));
 				break;
 			case DECIMAL: // 11
-				stm.setBigDecimal(2, new BigDecimal(value));
+				rows.add(new Row(view, uri_id, new BigDecimal(value), idx));
 				break;
 			case DATETIME_STAMP: // 15
 			case DATETIME: // 13
 				Timestamp timestamp = XsdDatatypeConverter.parseXsdDateTime(value);
-				stm.setTimestamp(2, timestamp);
+				rows.add(new Row(view, uri_id, timestamp, idx));
 				break;
 			case BOOLEAN: // 14				
-				stm.setBoolean(2, XsdDatatypeConverter.parseXsdBoolean(value));
+				rows.add(new Row(view, uri_id, XsdDatatypeConverter.parseXsdBoolean(value), idx));
 				break;
 			default:
 				// UNSUPPORTED DATATYPE
@@ -595,15 +631,12 @@ public class RDBMSSIRepositoryManager {
 				return;				
 		}
 		
-		stm.setInt(3, idx);
-		stm.addBatch();
-		
 		// register non-emptiness
 		view.addIndex(idx);
 	}
 	
 		
-	private void process(Connection conn, ClassAssertion ax, PreparedStatement uriidStm, Map<SemanticIndexViewID, PreparedStatement> stmMap) throws SQLException {
+	private void process(ClassAssertion ax, List<Row> rows) {
 		
 		// replace concept by the canonical representative (which must be a concept name)
 		OClass concept0 = ax.getConcept();
@@ -613,19 +646,11 @@ public class RDBMSSIRepositoryManager {
 		ObjectConstant c1 = ax.getIndividual();
 
 		SemanticIndexView view =  views.getView(c1.getType());
-	
-		PreparedStatement stm = stmMap.get(view.getId());
-		if (stm == null) {
-			stm = conn.prepareStatement(view.getINSERT());
-			stmMap.put(view.getId(), stm);
-		}
 
-		int uri_id = getObjectConstantUriId(c1, uriidStm); 
+		int uri_id = getObjectConstantUriId(c1, rows); 
 		
 		// Construct the database INSERT statements
-		stm.setInt(1, uri_id);
-		stm.setInt(2, conceptIndex);
-		stm.addBatch();
+		rows.add(new Row(view, uri_id, conceptIndex));
 	
 		// Register non emptiness
 		view.addIndex(conceptIndex);
@@ -634,9 +659,9 @@ public class RDBMSSIRepositoryManager {
 	// TODO: big issue -- URI map is incomplete -- it is never read back from the DB
 	
 	// TODO: use database to get the maximum URIId
-	private int maxURIId = -1;
+	private int maxURIId;
 	
-	private int getObjectConstantUriId(ObjectConstant c, PreparedStatement uriidStm) throws SQLException {
+	private int getObjectConstantUriId(ObjectConstant c, List<Row> rows) {
 		
 		// TODO (ROMAN): I am not sure this is entirely correct for blank nodes
 		String uri = (c instanceof BNode) ? ((BNode) c).getName() : ((IRIConstant) c).getIRI().getIRIString();
@@ -649,9 +674,7 @@ public class RDBMSSIRepositoryManager {
 			maxURIId++;
 			
 			// Construct the database INSERT statement
-			uriidStm.setInt(1, uri_id);
-			uriidStm.setString(2, uri);
-			uriidStm.addBatch();								
+			rows.add(new Row(uriIdTable.tableName, uriIdTable.getINSERT("?, ?"), uri_id, uri));
 		}
 			
 		return uri_id;
@@ -1109,7 +1132,9 @@ public class RDBMSSIRepositoryManager {
 	
 	
 	
-/* dead code
+	/**
+	 * Used after a bulk load: the indexes are not maintained during the insertion
+	 */
 	public void createIndexes(Connection conn) throws SQLException {
 		log.debug("Creating indexes");
 		try (Statement st = conn.createStatement()) {
@@ -1129,6 +1154,7 @@ public class RDBMSSIRepositoryManager {
 		}
 	}
 
+/* dead code
 	public void dropIndexes(Connection conn) throws SQLException {
 		log.debug("Dropping indexes");
 
@@ -7,6 +7,7 @@ import it.unibz.inf.ontop.injection.OntopMappingConfiguration;
 import it.unibz.inf.ontop.injection.SpecificationFactory;
 import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.si.OntopSemanticIndexLoader;
 import it.unibz.inf.ontop.si.SemanticIndexException;
 import it.unibz.inf.ontop.si.impl.LoadingConfiguration;
 import it.unibz.inf.ontop.spec.mapping.PrefixManager;
@@ -22,6 +23,8 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Iterator;
+import java.util.Optional;
+import java.util.Properties;
 
 /**
  * Wrapper for RDBMSSIRepositoryManager
@@ -32,19 +35,35 @@ public class SIRepository {
     private static final Logger LOG = LoggerFactory.getLogger(SIRepository.class);
     private static final String DEFAULT_USER = "sa";
     private static final String DEFAULT_PASSWORD = "";
+    private static final int BULK_LOAD_ROWS_PER_STATEMENT = 500;
 
     private final RDBMSSIRepositoryManager dataRepository;
     private final TermFactory termFactory;
     private final TypeFactory typeFactory;
     private final LoadingConfiguration loadingConfiguration;
+    private final boolean bulkLoad;
+    private final int bulkLoadConnections;
 
-    public SIRepository(ClassifiedTBox tbox, LoadingConfiguration loadingConfiguration) {
+    private ParallelBulkInserter bulkInserter;
+
+    public SIRepository(ClassifiedTBox tbox, LoadingConfiguration loadingConfiguration, Properties properties) {
 
         this.termFactory = loadingConfiguration.getTermFactory();
         this.typeFactory = loadingConfiguration.getTypeFactory();
         this.loadingConfiguration = loadingConfiguration;
+
+        SemanticIndexIRIDictionary uriMap = Boolean.parseBoolean(
+                properties.getProperty(OntopSemanticIndexLoader.COMPACT_IRI_DICTIONARY, "false"))
+                ? new CompactIRIDictionary()
+                : new SemanticIndexURIMap();
+
         this.dataRepository = new RDBMSSIRepositoryManager(tbox, termFactory, typeFactory,
-            loadingConfiguration.getTargetAtomFactory(), loadingConfiguration.getSourceQueryFactory());
+            loadingConfiguration.getTargetAtomFactory(), loadingConfiguration.getSourceQueryFactory(), uriMap);
+
+        this.bulkLoad = Boolean.parseBoolean(properties.getProperty(OntopSemanticIndexLoader.BULK_LOAD, "false"));
+        this.bulkLoadConnections = Optional.ofNullable(properties.getProperty(OntopSemanticIndexLoader.BULK_LOAD_CONNECTIONS))
+                .map(Integer::parseInt)
+                .orElseGet(() -> Runtime.getRuntime().availableProcessors());
 
         LOG.warn("Semantic index mode initializing: \nString operation over URI are not supported in this mode ");
     }
@@ -59,8 +78,39 @@ public class SIRepository {
         return loadingConfiguration.getJdbcDriver();
     }
 
+    /**
+     * In bulk mode, the insertion may still be in progress when returning: see finishLoading()
+     */
     public int insertData(Connection connection, Iterator<Assertion> iterator) throws SQLException {
-        return dataRepository.insertData(connection, iterator, 5000, 500);
+        if (!bulkLoad)
+            return dataRepository.insertData(connection, iterator, 5000, 500);
+
+        if (bulkInserter == null) {
+            ImmutableList.Builder<Connection> connections = ImmutableList.builder();
+            for (int i = 0; i < bulkLoadConnections; i++)
+                connections.add(DriverManager.getConnection(getJdbcUrl(), getUser(), getPassword()));
+            bulkInserter = new ParallelBulkInserter(connections.build(), BULK_LOAD_ROWS_PER_STATEMENT);
+        }
+        return dataRepository.insertData(iterator, bulkInserter);
+    }
+
+    /**
+     * To be called once all the data is inserted.
+     * In bulk mode, waits for the insertions to complete and creates the indexes.
+     */
+    public void finishLoading(Connection connection) throws SQLException {
+        if (!bulkLoad)
+            return;
+
+        if (bulkInserter != null) {
+            try {
+                bulkInserter.close();
+            }
+            finally {
+                bulkInserter = null;
+            }
+        }
+        dataRepository.createIndexes(connection);
     }
 
     public Connection createConnection() throws SemanticIndexException {
@@ -0,0 +1,16 @@
+package it.unibz.inf.ontop.si.repository.impl;
+
+import it.unibz.inf.ontop.model.term.functionsymbol.IRIDictionary;
+
+/**
+ * IRI dictionary populated by RDBMSSIRepositoryManager while inserting the ABox.
+ */
+public interface SemanticIndexIRIDictionary extends IRIDictionary {
+
+	void set(String uri, int id);
+
+	/**
+	 * Largest id in the dictionary, -1 if it is empty
+	 */
+	int getMaxId();
+}
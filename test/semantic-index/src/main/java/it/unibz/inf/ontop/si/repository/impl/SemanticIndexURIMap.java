@@ -1,23 +1,29 @@
 package it.unibz.inf.ontop.si.repository.impl;
 
-import it.unibz.inf.ontop.model.term.functionsymbol.IRIDictionary;
-
 import java.util.HashMap;
 
-public class SemanticIndexURIMap implements IRIDictionary {
+public class SemanticIndexURIMap implements SemanticIndexIRIDictionary {
 	
 	// Semantic Index URI reference structures
 	private final HashMap<String, Integer> uriIds = new HashMap<> (100000);
 	private final HashMap <Integer, String> uriMap2 = new HashMap<> (100000);
+	private int maxId = -1;
 	
 	
 	/**
 	 * set(uri, id) is used only by RDBMSSIRepository
 	 * 
 	 */
-	void set(String uri, int id) {
+	@Override
+	public void set(String uri, int id) {
 		uriIds.put(uri, id);
 		uriMap2.put(id, uri);
+		maxId = Math.max(maxId, id);
+	}
+
+	@Override
+	public int getMaxId() {
+		return maxId;
 	}
 
 	/***
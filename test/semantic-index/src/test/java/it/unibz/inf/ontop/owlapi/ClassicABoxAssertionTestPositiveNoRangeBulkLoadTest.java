@@ -0,0 +1,23 @@
+package it.unibz.inf.ontop.owlapi;
+
+import it.unibz.inf.ontop.si.OntopSemanticIndexLoader;
+
+import java.util.Properties;
+
+/**
+ * Same assertions, loaded in bulk mode (with the compact IRI dictionary)
+ */
+public class ClassicABoxAssertionTestPositiveNoRangeBulkLoadTest extends ClassicABoxAssertionTestPositiveNoRangeTest {
+
+	public ClassicABoxAssertionTestPositiveNoRangeBulkLoadTest() throws Exception {
+		super(getProperties());
+	}
+
+	private static Properties getProperties() {
+		Properties p = new Properties();
+		p.setProperty(OntopSemanticIndexLoader.BULK_LOAD, "true");
+		p.setProperty(OntopSemanticIndexLoader.BULK_LOAD_CONNECTIONS, "3");
+		p.setProperty(OntopSemanticIndexLoader.COMPACT_IRI_DICTIONARY, "true");
+		return p;
+	}
+}
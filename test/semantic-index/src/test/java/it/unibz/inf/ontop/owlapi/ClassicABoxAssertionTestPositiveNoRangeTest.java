@@ -48,7 +48,10 @@ public class ClassicABoxAssertionTestPositiveNoRangeTest extends TestCase {
 	private OWLStatement st;
 
 	public ClassicABoxAssertionTestPositiveNoRangeTest() throws Exception {
-		Properties p = new Properties();
+		this(new Properties());
+	}
+
+	protected ClassicABoxAssertionTestPositiveNoRangeTest(Properties p) throws Exception {
 		p.setProperty(OntopModelSettings.CARDINALITY_MODE, "STRICT");
 
 		String owlfile = "src/test/resources/test/owl-types-simple-split.owl";
@@ -20,6 +20,7 @@ package it.unibz.inf.ontop.owlapi;
  * #L%
  */
 
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
 import it.unibz.inf.ontop.si.OntopSemanticIndexLoader;
 import org.junit.Before;
 import org.junit.Test;
@@ -28,6 +29,7 @@ import org.semanticweb.owlapi.model.*;
 
 import java.util.Properties;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
@@ -42,6 +44,7 @@ public class InconsistencyCheckingTest {
 	String prefix = "http://www.example.org/";
 	OWLClass c1 = Class(IRI.create(prefix + "Male"));
 	OWLClass c2 = Class(IRI.create(prefix + "Female"));
+	OWLClass c3 = Class(IRI.create(prefix + "Child"));
 	
 	OWLObjectProperty r1 = ObjectProperty(IRI.create(prefix + "hasMother"));
 	OWLObjectProperty r2 = ObjectProperty(IRI.create(prefix + "hasFather"));
@@ -59,6 +62,7 @@ public class InconsistencyCheckingTest {
 		ontology = Ontology(manager, //
 				Declaration(c1),
 				Declaration(c2),
+				Declaration(c3),
 				Declaration(r1), //
 				Declaration(r2), //
 				Declaration(d1), //
@@ -67,8 +71,10 @@ public class InconsistencyCheckingTest {
 	}
 	
 	private void startReasoner() throws Exception {
-		Properties properties = new Properties();
+		startReasoner(new Properties());
+	}
 
+	private void startReasoner(Properties properties) throws Exception {
 		try (OntopSemanticIndexLoader siLoader = OntopSemanticIndexLoader.loadOntologyIndividuals(ontology, properties)) {
 			OntopOWLFactory ontopOWLFactory = OntopOWLFactory.defaultFactory();
 			reasoner = ontopOWLFactory.createReasoner(siLoader.getConfiguration());
@@ -146,4 +152,135 @@ public class InconsistencyCheckingTest {
 		
 		assertFalse(reasoner.isConsistent());
 	} 
+
+	@Test
+	public void testNaryDisjointClassInconsistency() throws Exception {
+
+		//Female(a), Child(a), disjoint(Male, Female, Child)
+		manager.addAxiom(ontology, ClassAssertion(c2, a));
+		manager.addAxiom(ontology, ClassAssertion(c3, a));
+		manager.addAxiom(ontology, DisjointClasses(c1, c2, c3));
+
+		startReasoner();
+
+		assertFalse(reasoner.isConsistent());
+	}
+
+	@Test
+	public void testDisjointExistentialInconsistency() throws Exception {
+
+		//hasMother(a, b), hasAge(a, 21), disjoint(exists hasMother, exists hasAge)
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, b));
+		manager.addAxiom(ontology, DataPropertyAssertion(d2, a, Literal(21)));
+		manager.addAxiom(ontology, DisjointClasses(ObjectSomeValuesFrom(r1, OWLThing()),
+				DataSomeValuesFrom(d2, TopDatatype())));
+
+		startReasoner();
+
+		assertFalse(reasoner.isConsistent());
+	}
+
+	@Test
+	public void testDisjointInverseExistentialInconsistency() throws Exception {
+
+		//hasMother(a, b), Male(b), disjoint(Male, exists hasMother^-)
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, b));
+		manager.addAxiom(ontology, ClassAssertion(c1, b));
+		manager.addAxiom(ontology, DisjointClasses(c1, ObjectSomeValuesFrom(ObjectInverseOf(r1), OWLThing())));
+
+		startReasoner();
+
+		assertFalse(reasoner.isConsistent());
+	}
+
+	@Test
+	public void testDisjointExistentialConsistency() throws Exception {
+
+		//hasMother(a, b), Male(a), disjoint(Male, exists hasMother^-)
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, b));
+		manager.addAxiom(ontology, ClassAssertion(c1, a));
+		manager.addAxiom(ontology, DisjointClasses(c1, ObjectSomeValuesFrom(ObjectInverseOf(r1), OWLThing())));
+
+		startReasoner();
+
+		assertTrue(reasoner.isConsistent());
+	}
+
+	@Test
+	public void testInverseFunctionalObjPropInconsistency() throws Exception {
+
+		//hasMother(a, c), hasMother(b, c), invfunc(hasMother)
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, c));
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, b, c));
+		manager.addAxiom(ontology, InverseFunctionalObjectProperty(r1));
+
+		startReasoner();
+
+		assertFalse(reasoner.isConsistent());
+	}
+
+	@Test
+	public void testInverseFunctionalObjPropConsistency() throws Exception {
+
+		//hasMother(a, b), hasMother(a, c), invfunc(hasMother)
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, b));
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, c));
+		manager.addAxiom(ontology, InverseFunctionalObjectProperty(r1));
+
+		startReasoner();
+
+		assertTrue(reasoner.isConsistent());
+	}
+
+	/**
+	 * With one probe per batch, the violations are found by concurrent queries:
+	 * the reported axiom must nevertheless be the first violated one in the order of the TBox
+	 */
+	@Test
+	public void testFirstViolationIsDeterministic() throws Exception {
+
+		//Male(a), Female(a), hasMother(a,b), hasMother(a,c), disjoint(Male, Female), func(hasMother)
+		manager.addAxiom(ontology, ClassAssertion(c1, a));
+		manager.addAxiom(ontology, ClassAssertion(c2, a));
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, b));
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, c));
+		manager.addAxiom(ontology, DisjointClasses(c1, c2));
+		manager.addAxiom(ontology, FunctionalObjectProperty(r1));
+
+		Properties allViolationsProperties = new Properties();
+		allViolationsProperties.setProperty(OntopSystemSettings.CONSISTENCY_CHECK_STOP_AT_FIRST_VIOLATION, "false");
+		startReasoner(allViolationsProperties);
+		assertFalse(reasoner.isConsistent());
+		Object firstAxiom = reasoner.getInconsistentAxioms().get(0);
+		reasoner.close();
+
+		Properties properties = new Properties();
+		properties.setProperty(OntopSystemSettings.CONSISTENCY_CHECK_BATCH_SIZE, "1");
+		startReasoner(properties);
+		for (int i = 0; i < 10; i++) {
+			assertFalse(reasoner.isConsistent());
+			assertEquals(firstAxiom, reasoner.getInconsistentAxiom());
+			assertEquals(1, reasoner.getInconsistentAxioms().size());
+		}
+	}
+
+	@Test
+	public void testAllViolations() throws Exception {
+
+		//Male(a), Female(a), hasMother(a,b), hasMother(a,c), disjoint(Male, Female), func(hasMother), func(hasFather)
+		manager.addAxiom(ontology, ClassAssertion(c1, a));
+		manager.addAxiom(ontology, ClassAssertion(c2, a));
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, b));
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, c));
+		manager.addAxiom(ontology, DisjointClasses(c1, c2));
+		manager.addAxiom(ontology, FunctionalObjectProperty(r1));
+		manager.addAxiom(ontology, FunctionalObjectProperty(r2));
+
+		Properties properties = new Properties();
+		properties.setProperty(OntopSystemSettings.CONSISTENCY_CHECK_STOP_AT_FIRST_VIOLATION, "false");
+		startReasoner(properties);
+
+		assertFalse(reasoner.isConsistent());
+		assertEquals(2, reasoner.getInconsistentAxioms().size());
+	}
 }
@@ -103,6 +103,18 @@ public class OWLConstructDescribeTest {
 		Assert.assertEquals(2, countResult(query));
 	}
 	
+	@Test
+	public void testDescribeVar3() throws Exception {
+		String query = "DESCRIBE ?x WHERE {?x ?p ?y}";
+		Assert.assertEquals(5, countResult(query));
+	}
+
+	@Test
+	public void testDescribeVarNoResource() throws Exception {
+		String query = "DESCRIBE ?x WHERE {?x <http://www.semanticweb.org/ontologies/test#none> ?y}";
+		Assert.assertEquals(0, countResult(query));
+	}
+
 	@Test
 	public void testConstruct0() throws Exception {
 		String query = "CONSTRUCT {?s ?p <http://www.semanticweb.org/ontologies/test/p1>} WHERE {?s ?p <http://www.semanticweb.org/ontologies/test/p1>}";
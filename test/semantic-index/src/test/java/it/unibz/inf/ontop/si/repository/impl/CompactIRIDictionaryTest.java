@@ -0,0 +1,93 @@
+package it.unibz.inf.ontop.si.repository.impl;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CompactIRIDictionaryTest {
+
+    private static final int COUNT = 20000;
+
+    private static String iri(int i) {
+        return (i % 2 == 0 ? "http://example.org/person/" : "http://example.org/città/") + i;
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        // Small chunks, so that the IRIs are spread over many of them
+        CompactIRIDictionary dictionary = new CompactIRIDictionary(4096);
+        for (int i = 0; i < COUNT; i++)
+            dictionary.set(iri(i), i);
+        check(dictionary, COUNT);
+
+        Path path = Files.createTempFile("ontop-si-dict", ".bin");
+        try {
+            dictionary.save(path);
+            CompactIRIDictionary loaded = CompactIRIDictionary.load(path);
+            check(loaded, COUNT);
+
+            // Insertions after loading
+            for (int i = COUNT; i < 2 * COUNT; i++)
+                loaded.set(iri(i), i);
+            check(loaded, 2 * COUNT);
+        }
+        finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Lookups concurrent with the insertions (which grow the index and allocate new chunks)
+     */
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        CompactIRIDictionary dictionary = new CompactIRIDictionary(4096);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                readers.add(executor.submit(() -> {
+                    Random random = new Random();
+                    while (dictionary.getMaxId() < COUNT - 1) {
+                        int maxId = dictionary.getMaxId();
+                        if (maxId < 0)
+                            continue;
+                        int i = random.nextInt(maxId + 1);
+                        assertEquals(i, dictionary.getId(iri(i)));
+                        assertEquals(iri(i), dictionary.getURI(i));
+                    }
+                }));
+            }
+            for (int i = 0; i < COUNT; i++)
+                dictionary.set(iri(i), i);
+
+            for (Future<?> reader : readers)
+                reader.get();
+        }
+        finally {
+            executor.shutdown();
+        }
+        check(dictionary, COUNT);
+    }
+
+    private static void check(CompactIRIDictionary dictionary, int count) {
+        assertEquals(count, dictionary.size());
+        assertEquals(count - 1, dictionary.getMaxId());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, dictionary.getId(iri(i)));
+            assertEquals(iri(i), dictionary.getURI(i));
+        }
+        assertEquals(-2, dictionary.getId(iri(count)));
+        assertNull(dictionary.getURI(count));
+    }
+}